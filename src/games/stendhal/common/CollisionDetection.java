@@ -28,6 +28,9 @@ public class CollisionDetection {
 
 	private int height;
 
+	/** Incremented whenever the collision data changes. */
+	private int version;
+
 	/**
 	 * Clear the collision map.
 	 */
@@ -52,6 +55,7 @@ public class CollisionDetection {
 
 		this.width = width;
 		this.height = height;
+		version++;
 
 		clear();
 	}
@@ -67,6 +71,7 @@ public class CollisionDetection {
 			return;
 		}
 		map.set(x, y);
+		version++;
 	}
 
 	/**
@@ -90,6 +95,7 @@ public class CollisionDetection {
 				}
 			}
 		}
+		version++;
 	}
 
 	/**
@@ -170,11 +176,62 @@ public class CollisionDetection {
 			return true;
 		}
 
+		final int ix = (int) x;
+		final int iy = (int) y;
+		final int iw = (int) w;
+		final int ih = (int) h;
+		if ((ix == x) && (iy == y) && (iw == w) && (ih == h)) {
+			// Whole tiles. The bounds are already checked
+			return map.collides(ix, iy, iw, ih);
+		}
+
 		int iHeight = (int) Math.ceil(Math.ceil(y + h) - y);
 		int iWidth = (int) Math.ceil(Math.ceil(x + w) - x);
 		return map.collides((int) x, (int) y, iWidth, iHeight);
 	}
 
+	/**
+	 * Check if an area of whole tiles overlaps colliding areas.
+	 *
+	 * @param x x-position
+	 * @param y y-position
+	 * @param w width
+	 * @param h height
+	 * @return <code>true</code> if the area is not completely inside the map,
+	 * 	or overlaps any of the non trespassable areas, <code>false</code>
+	 * 	otherwise
+	 */
+	public boolean collides(final int x, final int y, final int w, final int h) {
+		if ((x < 0) || (x + w > width) || (y < 0) || (y + h > height)) {
+			return true;
+		}
+		return map.collides(x, y, w, h);
+	}
+
+	/**
+	 * Check if an area of whole tiles overlaps colliding areas using a
+	 * precomputed table. The result is the same as that of
+	 * {@link #collides(int, int, int, int)}, but it is answered in constant
+	 * time regardless of the area size. The table is computed on the first
+	 * query after the collision data changes, so this suits searches that
+	 * test many areas of an unchanging map, such as finding a free spot for
+	 * placing an entity.
+	 *
+	 * @param x x-position
+	 * @param y y-position
+	 * @param w width
+	 * @param h height
+	 * @return <code>true</code> if the area is not completely inside the map,
+	 * 	or overlaps any of the non trespassable areas, <code>false</code>
+	 * 	otherwise
+	 */
+	public boolean areaCollides(final int x, final int y, final int w, final int h) {
+		if ((x < 0) || (x + w > width) || (y < 0) || (y + h > height)) {
+			return true;
+		}
+		return map.countCollisions(x, y, w, h) != 0;
+	}
+
 	/**
 	 * Check if a location is marked with collision.
 	 *
@@ -211,4 +268,14 @@ public class CollisionDetection {
 	public int getHeight() {
 		return height;
 	}
+
+	/**
+	 * Get the modification count of the collision data. Data derived from
+	 * the map is valid as long as the version stays the same.
+	 *
+	 * @return version
+	 */
+	public int getVersion() {
+		return version;
+	}
 }
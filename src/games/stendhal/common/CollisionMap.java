@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -15,24 +15,35 @@ package games.stendhal.common;
 
 
 import java.awt.geom.Rectangle2D;
-import java.util.BitSet;
+import java.util.Arrays;
 
 import games.stendhal.common.tiled.LayerDefinition;
 
+/**
+ * Collision bitmap. The tiles are stored row by row, 64 tiles to a
+ * <code>long</code>, so that rectangle tests can check a whole word of a row
+ * at once.
+ */
 public class CollisionMap {
+	private static final int ADDRESS_BITS = 6;
+	private static final int BIT_INDEX_MASK = 63;
 
 	private final int width;
 	private final int height;
-	private final BitSet[] colls;
+	/** Number of words used for each row. */
+	private final int rowWords;
+	private final long[] bits;
+	/**
+	 * Summed area table of the collision tiles, or <code>null</code> if it
+	 * has not been computed after the last change.
+	 */
+	private volatile int[] sums;
 
 	public CollisionMap(final int width, final int height) {
 		this.width = width;
 		this.height = height;
-		colls = new BitSet[width];
-		for (int i = 0; i < width; i++) {
-			colls[i] = new BitSet();
-		}
-
+		rowWords = (width + BIT_INDEX_MASK) >>> ADDRESS_BITS;
+		bits = new long[rowWords * height];
 	}
 
 	public CollisionMap(final LayerDefinition layer) {
@@ -55,12 +66,12 @@ public class CollisionMap {
 	}
 
 	public boolean get(final int i, final int j) {
-		return colls[i].get(j);
+		return (bits[j * rowWords + (i >>> ADDRESS_BITS)] & (1L << i)) != 0;
 	}
 
 	public void set(final int i, final int j) {
-
-		colls[i].set(j);
+		bits[j * rowWords + (i >>> ADDRESS_BITS)] |= 1L << i;
+		sums = null;
 	}
 
 	public boolean collides(final int x, final int y, final int width, final int height) {
@@ -72,19 +83,97 @@ public class CollisionMap {
 			return true;
 		}
 
-		final BitSet result = new BitSet();
-		for (int i = x; i < x + width; i++) {
-			result.or(colls[i]);
+		if ((width <= 0) || (height <= 0)) {
+			return false;
+		}
+
+		final int lastX = x + width - 1;
+		final int firstWord = x >>> ADDRESS_BITS;
+		final int lastWord = lastX >>> ADDRESS_BITS;
+		final long firstMask = -1L << x;
+		final long lastMask = -1L >>> (BIT_INDEX_MASK - (lastX & BIT_INDEX_MASK));
+
+		if (firstWord == lastWord) {
+			// The common case: the area fits in a single word of each row
+			final long mask = firstMask & lastMask;
+			for (int row = y * rowWords + firstWord, end = row + height * rowWords;
+					row < end; row += rowWords) {
+				if ((bits[row] & mask) != 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		for (int j = y; j < y + height; j++) {
+			final int row = j * rowWords;
+			if ((bits[row + firstWord] & firstMask) != 0) {
+				return true;
+			}
+			for (int word = firstWord + 1; word < lastWord; word++) {
+				if (bits[row + word] != 0) {
+					return true;
+				}
+			}
+			if ((bits[row + lastWord] & lastMask) != 0) {
+				return true;
+			}
 		}
 
-		return !result.get(y, y + height).isEmpty();
+		return false;
 	}
 
-	public void clear() {
-		for (int i = 0; i < this.width; i++) {
-			colls[i].clear();
+	/**
+	 * Count the collision tiles within an area. The count is answered in
+	 * constant time from a summed area table, which is computed on the first
+	 * call after the map has been modified. The area must be within the map.
+	 *
+	 * @param x x coordinate of the left side
+	 * @param y y coordinate of the top
+	 * @param width width of the area
+	 * @param height height of the area
+	 * @return number of collision tiles in the area
+	 */
+	public int countCollisions(final int x, final int y, final int width, final int height) {
+		int[] table = sums;
+		if (table == null) {
+			table = computeSums();
+			sums = table;
 		}
+		final int stride = this.width + 1;
+		final int top = y * stride;
+		final int bottom = (y + height) * stride;
+		return table[bottom + x + width] - table[bottom + x] - table[top + x + width] + table[top + x];
+	}
 
+	/**
+	 * Compute the summed area table. The entry at <code>(x, y)</code> of
+	 * the table (with the row length being <code>width + 1</code>) is the
+	 * number of collision tiles above and left of tile <code>(x, y)</code>.
+	 *
+	 * @return summed area table
+	 */
+	private int[] computeSums() {
+		final int stride = width + 1;
+		final int[] table = new int[stride * (height + 1)];
+		for (int y = 0; y < height; y++) {
+			final int row = y * rowWords;
+			final int above = y * stride;
+			final int current = above + stride;
+			int rowSum = 0;
+			for (int x = 0; x < width; x++) {
+				if ((bits[row + (x >>> ADDRESS_BITS)] & (1L << x)) != 0) {
+					rowSum++;
+				}
+				table[current + x + 1] = table[above + x + 1] + rowSum;
+			}
+		}
+		return table;
+	}
+
+	public void clear() {
+		Arrays.fill(bits, 0L);
+		sums = null;
 	}
 	public static CollisionMap create(final LayerDefinition layer) {
 
@@ -101,17 +190,19 @@ public class CollisionMap {
 	}
 
 	public void unset(final int i, final int k) {
-		colls[i].clear(k);
-
+		bits[k * rowWords + (i >>> ADDRESS_BITS)] &= ~(1L << i);
+		sums = null;
 	}
 
 	public void set(final Rectangle2D shape) {
 		int y = (int) shape.getY();
+		final int endY = (int) (y + shape.getHeight());
 		for (int x = (int) shape.getX(); x < shape.getX() + shape.getWidth(); x++) {
-
-			colls[x].set(y, (int) (y + shape.getHeight()));
+			for (int j = y; j < endY; j++) {
+				bits[j * rowWords + (x >>> ADDRESS_BITS)] |= 1L << x;
+			}
 		}
-
+		sums = null;
 	}
 
 }
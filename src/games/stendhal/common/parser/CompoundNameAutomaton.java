@@ -0,0 +1,205 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.common.parser;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over the words of the registered compound names.
+ * <p>
+ * The automaton finds the leftmost and longest compound name in a list of
+ * expressions in a single pass, instead of comparing the candidates for
+ * each word position. Words are compared in lower case, and a compound name
+ * may not extend beyond an expression with the break flag set.
+ * <p>
+ * The automaton is not changed after creation. WordList creates a new one
+ * after changes of the compound names.
+ */
+final class CompoundNameAutomaton {
+	private final Node root = new Node(0);
+
+	/**
+	 * Create an automaton for the given compound names.
+	 *
+	 * @param names compound names
+	 */
+	CompoundNameAutomaton(final Collection<CompoundName> names) {
+		for (final CompoundName name : names) {
+			Node node = root;
+			for (final String word : name) {
+				Node next = node.getNext(word);
+				if (next == null) {
+					next = new Node(node.depth + 1);
+					node.putNext(word, next);
+				}
+				node = next;
+			}
+			node.name = name;
+		}
+
+		// Compute the failure and output links breadth first.
+		final List<Node> queue = new ArrayList<Node>();
+		root.fail = root;
+		if (root.next != null) {
+			for (final Node child : root.next.values()) {
+				child.fail = root;
+				queue.add(child);
+			}
+		}
+		for (int i = 0; i < queue.size(); i++) {
+			final Node node = queue.get(i);
+			if (node.next == null) {
+				continue;
+			}
+			for (final Map.Entry<String, Node> entry : node.next.entrySet()) {
+				final Node child = entry.getValue();
+				Node fail = node.fail;
+				while ((fail != root) && (fail.getNext(entry.getKey()) == null)) {
+					fail = fail.fail;
+				}
+				final Node target = fail.getNext(entry.getKey());
+				child.fail = (target != null) ? target : root;
+				child.output = (child.fail.name != null) ? child.fail : child.fail.output;
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Find the compound name starting first in the expression list. Of the
+	 * compound names starting there, the longest one is returned.
+	 *
+	 * @param expressions list of expressions
+	 * @return match, or <code>null</code> if there is no compound name
+	 */
+	Match findFirst(final AbstractList<Expression> expressions) {
+		Node state = root;
+		CompoundName bestName = null;
+		int bestIndex = Integer.MAX_VALUE;
+
+		for (int idx = 0; idx < expressions.size(); ++idx) {
+			final Expression expr = expressions.get(idx);
+			final String word = expr.getOriginal().toLowerCase();
+
+			while ((state != root) && (state.getNext(word) == null)) {
+				state = state.fail;
+			}
+			final Node next = state.getNext(word);
+			state = (next != null) ? next : root;
+
+			// look at all compound names ending at this word
+			Node out = (state.name != null) ? state : state.output;
+			while (out != null) {
+				final int start = idx - out.depth + 1;
+				if ((start < bestIndex) || ((start == bestIndex) && (out.name.size() > bestName.size()))) {
+					bestIndex = start;
+					bestName = out.name;
+				}
+				out = out.output;
+			}
+
+			// compound names don't extend beyond a break
+			if (expr.getBreakFlag()) {
+				state = root;
+			}
+
+			// Names found later would have to start after the one already found.
+			if ((bestName != null) && (idx - state.depth + 1 > bestIndex)) {
+				break;
+			}
+		}
+
+		if (bestName == null) {
+			return null;
+		}
+		return new Match(bestIndex, bestName);
+	}
+
+	/**
+	 * Find the longest compound name starting at the given index.
+	 *
+	 * @param expressions list of expressions
+	 * @param idx start index
+	 * @return compound name, or <code>null</code> if there is none
+	 */
+	CompoundName findAt(final AbstractList<Expression> expressions, final int idx) {
+		Node node = root;
+		CompoundName res = null;
+
+		for (int i = idx; i < expressions.size(); ++i) {
+			final Expression expr = expressions.get(i);
+			node = node.getNext(expr.getOriginal().toLowerCase());
+			if (node == null) {
+				break;
+			}
+			if (node.name != null) {
+				res = node.name;
+			}
+			if (expr.getBreakFlag()) {
+				break;
+			}
+		}
+
+		return res;
+	}
+
+	/**
+	 * A compound name found in a list of expressions.
+	 */
+	static final class Match {
+		/** Index of the first expression. */
+		final int index;
+		final CompoundName name;
+
+		Match(final int index, final CompoundName name) {
+			this.index = index;
+			this.name = name;
+		}
+	}
+
+	/**
+	 * State of the automaton.
+	 */
+	private static final class Node {
+		/** Number of words from the root. */
+		private final int depth;
+		private Map<String, Node> next;
+		/** Longest proper suffix, which is a prefix of a compound name. */
+		private Node fail;
+		/** Next node along the failure links, which ends a compound name. */
+		private Node output;
+		/** The compound name ending here, if any. */
+		private CompoundName name;
+
+		Node(final int depth) {
+			this.depth = depth;
+		}
+
+		Node getNext(final String word) {
+			if (next == null) {
+				return null;
+			}
+			return next.get(word);
+		}
+
+		void putNext(final String word, final Node node) {
+			if (next == null) {
+				next = new HashMap<String, Node>();
+			}
+			next.put(word, node);
+		}
+	}
+}
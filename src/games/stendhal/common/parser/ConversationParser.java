@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -13,8 +13,10 @@
 package games.stendhal.common.parser;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 
@@ -36,6 +38,26 @@ public final class ConversationParser extends ErrorBuffer {
 	/** A cache to hold pre-parsed matching Sentences. */
 	private static Map<String, Sentence> matchingSentenceCache = new HashMap<String, Sentence>();
 
+	/** Maximum number of parsed user input Sentences in the cache. */
+	static final int SENTENCE_CACHE_SIZE = 2000;
+
+	/**
+	 * A cache to hold parsed Sentences of user input, with the least recently
+	 * used ones removed first. It is cleared whenever the WordList changes.
+	 * The cached Sentences are never handed out, callers get copies of them.
+	 */
+	private static final Map<SentenceKey, Sentence> sentenceCache = new LinkedHashMap<SentenceKey, Sentence>(256, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<SentenceKey, Sentence> eldest) {
+			return size() > SENTENCE_CACHE_SIZE;
+		}
+	};
+
+	private static final AtomicLong cacheHits = new AtomicLong();
+	private static final AtomicLong cacheMisses = new AtomicLong();
+
 	/** Tokenizer to split a sentence into words */
 	private final transient StringTokenizer tokenizer;
 
@@ -207,12 +229,92 @@ public final class ConversationParser extends ErrorBuffer {
 
 	/**
 	 * Parse the given text sentence.
+	 * <p>
+	 * Sentences of user input, which are parsed with a plain
+	 * ConversationContext, are cached. Each caller gets its own copy of the
+	 * cached Sentence, so that it can be changed freely.
 	 *
 	 * @param text
 	 * @param ctx
 	 * @return the parsed text
 	 */
 	public static Sentence parse(final String text, final ConversationContext ctx) {
+		// Subclasses of ConversationContext may change the parsing in ways
+		// not covered by the cache key.
+		if ((text == null) || (ctx == null) || (ctx.getClass() != ConversationContext.class)
+				|| ctx.isForMatching() || !ctx.getMergeExpressions()) {
+			return parseText(text, ctx);
+		}
+
+		final SentenceKey key = new SentenceKey(text.trim(), ctx);
+		Sentence sentence;
+		synchronized (sentenceCache) {
+			sentence = sentenceCache.get(key);
+		}
+
+		if (sentence != null) {
+			cacheHits.incrementAndGet();
+		} else {
+			cacheMisses.incrementAndGet();
+
+			// parse with an own copy of the context, which the caller can't change
+			sentence = parseText(text, key.createContext());
+
+			synchronized (sentenceCache) {
+				sentenceCache.put(key, sentence);
+			}
+		}
+
+		return SentenceImplementation.copyOf(key.createContext(), sentence);
+	}
+
+	/**
+	 * Remove all cached Sentences of user input. This is called whenever the
+	 * WordList changes.
+	 */
+	public static void clearSentenceCache() {
+		synchronized (sentenceCache) {
+			sentenceCache.clear();
+		}
+	}
+
+	/**
+	 * Get the number of parsed Sentences, which were taken from the cache.
+	 *
+	 * @return number of cache hits
+	 */
+	public static long getCacheHits() {
+		return cacheHits.get();
+	}
+
+	/**
+	 * Get the number of parsed Sentences, which were not found in the cache.
+	 *
+	 * @return number of cache misses
+	 */
+	public static long getCacheMisses() {
+		return cacheMisses.get();
+	}
+
+	/**
+	 * Get the number of Sentences in the cache.
+	 *
+	 * @return cache size
+	 */
+	public static int getCacheSize() {
+		synchronized (sentenceCache) {
+			return sentenceCache.size();
+		}
+	}
+
+	/**
+	 * Parse the given text sentence without using the cache.
+	 *
+	 * @param text
+	 * @param ctx
+	 * @return the parsed text
+	 */
+	private static Sentence parseText(final String text, final ConversationContext ctx) {
 		String txt;
 
 		if (text == null) {
@@ -318,4 +420,62 @@ public final class ConversationParser extends ErrorBuffer {
 		return newText;
 	}
 
+	/**
+	 * Key of the sentence cache: the text and a snapshot of all settings of
+	 * the conversation context.
+	 */
+	private static final class SentenceKey {
+		private final String text;
+		private final boolean forMatching;
+		private final boolean mergeExpressions;
+		private final boolean ignoreIgnorable;
+		private final int state;
+
+		SentenceKey(final String text, final ConversationContext ctx) {
+			this.text = text;
+			this.forMatching = ctx.isForMatching();
+			this.mergeExpressions = ctx.getMergeExpressions();
+			this.ignoreIgnorable = ctx.getIgnoreIgnorable();
+			this.state = ctx.getState();
+		}
+
+		/**
+		 * Create a conversation context with the settings of the key.
+		 *
+		 * @return conversation context
+		 */
+		ConversationContext createContext() {
+			final ConversationContext ctx = new ConversationContext();
+			ctx.setForMatching(forMatching);
+			ctx.setMergeExpressions(mergeExpressions);
+			ctx.setIgnoreIgnorable(ignoreIgnorable);
+			ctx.setState(state);
+			return ctx;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = text.hashCode();
+			result = prime * result + (forMatching ? 1231 : 1237);
+			result = prime * result + (mergeExpressions ? 1231 : 1237);
+			result = prime * result + (ignoreIgnorable ? 1231 : 1237);
+			result = prime * result + state;
+			return result;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SentenceKey)) {
+				return false;
+			}
+			final SentenceKey other = (SentenceKey) obj;
+			return (forMatching == other.forMatching) && (mergeExpressions == other.mergeExpressions)
+					&& (ignoreIgnorable == other.ignoreIgnorable) && (state == other.state)
+					&& text.equals(other.text);
+		}
+	}
 }
@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2024 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -51,6 +51,23 @@ public class Sentence extends ErrorBuffer implements Iterable<Expression> {
 		context = ctx;
 	}
 
+	/**
+	 * Create a copy of the given Sentence and its Expressions.
+	 *
+	 * @param ctx
+	 * @param other
+	 */
+	protected Sentence(final ConversationContext ctx, final Sentence other) {
+		context = ctx;
+		originalText = other.originalText;
+		sentenceType = other.sentenceType;
+		errorBuffer = other.errorBuffer;
+
+		for (final Expression expr : other.expressions) {
+			expressions.add(new Expression(expr));
+		}
+	}
+
 	/**
 	 * Set sentence type as STATEMENT, IMPERATIVE or QUESTION.
 	 *
@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2024 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -36,6 +36,28 @@ public final class SentenceImplementation extends Sentence {
 		originalText = text;
 	}
 
+	/**
+	 * Create a copy of the given Sentence.
+	 *
+	 * @param ctx
+	 * @param other
+	 */
+	private SentenceImplementation(final ConversationContext ctx, final Sentence other) {
+		super(ctx, other);
+	}
+
+	/**
+	 * Create a copy of the given Sentence, which can be changed independently
+	 * of the original one.
+	 *
+	 * @param ctx conversation context of the copy
+	 * @param other Sentence to copy
+	 * @return copied Sentence
+	 */
+	static SentenceImplementation copyOf(final ConversationContext ctx, final Sentence other) {
+		return new SentenceImplementation(ctx, other);
+	}
+
 	/**
 	 * Create a SentenceImplementation object for testing purposes.
 	 * note: This constructor does not set originalText.
@@ -456,30 +478,24 @@ public final class SentenceImplementation extends Sentence {
 		do {
 			changed = false;
 
-			// loop over all words of the sentence starting from left
-			for(int idx=0; idx<expressions.size()-1; ++idx) {
-				// search for matching compound names
-				CompoundName compName = wl.searchCompoundName(expressions, idx);
+			// search for the first compound name in the sentence
+			final CompoundNameAutomaton.Match match = wl.findCompoundName(expressions);
 
-				if (compName != null) {
-					Expression first = expressions.get(idx);
+			if (match != null) {
+				final int idx = match.index;
+				final CompoundName compName = match.name;
+				Expression first = expressions.get(idx);
 
-					int wordsMatched = compName.size();
-					for(int i=1; i<wordsMatched; ++i) {
-						Expression next = expressions.get(idx+1);
-
-						first.mergeName(next, compName.getType());
-						expressions.remove(next);
-					}
+				int wordsMatched = compName.size();
+				for(int i=1; i<wordsMatched; ++i) {
+					Expression next = expressions.get(idx+1);
 
-					changed = true;
-					break;
+					first.mergeName(next, compName.getType());
+					expressions.remove(next);
 				}
 
-				if (changed) {
-					++changes;
-					break;
-				}
+				++changes;
+				changed = true;
 			}
 		} while(changed);
 
@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2024 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -23,6 +23,17 @@ public class SimilarExprMatcher extends ExpressionMatcher {
 		similarMatching = true;
 	}
 
+	/**
+	 * Reusable rows of the distance calculation, so that comparing words does
+	 * not allocate memory.
+	 */
+	private static final ThreadLocal<int[]> rows = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[64];
+		}
+	};
+
 	/**
 	 * Check for string similarity giving a limit quotient. Comparison is case insensitive.
 	 *
@@ -45,102 +56,136 @@ public class SimilarExprMatcher extends ExpressionMatcher {
 			return len1 == len2;
 		}
 
-		final int shorterLength = Math.min(len1, len2);
-		final int limit = (int) ((shorterLength * delta * shorterLength + (shorterLength - 1)) / shorterLength);
+		final int limit = getLimit(Math.min(len1, len2), delta);
 
-		return compareLevenshtein(str1, str2, limit);
+		return limitedDistance(str1, str2, limit) <= limit;
 	}
 
 	/**
-	 * Calculate the number of differing characters between to non-null strings. Comparison is case insensitive.
+	 * Calculate the maximum number of differing characters for similar strings.
 	 *
-	 * @param str1
-	 * @param str2
-	 * @param limit
-	 *            maximum allowed distance
-	 * @return similarity flag
+	 * @param shorterLength length of the shorter string
+	 * @param delta limit quotient
+	 * @return maximum distance
 	 */
-	private static boolean compareLevenshtein(final String str1, final String str2, final int limit) {
-		// shortcut for equal Strings
-		if (str1.equalsIgnoreCase(str2)) {
-			return true;
-		} else if (limit < 1) {
-			return false;
-		} else {
-			final int dist = limitedLevenshtein(str1.toLowerCase(), str2.toLowerCase(), 0, 0, limit);
-
-			return dist <= limit;
+	static int getLimit(final int shorterLength, final double delta) {
+		if (shorterLength <= 0) {
+			return 0;
 		}
+
+		return (int) ((shorterLength * delta * shorterLength + (shorterLength - 1)) / shorterLength);
 	}
 
 	/**
-	 * Calculate the Levenshtein distance of two strings using index arithmetic given a maximum distance value to
-	 * terminate calculation. This is not exactly the Levenshtein algorithm, but fits our need to quickly look for
-	 * similar strings.
+	 * Calculate the Levenshtein distance of two non-null strings given a
+	 * maximum distance value to terminate calculation. Comparison is case
+	 * insensitive.
+	 * <p>
+	 * Equal characters at the start and the end are skipped, and only the band
+	 * of the distance matrix within the limit around its diagonal is
+	 * calculated, row by row.
 	 *
 	 * @param str1
 	 * @param str2
-	 * @param idx1
-	 *            current index
-	 * @param idx2
-	 *            current index
 	 * @param limit
-	 *            maximum allowed distance
-	 * @return number of differing chars
+	 *            maximum distance of interest
+	 * @return distance, or <code>limit + 1</code> if the distance exceeds the limit
 	 */
-	private static int limitedLevenshtein(final String str1, final String str2, int idx1, int idx2, final int limit) {
-		// As long as the current characters match, we can go straight forward.
-		// Stop if we reach the end of one of the strings or find a difference.
-		while (true) {
-			if (idx1 == str1.length()) {
-				return str2.length() - idx2;
-			} else if (idx2 == str2.length()) {
-				return str1.length() - idx1;
-			} else if (str1.charAt(idx1) != str2.charAt(idx2)) {
-				// If we reach here, the distance is at least 1, so break if limit is less.
-				if (limit < 1) {
-					return 1;
-				} else {
-					return 1 + bestLimLev(str1, str2, idx1, idx2, limit - 1);
+	static int limitedDistance(final String str1, final String str2, final int limit) {
+		final int exceeded = limit + 1;
+
+		// skip the common start and end
+		int start = 0;
+		int end1 = str1.length();
+		int end2 = str2.length();
+		while ((start < end1) && (start < end2) && equalChars(str1.charAt(start), str2.charAt(start))) {
+			++start;
+		}
+		while ((end1 > start) && (end2 > start) && equalChars(str1.charAt(end1 - 1), str2.charAt(end2 - 1))) {
+			--end1;
+			--end2;
+		}
+
+		final int len1 = end1 - start;
+		final int len2 = end2 - start;
+		if (Math.abs(len1 - len2) > limit) {
+			return exceeded;
+		} else if ((len1 == 0) || (len2 == 0)) {
+			return Math.max(len1, len2);
+		}
+
+		int[] buffer = rows.get();
+		if (buffer.length < 2 * (len2 + 1)) {
+			buffer = new int[2 * (len2 + 1)];
+			rows.set(buffer);
+		}
+
+		// The previous and the current row are stored alternately in the buffer.
+		int prev = 0;
+		int curr = len2 + 1;
+		for (int j = 0; j <= len2; ++j) {
+			buffer[prev + j] = Math.min(j, exceeded);
+		}
+
+		for (int i = 1; i <= len1; ++i) {
+			final int from = Math.max(1, i - limit);
+			final int to = Math.min(len2, i + limit);
+			final char c1 = str1.charAt(start + i - 1);
+
+			// the cell left of the band
+			int rowMin = (from == 1) ? Math.min(i, exceeded) : exceeded;
+			buffer[curr + from - 1] = rowMin;
+
+			for (int j = from; j <= to; ++j) {
+				int d = buffer[prev + j - 1];
+				if (!equalChars(c1, str2.charAt(start + j - 1))) {
+					// replaced, inserted or removed character
+					d = 1 + min(d, buffer[prev + j], buffer[curr + j - 1]);
+				}
+				if (d > exceeded) {
+					d = exceeded;
+				}
+
+				buffer[curr + j] = d;
+				if (d < rowMin) {
+					rowMin = d;
 				}
 			}
 
-			++idx1;
-			++idx2;
-		}
-	}
+			// the cell right of the band, which is read in the next row
+			if (to < len2) {
+				buffer[curr + to + 1] = exceeded;
+			}
 
-	/**
-	 * Called the limited Levenstein distance for two differing strings.
-	 * @param str1
-	 * @param str2
-	 * @param idx1
-	 * @param idx2
-	 * @param limit
-	 * @return the distance
-	 */
-	private static int bestLimLev(final String str1, final String str2, final int idx1, final int idx2, final int limit) {
-		// check for a replaced character
-		final int d1 = limitedLevenshtein(str1, str2, idx1 + 1, idx2 + 1, limit);
+			// No cell in the band is within the limit, so the result can't be either.
+			if (rowMin > limit) {
+				return exceeded;
+			}
 
-		// Shortcut, no other result can be better than 0.
-		if (d1 == 0) {
-			return 0;
+			final int tmp = prev;
+			prev = curr;
+			curr = tmp;
 		}
 
-		// check for an inserted character
-		final int d2 = limitedLevenshtein(str1, str2, idx1 + 1, idx2, limit);
+		return buffer[prev + len2];
+	}
 
-		// Shortcut, no result can be better than 0.
-		if (d2 == 0) {
-			return 0;
+	/**
+	 * Compare two characters case insensitive, like String.equalsIgnoreCase().
+	 *
+	 * @param c1
+	 * @param c2
+	 * @return true if equal
+	 */
+	private static boolean equalChars(final char c1, final char c2) {
+		if (c1 == c2) {
+			return true;
 		}
 
-		// check for a removed character
-		final int d3 = limitedLevenshtein(str1, str2, idx1, idx2 + 1, limit);
+		final char u1 = Character.toUpperCase(c1);
+		final char u2 = Character.toUpperCase(c2);
 
-		// Return the best of the three results.
-		return min(d1, d2, d3);
+		return (u1 == u2) || (Character.toLowerCase(u1) == Character.toLowerCase(u2));
 	}
 
 	private static int min(final int d1, final int d2, final int d3) {
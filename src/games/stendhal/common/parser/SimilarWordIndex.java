@@ -0,0 +1,221 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.common.parser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index to look up words similar to a given one, in the sense of
+ * {@link SimilarExprMatcher#isSimilar(String, String, double)}.
+ * <p>
+ * The words are kept in a BK-tree by their case insensitive Levenshtein
+ * distance, so that only a small part of them has to be compared for each
+ * lookup. The index is not synchronized.
+ */
+public final class SimilarWordIndex {
+	private Node root;
+	private int size;
+
+	/**
+	 * Create an empty SimilarWordIndex.
+	 */
+	public SimilarWordIndex() {
+		// nothing to do
+	}
+
+	/**
+	 * Create a SimilarWordIndex containing the given words.
+	 *
+	 * @param words words to add
+	 */
+	public SimilarWordIndex(final Collection<String> words) {
+		for (final String word : words) {
+			add(word);
+		}
+	}
+
+	/**
+	 * Add a word to the index.
+	 *
+	 * @param word word, <code>null</code> is ignored
+	 */
+	public void add(final String word) {
+		if (word == null) {
+			return;
+		}
+
+		if (root == null) {
+			root = new Node(word);
+			size++;
+			return;
+		}
+
+		Node node = root;
+		while (true) {
+			final int distance = distance(word, node.words.get(0));
+			if (distance == 0) {
+				// equal words, or differing only in case
+				if (!node.words.contains(word)) {
+					node.words.add(word);
+					size++;
+				}
+				return;
+			}
+
+			final Node child = node.getChild(distance);
+			if (child == null) {
+				node.addChild(distance, new Node(word));
+				size++;
+				return;
+			}
+			node = child;
+		}
+	}
+
+	/**
+	 * Get the number of words in the index.
+	 *
+	 * @return number of words
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Find all words similar to the given one.
+	 *
+	 * @param word word to look up
+	 * @param delta limit quotient, see SimilarExprMatcher.isSimilar()
+	 * @return similar words, the closest ones first
+	 */
+	public List<String> findSimilar(final String word, final double delta) {
+		if ((word == null) || (root == null)) {
+			return Collections.emptyList();
+		}
+
+		// The limit of isSimilar() depends on the shorter word, so the limit
+		// of the given word is the largest one possible.
+		final int radius = SimilarExprMatcher.getLimit(word.length(), delta);
+		final List<Match> matches = new ArrayList<Match>();
+		final List<Node> pending = new ArrayList<Node>();
+		pending.add(root);
+
+		while (!pending.isEmpty()) {
+			final Node node = pending.remove(pending.size() - 1);
+			final int distance = SimilarExprMatcher.limitedDistance(word, node.words.get(0),
+					radius + node.maxChildDistance);
+
+			if (distance <= radius) {
+				for (final String candidate : node.words) {
+					if (SimilarExprMatcher.isSimilar(word, candidate, delta)) {
+						matches.add(new Match(candidate, distance));
+					}
+				}
+			}
+
+			// By the triangle inequality, similar words can only be found in
+			// the children within the radius around the distance.
+			if (node.children != null) {
+				for (final Map.Entry<Integer, Node> entry : node.children.entrySet()) {
+					final int childDistance = entry.getKey().intValue();
+					if ((childDistance >= distance - radius) && (childDistance <= distance + radius)) {
+						pending.add(entry.getValue());
+					}
+				}
+			}
+		}
+
+		Collections.sort(matches, MATCH_ORDER);
+		final List<String> res = new ArrayList<String>(matches.size());
+		for (final Match match : matches) {
+			res.add(match.word);
+		}
+		return res;
+	}
+
+	/**
+	 * Find the word most similar to the given one.
+	 *
+	 * @param word word to look up
+	 * @param delta limit quotient, see SimilarExprMatcher.isSimilar()
+	 * @return closest similar word, or <code>null</code> if there is none
+	 */
+	public String findMostSimilar(final String word, final double delta) {
+		final List<String> similar = findSimilar(word, delta);
+		if (similar.isEmpty()) {
+			return null;
+		}
+		return similar.get(0);
+	}
+
+	private static int distance(final String str1, final String str2) {
+		return SimilarExprMatcher.limitedDistance(str1, str2, Math.max(str1.length(), str2.length()));
+	}
+
+	private static final Comparator<Match> MATCH_ORDER = new Comparator<Match>() {
+		@Override
+		public int compare(final Match m1, final Match m2) {
+			if (m1.distance != m2.distance) {
+				return (m1.distance < m2.distance) ? -1 : 1;
+			}
+			return m1.word.compareTo(m2.word);
+		}
+	};
+
+	/**
+	 * Node of the BK-tree.
+	 */
+	private static final class Node {
+		/** Words with the distance 0 to each other. */
+		private final List<String> words = new ArrayList<String>(1);
+		/** Child nodes by their distance to this node. */
+		private Map<Integer, Node> children;
+		private int maxChildDistance;
+
+		Node(final String word) {
+			words.add(word);
+		}
+
+		Node getChild(final int distance) {
+			if (children == null) {
+				return null;
+			}
+			return children.get(Integer.valueOf(distance));
+		}
+
+		void addChild(final int distance, final Node child) {
+			if (children == null) {
+				children = new HashMap<Integer, Node>();
+			}
+			children.put(Integer.valueOf(distance), child);
+			maxChildDistance = Math.max(maxChildDistance, distance);
+		}
+	}
+
+	/**
+	 * A similar word found.
+	 */
+	private static final class Match {
+		private final String word;
+		private final int distance;
+
+		Match(final String word, final int distance) {
+			this.word = word;
+			this.distance = distance;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -23,7 +24,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 
@@ -52,13 +53,26 @@ final public class WordList {
 
 	public static final String WORDS_FILENAME = "words.txt";
 
-	private Map<String, WordEntry> words = new TreeMap<String, WordEntry>();
+	/** Maximum number of remembered plural and singular forms. */
+	private static final int MAX_REMEMBERED_FORMS = 10000;
+
+	private Map<String, WordEntry> words = new HashMap<String, WordEntry>(16384);
 
 	private Map<String, Set<CompoundName>> compoundNames = new HashMap<String, Set<CompoundName>>();
 
 	// We keep house holding the usage of registered subject names (see registerSubjectName).
 	private Map<String, Integer> subjectRefCount = new HashMap<String, Integer>();
 
+	/**
+	 * Automaton to find compound names, created on first use. Volatile, so
+	 * that other threads never see a partially built automaton.
+	 */
+	private volatile CompoundNameAutomaton compoundNameAutomaton;
+
+	/** Remembered results of plural() and singular(). */
+	private final Map<String, String> plurals = new ConcurrentHashMap<String, String>();
+	private final Map<String, String> singulars = new ConcurrentHashMap<String, String>();
+
 	/** instance variable with package protection because of FindBugs hint */
 	static private WordList instance;
 
@@ -161,6 +175,8 @@ final public class WordList {
 
 		// calculate the hash value from all word entries
 		//calculateHash();
+
+		wordsChanged();
 	}
 
 	/**
@@ -282,7 +298,8 @@ final public class WordList {
 	 * @param type
 	 */
 	public void printWordType(final PrintWriter writer, final String type) {
-		for (Map.Entry<String, WordEntry> it : words.entrySet()) {
+		// print the words in alphabetical order
+		for (Map.Entry<String, WordEntry> it : new TreeMap<String, WordEntry>(words).entrySet()) {
 			final WordEntry entry = it.getValue();
 			boolean matches;
 
@@ -349,6 +366,23 @@ final public class WordList {
 		return entry;
 	}
 
+	/**
+	 * Forget everything derived from the word list after changes.
+	 */
+	private void wordsChanged() {
+		compoundNameAutomaton = null;
+		forgetForms();
+		ConversationParser.clearSentenceCache();
+	}
+
+	/**
+	 * Forget the remembered plural and singular forms.
+	 */
+	private void forgetForms() {
+		plurals.clear();
+		singulars.clear();
+	}
+
 	/**
 	 * Lookup the plural form of the given word from the word list.
 	 *
@@ -356,6 +390,15 @@ final public class WordList {
 	 * @return plural string
 	 */
 	public String plural(final String word) {
+		String res = plurals.get(word);
+		if (res == null) {
+			res = lookupPlural(word);
+			remember(plurals, word, res);
+		}
+		return res;
+	}
+
+	private String lookupPlural(final String word) {
 		final WordEntry entry = words.get(trimWord(word));
 
 		if (entry != null) {
@@ -379,6 +422,15 @@ final public class WordList {
 	 * @return singular string
 	 */
 	public String singular(final String word) {
+		String res = singulars.get(word);
+		if (res == null) {
+			res = lookupSingular(word);
+			remember(singulars, word, res);
+		}
+		return res;
+	}
+
+	private String lookupSingular(final String word) {
 		final WordEntry entry = words.get(trimWord(word));
 
 		if (entry != null) {
@@ -395,6 +447,16 @@ final public class WordList {
 		}
 	}
 
+	private static void remember(final Map<String, String> forms, final String word, final String form) {
+		if ((word == null) || (form == null)) {
+			return;
+		}
+		if (forms.size() >= MAX_REMEMBERED_FORMS) {
+			forms.clear();
+		}
+		forms.put(word, form);
+	}
+
 	/**
 	 * Return type for normalizeVerb().
 	 */
@@ -582,6 +644,9 @@ final public class WordList {
 
 			nameSet.add(new CompoundName(parsed, typeString));
 		}
+
+		// sentences parsed before may contain the name as unknown words
+		wordsChanged();
 	}
 
 	/**
@@ -591,21 +656,31 @@ final public class WordList {
 	 * @return compound name or null
 	 */
 	public CompoundName searchCompoundName(AbstractList<Expression> expressions, int idx) {
-		Expression first = expressions.get(idx);
+		return getCompoundNameAutomaton().findAt(expressions, idx);
+	}
 
-		Set<CompoundName> candidates = compoundNames.get(first.getOriginal().toLowerCase());
+	/**
+	 * Search for the first compound name in a list of expressions.
+	 * @param expressions list of expressions
+	 * @return index and compound name, or null
+	 */
+	CompoundNameAutomaton.Match findCompoundName(AbstractList<Expression> expressions) {
+		return getCompoundNameAutomaton().findFirst(expressions);
+	}
 
-		if (candidates != null) {
-			TreeSet<CompoundName> candidatesSortedFromLongestToShortest = new TreeSet<CompoundName>(new ArrayLengthDescSorter<CompoundName>());
-			candidatesSortedFromLongestToShortest.addAll(candidates);
-			for (CompoundName compName : candidatesSortedFromLongestToShortest) {
-				if (compName.matches(expressions, idx)) {
-					return compName;
-				}
+	private CompoundNameAutomaton getCompoundNameAutomaton() {
+		CompoundNameAutomaton automaton = compoundNameAutomaton;
+		if (automaton == null) {
+			final List<CompoundName> names = new ArrayList<CompoundName>();
+			for (final Set<CompoundName> nameSet : compoundNames.values()) {
+				names.addAll(nameSet);
 			}
+			// threads racing here build equal automatons, any of them may be kept
+			automaton = new CompoundNameAutomaton(names);
+			compoundNameAutomaton = automaton;
 		}
 
-		return null;
+		return automaton;
 	}
 
 	/**
@@ -645,6 +720,8 @@ final public class WordList {
 				words.remove(expr.getNormalized());
 			}
 		}
+
+		wordsChanged();
 	}
 
 	/**
@@ -714,6 +791,8 @@ final public class WordList {
 			newEntry.setType(new ExpressionType(VERB_DYNAMIC));
 
 			words.put(key, newEntry);
+
+			wordsChanged();
 		/*
 		} else if (!checkNameCompatibleLastType(entry, ExpressionType.VERB)) {
 			logger.warn("verb name already registered with incompatible expression type: " +
@@ -739,6 +818,9 @@ final public class WordList {
 			// add the new entry
 			entry.setNormalized(key);
 			words.put(key, entry);
+
+			// plural() and singular() don't fall back to Grammar any more for this word
+			forgetForms();
 		} else {
 			logger.warn("word already known: " + str + " -> "
 					+ entry.getNormalized());
@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -12,14 +12,13 @@
  ***************************************************************************/
 package games.stendhal.server.actions;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 
 import games.stendhal.common.constants.Actions;
-import games.stendhal.common.parser.SimilarExprMatcher;
+import games.stendhal.common.parser.SimilarWordIndex;
 import games.stendhal.server.actions.admin.AdministrationAction;
 import games.stendhal.server.actions.admin.BanAction;
 import games.stendhal.server.actions.attack.AttackAction;
@@ -63,6 +62,8 @@ import marauroa.common.game.RPObject;
 public class CommandCenter {
 	private static final UnknownAction UNKNOWN_ACTION = new UnknownAction();
 	private static ConcurrentHashMap<String, ActionListener> actionsMap;
+	/** Action names to suggest for unknown actions, created on first use. */
+	private static SimilarWordIndex actionNames;
 	private static Logger logger = Logger.getLogger(CommandCenter.class);
 
 	private static ConcurrentHashMap<String, ActionListener> getActionsMap() {
@@ -75,6 +76,9 @@ public class CommandCenter {
 
 	public static void register(final String action, final ActionListener actionClass) {
 		final ActionListener command = getActionsMap().put(action, actionClass);
+		synchronized (CommandCenter.class) {
+			actionNames = null;
+		}
 
 		//TODO mf - register slash commands as verbs in WordList
 		//		WordList.getInstance().registerVerb(action);
@@ -187,12 +191,7 @@ public class CommandCenter {
 		ActionListener action = getActionsMap().get(type);
 		if (action == null) {
 			// Look up for close matches that can be suggested to the user.
-			List<String> suggestions = new ArrayList<String>();
-			for (String s : getActionsMap().keySet()) {
-				if (SimilarExprMatcher.isSimilar(type, s, 0.1)) {
-					suggestions.add(s);
-				}
-			}
+			final List<String> suggestions = getSuggestions(type);
 			if (suggestions.size() != 0) {
 				return new UnknownAction(suggestions);
 			}
@@ -202,4 +201,17 @@ public class CommandCenter {
 			return action;
 		}
 	}
+
+	/**
+	 * Get the names of registered actions similar to the given one.
+	 *
+	 * @param type unknown action name
+	 * @return similar action names
+	 */
+	private static synchronized List<String> getSuggestions(final String type) {
+		if (actionNames == null) {
+			actionNames = new SimilarWordIndex(getActionsMap().keySet());
+		}
+		return actionNames.findSimilar(type, 0.1);
+	}
 }
@@ -24,11 +24,11 @@ import java.util.List;
 
 import games.stendhal.common.NotificationType;
 import games.stendhal.server.actions.CommandCenter;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.GameEvent;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.entity.player.Player;
 import marauroa.common.game.RPAction;
-import marauroa.server.db.command.DBCommandQueue;
 import marauroa.server.game.container.PlayerEntry;
 import marauroa.server.game.container.PlayerEntryContainer;
 import marauroa.server.game.db.CharacterDAO;
@@ -82,7 +82,7 @@ public class BanAction extends AdministrationAction {
 					player.sendPrivateText(NotificationType.ERROR, "No such character");
 					return;
 				}
-				DBCommandQueue.get().enqueue(new BanAccountCommand(username, reason, expire));
+				DBCommandDispatcher.get().enqueue(new BanAccountCommand(username, reason, expire));
 				player.sendPrivateText("You have banned account " + username + " (character: " + bannedName + ") until " + expireStr + " for: " + reason);
 
 				// logging
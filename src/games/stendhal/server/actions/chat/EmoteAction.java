@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -18,6 +18,7 @@ import games.stendhal.server.actions.ActionListener;
 import games.stendhal.server.actions.validator.StandardActionValidations;
 import games.stendhal.server.core.engine.GameEvent;
 import games.stendhal.server.core.engine.SingletonRepository;
+import games.stendhal.server.core.engine.StendhalRPZone;
 import games.stendhal.server.entity.player.Player;
 import marauroa.common.game.RPAction;
 
@@ -39,6 +40,10 @@ public class EmoteAction implements ActionListener {
 		//on the client side, !me is replaced with the name
 		final String text = "!me " + QuoteSpecials.quote(action.get(TEXT));
 		player.put("text", text);
+		final StendhalRPZone zone = player.getZone();
+		if (zone != null) {
+			zone.publishChat(player, text);
+		}
 
 		new GameEvent(player.getName(), CHAT, null, Integer.toString(text.length()), text.substring(0, Math.min(text.length(), 1000))).raise();
 
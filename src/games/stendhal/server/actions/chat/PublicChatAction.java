@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -19,6 +19,7 @@ import games.stendhal.server.actions.ActionListener;
 import games.stendhal.server.actions.validator.StandardActionValidations;
 import games.stendhal.server.core.engine.GameEvent;
 import games.stendhal.server.core.engine.SingletonRepository;
+import games.stendhal.server.core.engine.StendhalRPZone;
 import games.stendhal.server.entity.player.Player;
 import games.stendhal.server.entity.status.StatusType;
 import marauroa.common.game.RPAction;
@@ -41,6 +42,10 @@ public class PublicChatAction implements ActionListener {
 			text = applyDrunkEffect(text, player.getStatusList().countStatusByType(StatusType.DRUNK) - 1);
 		}
 		player.put("text", text);
+		final StendhalRPZone zone = player.getZone();
+		if (zone != null) {
+			zone.publishChat(player, text);
+		}
 
 		player.notifyWorldAboutChanges();
 		SingletonRepository.getRuleProcessor().removePlayerText(player);
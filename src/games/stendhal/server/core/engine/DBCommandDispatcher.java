@@ -0,0 +1,338 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import marauroa.server.db.DBTransaction;
+import marauroa.server.db.command.DBCommand;
+import marauroa.server.db.command.DBCommandPriority;
+import marauroa.server.db.command.DBCommandQueue;
+import marauroa.server.game.Statistics;
+
+/**
+ * Queues database commands, and measures how many of them are waiting, and
+ * how long they take.
+ * <p>
+ * Statistical writes, which are not needed by the game itself, are admitted
+ * only while few of them are waiting. If the database falls behind, they are
+ * either deferred, so that their collectors merge them into larger batches,
+ * or shed.
+ * <p>
+ * Commands whose results are awaited are not handled here, because marauroa
+ * returns results by the class of the command.
+ */
+public final class DBCommandDispatcher {
+	/** Default maximum number of waiting statistical writes. */
+	public static final int DEFAULT_STATISTICS_LIMIT = 20;
+
+	/** What happens to statistical writes while the database is behind. */
+	public enum OverloadPolicy {
+		/** keep collecting, and write later */
+		DEFER,
+		/** drop them */
+		SHED
+	}
+
+	/** Admission of a statistical write. */
+	public enum Admission {
+		/** queue the write now */
+		ACCEPT,
+		/** keep the data, and try again later */
+		DEFER,
+		/** drop the data */
+		SHED
+	}
+
+	/** Upper bounds of the latency histogram buckets in milliseconds. */
+	private static final long[] LATENCY_BUCKETS = { 10, 100, 1000, 10000 };
+	private static final String[] LATENCY_LABELS = { "lt10ms", "lt100ms", "lt1s", "lt10s", "ge10s" };
+
+	private static final DBCommandDispatcher instance = new DBCommandDispatcher();
+
+	private final Map<String, CommandStatistics> statistics = new ConcurrentHashMap<String, CommandStatistics>();
+	/** Number of queued commands, which did not complete yet. */
+	private final AtomicInteger pending = new AtomicInteger();
+	/** Number of queued statistical writes, which did not complete yet. */
+	private final AtomicInteger pendingStatistics = new AtomicInteger();
+	private final AtomicLong shed = new AtomicLong();
+
+	private volatile int statisticsLimit = DEFAULT_STATISTICS_LIMIT;
+	private volatile OverloadPolicy policy = OverloadPolicy.DEFER;
+
+	/**
+	 * Get the DBCommandDispatcher instance.
+	 *
+	 * @return instance
+	 */
+	public static DBCommandDispatcher get() {
+		return instance;
+	}
+
+	/**
+	 * Create a new DBCommandDispatcher.
+	 */
+	DBCommandDispatcher() {
+		// singleton, except for tests
+	}
+
+	/**
+	 * Configure the handling of statistical writes.
+	 *
+	 * @param limit maximum number of waiting statistical writes
+	 * @param policy what to do with statistical writes above the limit
+	 */
+	public void configure(final int limit, final OverloadPolicy policy) {
+		this.statisticsLimit = Math.max(1, limit);
+		this.policy = policy;
+	}
+
+	/**
+	 * Parse the name of an overload policy.
+	 *
+	 * @param name name, e. g. "shed"
+	 * @return policy, DEFER for unknown names
+	 */
+	public static OverloadPolicy parsePolicy(final String name) {
+		if ((name != null) && name.trim().toUpperCase(Locale.ENGLISH).equals(OverloadPolicy.SHED.name())) {
+			return OverloadPolicy.SHED;
+		}
+		return OverloadPolicy.DEFER;
+	}
+
+	/**
+	 * Queue a database command.
+	 *
+	 * @param command command
+	 */
+	public void enqueue(final DBCommand command) {
+		enqueue(command, DBCommandPriority.CRITICAL);
+	}
+
+	/**
+	 * Queue a database command.
+	 *
+	 * @param command command
+	 * @param priority priority
+	 */
+	public void enqueue(final DBCommand command, final DBCommandPriority priority) {
+		DBCommandQueue.get().enqueue(measure(command, false), priority);
+	}
+
+	/**
+	 * Check if a statistical write may be queued now.
+	 *
+	 * @return admission
+	 */
+	public Admission admitStatistics() {
+		if (pendingStatistics.get() < statisticsLimit) {
+			return Admission.ACCEPT;
+		}
+		if (policy == OverloadPolicy.SHED) {
+			return Admission.SHED;
+		}
+		return Admission.DEFER;
+	}
+
+	/**
+	 * Queue a statistical write. The caller should check
+	 * {@link #admitStatistics()} first, unless the data must be written
+	 * anyway, for example on shutdown.
+	 *
+	 * @param command command
+	 */
+	public void enqueueStatistics(final DBCommand command) {
+		DBCommandQueue.get().enqueue(measure(command, true), DBCommandPriority.LOW);
+	}
+
+	/**
+	 * Count a command as pending, and wrap it for recording its completion.
+	 *
+	 * @param command command
+	 * @param statistical <code>true</code>, if the command is a statistical write
+	 * @return command to queue
+	 */
+	DBCommand measure(final DBCommand command, final boolean statistical) {
+		pending.incrementAndGet();
+		if (statistical) {
+			pendingStatistics.incrementAndGet();
+		}
+		return new MeasuredCommand(command, statistical);
+	}
+
+	/**
+	 * Count statistical records that were dropped because the database was
+	 * behind.
+	 *
+	 * @param count number of dropped records
+	 */
+	public void countShed(final int count) {
+		shed.addAndGet(count);
+	}
+
+	/**
+	 * Get the number of queued commands, which did not complete yet.
+	 *
+	 * @return number of commands
+	 */
+	public int getPendingCount() {
+		return pending.get();
+	}
+
+	/**
+	 * Get the number of queued statistical writes, which did not complete yet.
+	 *
+	 * @return number of commands
+	 */
+	public int getPendingStatisticsCount() {
+		return pendingStatistics.get();
+	}
+
+	/**
+	 * Get the number of completed commands of a type.
+	 *
+	 * @param type simple class name of the command, or the full name
+	 * 	for anonymous classes
+	 * @return number of commands
+	 */
+	public long getCompletedCount(final String type) {
+		final CommandStatistics stats = statistics.get(type);
+		if (stats == null) {
+			return 0;
+		}
+		return stats.count.get();
+	}
+
+	/**
+	 * Publish the counters to the server statistics.
+	 *
+	 * @param stats Statistics
+	 */
+	public void publish(final Statistics stats) {
+		stats.set("DB queue", DBCommandQueue.get().size());
+		stats.set("DB pending", pending.get());
+		stats.set("DB pending statistics", pendingStatistics.get());
+		stats.set("DB shed", (int) shed.get());
+		for (final Map.Entry<String, CommandStatistics> entry : statistics.entrySet()) {
+			final String prefix = "DB " + entry.getKey();
+			final CommandStatistics commandStats = entry.getValue();
+			stats.set(prefix + " count", (int) commandStats.count.get());
+			stats.set(prefix + " errors", (int) commandStats.errors.get());
+			for (int i = 0; i < LATENCY_LABELS.length; i++) {
+				stats.set(prefix + " latency " + LATENCY_LABELS[i], (int) commandStats.latency[i].get());
+			}
+		}
+	}
+
+	private void completed(final DBCommand command, final boolean statistical, final boolean failed) {
+		pending.decrementAndGet();
+		if (statistical) {
+			pendingStatistics.decrementAndGet();
+		}
+
+		String type = command.getClass().getSimpleName();
+		if (type.isEmpty()) {
+			type = command.getClass().getName();
+		}
+		CommandStatistics stats = statistics.get(type);
+		if (stats == null) {
+			statistics.putIfAbsent(type, new CommandStatistics());
+			stats = statistics.get(type);
+		}
+		stats.count.incrementAndGet();
+		if (failed) {
+			stats.errors.incrementAndGet();
+		}
+		final Timestamp enqueueTime = command.getEnqueueTime();
+		if (enqueueTime != null) {
+			stats.addLatency(System.currentTimeMillis() - enqueueTime.getTime());
+		}
+	}
+
+	/**
+	 * Counters of a command type.
+	 */
+	private static final class CommandStatistics {
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong errors = new AtomicLong();
+		private final AtomicLong[] latency = new AtomicLong[LATENCY_LABELS.length];
+
+		CommandStatistics() {
+			for (int i = 0; i < latency.length; i++) {
+				latency[i] = new AtomicLong();
+			}
+		}
+
+		void addLatency(final long millis) {
+			int bucket = 0;
+			while ((bucket < LATENCY_BUCKETS.length) && (millis >= LATENCY_BUCKETS[bucket])) {
+				bucket++;
+			}
+			latency[bucket].incrementAndGet();
+		}
+	}
+
+	/**
+	 * Executes a command, and records its completion.
+	 */
+	private final class MeasuredCommand implements DBCommand {
+		private final DBCommand command;
+		private final boolean statistical;
+
+		MeasuredCommand(final DBCommand command, final boolean statistical) {
+			this.command = command;
+			this.statistical = statistical;
+		}
+
+		@Override
+		public void execute(final DBTransaction transaction) throws SQLException, IOException {
+			boolean failed = true;
+			try {
+				command.execute(transaction);
+				failed = false;
+			} finally {
+				completed(command, statistical, failed);
+			}
+		}
+
+		@Override
+		public Exception getException() {
+			return command.getException();
+		}
+
+		@Override
+		public void setException(final Exception exception) {
+			command.setException(exception);
+		}
+
+		@Override
+		public Timestamp getEnqueueTime() {
+			return command.getEnqueueTime();
+		}
+
+		@Override
+		public void setEnqueueTime(final Timestamp enqueueTime) {
+			command.setEnqueueTime(enqueueTime);
+		}
+
+		@Override
+		public String toString() {
+			return command.toString();
+		}
+	}
+}
@@ -0,0 +1,246 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import games.stendhal.server.core.engine.dbcommand.AbstractLogItemEventCommand;
+import marauroa.server.db.DBTransaction;
+import marauroa.server.db.command.AbstractDBCommand;
+import marauroa.server.db.command.DBCommandPriority;
+
+/**
+ * Collects item log events in a ring buffer, and writes them in batches on
+ * the database thread. Only one write command is queued at a time. Events
+ * arriving while the database is busy are collected, and written together by
+ * the next command. Events that do not fit in the buffer are kept in an
+ * overflow list, and written after the buffered ones, so that the events are
+ * always written in the order they happened.
+ * <p>
+ * The overflow list is bounded too. When the database stalls for so long that
+ * the overflow list fills up as well, further events are dropped until the
+ * next write takes the waiting ones. The game thread is never blocked by the
+ * database. Dropping the newest events keeps the written log complete up to
+ * the stall. Dropped events are counted, and a warning is logged once per
+ * stall.
+ */
+public final class ItemLogWriter {
+	/** Default maximum number of events waiting to be written. */
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	private static final Logger logger = Logger.getLogger(ItemLogWriter.class);
+	private static final ItemLogWriter instance = new ItemLogWriter(DEFAULT_CAPACITY);
+
+	/** Waiting events. */
+	private final AbstractLogItemEventCommand[] buffer;
+	/** Index of the oldest waiting event. */
+	private int head;
+	/** Number of waiting events in the buffer. */
+	private int size;
+	/** Waiting events that did not fit in the buffer, after the buffered ones. */
+	private final List<AbstractLogItemEventCommand> overflow = new ArrayList<AbstractLogItemEventCommand>();
+	/** Maximum number of events in the overflow list. */
+	private final int overflowCapacity;
+	/** <code>true</code>, if events have been dropped since the last drain. */
+	private boolean dropping;
+	/** <code>true</code>, if a write command is in the database queue. */
+	private boolean writePending;
+
+	/** Number of events written by the last write. */
+	private volatile int lastWriteSize;
+	/**
+	 * Time in milliseconds from queuing the oldest event of the last write
+	 * until the write completed.
+	 */
+	private volatile long lastWriteLatency;
+	/** Number of events that did not fit in the buffer. */
+	private volatile long overflowCount;
+	/** Number of events that did not fit in the overflow list either. */
+	private volatile long droppedCount;
+
+	/**
+	 * Get the ItemLogWriter instance.
+	 *
+	 * @return instance
+	 */
+	public static ItemLogWriter get() {
+		return instance;
+	}
+
+	/**
+	 * Create a new ItemLogWriter with an overflow list as large as the
+	 * buffer.
+	 *
+	 * @param capacity size of the buffer
+	 */
+	ItemLogWriter(final int capacity) {
+		this(capacity, capacity);
+	}
+
+	/**
+	 * Create a new ItemLogWriter.
+	 *
+	 * @param capacity size of the buffer
+	 * @param overflowCapacity maximum number of events in the overflow list
+	 */
+	ItemLogWriter(final int capacity, final int overflowCapacity) {
+		buffer = new AbstractLogItemEventCommand[capacity];
+		this.overflowCapacity = overflowCapacity;
+	}
+
+	/**
+	 * Queue an event for writing.
+	 *
+	 * @param command item log event
+	 */
+	public void offer(final AbstractLogItemEventCommand command) {
+		command.setEnqueueTime(new Timestamp(System.currentTimeMillis()));
+		if (queue(command)) {
+			DBCommandDispatcher.get().enqueue(new WriteCommand(), DBCommandPriority.LOW);
+		}
+	}
+
+	/**
+	 * Add an event to the buffer, or to the overflow list if the buffer is
+	 * full. If the overflow list is full too, the event is dropped.
+	 *
+	 * @param command item log event
+	 * @return <code>true</code> if a write command has to be queued
+	 */
+	synchronized boolean queue(final AbstractLogItemEventCommand command) {
+		if (!add(command)) {
+			if (overflow.size() < overflowCapacity) {
+				overflow.add(command);
+				overflowCount++;
+			} else {
+				droppedCount++;
+				if (!dropping) {
+					dropping = true;
+					logger.warn("Item log queue is full. Dropping item log events until the database catches up.");
+				}
+			}
+		}
+		final boolean startWrite = !writePending;
+		writePending = true;
+		return startWrite;
+	}
+
+	/**
+	 * Add an event to the buffer.
+	 *
+	 * @param command item log event
+	 * @return <code>true</code> if the event was added, <code>false</code>
+	 * 	if the buffer is full, or older events are waiting in the overflow
+	 * 	list
+	 */
+	synchronized boolean add(final AbstractLogItemEventCommand command) {
+		if ((size == buffer.length) || !overflow.isEmpty()) {
+			return false;
+		}
+		buffer[(head + size) % buffer.length] = command;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Take all the waiting events.
+	 *
+	 * @return events in the order they were queued
+	 */
+	synchronized List<AbstractLogItemEventCommand> drain() {
+		final List<AbstractLogItemEventCommand> events = new ArrayList<AbstractLogItemEventCommand>(size + overflow.size());
+		while (size > 0) {
+			events.add(buffer[head]);
+			buffer[head] = null;
+			head = (head + 1) % buffer.length;
+			size--;
+		}
+		events.addAll(overflow);
+		overflow.clear();
+		dropping = false;
+		writePending = false;
+		return events;
+	}
+
+	/**
+	 * Get the number of events waiting to be written.
+	 *
+	 * @return queue depth
+	 */
+	public synchronized int getQueueDepth() {
+		return size + overflow.size();
+	}
+
+	/**
+	 * Get the number of events written by the last write.
+	 *
+	 * @return event count
+	 */
+	public int getLastWriteSize() {
+		return lastWriteSize;
+	}
+
+	/**
+	 * Get the time from queuing the oldest event of the last write until the
+	 * write completed.
+	 *
+	 * @return latency in milliseconds
+	 */
+	public long getLastWriteLatency() {
+		return lastWriteLatency;
+	}
+
+	/**
+	 * Get the number of events that did not fit in the buffer, and were
+	 * kept in the overflow list instead.
+	 *
+	 * @return overflow count
+	 */
+	public long getOverflowCount() {
+		return overflowCount;
+	}
+
+	/**
+	 * Get the number of events that were dropped, because the buffer and the
+	 * overflow list were both full.
+	 *
+	 * @return dropped event count
+	 */
+	public long getDroppedCount() {
+		return droppedCount;
+	}
+
+	/**
+	 * Writes the waiting events.
+	 */
+	private class WriteCommand extends AbstractDBCommand {
+		@Override
+		public void execute(final DBTransaction transaction) throws SQLException {
+			final List<AbstractLogItemEventCommand> events = drain();
+			if (events.isEmpty()) {
+				return;
+			}
+			AbstractLogItemEventCommand.log(transaction, events);
+			lastWriteSize = events.size();
+			lastWriteLatency = System.currentTimeMillis() - events.get(0).getEnqueueTime().getTime();
+		}
+
+		@Override
+		public String toString() {
+			return "ItemLogWriter.WriteCommand";
+		}
+	}
+}
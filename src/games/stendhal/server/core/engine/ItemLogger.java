@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -12,7 +12,7 @@
  ***************************************************************************/
 package games.stendhal.server.core.engine;
 
-import games.stendhal.server.core.engine.db.StendhalItemDAO;
+import games.stendhal.server.core.engine.db.ItemLogIDs;
 import games.stendhal.server.core.engine.dbcommand.AbstractLogItemEventCommand;
 import games.stendhal.server.core.engine.dbcommand.LogMergeItemEventCommand;
 import games.stendhal.server.core.engine.dbcommand.LogSimpleItemEventCommand;
@@ -24,8 +24,6 @@ import games.stendhal.server.entity.item.Item;
 import games.stendhal.server.entity.player.Player;
 import marauroa.common.game.RPObject;
 import marauroa.common.game.RPSlot;
-import marauroa.server.db.command.DBCommandPriority;
-import marauroa.server.db.command.DBCommandQueue;
 
 /**
  * Item Logger.
@@ -36,7 +34,7 @@ public class ItemLogger {
 
 
 	public void addLogItemEventCommand(final AbstractLogItemEventCommand command) {
-		DBCommandQueue.get().enqueue(command, DBCommandPriority.LOW);
+		ItemLogWriter.get().offer(command);
 	}
 
 
@@ -49,7 +47,7 @@ public class ItemLogger {
 	}
 
 	public void loadOnLogin(final Player player, final RPSlot slot, final Item item) {
-		if (item.has(StendhalItemDAO.ATTR_ITEM_LOGID)) {
+		if (ItemLogIDs.has(item)) {
 			return;
 		}
 		addLogItemEventCommand(new LogSimpleItemEventCommand(item, player, "create", item.get("name"), getQuantity(item), "olditem",
@@ -0,0 +1,150 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import games.stendhal.server.core.engine.db.StendhalKillLogDAO.KillCount;
+import games.stendhal.server.core.engine.dbcommand.LogKillCountsCommand;
+import games.stendhal.server.core.events.TurnListener;
+
+/**
+ * Collects kill counts in memory, and writes them to the kill log
+ * periodically. A kill is just a counter increment, instead of a database
+ * command of its own. While the database is behind, the counts are kept
+ * until the next period, or dropped, as configured in the
+ * {@link DBCommandDispatcher}.
+ */
+public final class KillLogAggregator implements TurnListener {
+	/** Default time between writing the counts to the database. */
+	public static final int DEFAULT_FLUSH_SECONDS = 60;
+
+	private static final KillLogAggregator instance = new KillLogAggregator();
+
+	/** Counts collected since the last flush. */
+	private Map<KillCount, KillCount> counts = new HashMap<KillCount, KillCount>();
+	/** Time between flushes in seconds. 0, if periodic flushing is not running. */
+	private int flushSeconds;
+
+	/**
+	 * Get the KillLogAggregator instance.
+	 *
+	 * @return instance
+	 */
+	public static KillLogAggregator get() {
+		return instance;
+	}
+
+	private KillLogAggregator() {
+		// singleton
+	}
+
+	/**
+	 * Start writing the counts to the database periodically.
+	 *
+	 * @param seconds time between flushes
+	 */
+	public void start(final int seconds) {
+		final boolean running = flushSeconds > 0;
+		flushSeconds = Math.max(1, seconds);
+		if (!running) {
+			SingletonRepository.getTurnNotifier().notifyInSeconds(flushSeconds, this);
+		}
+	}
+
+	/**
+	 * Count a kill.
+	 *
+	 * @param killed name of the killed entity
+	 * @param killedType type of the killed entity
+	 * @param killer name of the killer
+	 * @param killerType type of the killer
+	 */
+	public void countKill(final String killed, final String killedType, final String killer,
+			final String killerType) {
+		final KillCount key = new KillCount(killed, killedType, killer, killerType,
+				Date.valueOf(LocalDate.now()));
+		synchronized (this) {
+			KillCount count = counts.get(key);
+			if (count == null) {
+				count = key;
+				counts.put(key, count);
+			}
+			count.increment();
+		}
+	}
+
+	/**
+	 * Get the number of kills of one kind counted on this day, and not yet
+	 * written to the database.
+	 *
+	 * @param killed name of the killed entity
+	 * @param killedType type of the killed entity
+	 * @param killer name of the killer
+	 * @param killerType type of the killer
+	 * @return number of pending kills
+	 */
+	public synchronized int getPendingCount(final String killed, final String killedType,
+			final String killer, final String killerType) {
+		final KillCount count = counts.get(new KillCount(killed, killedType, killer, killerType,
+				Date.valueOf(LocalDate.now())));
+		if (count == null) {
+			return 0;
+		}
+		return count.getCount();
+	}
+
+	/**
+	 * Write the collected counts to the database.
+	 */
+	public void flush() {
+		final Map<KillCount, KillCount> pending;
+		synchronized (this) {
+			if (counts.isEmpty()) {
+				return;
+			}
+			pending = counts;
+			counts = new HashMap<KillCount, KillCount>();
+		}
+		DBCommandDispatcher.get().enqueueStatistics(new LogKillCountsCommand(pending.values()));
+	}
+
+	/**
+	 * Drop the collected counts.
+	 */
+	private void discard() {
+		final int discarded;
+		synchronized (this) {
+			discarded = counts.size();
+			counts = new HashMap<KillCount, KillCount>();
+		}
+		DBCommandDispatcher.get().countShed(discarded);
+	}
+
+	@Override
+	public void onTurnReached(final int currentTurn) {
+		switch (DBCommandDispatcher.get().admitStatistics()) {
+		case ACCEPT:
+			flush();
+			break;
+		case SHED:
+			discard();
+			break;
+		default:
+			// keep counting until the database catches up
+			break;
+		}
+		SingletonRepository.getTurnNotifier().notifyInSeconds(flushSeconds, this);
+	}
+}
@@ -0,0 +1,322 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import games.stendhal.server.core.events.MovementListener;
+
+/**
+ * A uniform grid of the areas of the movement listeners of a zone. Each
+ * listener is kept in the buckets of all cells its area overlaps, so that a
+ * moving entity only needs to be checked against the listeners near it.
+ * <p>
+ * The areas are read when a listener is added or updated. Listeners whose
+ * area changes need to be updated with {@link #update(MovementListener)}.
+ * The queries report listeners in the order they were added, like a plain
+ * list of the listeners would.
+ */
+public final class MovementListenerIndex {
+	/** Width and height of a grid cell in tiles. */
+	static final int CELL_SIZE = 8;
+
+	/** Orders entries by the time they were added. */
+	private static final Comparator<Entry> ADD_ORDER = new Comparator<Entry>() {
+		@Override
+		public int compare(final Entry e1, final Entry e2) {
+			return Long.compare(e1.sequence, e2.sequence);
+		}
+	};
+
+	/** Number of cell columns. */
+	private int columns;
+	/** Number of cell rows. */
+	private int rows;
+	/** Lazily created buckets, indexed by <code>row * columns + column</code>. */
+	private List<List<Entry>> cells;
+	/** Entries of the indexed listeners. */
+	private final Map<MovementListener, Entry> entries = new IdentityHashMap<MovementListener, Entry>();
+	/** Counter for ordering the listeners. */
+	private long nextSequence;
+	/** Stamp for marking the entries already found by the current query. */
+	private int queryStamp;
+
+	/**
+	 * Creates a new index.
+	 *
+	 * @param width zone width in tiles
+	 * @param height zone height in tiles
+	 */
+	public MovementListenerIndex(final int width, final int height) {
+		createCells(width, height);
+	}
+
+	private void createCells(final int width, final int height) {
+		columns = Math.max(1, (width + CELL_SIZE - 1) / CELL_SIZE);
+		rows = Math.max(1, (height + CELL_SIZE - 1) / CELL_SIZE);
+		final int size = columns * rows;
+		cells = new ArrayList<List<Entry>>(size);
+		for (int i = 0; i < size; i++) {
+			cells.add(null);
+		}
+	}
+
+	/**
+	 * Changes the grid dimensions and re-indexes all contained listeners.
+	 *
+	 * @param width new zone width in tiles
+	 * @param height new zone height in tiles
+	 */
+	public void resize(final int width, final int height) {
+		createCells(width, height);
+		for (final Entry entry : entries.values()) {
+			computeRange(entry.listener.getArea(), entry.range);
+			addToCells(entry);
+		}
+	}
+
+	/**
+	 * Adds a listener to the index. Adding a listener that is already
+	 * indexed updates its area instead.
+	 *
+	 * @param listener listener to add
+	 */
+	public void add(final MovementListener listener) {
+		if (entries.containsKey(listener)) {
+			update(listener);
+			return;
+		}
+		final Entry entry = new Entry(listener, nextSequence++);
+		computeRange(listener.getArea(), entry.range);
+		entries.put(listener, entry);
+		addToCells(entry);
+	}
+
+	/**
+	 * Removes a listener from the index.
+	 *
+	 * @param listener listener to remove
+	 */
+	public void remove(final MovementListener listener) {
+		final Entry entry = entries.remove(listener);
+		if (entry != null) {
+			removeFromCells(entry);
+		}
+	}
+
+	/**
+	 * Updates the cells of a listener after its area changed. Listeners
+	 * that are not indexed are ignored.
+	 *
+	 * @param listener listener with a changed area
+	 */
+	public void update(final MovementListener listener) {
+		final Entry entry = entries.get(listener);
+		if (entry == null) {
+			return;
+		}
+		final int[] range = new int[4];
+		computeRange(listener.getArea(), range);
+		if ((range[0] == entry.range[0]) && (range[1] == entry.range[1])
+				&& (range[2] == entry.range[2]) && (range[3] == entry.range[3])) {
+			// still in the same cells
+			return;
+		}
+		removeFromCells(entry);
+		System.arraycopy(range, 0, entry.range, 0, 4);
+		addToCells(entry);
+	}
+
+	/**
+	 * Checks if a listener is indexed.
+	 *
+	 * @param listener listener to check
+	 * @return <code>true</code> if the listener is in the index
+	 */
+	public boolean contains(final MovementListener listener) {
+		return entries.containsKey(listener);
+	}
+
+	/**
+	 * Get the number of indexed listeners.
+	 *
+	 * @return listener count
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Get the listeners whose area intersects at least one of two
+	 * rectangles. Every listener is reported at most once.
+	 *
+	 * @param area1 first area
+	 * @param area2 second area, or <code>null</code> if only one area is
+	 * 	checked
+	 * @return matching listeners in the order they were added
+	 */
+	public List<MovementListener> findIntersecting(final Rectangle2D area1, final Rectangle2D area2) {
+		queryStamp++;
+		final List<Entry> found = new ArrayList<Entry>();
+		collect(area1, area1, area2, found);
+		if (area2 != null) {
+			collect(area2, area1, area2, found);
+		}
+		if (found.size() > 1) {
+			Collections.sort(found, ADD_ORDER);
+		}
+		final List<MovementListener> result = new ArrayList<MovementListener>(found.size());
+		for (final Entry entry : found) {
+			result.add(entry.listener);
+		}
+		return result;
+	}
+
+	/**
+	 * Collect the entries from the cells covering an area.
+	 *
+	 * @param cellArea area determining the checked cells
+	 * @param area1 first area for the exact check
+	 * @param area2 second area for the exact check, or <code>null</code>
+	 * @param found list for the found entries
+	 */
+	private void collect(final Rectangle2D cellArea, final Rectangle2D area1,
+			final Rectangle2D area2, final List<Entry> found) {
+		final int minColumn = column(floor(cellArea.getX()));
+		final int minRow = row(floor(cellArea.getY()));
+		final int maxColumn = column(lastTile(cellArea.getX(), cellArea.getWidth()));
+		final int maxRow = row(lastTile(cellArea.getY(), cellArea.getHeight()));
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final List<Entry> bucket = cells.get(cellIndex(column, row));
+				if (bucket == null) {
+					continue;
+				}
+				for (final Entry entry : bucket) {
+					if (entry.stamp == queryStamp) {
+						continue;
+					}
+					entry.stamp = queryStamp;
+					final Rectangle2D area = entry.listener.getArea();
+					if (area.intersects(area1) || ((area2 != null) && area.intersects(area2))) {
+						found.add(entry);
+					}
+				}
+			}
+		}
+	}
+
+	private void computeRange(final Rectangle2D area, final int[] range) {
+		range[0] = column(floor(area.getX()));
+		range[1] = row(floor(area.getY()));
+		range[2] = column(lastTile(area.getX(), area.getWidth()));
+		range[3] = row(lastTile(area.getY(), area.getHeight()));
+	}
+
+	private void addToCells(final Entry entry) {
+		final int[] range = entry.range;
+		for (int row = range[1]; row <= range[3]; row++) {
+			for (int column = range[0]; column <= range[2]; column++) {
+				final int index = cellIndex(column, row);
+				List<Entry> bucket = cells.get(index);
+				if (bucket == null) {
+					bucket = new ArrayList<Entry>(2);
+					cells.set(index, bucket);
+				}
+				bucket.add(entry);
+			}
+		}
+	}
+
+	private void removeFromCells(final Entry entry) {
+		final int[] range = entry.range;
+		for (int row = range[1]; row <= range[3]; row++) {
+			for (int column = range[0]; column <= range[2]; column++) {
+				final List<Entry> bucket = cells.get(cellIndex(column, row));
+				if (bucket != null) {
+					bucket.remove(entry);
+				}
+			}
+		}
+	}
+
+	private int cellIndex(final int column, final int row) {
+		return row * columns + column;
+	}
+
+	/**
+	 * Get the column of a tile. Tiles outside the zone are clamped to the
+	 * border cells.
+	 */
+	private int column(final int tileX) {
+		return clamp(Math.floorDiv(tileX, CELL_SIZE), columns);
+	}
+
+	/**
+	 * Get the row of a tile. Tiles outside the zone are clamped to the
+	 * border cells.
+	 */
+	private int row(final int tileY) {
+		return clamp(Math.floorDiv(tileY, CELL_SIZE), rows);
+	}
+
+	private static int clamp(final int cell, final int count) {
+		if (cell < 0) {
+			return 0;
+		}
+		if (cell >= count) {
+			return count - 1;
+		}
+		return cell;
+	}
+
+	private static int floor(final double value) {
+		return (int) Math.floor(value);
+	}
+
+	/**
+	 * Get the last tile covered by a span. Empty spans are treated as
+	 * covering their start tile.
+	 */
+	private static int lastTile(final double start, final double length) {
+		if (length <= 0) {
+			return floor(start);
+		}
+		return Math.max(floor(start), (int) Math.ceil(start + length) - 1);
+	}
+
+	/**
+	 * Index data of a listener.
+	 */
+	private static final class Entry {
+		private final MovementListener listener;
+		/** Position in the add order. */
+		private final long sequence;
+		/**
+		 * Cell range the listener is stored in, as
+		 * <code>{minColumn, minRow, maxColumn, maxRow}</code>.
+		 */
+		private final int[] range = new int[4];
+		/** Stamp of the last query that found the entry. */
+		private int stamp;
+
+		Entry(final MovementListener listener, final long sequence) {
+			this.listener = listener;
+			this.sequence = sequence;
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import games.stendhal.server.core.engine.dbcommand.SetOnlineStatusCommand;
+import games.stendhal.server.entity.player.Player;
+import games.stendhal.server.events.PlayerLoggedOnEvent;
+import games.stendhal.server.events.PlayerLoggedOutEvent;
+
+/**
+ * Collects the logins and logouts of a turn, and tells the other players
+ * about them in one go.
+ * <p>
+ * Each online player gets all player list and buddy changes of the turn
+ * with a single world update, and the online status of all changed players
+ * is written with one database command. A player who logs out and in again
+ * in the same turn is not reported to the others at all.
+ */
+public final class PresenceNotifier {
+	private static final PresenceNotifier instance = new PresenceNotifier();
+
+	/** Changes since the last flush by lower case player name. */
+	private Map<String, Change> changes = new LinkedHashMap<String, Change>();
+
+	/**
+	 * Get the PresenceNotifier instance.
+	 *
+	 * @return instance
+	 */
+	public static PresenceNotifier get() {
+		return instance;
+	}
+
+	private PresenceNotifier() {
+		// singleton
+	}
+
+	/**
+	 * Remember that a player logged in. The player must already be in the
+	 * list of online players.
+	 *
+	 * @param player player who logged in
+	 */
+	public synchronized void onLogin(final Player player) {
+		getChange(player, false, false).player = player;
+	}
+
+	/**
+	 * Remember that a player logged out.
+	 *
+	 * @param player player who logged out
+	 */
+	public synchronized void onLogout(final Player player) {
+		getChange(player, true, !player.isGhost()).player = null;
+	}
+
+	private Change getChange(final Player player, final boolean wasOnline, final boolean wasVisible) {
+		final String key = player.getName().toLowerCase(Locale.ENGLISH);
+		Change change = changes.get(key);
+		if (change == null) {
+			// the first change of the turn tells the state before the turn
+			change = new Change(player.getName(), wasOnline, wasVisible);
+			changes.put(key, change);
+		}
+		return change;
+	}
+
+	/**
+	 * Tell the online players about the collected changes, and write the
+	 * online status to the database.
+	 */
+	public void flush() {
+		final Collection<Change> pending;
+		synchronized (this) {
+			if (changes.isEmpty()) {
+				return;
+			}
+			pending = changes.values();
+			changes = new LinkedHashMap<String, Change>();
+		}
+
+		final PlayerList onlinePlayers = SingletonRepository.getRuleProcessor().getOnlinePlayers();
+		final Set<Player> loggedIn = Collections.newSetFromMap(new IdentityHashMap<Player, Boolean>());
+		final List<String> loggedOut = new ArrayList<String>();
+		final List<String> buddiesOnline = new ArrayList<String>();
+		final List<String> buddiesOffline = new ArrayList<String>();
+		final Map<String, Boolean> status = new LinkedHashMap<String, Boolean>();
+
+		for (final Change change : pending) {
+			final Player player = change.player;
+			final boolean online = (player != null) && (onlinePlayers.getOnlinePlayer(change.name) == player);
+			final boolean visible = online && !player.isGhost();
+			if (online) {
+				loggedIn.add(player);
+			} else if (change.wasOnline) {
+				loggedOut.add(change.name);
+			}
+
+			if (visible && !change.wasVisible) {
+				buddiesOnline.add(change.name);
+			} else if (!visible && change.wasVisible) {
+				buddiesOffline.add(change.name);
+			}
+
+			// ghosts are never marked as online
+			if ((visible != change.wasVisible) || (change.wasOnline && !online)) {
+				status.put(change.name, Boolean.valueOf(visible));
+			}
+		}
+
+		for (final Player player : onlinePlayers.getAllPlayers()) {
+			notifyPlayer(player, onlinePlayers, loggedIn, loggedOut, buddiesOnline, buddiesOffline);
+		}
+
+		if (!status.isEmpty()) {
+			DBCommandDispatcher.get().enqueue(new SetOnlineStatusCommand(status));
+		}
+	}
+
+	private void notifyPlayer(final Player player, final PlayerList onlinePlayers,
+			final Set<Player> loggedIn, final List<String> loggedOut,
+			final List<String> buddiesOnline, final List<String> buddiesOffline) {
+		boolean changed = false;
+
+		for (final String name : loggedOut) {
+			player.addEvent(new PlayerLoggedOutEvent(name));
+			changed = true;
+		}
+
+		// players who just logged in need the complete list
+		final Collection<Player> others;
+		if (loggedIn.contains(player)) {
+			others = onlinePlayers.getAllPlayers();
+		} else {
+			others = loggedIn;
+		}
+		for (final Player other : others) {
+			if (!other.isGhost() || player.isGhost()) {
+				player.addEvent(new PlayerLoggedOnEvent(other.getName()));
+				changed = true;
+			}
+		}
+
+		for (final String name : buddiesOffline) {
+			player.notifyOffline(name);
+		}
+		for (final String name : buddiesOnline) {
+			player.notifyOnline(name);
+		}
+
+		if (changed || !buddiesOnline.isEmpty() || !buddiesOffline.isEmpty()) {
+			player.notifyWorldAboutChanges();
+		}
+	}
+
+	/**
+	 * Logins and logouts of a player within a turn.
+	 */
+	private static final class Change {
+		private final String name;
+		/** Was the player online before the turn? */
+		private final boolean wasOnline;
+		/** Was the player online and visible to buddies before the turn? */
+		private final boolean wasVisible;
+		/** The logged in player, or <code>null</code> after a logout. */
+		private Player player;
+
+		Change(final String name, final boolean wasOnline, final boolean wasVisible) {
+			this.name = name;
+			this.wasOnline = wasOnline;
+			this.wasVisible = wasVisible;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -25,11 +25,13 @@ import games.stendhal.server.core.engine.db.PostmanDAO;
 import games.stendhal.server.core.engine.db.StendhalBuddyDAO;
 import games.stendhal.server.core.engine.db.StendhalCharacterDAO;
 import games.stendhal.server.core.engine.db.StendhalCreatureDAO;
+import games.stendhal.server.core.engine.db.StendhalDumpHashDAO;
 import games.stendhal.server.core.engine.db.StendhalGroupQuestDAO;
 import games.stendhal.server.core.engine.db.StendhalHallOfFameDAO;
 import games.stendhal.server.core.engine.db.StendhalItemDAO;
 import games.stendhal.server.core.engine.db.StendhalKillLogDAO;
 import games.stendhal.server.core.engine.db.StendhalNPCDAO;
+import games.stendhal.server.core.engine.db.StendhalRPObjectDAO;
 import games.stendhal.server.core.engine.db.StendhalRPZoneDAO;
 import games.stendhal.server.core.engine.db.StendhalSearchIndexDAO;
 import games.stendhal.server.core.engine.db.StendhalShopDAO;
@@ -40,6 +42,7 @@ import marauroa.server.db.JDBCSQLHelper;
 import marauroa.server.db.TransactionPool;
 import marauroa.server.game.db.CharacterDAO;
 import marauroa.server.game.db.DAORegister;
+import marauroa.server.game.db.RPObjectDAO;
 
 /**
  * initializes the database by setting up or updating the database structure and defining
@@ -294,11 +297,13 @@ public class StendhalPlayerDatabase {
 
 		// define own version in replacement of marauroa's CharacterDAO
 		DAORegister.get().register(CharacterDAO.class, new StendhalCharacterDAO());
+		DAORegister.get().register(RPObjectDAO.class, new StendhalRPObjectDAO(DAORegister.get().getRPObjectFactory()));
 
 		// define additional DAOs
 		DAORegister.get().register(PostmanDAO.class, new PostmanDAO());
 		DAORegister.get().register(StendhalBuddyDAO.class, new StendhalBuddyDAO());
 		DAORegister.get().register(StendhalCreatureDAO.class, new StendhalCreatureDAO());
+		DAORegister.get().register(StendhalDumpHashDAO.class, new StendhalDumpHashDAO());
 		DAORegister.get().register(StendhalGroupQuestDAO.class, new StendhalGroupQuestDAO());
 		DAORegister.get().register(StendhalHallOfFameDAO.class, new StendhalHallOfFameDAO());
 		DAORegister.get().register(StendhalKillLogDAO.class, new StendhalKillLogDAO ());
@@ -30,12 +30,12 @@ import org.apache.log4j.Logger;
 import games.stendhal.common.Debug;
 import games.stendhal.common.NotificationType;
 import games.stendhal.common.filter.FilterCriteria;
+import games.stendhal.common.parser.ConversationParser;
 import games.stendhal.server.actions.CommandCenter;
 import games.stendhal.server.actions.admin.AdministrationAction;
 import games.stendhal.server.core.account.AccountCreator;
 import games.stendhal.server.core.account.CharacterCreator;
 import games.stendhal.server.core.engine.db.StendhalWebsiteDAO;
-import games.stendhal.server.core.engine.dbcommand.SetOnlineStatusCommand;
 import games.stendhal.server.core.engine.transformer.PlayerTransformer;
 import games.stendhal.server.core.events.TurnListener;
 import games.stendhal.server.core.events.TurnNotifier;
@@ -49,20 +49,16 @@ import games.stendhal.server.entity.npc.NPCList;
 import games.stendhal.server.entity.npc.behaviour.impl.OutfitChangerBehaviour.ExpireOutfit;
 import games.stendhal.server.entity.player.AfkTimeouter;
 import games.stendhal.server.entity.player.Player;
-import games.stendhal.server.events.PlayerLoggedOnEvent;
-import games.stendhal.server.events.PlayerLoggedOutEvent;
 import games.stendhal.server.extension.StendhalServerExtension;
 import marauroa.common.Configuration;
 import marauroa.common.Pair;
 import marauroa.common.game.AccountResult;
 import marauroa.common.game.CharacterResult;
-import marauroa.common.game.IRPZone;
 import marauroa.common.game.RPAction;
 import marauroa.common.game.RPObject;
 import marauroa.common.io.UnicodeSupportingInputStreamReader;
 import marauroa.server.db.command.DBCommand;
 import marauroa.server.db.command.DBCommandPriority;
-import marauroa.server.db.command.DBCommandQueue;
 import marauroa.server.game.Statistics;
 import marauroa.server.game.db.DAORegister;
 import marauroa.server.game.dbcommand.LogGameEventCommand;
@@ -106,6 +102,12 @@ public class StendhalRPRuleProcessor implements IRPRuleProcessor {
 
 	private LinkedList<marauroa.server.game.rp.GameEvent> gameEvents = new LinkedList<>();
 
+	/** Parser cache hits and misses already added to the statistics. */
+	private long publishedParserCacheHits;
+	private long publishedParserCacheMisses;
+	/** Dropped item log events already added to the statistics. */
+	private long publishedItemLogDropped;
+
 
 	/**
 	 * gets the singleton instance of StendhalRPRuleProcessor
@@ -172,6 +174,14 @@ public class StendhalRPRuleProcessor implements IRPRuleProcessor {
 			CachedActionManager.get().run();
 
 			final Configuration config = Configuration.getConfiguration();
+			SingletonRepository.getRPWorld().getZoneActivityScheduler().setDormantAfterTurns(
+					config.getInt("zone_dormant_after_turns", ZoneActivityScheduler.DEFAULT_DORMANT_AFTER_TURNS));
+			DBCommandDispatcher.get().configure(
+					config.getInt("db_statistics_queue_limit", DBCommandDispatcher.DEFAULT_STATISTICS_LIMIT),
+					DBCommandDispatcher.parsePolicy(config.get("db_statistics_overload", "defer")));
+			KillLogAggregator.get().start(
+					config.getInt("kill_log_flush_seconds", KillLogAggregator.DEFAULT_FLUSH_SECONDS));
+
 			try {
 				final String[] extensionsToLoad = config.get("server_extension").split(",");
 				for (final String element : extensionsToLoad) {
@@ -295,6 +305,36 @@ public class StendhalRPRuleProcessor implements IRPRuleProcessor {
 			logger.error("error in beginTurn", e);
 		}
 
+		try {
+			logZoneActivity();
+		} catch (final Exception e) {
+			logger.error("error in beginTurn", e);
+		}
+
+		try {
+			logItemLogWriter();
+		} catch (final Exception e) {
+			logger.error("error in beginTurn", e);
+		}
+
+		try {
+			logDBCommandDispatcher();
+		} catch (final Exception e) {
+			logger.error("error in beginTurn", e);
+		}
+
+		try {
+			logConversationParser();
+		} catch (final Exception e) {
+			logger.error("error in beginTurn", e);
+		}
+
+		try {
+			PresenceNotifier.get().flush();
+		} catch (final Exception e) {
+			logger.error("error in beginTurn", e);
+		}
+
 		try {
 			handleKilledEntities();
 		} catch (final Exception e) {
@@ -336,6 +376,45 @@ public class StendhalRPRuleProcessor implements IRPRuleProcessor {
 		Statistics.getStatistics().set("Players logged", getOnlinePlayers().size());
 	}
 
+	protected void logZoneActivity() {
+		final ZoneActivityScheduler scheduler = SingletonRepository.getRPWorld().getZoneActivityScheduler();
+		final Statistics stats = Statistics.getStatistics();
+		stats.set("Zones active", scheduler.getActiveCount());
+		stats.set("Zones warm", scheduler.getWarmCount());
+		stats.set("Zones dormant", scheduler.getDormantCount());
+	}
+
+	protected void logItemLogWriter() {
+		final ItemLogWriter writer = ItemLogWriter.get();
+		final Statistics stats = Statistics.getStatistics();
+		stats.set("Itemlog queue", writer.getQueueDepth());
+		stats.set("Itemlog batch", writer.getLastWriteSize());
+		stats.set("Itemlog latency", (int) writer.getLastWriteLatency());
+		final long dropped = writer.getDroppedCount();
+		stats.add("Itemlog dropped", (int) (dropped - publishedItemLogDropped));
+		publishedItemLogDropped = dropped;
+	}
+
+	protected void logDBCommandDispatcher() {
+		DBCommandDispatcher.get().publish(Statistics.getStatistics());
+	}
+
+	protected void logConversationParser() {
+		final Statistics stats = Statistics.getStatistics();
+		final long hits = ConversationParser.getCacheHits();
+		final long misses = ConversationParser.getCacheMisses();
+		// Statistics only takes int values, but adds them up as long, so
+		// publish the hits and misses since the last turn.
+		stats.add("Parser cache hits", (int) (hits - publishedParserCacheHits));
+		stats.add("Parser cache misses", (int) (misses - publishedParserCacheMisses));
+		publishedParserCacheHits = hits;
+		publishedParserCacheMisses = misses;
+		stats.set("Parser cache size", ConversationParser.getCacheSize());
+		if (hits + misses > 0) {
+			stats.set("Parser cache hit percent", (int) (hits * 100 / (hits + misses)));
+		}
+	}
+
 	protected void handlePlayersRmTexts() {
 		for (final Player player : playersRmText) {
 			if (player.has("text")) {
@@ -393,8 +472,9 @@ public class StendhalRPRuleProcessor implements IRPRuleProcessor {
 
 			SingletonRepository.getTurnNotifier().logic(currentTurn);
 
-			for (final IRPZone zoneI : SingletonRepository.getRPWorld()) {
-				final StendhalRPZone zone = (StendhalRPZone) zoneI;
+			// dormant zones are skipped
+			final List<StendhalRPZone> zones = SingletonRepository.getRPWorld().getZoneActivityScheduler().logic(currentTurn);
+			for (final StendhalRPZone zone : zones) {
 				zone.logic();
 			}
 
@@ -477,13 +557,7 @@ public class StendhalRPRuleProcessor implements IRPRuleProcessor {
 				StendhalRPAction.transferContent(player);
 
 				getOnlinePlayers().add(player);
-
-				if (!player.isGhost()) {
-					notifyOnlineStatus(true, player);
-					DBCommand command = new SetOnlineStatusCommand(player.getName(), true);
-					DBCommandQueue.get().enqueue(command);
-				}
-				updatePlayerNameListForPlayersOnLogin(player);
+				PresenceNotifier.get().onLogin(player);
 				String[] params = {};
 
 				new GameEvent(player.getName(), "login", params).raise();
@@ -579,17 +653,11 @@ public class StendhalRPRuleProcessor implements IRPRuleProcessor {
 					entry.first().onDead(entry.second());
 				}
 
-				if (!player.isGhost()) {
-					notifyOnlineStatus(false, player);
-				}
-				updatePlayerNameListForPlayersOnLogout(player);
+				PresenceNotifier.get().onLogout(player);
 
 				Player.destroy(player);
 				getOnlinePlayers().remove(player);
 
-				DBCommand command = new SetOnlineStatusCommand(player.getName(), false);
-				DBCommandQueue.get().enqueue(command);
-
 				new GameEvent(player.getName(), "logout", reason).raise();
 				logger.debug("removed player " + player);
 
@@ -716,49 +784,6 @@ public class StendhalRPRuleProcessor implements IRPRuleProcessor {
 		}
 	}
 
-	/**
-	 * Update all player's lists of online player names on login of a new player
-	 *
-	 * @param playerToNotifyAbout
-	 */
-	private void updatePlayerNameListForPlayersOnLogin(final Player playerToNotifyAbout) {
-		SingletonRepository.getRuleProcessor().getOnlinePlayers().forAllPlayersExecute(new Task<Player>() {
-			@Override
-			public void execute(final Player player) {
-				if(playerToNotifyAbout.isGhost()) {
-					playerToNotifyAbout.addEvent(new PlayerLoggedOnEvent(player.getName()));
-					playerToNotifyAbout.notifyWorldAboutChanges();
-					if (player.isGhost() && (player != playerToNotifyAbout)) {
-						player.addEvent(new PlayerLoggedOnEvent(playerToNotifyAbout.getName()));
-						player.notifyWorldAboutChanges();
-					}
-				} else {
-					player.addEvent(new PlayerLoggedOnEvent(playerToNotifyAbout.getName()));
-					player.notifyWorldAboutChanges();
-					if (!player.isGhost() && (player != playerToNotifyAbout)) {
-						playerToNotifyAbout.addEvent(new PlayerLoggedOnEvent(player.getName()));
-						playerToNotifyAbout.notifyWorldAboutChanges();
-					}
-				}
-			}
-		});
-	}
-
-	/**
-	 * Update all player's lists of online player names on login of a new player
-	 *
-	 * @param playerToNotifyAbout
-	 */
-	private void updatePlayerNameListForPlayersOnLogout(final Player playerToNotifyAbout) {
-		SingletonRepository.getRuleProcessor().getOnlinePlayers().forAllPlayersExecute(new Task<Player>() {
-			@Override
-			public void execute(final Player player) {
-				player.addEvent(new PlayerLoggedOutEvent(playerToNotifyAbout.getName()));
-				player.notifyWorldAboutChanges();
-			}
-		});
-	}
-
 	/**
 	 * Removes a zone (like a personalized vault).
 	 *
@@ -803,7 +828,7 @@ public class StendhalRPRuleProcessor implements IRPRuleProcessor {
 				public void onTurnReached(int currentTurn) {
 					DBCommand command = new LogGameEventCommand(gameEvents);
 					gameEvents.clear();
-					DBCommandQueue.get().enqueue(command, DBCommandPriority.LOW);
+					DBCommandDispatcher.get().enqueue(command, DBCommandPriority.LOW);
 
 				}
 			});
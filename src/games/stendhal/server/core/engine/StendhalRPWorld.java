@@ -24,6 +24,7 @@ import org.apache.log4j.Logger;
 
 import games.stendhal.common.parser.WordList;
 import games.stendhal.server.core.config.ZoneGroupsXMLLoader;
+import games.stendhal.server.core.pathfinder.PortalGraph;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.mapstuff.portal.OneWayPortalDestination;
 import games.stendhal.server.entity.mapstuff.portal.Portal;
@@ -50,6 +51,12 @@ public class StendhalRPWorld extends RPWorld {
 
 	private final Map<String, Set<StendhalRPZone>> regionMap = new HashMap<String, Set<StendhalRPZone>>();
 
+	/** Decides which zones run their logic. */
+	private final ZoneActivityScheduler zoneActivityScheduler = new ZoneActivityScheduler();
+
+	/** Plans routes across zones. */
+	private final PortalGraph portalGraph = new PortalGraph(this);
+
 
 	/**
 	 * Singleton access method.
@@ -75,6 +82,10 @@ public class StendhalRPWorld extends RPWorld {
 	@Override
 	public IRPZone removeRPZone(final ID zoneid) throws Exception {
 		final StendhalRPZone zone = (StendhalRPZone) super.getRPZone(zoneid);
+		if (zone != null) {
+			zoneActivityScheduler.remove(zone);
+			portalGraph.invalidate();
+		}
 		for(final Set<StendhalRPZone> zones : regionMap.values()) {
 			if(zones.contains(zone)) {
 				zones.remove(zone);
@@ -83,6 +94,33 @@ public class StendhalRPWorld extends RPWorld {
 		return super.removeRPZone(zoneid);
 	}
 
+	@Override
+	public void addRPZone(final IRPZone zone) {
+		super.addRPZone(zone);
+		if (zone instanceof StendhalRPZone) {
+			zoneActivityScheduler.add((StendhalRPZone) zone);
+			portalGraph.invalidate();
+		}
+	}
+
+	/**
+	 * Get the route planner for walking across zones.
+	 *
+	 * @return portal graph
+	 */
+	public PortalGraph getPortalGraph() {
+		return portalGraph;
+	}
+
+	/**
+	 * Get the scheduler that decides which zones run their logic.
+	 *
+	 * @return zone activity scheduler
+	 */
+	public ZoneActivityScheduler getZoneActivityScheduler() {
+		return zoneActivityScheduler;
+	}
+
 	public void removeZone(final StendhalRPZone toBeRemoved) {
 		try {
 			removeRPZone(toBeRemoved.getID());
@@ -170,6 +208,8 @@ public class StendhalRPWorld extends RPWorld {
 	@Override
 	public void onFinish() {
 		super.onFinish();
+		KillLogAggregator.get().flush();
+		PresenceNotifier.get().flush();
 		new GameEvent("server system", "shutdown").raise();
 		try {
 			//TODO: find a more appropriate way to do this
@@ -278,13 +318,29 @@ public class StendhalRPWorld extends RPWorld {
 	 * @param zone
 	 */
 	public void addRPZone(final String region, final StendhalRPZone zone) {
-		super.addRPZone(zone);
+		addRPZone(zone);
 		if(!regionMap.containsKey(region)) {
 			regionMap.put(region, new HashSet<StendhalRPZone>());
 		}
 		regionMap.get(region).add(zone);
 	}
 
+	/**
+	 * Get the region of a zone.
+	 *
+	 * @param zone zone
+	 * @return name of the region, or <code>null</code> if the zone does not
+	 * 	belong to a region
+	 */
+	public String getRegion(final StendhalRPZone zone) {
+		for (final Map.Entry<String, Set<StendhalRPZone>> entry : regionMap.entrySet()) {
+			if (entry.getValue().contains(zone)) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
 	public TreeSet<String> getRegions() {
 		// Since we need to make a copy to protect the internal structure,
 		// we use a TreeSet for alphabetical ordering.
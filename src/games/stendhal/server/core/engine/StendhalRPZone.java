@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -46,6 +47,7 @@ import games.stendhal.common.tiled.TileSetDefinition;
 import games.stendhal.server.core.config.zone.TeleportationRules;
 import games.stendhal.server.core.events.MovementListener;
 import games.stendhal.server.core.events.ZoneEnterExitListener;
+import games.stendhal.server.core.pathfinder.ZoneNavigation;
 import games.stendhal.server.core.rp.StendhalRPAction;
 import games.stendhal.server.core.rule.EntityManager;
 import games.stendhal.server.entity.ActiveEntity;
@@ -107,6 +109,9 @@ public class StendhalRPZone extends MarauroaRPZone {
 
 	private final List<NPC> npcs;
 
+	/** Largest perception range of the speaker NPCs in the zone. */
+	private int hearingRange;
+
 	/**
 	 * The sheep foods in the zone.
 	 */
@@ -130,9 +135,9 @@ public class StendhalRPZone extends MarauroaRPZone {
 	private boolean moveToAllowed = true;
 
 	/**
-	 * Objects that implement MovementListener.
+	 * Objects that implement MovementListener, indexed by their areas.
 	 */
-	private final List<MovementListener> movementListeners;
+	private final MovementListenerIndex movementListeners;
 
 
 	private final List<ZoneEnterExitListener> zoneListeners;
@@ -144,12 +149,36 @@ public class StendhalRPZone extends MarauroaRPZone {
 	 */
 	private final Set<Item> itemsOnGround;
 
+	/** Spatial index of the entities in the zone. */
+	private final ZoneEntityIndex<Entity> entityIndex;
+
+	/** Spatial index of the players and their friends. */
+	private final ZoneEntityIndex<RPEntity> playersAndFriendsIndex;
+
+	/** Scheduler deciding if the logic of this zone is run, if any. */
+	private ZoneActivityScheduler activityScheduler;
+
+	/** Current activity state. */
+	private ZoneActivity activity = ZoneActivity.ACTIVE;
+
+	/** Turn at which the zone became warm or dormant. */
+	private int activitySince;
+
+	/** <code>true</code> if the zone woke up, but has not caught up yet. */
+	private boolean wakingUp;
+
+	/** Deadlines reached while the zone was dormant, and their due turns. */
+	private final Map<ZoneWakeUpListener, Integer> postponed = new IdentityHashMap<ZoneWakeUpListener, Integer>();
+
 	/** contains data to if a certain area is walkable. */
 	public CollisionDetection collisionMap;
 
 	/** Contains data to verify is someone is in a PK-free area. */
 	public CollisionDetection protectionMap;
 
+	/** Precomputed path finding data. Built when first needed. */
+	private ZoneNavigation navigation;
+
 	/** Position of this zone in the world map. */
 	private boolean interior = true;
 
@@ -181,11 +210,13 @@ public class StendhalRPZone extends MarauroaRPZone {
 		players = new LinkedList<Player>();
 		playersAndFriends = new LinkedList<RPEntity>();
 
-		movementListeners = new LinkedList<MovementListener>();
+		movementListeners = new MovementListenerIndex(0, 0);
 		zoneListeners = new LinkedList<ZoneEnterExitListener>();
 
 		collisionMap = new CollisionDetection();
 		protectionMap = new CollisionDetection();
+		entityIndex = new ZoneEntityIndex<Entity>(0, 0);
+		playersAndFriendsIndex = new ZoneEntityIndex<RPEntity>(0, 0);
 		String readable = createReadableName(name);
 		if (!name.equals(readable)) {
 			readableName = readable;
@@ -201,6 +232,9 @@ public class StendhalRPZone extends MarauroaRPZone {
 	public StendhalRPZone(final String name, final int width, final int height) {
 		this(name);
 		collisionMap.init(width, height);
+		entityIndex.resize(width, height);
+		playersAndFriendsIndex.resize(width, height);
+		movementListeners.resize(width, height);
 	}
 
 	public StendhalRPZone(final String name, final StendhalRPZone zone) {
@@ -212,6 +246,9 @@ public class StendhalRPZone extends MarauroaRPZone {
 		contents.addAll(zone.contents);
 		collisionMap = zone.collisionMap;
 		protectionMap  = zone.protectionMap;
+		entityIndex.resize(collisionMap.getWidth(), collisionMap.getHeight());
+		playersAndFriendsIndex.resize(collisionMap.getWidth(), collisionMap.getHeight());
+		movementListeners.resize(collisionMap.getWidth(), collisionMap.getHeight());
 
 		this.zoneid = new ID(name);
 	}
@@ -308,6 +345,7 @@ public class StendhalRPZone extends MarauroaRPZone {
 	 */
 	public void remove(final CreatureRespawnPoint point) {
 		respawnPoints.remove(point);
+		cancelPostponed(point);
 	}
 
 	/**
@@ -335,6 +373,7 @@ public class StendhalRPZone extends MarauroaRPZone {
 	 */
 	public void removePlantGrower(final PassiveEntityRespawnPoint grower) {
 		plantGrowers.remove(grower);
+		cancelPostponed(grower);
 	}
 
 	/** We reserve the first 64 portals ids for hand made portals. */
@@ -451,6 +490,10 @@ public class StendhalRPZone extends MarauroaRPZone {
 			throws IOException {
 		addToContent(name, collisionLayer.encode());
 		collisionMap.setCollisionData(collisionLayer);
+		navigation = null;
+		entityIndex.resize(collisionMap.getWidth(), collisionMap.getHeight());
+		playersAndFriendsIndex.resize(collisionMap.getWidth(), collisionMap.getHeight());
+		movementListeners.resize(collisionMap.getWidth(), collisionMap.getHeight());
 	}
 
 	public void addProtectionLayer(final String name, final LayerDefinition protectionLayer)
@@ -847,6 +890,19 @@ public class StendhalRPZone extends MarauroaRPZone {
 		return collisionMap.collides(x, y, w, h);
 	}
 
+	/**
+	 * Get the precomputed path finding data of the zone. The data is rebuilt
+	 * when the static collision changes.
+	 *
+	 * @return navigation data
+	 */
+	public synchronized ZoneNavigation getNavigation() {
+		if ((navigation == null) || !navigation.isValidFor(collisionMap)) {
+			navigation = new ZoneNavigation(collisionMap);
+		}
+		return navigation;
+	}
+
 	@Override
 	public synchronized void add(final RPObject object) {
 		add(object, true);
@@ -886,6 +942,9 @@ public class StendhalRPZone extends MarauroaRPZone {
 		 */
 		assignRPObjectID(object);
 		super.add(object);
+		if (object instanceof Entity) {
+			entityIndex.add((Entity) object);
+		}
 
 		notifyAdded(object);
 
@@ -912,32 +971,36 @@ public class StendhalRPZone extends MarauroaRPZone {
 		} else if (object instanceof Player) {
 			Player playerObject = (Player) object;
 			players.add(playerObject);
-			playersAndFriends.add(playerObject);
+			addPlayerOrFriend(playerObject);
 			/*
 			 * super.add() clears the events, so this needs to be after it for
 			 * the player to see the zone achievements. Also, Player.onAdded()
 			 * sets the !visited slot, so this should be after it to have the
 			 * achievement appear when the player enters the last missing zone.
 			 */
-			SingletonRepository.getAchievementNotifier().onZoneEnter(playerObject);
+			SingletonRepository.getAchievementNotifier().onZoneEnter(playerObject, this);
 		} else if (object instanceof AttackableCreature) {
-			playersAndFriends.add((AttackableCreature) object);
+			addPlayerOrFriend((AttackableCreature) object);
 		} else if (object instanceof Sheep) {
 			if (((Sheep) object).wasOwned()) {
-				playersAndFriends.add((Sheep) object);
+				addPlayerOrFriend((Sheep) object);
 			}
 		} else if (object instanceof SheepFood) {
 			sheepFoods.add((SheepFood) object);
 		} else if (object instanceof BabyDragon) {
-			playersAndFriends.add((BabyDragon) object);
+			addPlayerOrFriend((BabyDragon) object);
 		} else if (object instanceof SpeakerNPC) {
 			SingletonRepository.getNPCList().add((SpeakerNPC) object);
+			updateHearingRange(((SpeakerNPC) object).getPerceptionRange());
 		} else if (object instanceof Portal) {
 			portals.add((Portal) object);
 		}
 
 		if (object instanceof NPC) {
 			npcs.add((NPC) object);
+			if (((NPC) object).needsLogicWithoutPlayers()) {
+				wakeUp();
+			}
 		}
 
 		// TODO: Move up to MarauroaRPZone?
@@ -951,10 +1014,21 @@ public class StendhalRPZone extends MarauroaRPZone {
 	 */
 	public void addToPlayersAndFriends(RPEntity object) {
 		if (!playersAndFriends.contains(object)) {
-			playersAndFriends.add(object);
+			addPlayerOrFriend(object);
 		}
 	}
 
+	private void addPlayerOrFriend(final RPEntity entity) {
+		playersAndFriends.add(entity);
+		playersAndFriendsIndex.add(entity);
+		onPlayerOrFriendAdded();
+	}
+
+	private void removePlayerOrFriend(final RPEntity entity) {
+		playersAndFriends.remove(entity);
+		playersAndFriendsIndex.remove(entity);
+	}
+
 	private void notifyAdded(final RPObject object) {
 		for (final ZoneEnterExitListener l : zoneListeners) {
 				l.onEntered(object, this);
@@ -984,15 +1058,15 @@ public class StendhalRPZone extends MarauroaRPZone {
 			bloods.remove(object);
 		} else if (object instanceof Player) {
 			players.remove(object);
-			playersAndFriends.remove(object);
+			removePlayerOrFriend((RPEntity) object);
 		} else if (object instanceof AttackableCreature) {
-			playersAndFriends.remove(object);
+			removePlayerOrFriend((RPEntity) object);
 		} else if (object instanceof Sheep) {
-			playersAndFriends.remove(object);
+			removePlayerOrFriend((RPEntity) object);
 		} else if (object instanceof SheepFood) {
 			sheepFoods.remove(object);
 		} else if (object instanceof BabyDragon) {
-			playersAndFriends.remove(object);
+			removePlayerOrFriend((RPEntity) object);
 		} else if (object instanceof SpeakerNPC) {
 			SingletonRepository.getNPCList().remove(((SpeakerNPC) object).getName());
 		} else if (object instanceof Portal) {
@@ -1007,6 +1081,9 @@ public class StendhalRPZone extends MarauroaRPZone {
 		}
 
 		super.remove(id);
+		if (object instanceof Entity) {
+			entityIndex.remove((Entity) object);
+		}
 
 		if (object instanceof Item) {
 			final Item item = (Item) object;
@@ -1154,6 +1231,36 @@ public class StendhalRPZone extends MarauroaRPZone {
 		return false;
 	}
 
+	/**
+	 * Checks whether the given entity could be placed at a tile position.
+	 * The result is the same as that of {@link #collides(Entity, double, double)},
+	 * but the static collision of entities with a whole tile size is looked
+	 * up from a precomputed table. Meant for searches that check many
+	 * positions.
+	 *
+	 * @param entity
+	 *            The entity that would stand on the given position
+	 * @param x
+	 *            The x coordinate of the position where the entity would stand
+	 * @param y
+	 *            The y coordinate of the position where the entity would stand
+	 * @return true iff the entity could stand on the given position
+	 */
+	public synchronized boolean collidesOnPlacement(final Entity entity, final int x, final int y) {
+		final double width = entity.getWidth();
+		final double height = entity.getHeight();
+		final int tileWidth = (int) width;
+		final int tileHeight = (int) height;
+		if ((tileWidth != width) || (tileHeight != height)) {
+			return collides(entity, x, y, true);
+		}
+
+		if (collisionMap.areaCollides(x, y, tileWidth, tileHeight)) {
+			return true;
+		}
+		return collidesObjects(entity, entity.getArea(x, y));
+	}
+
 	public boolean collidesObjects(final Entity entity, final Rectangle2D area) {
 		// For every other object in this zone, check whether it's in the
 		// way.
@@ -1161,22 +1268,95 @@ public class StendhalRPZone extends MarauroaRPZone {
 	}
 
 	private Entity getCollidingObject(final Entity entity, final Rectangle2D area) {
-		for (final RPObject other : objects.values()) {
-			// Ignore same object
-			if (entity != other) {
-				final Entity otherEntity = (Entity) other;
-
-				// Check if the objects overlap
-				if (area.intersects(otherEntity.getX(), otherEntity.getY(), otherEntity.getWidth(), otherEntity.getHeight())) {
-					// Check if it's blocking
-					if (otherEntity.isObstacle(entity)) {
-						return otherEntity;
-					}
-				}
+		return entityIndex.findObstacle(entity, area);
+	}
+
+	/**
+	 * Updates the spatial index after the position or size of an entity
+	 * changed. Entities that are not directly contained in the zone are
+	 * ignored.
+	 *
+	 * @param entity moved or resized entity
+	 */
+	public void onEntityAreaChanged(final Entity entity) {
+		entityIndex.update(entity);
+		playersAndFriendsIndex.update(entity);
+		if (entity instanceof MovementListener) {
+			movementListeners.update((MovementListener) entity);
+		}
+	}
+
+	/**
+	 * Finds the players and their friends near an entity, nearest first.
+	 * The distance is measured like {@link Entity#squaredDistance(Entity)}
+	 * does.
+	 *
+	 * @param entity entity to measure the distance from. It is never
+	 * 	reported itself
+	 * @param range maximum distance
+	 * @param limit maximum number of entities to report
+	 * @param result list where the found entities are appended to, in
+	 * 	ascending order of distance
+	 */
+	public synchronized void findPlayersAndFriendsNear(final Entity entity, final double range,
+			final int limit, final List<? super RPEntity> result) {
+		playersAndFriendsIndex.findNearest(entity, range, limit, result);
+	}
+
+	/**
+	 * Finds the players and their friends whose area intersects a rectangle.
+	 *
+	 * @param area searched area
+	 * @param result list where the found entities are appended to
+	 */
+	public synchronized void findPlayersAndFriendsIn(final Rectangle2D area, final List<? super RPEntity> result) {
+		playersAndFriendsIndex.findIntersecting(area, result);
+	}
+
+	/**
+	 * Lets the speaker NPCs near a player hear what the player said. They
+	 * react on it at the beginning of the next turn.
+	 *
+	 * @param speaker player who said something
+	 * @param text said text
+	 */
+	public void publishChat(final Player speaker, final String text) {
+		final int range = hearingRange;
+		if (range <= 0) {
+			return;
+		}
+
+		final Rectangle2D area = new Rectangle2D.Double(speaker.getX() - range,
+				speaker.getY() - range, 2 * range + 1, 2 * range + 1);
+		for (final Entity entity : getEntitiesIn(area)) {
+			if (entity instanceof SpeakerNPC) {
+				((SpeakerNPC) entity).hear(speaker, text);
 			}
 		}
+	}
 
-		return null;
+	/**
+	 * Makes sure that chat is published far enough for a speaker NPC in this
+	 * zone.
+	 *
+	 * @param range perception range of a speaker NPC
+	 */
+	public void updateHearingRange(final int range) {
+		if (range > hearingRange) {
+			hearingRange = range;
+		}
+	}
+
+	/**
+	 * Finds all entities whose area intersects a rectangle.
+	 *
+	 * @param area searched area
+	 * @return list of entities overlapping area
+	 */
+	public synchronized List<Entity> getEntitiesIn(final Rectangle2D area) {
+		final List<Entity> entities = new ArrayList<Entity>();
+		entityIndex.findIntersecting(area, entities);
+		return entities;
 	}
 
 	/**
@@ -1187,15 +1367,7 @@ public class StendhalRPZone extends MarauroaRPZone {
 	 * @return the first entity found if there are more than one or null if there are none
 	 */
 	public synchronized Entity getEntityAt(final double x, final double y) {
-		for (final RPObject other : objects.values()) {
-			final Entity otherEntity = (Entity) other;
-
-			final Rectangle2D rect = otherEntity.getArea();
-			if (rect.contains(x, y)) {
-				return otherEntity;
-			}
-		}
-		return null;
+		return entityIndex.getAt(x, y);
 	}
 
 	/**
@@ -1206,15 +1378,7 @@ public class StendhalRPZone extends MarauroaRPZone {
 	 */
 	public synchronized List<Entity> getEntitiesAt(final double x, final double y) {
 		List<Entity> entities = new LinkedList<Entity>();
-
-		for (final RPObject other : objects.values()) {
-			final Entity entity = (Entity) other;
-
-			final Rectangle2D rect = entity.getArea();
-			if (rect.contains(x, y)) {
-				entities.add(entity);
-			}
-		}
+		entityIndex.findAt(x, y, entities);
 
 		return entities;
 	}
@@ -1229,14 +1393,8 @@ public class StendhalRPZone extends MarauroaRPZone {
 	public synchronized <T extends Entity> List<T> getEntitiesAt(final double x, final double y, Class<T> clazz) {
 		List<T> entities = new LinkedList<T>();
 
-		for (final RPObject other : objects.values()) {
-			final Entity entity = (Entity) other;
-			if (!clazz.isInstance(entity)) {
-				continue;
-			}
-
-			final Rectangle2D rect = entity.getArea();
-			if (rect.contains(x, y)) {
+		for (final Entity entity : getEntitiesAt(x, y)) {
+			if (clazz.isInstance(entity)) {
 				entities.add(clazz.cast(entity));
 			}
 		}
@@ -1311,11 +1469,8 @@ public class StendhalRPZone extends MarauroaRPZone {
 
 		eArea = entity.getArea(newX, newY);
 
-		for (final MovementListener l : movementListeners) {
-			Rectangle2D area = l.getArea();
-			if (area.intersects(eArea)) {
-				l.onEntered(entity, this, newX, newY);
-			}
+		for (final MovementListener l : movementListeners.findIntersecting(eArea, null)) {
+			l.onEntered(entity, this, newX, newY);
 		}
 	}
 
@@ -1334,11 +1489,8 @@ public class StendhalRPZone extends MarauroaRPZone {
 
 		eArea = entity.getArea(oldX, oldY);
 
-		for (final MovementListener l : movementListeners) {
-			Rectangle2D area = l.getArea();
-			if (area.intersects(eArea)) {
-				l.onExited(entity, this, oldX, oldY);
-			}
+		for (final MovementListener l : movementListeners.findIntersecting(eArea, null)) {
+			l.onExited(entity, this, oldX, oldY);
 		}
 	}
 
@@ -1366,7 +1518,7 @@ public class StendhalRPZone extends MarauroaRPZone {
 		oeArea = entity.getArea(oldX, oldY);
 		neArea = entity.getArea(newX, newY);
 
-		for (final MovementListener l : movementListeners) {
+		for (final MovementListener l : movementListeners.findIntersecting(oeArea, neArea)) {
 			Rectangle2D area = l.getArea();
 
 			oldIn = area.intersects(oeArea);
@@ -1389,19 +1541,11 @@ public class StendhalRPZone extends MarauroaRPZone {
 	public void notifyBeforeMovement(final ActiveEntity entity, final int oldX, final int oldY,
 			final int newX, final int newY) {
 		Rectangle2D neArea;
-		boolean newIn;
 
 		neArea = entity.getArea(newX, newY);
 
-		for (final MovementListener l : movementListeners) {
-			Rectangle2D area = l.getArea();
-
-			newIn = area.intersects(neArea);
-
-			if (newIn) {
-				l.beforeMove(entity, this, oldX, oldY, newX, newY);
-			}
-
+		for (final MovementListener l : movementListeners.findIntersecting(neArea, null)) {
+			l.beforeMove(entity, this, oldX, oldY, newX, newY);
 		}
 	}
 
@@ -1416,8 +1560,11 @@ public class StendhalRPZone extends MarauroaRPZone {
 
 
 	/**
-	 * Register a movement listener for notification. Eventually create a
-	 * macro-block hash to cut down on listeners to check.
+	 * Register a movement listener for notification. The listener is indexed
+	 * by its current area. If the area changes later, the listener must be
+	 * updated with {@link #updateMovementListener(MovementListener)}, unless
+	 * it is an entity in this zone, in which case the index follows its
+	 * position automatically.
 	 *
 	 * @param listener
 	 *            A movement listener to register.
@@ -1436,6 +1583,17 @@ public class StendhalRPZone extends MarauroaRPZone {
 		movementListeners.remove(listener);
 	}
 
+	/**
+	 * Update the index of a registered movement listener after its area
+	 * changed.
+	 *
+	 * @param listener
+	 *            A registered movement listener.
+	 */
+	public void updateMovementListener(final MovementListener listener) {
+		movementListeners.update(listener);
+	}
+
 	@Override
 	public String toString() {
 		return "zone " + zoneid + " at (" + x + "," + y + ", " + level + ") interior: " + isInterior();
@@ -1537,6 +1695,145 @@ public class StendhalRPZone extends MarauroaRPZone {
 		}
 	}
 
+	/**
+	 * Get the current activity state of the zone.
+	 *
+	 * @return activity
+	 */
+	public ZoneActivity getActivity() {
+		return activity;
+	}
+
+	ZoneActivityScheduler getActivityScheduler() {
+		return activityScheduler;
+	}
+
+	void setActivityScheduler(final ZoneActivityScheduler scheduler) {
+		activityScheduler = scheduler;
+	}
+
+	/**
+	 * Postpones a turn deadline until the zone wakes up, if the zone is
+	 * dormant. Respawn points and plant growers use this to avoid filling
+	 * zones nobody is looking at. When the zone wakes up, the listener gets
+	 * called with the turn at which the deadline was originally due.
+	 *
+	 * @param listener listener whose deadline was reached
+	 * @param turn turn of the deadline
+	 * @return <code>true</code> if the deadline was postponed,
+	 * 	<code>false</code> if the listener should act normally
+	 */
+	public synchronized boolean postponeWhileDormant(final ZoneWakeUpListener listener, final int turn) {
+		if (activity != ZoneActivity.DORMANT) {
+			return false;
+		}
+		if (!postponed.containsKey(listener)) {
+			postponed.put(listener, Integer.valueOf(turn));
+		}
+		return true;
+	}
+
+	/**
+	 * Forget a deadline that was postponed while the zone was dormant.
+	 *
+	 * @param listener listener whose deadline is no longer due
+	 */
+	public synchronized void cancelPostponed(final ZoneWakeUpListener listener) {
+		postponed.remove(listener);
+	}
+
+	/**
+	 * Called when a player or a friend of one is added to the zone.
+	 */
+	private void onPlayerOrFriendAdded() {
+		wakeUp();
+		activity = ZoneActivity.ACTIVE;
+	}
+
+	/**
+	 * Brings a dormant zone back into the loop of the zones that run their
+	 * logic. NPCs call this when they start to act without players. The zone
+	 * stays warm until it is allowed to sleep again.
+	 */
+	public synchronized void wakeUp() {
+		if (activity == ZoneActivity.DORMANT) {
+			wakingUp = true;
+			activity = ZoneActivity.WARM;
+			if (activityScheduler != null) {
+				activityScheduler.wakeUp(this);
+			}
+		}
+	}
+
+	/**
+	 * Updates the activity state of the zone. A zone that just woke up
+	 * catches up with everything it skipped while dormant.
+	 *
+	 * @param turn current turn
+	 * @param dormantAfterTurns number of turns an empty zone stays warm, or a
+	 * 	negative number to keep it warm
+	 * @return new activity state
+	 */
+	synchronized ZoneActivity updateActivity(final int turn, final int dormantAfterTurns) {
+		if (wakingUp) {
+			wakingUp = false;
+			catchUp(turn);
+		}
+
+		if (!playersAndFriends.isEmpty()) {
+			activity = ZoneActivity.ACTIVE;
+		} else if (activity == ZoneActivity.ACTIVE) {
+			activity = ZoneActivity.WARM;
+			activitySince = turn;
+		} else if ((activity == ZoneActivity.WARM) && (dormantAfterTurns >= 0)
+				&& (turn - activitySince >= dormantAfterTurns) && canSleep()) {
+			activity = ZoneActivity.DORMANT;
+			activitySince = turn;
+		}
+		return activity;
+	}
+
+	/**
+	 * Check if the logic of the zone can be skipped while there are no
+	 * players.
+	 *
+	 * @return <code>true</code> if none of the NPCs needs its logic run
+	 */
+	private boolean canSleep() {
+		for (final NPC npc : npcs) {
+			if (npc.needsLogicWithoutPlayers()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Lets the NPCs and the postponed deadlines catch up after the zone
+	 * was dormant.
+	 *
+	 * @param turn current turn
+	 */
+	private void catchUp(final int turn) {
+		for (final NPC npc : new ArrayList<NPC>(npcs)) {
+			try {
+				npc.onZoneWakeUp(activitySince, turn);
+			} catch (final Exception e) {
+				logger.error("Error waking up npc in zone " + getID().getID(), e);
+			}
+		}
+
+		final List<Map.Entry<ZoneWakeUpListener, Integer>> due = new ArrayList<Map.Entry<ZoneWakeUpListener, Integer>>(postponed.entrySet());
+		postponed.clear();
+		for (final Map.Entry<ZoneWakeUpListener, Integer> entry : due) {
+			try {
+				entry.getKey().onZoneWakeUp(entry.getValue().intValue(), turn);
+			} catch (final Exception e) {
+				logger.error("Error catching up " + entry.getKey() + " in zone " + getID().getID(), e);
+			}
+		}
+	}
+
 	/**
 	 * Return whether the zone is completely empty.
 	 * @return true if there are no objects in zone
@@ -0,0 +1,23 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+/**
+ * Activity state of a zone.
+ */
+public enum ZoneActivity {
+	/** There are players or their friends in the zone. */
+	ACTIVE,
+	/** The zone is empty, but still runs its logic for a while. */
+	WARM,
+	/** The zone is empty, and its logic is not run at all. */
+	DORMANT
+}
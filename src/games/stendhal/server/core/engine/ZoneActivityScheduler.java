@@ -0,0 +1,149 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps track of the zones that need their logic run.
+ * <p>
+ * A zone with players or their friends is active. Once it gets empty it
+ * becomes warm, and keeps running its logic so that the creatures can stop
+ * attacking and the like. After it has been warm long enough, and none of
+ * its NPCs needs logic without players, it becomes dormant and is dropped
+ * from the per-turn loop. A dormant zone is brought back by the zone itself
+ * as soon as a player, or a friend of one, enters it.
+ */
+public final class ZoneActivityScheduler {
+	/** Default number of turns a zone stays warm before it may sleep. */
+	public static final int DEFAULT_DORMANT_AFTER_TURNS = 100;
+
+	/** Zones that are active or warm. */
+	private final Set<StendhalRPZone> awake = new LinkedHashSet<StendhalRPZone>();
+	/** Zones whose logic is run in the current turn. */
+	private final List<StendhalRPZone> running = new ArrayList<StendhalRPZone>();
+	/**
+	 * Number of turns an empty zone stays warm. Negative values keep empty
+	 * zones warm forever.
+	 */
+	private int dormantAfterTurns = DEFAULT_DORMANT_AFTER_TURNS;
+	/** Number of registered zones. */
+	private int zoneCount;
+	private int activeCount;
+	private int warmCount;
+
+	/**
+	 * Set the number of turns an empty zone keeps running its logic.
+	 *
+	 * @param turns number of turns, or a negative number to never put zones
+	 * 	to sleep
+	 */
+	public void setDormantAfterTurns(final int turns) {
+		dormantAfterTurns = turns;
+	}
+
+	/**
+	 * Registers a zone. New zones start active.
+	 *
+	 * @param zone zone
+	 */
+	public synchronized void add(final StendhalRPZone zone) {
+		if (zone.getActivityScheduler() == this) {
+			return;
+		}
+		zone.setActivityScheduler(this);
+		zoneCount++;
+		awake.add(zone);
+	}
+
+	/**
+	 * Unregisters a zone.
+	 *
+	 * @param zone zone
+	 */
+	public synchronized void remove(final StendhalRPZone zone) {
+		if (zone.getActivityScheduler() != this) {
+			return;
+		}
+		zone.setActivityScheduler(null);
+		zoneCount--;
+		awake.remove(zone);
+	}
+
+	/**
+	 * Puts a woken up zone back into the loop.
+	 *
+	 * @param zone zone
+	 */
+	synchronized void wakeUp(final StendhalRPZone zone) {
+		awake.add(zone);
+	}
+
+	/**
+	 * Updates the activity of the awake zones, and gets the zones whose logic
+	 * should be run in this turn.
+	 *
+	 * @param turn current turn
+	 * @return zones to run. The list is reused in the next turn
+	 */
+	public synchronized List<StendhalRPZone> logic(final int turn) {
+		running.clear();
+		activeCount = 0;
+		warmCount = 0;
+		for (final Iterator<StendhalRPZone> it = awake.iterator(); it.hasNext();) {
+			final StendhalRPZone zone = it.next();
+			switch (zone.updateActivity(turn, dormantAfterTurns)) {
+			case ACTIVE:
+				activeCount++;
+				running.add(zone);
+				break;
+			case WARM:
+				warmCount++;
+				running.add(zone);
+				break;
+			default:
+				it.remove();
+			}
+		}
+		return running;
+	}
+
+	/**
+	 * Get the number of active zones as of the last update.
+	 *
+	 * @return number of zones with players or their friends
+	 */
+	public synchronized int getActiveCount() {
+		return activeCount;
+	}
+
+	/**
+	 * Get the number of warm zones as of the last update.
+	 *
+	 * @return number of empty zones that still run their logic
+	 */
+	public synchronized int getWarmCount() {
+		return warmCount;
+	}
+
+	/**
+	 * Get the number of dormant zones as of the last update.
+	 *
+	 * @return number of zones that are skipped
+	 */
+	public synchronized int getDormantCount() {
+		return zoneCount - activeCount - warmCount;
+	}
+}
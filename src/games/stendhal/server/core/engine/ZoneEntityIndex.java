@@ -0,0 +1,435 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import games.stendhal.server.entity.Entity;
+
+/**
+ * A uniform grid over the tiles of a zone. Every entity is kept in the
+ * buckets of all cells its area overlaps, so that point and rectangle
+ * queries only need to look at the entities near the queried area instead
+ * of every object in the zone.
+ * <p>
+ * The index only narrows down the candidates for the point and rectangle
+ * queries. Callers still need to do the exact area checks on the returned
+ * entities.
+ *
+ * @param <T> type of the indexed entities
+ */
+public final class ZoneEntityIndex<T extends Entity> {
+	/** Width and height of a grid cell in tiles. */
+	static final int CELL_SIZE = 4;
+
+	/** Number of cell columns. */
+	private int columns;
+	/** Number of cell rows. */
+	private int rows;
+	/** Lazily created buckets, indexed by <code>row * columns + column</code>. */
+	private List<List<T>> cells;
+	/**
+	 * Cell ranges the entities are currently stored in, as
+	 * <code>{minColumn, minRow, maxColumn, maxRow}</code>.
+	 */
+	private final Map<T, int[]> ranges = new IdentityHashMap<T, int[]>();
+	/** Distances of the entities found by the last nearest search. */
+	private double[] distances = new double[16];
+
+	/**
+	 * Creates a new index.
+	 *
+	 * @param width zone width in tiles
+	 * @param height zone height in tiles
+	 */
+	public ZoneEntityIndex(final int width, final int height) {
+		createCells(width, height);
+	}
+
+	private void createCells(final int width, final int height) {
+		columns = Math.max(1, (width + CELL_SIZE - 1) / CELL_SIZE);
+		rows = Math.max(1, (height + CELL_SIZE - 1) / CELL_SIZE);
+		final int size = columns * rows;
+		cells = new ArrayList<List<T>>(size);
+		for (int i = 0; i < size; i++) {
+			cells.add(null);
+		}
+	}
+
+	/**
+	 * Changes the grid dimensions and re-indexes all contained entities.
+	 *
+	 * @param width new zone width in tiles
+	 * @param height new zone height in tiles
+	 */
+	public void resize(final int width, final int height) {
+		createCells(width, height);
+		for (final Map.Entry<T, int[]> entry : ranges.entrySet()) {
+			final int[] range = entry.getValue();
+			computeRange(entry.getKey(), range);
+			addToCells(entry.getKey(), range);
+		}
+	}
+
+	/**
+	 * Adds an entity to the index. Adding an entity that is already indexed
+	 * updates its position instead.
+	 *
+	 * @param entity entity to add
+	 */
+	public void add(final T entity) {
+		if (ranges.containsKey(entity)) {
+			update(entity);
+			return;
+		}
+		final int[] range = new int[4];
+		computeRange(entity, range);
+		ranges.put(entity, range);
+		addToCells(entity, range);
+	}
+
+	/**
+	 * Removes an entity from the index.
+	 *
+	 * @param entity entity to remove
+	 */
+	public void remove(final Entity entity) {
+		final int[] range = ranges.remove(entity);
+		if (range != null) {
+			removeFromCells(entity, range);
+		}
+	}
+
+	/**
+	 * Updates the cells of an entity after its position or size changed.
+	 * Entities that are not indexed are ignored.
+	 *
+	 * @param entity moved or resized entity
+	 */
+	@SuppressWarnings("unchecked")
+	public void update(final Entity entity) {
+		final int[] range = ranges.get(entity);
+		if (range == null) {
+			return;
+		}
+		final int minColumn = column(entity.getX());
+		final int minRow = row(entity.getY());
+		final int maxColumn = column(lastTile(entity.getX(), entity.getWidth()));
+		final int maxRow = row(lastTile(entity.getY(), entity.getHeight()));
+		if ((minColumn == range[0]) && (minRow == range[1])
+				&& (maxColumn == range[2]) && (maxRow == range[3])) {
+			// still in the same cells
+			return;
+		}
+		removeFromCells(entity, range);
+		range[0] = minColumn;
+		range[1] = minRow;
+		range[2] = maxColumn;
+		range[3] = maxRow;
+		// only entities of the indexed type have a range
+		addToCells((T) entity, range);
+	}
+
+	/**
+	 * Checks if an entity is indexed.
+	 *
+	 * @param entity entity to check
+	 * @return <code>true</code> if the entity is in the index
+	 */
+	public boolean contains(final Entity entity) {
+		return ranges.containsKey(entity);
+	}
+
+	/**
+	 * Get the number of indexed entities.
+	 *
+	 * @return entity count
+	 */
+	public int size() {
+		return ranges.size();
+	}
+
+	/**
+	 * Removes all entities from the index.
+	 */
+	public void clear() {
+		ranges.clear();
+		for (int i = 0; i < cells.size(); i++) {
+			cells.set(i, null);
+		}
+	}
+
+	/**
+	 * Get the entities whose area contains a point.
+	 *
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param result list where the matching entities are appended to
+	 */
+	public void findAt(final double x, final double y, final List<? super T> result) {
+		final List<T> bucket = cells.get(cellIndex(column(floor(x)), row(floor(y))));
+		if (bucket == null) {
+			return;
+		}
+		for (final T entity : bucket) {
+			if (entity.getArea().contains(x, y)) {
+				result.add(entity);
+			}
+		}
+	}
+
+	/**
+	 * Get the first entity whose area contains a point.
+	 *
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @return entity, or <code>null</code> if there is none
+	 */
+	public T getAt(final double x, final double y) {
+		final List<T> bucket = cells.get(cellIndex(column(floor(x)), row(floor(y))));
+		if (bucket == null) {
+			return null;
+		}
+		for (final T entity : bucket) {
+			if (entity.getArea().contains(x, y)) {
+				return entity;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the entities whose area intersects a rectangle. Every entity is
+	 * reported at most once.
+	 *
+	 * @param area searched area
+	 * @param result list where the matching entities are appended to
+	 */
+	public void findIntersecting(final Rectangle2D area, final List<? super T> result) {
+		final int minColumn = column(floor(area.getX()));
+		final int minRow = row(floor(area.getY()));
+		final int maxColumn = column(lastTile(area.getX(), area.getWidth()));
+		final int maxRow = row(lastTile(area.getY(), area.getHeight()));
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final List<T> bucket = cells.get(cellIndex(column, row));
+				if (bucket == null) {
+					continue;
+				}
+				for (final T entity : bucket) {
+					if (isFirstCell(entity, column, row, minColumn, minRow)
+							&& intersects(area, entity)) {
+						result.add(entity);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds an entity overlapping an area that is an obstacle for another
+	 * entity.
+	 *
+	 * @param entity the entity that would be blocked. It is never reported
+	 * 	itself
+	 * @param area area to check
+	 * @return a blocking entity, or <code>null</code> if the area is free
+	 */
+	public T findObstacle(final Entity entity, final Rectangle2D area) {
+		final int minColumn = column(floor(area.getX()));
+		final int minRow = row(floor(area.getY()));
+		final int maxColumn = column(lastTile(area.getX(), area.getWidth()));
+		final int maxRow = row(lastTile(area.getY(), area.getHeight()));
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final List<T> bucket = cells.get(cellIndex(column, row));
+				if (bucket == null) {
+					continue;
+				}
+				for (final T other : bucket) {
+					if ((other != entity) && intersects(area, other) && other.isObstacle(entity)) {
+						return other;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the entities that are at most a given distance away from an
+	 * entity, nearest first. The distance is measured like
+	 * {@link Entity#squaredDistance(Entity)} does.
+	 *
+	 * @param entity entity to measure the distance from. It is never
+	 * 	reported itself
+	 * @param range maximum distance
+	 * @param limit maximum number of entities to report
+	 * @param result list where the found entities are appended to, in
+	 * 	ascending order of distance
+	 */
+	public void findNearest(final Entity entity, final double range, final int limit,
+			final List<? super T> result) {
+		if (limit <= 0) {
+			return;
+		}
+		final double squaredRange = range * range;
+		final Rectangle2D area = entity.getArea();
+		// a bit larger than the range, so that entities exactly at the range
+		// are not lost to the strict intersection check
+		final double margin = range + 1;
+		final int minColumn = column(floor(area.getX() - margin));
+		final int minRow = row(floor(area.getY() - margin));
+		final int maxColumn = column(lastTile(area.getX() - margin, area.getWidth() + 2 * margin));
+		final int maxRow = row(lastTile(area.getY() - margin, area.getHeight() + 2 * margin));
+		final int start = result.size();
+		int count = 0;
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final List<T> bucket = cells.get(cellIndex(column, row));
+				if (bucket == null) {
+					continue;
+				}
+				for (final T other : bucket) {
+					if ((other == entity) || !isFirstCell(other, column, row, minColumn, minRow)) {
+						continue;
+					}
+					final double distance = entity.squaredDistance(other);
+					if (distance > squaredRange) {
+						continue;
+					}
+					// insertion sort, keeping the nearest ones
+					int pos = count;
+					while ((pos > 0) && (distances[pos - 1] > distance)) {
+						pos--;
+					}
+					if (pos >= limit) {
+						continue;
+					}
+					if (count == limit) {
+						count--;
+						result.remove(start + count);
+					}
+					if (count == distances.length) {
+						distances = Arrays.copyOf(distances, 2 * count);
+					}
+					System.arraycopy(distances, pos, distances, pos + 1, count - pos);
+					distances[pos] = distance;
+					result.add(start + pos, other);
+					count++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check if the cell is the first one of the queried range that contains
+	 * the entity. Used for avoiding reporting entities spanning several cells
+	 * more than once.
+	 */
+	private boolean isFirstCell(final Entity entity, final int column, final int row,
+			final int minColumn, final int minRow) {
+		final int[] range = ranges.get(entity);
+		return (column == Math.max(range[0], minColumn)) && (row == Math.max(range[1], minRow));
+	}
+
+	private static boolean intersects(final Rectangle2D area, final Entity entity) {
+		return area.intersects(entity.getX(), entity.getY(), entity.getWidth(), entity.getHeight());
+	}
+
+	private void computeRange(final Entity entity, final int[] range) {
+		range[0] = column(entity.getX());
+		range[1] = row(entity.getY());
+		range[2] = column(lastTile(entity.getX(), entity.getWidth()));
+		range[3] = row(lastTile(entity.getY(), entity.getHeight()));
+	}
+
+	private void addToCells(final T entity, final int[] range) {
+		for (int row = range[1]; row <= range[3]; row++) {
+			for (int column = range[0]; column <= range[2]; column++) {
+				final int index = cellIndex(column, row);
+				List<T> bucket = cells.get(index);
+				if (bucket == null) {
+					bucket = new ArrayList<T>(4);
+					cells.set(index, bucket);
+				}
+				bucket.add(entity);
+			}
+		}
+	}
+
+	private void removeFromCells(final Entity entity, final int[] range) {
+		for (int row = range[1]; row <= range[3]; row++) {
+			for (int column = range[0]; column <= range[2]; column++) {
+				final List<T> bucket = cells.get(cellIndex(column, row));
+				if (bucket == null) {
+					continue;
+				}
+				for (int i = bucket.size() - 1; i >= 0; i--) {
+					if (bucket.get(i) == entity) {
+						bucket.remove(i);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	private int cellIndex(final int column, final int row) {
+		return row * columns + column;
+	}
+
+	/**
+	 * Get the column of a tile. Tiles outside the zone are clamped to the
+	 * border cells.
+	 */
+	private int column(final int tileX) {
+		return clamp(tileX / CELL_SIZE, columns);
+	}
+
+	/**
+	 * Get the row of a tile. Tiles outside the zone are clamped to the
+	 * border cells.
+	 */
+	private int row(final int tileY) {
+		return clamp(tileY / CELL_SIZE, rows);
+	}
+
+	private static int clamp(final int cell, final int count) {
+		if (cell < 0) {
+			return 0;
+		}
+		if (cell >= count) {
+			return count - 1;
+		}
+		return cell;
+	}
+
+	private static int floor(final double value) {
+		return (int) Math.floor(value);
+	}
+
+	/**
+	 * Get the last tile covered by a span. Empty spans are treated as
+	 * covering their start tile.
+	 */
+	private static int lastTile(final double start, final double length) {
+		if (length <= 0) {
+			return floor(start);
+		}
+		return Math.max(floor(start), (int) Math.ceil(start + length) - 1);
+	}
+}
@@ -0,0 +1,27 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+/**
+ * A listener whose turn deadline was postponed because its zone was dormant.
+ *
+ * @see StendhalRPZone#postponeWhileDormant(ZoneWakeUpListener, int)
+ */
+public interface ZoneWakeUpListener {
+	/**
+	 * Called when the zone wakes up. The listener should catch up with
+	 * everything that would have happened since the postponed deadline.
+	 *
+	 * @param dueTurn turn at which the deadline was reached
+	 * @param currentTurn the current turn
+	 */
+	void onZoneWakeUp(int dueTurn, int currentTurn);
+}
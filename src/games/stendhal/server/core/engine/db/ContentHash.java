@@ -0,0 +1,116 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+
+import marauroa.common.crypto.Hash;
+
+/**
+ * A hash of the game data dumped to the database for the website.
+ * <p>
+ * The dumped rows are hashed by writing them into the statement returned by
+ * {@link #getStatement()}, so that the hash covers exactly the values which
+ * would be written to the database.
+ */
+public final class ContentHash {
+	private final MessageDigest digest;
+	private final PreparedStatement statement;
+
+	/**
+	 * Create a new empty ContentHash.
+	 */
+	public ContentHash() {
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		statement = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, new StatementHandler());
+	}
+
+	/**
+	 * Add a value to the hash.
+	 *
+	 * @param value value, may be <code>null</code>
+	 */
+	public void add(final Object value) {
+		if (value == null) {
+			digest.update((byte) 0);
+		} else {
+			digest.update((byte) 1);
+			digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+	}
+
+	/**
+	 * Get a statement that adds the parameters set on it to the hash. It
+	 * does not execute anything.
+	 *
+	 * @return statement
+	 */
+	public PreparedStatement getStatement() {
+		return statement;
+	}
+
+	/**
+	 * Get the hash of the added values. The hash can not be extended
+	 * afterwards.
+	 *
+	 * @return hash as hex string
+	 */
+	public String getHash() {
+		return Hash.toHexString(digest.digest());
+	}
+
+	/**
+	 * Adds the parameters and batches of the statement to the hash.
+	 */
+	private final class StatementHandler implements InvocationHandler {
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args) throws Exception {
+			if (method.getDeclaringClass() == Object.class) {
+				return method.invoke(this, args);
+			}
+			final String name = method.getName();
+			if (name.startsWith("set") && (args != null) && (args.length >= 2)) {
+				add(args[0]);
+				add(args[1]);
+			} else if (name.equals("addBatch") || name.equals("clearParameters")) {
+				add(name);
+			}
+			return defaultValue(method.getReturnType());
+		}
+
+		private Object defaultValue(final Class<?> type) {
+			if (type == boolean.class) {
+				return Boolean.FALSE;
+			} else if (type == int.class) {
+				return Integer.valueOf(0);
+			} else if (type == long.class) {
+				return Long.valueOf(0);
+			} else if (type == int[].class) {
+				return new int[0];
+			} else if (type == long[].class) {
+				return new long[0];
+			}
+			return null;
+		}
+	}
+}
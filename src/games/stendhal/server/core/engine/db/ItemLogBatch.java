@@ -0,0 +1,297 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import games.stendhal.server.entity.RPEntity;
+import games.stendhal.server.util.StringUtils;
+import marauroa.common.game.RPObject;
+import marauroa.server.db.DBTransaction;
+
+/**
+ * Collects item log writes of several item events, and executes them as
+ * JDBC batches. The events are written in two steps:
+ * <ol>
+ * <li>{@link #assignIDIfNotPresent(RPObject, Timestamp)} for all items that
+ * 	need a log id, followed by {@link #assignIDs()}, which inserts the new
+ * 	items in one batch</li>
+ * <li>{@link #writeEntry(Timestamp, int, RPEntity, String, String, String, String, String)}
+ * 	for the log rows, followed by {@link #execute()}, which inserts them in
+ * 	one batch</li>
+ * </ol>
+ */
+public class ItemLogBatch {
+	private static final String INSERT_ITEM = "INSERT INTO item (name, timedate) VALUES (?, ?)";
+	private static final String INSERT_LOG = "INSERT INTO itemlog (itemid, source, event, "
+			+ "param1, param2, param3, param4, timedate) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private final DBTransaction transaction;
+	/** Items waiting for a log id, with the time of their first event. */
+	private final Map<RPObject, Timestamp> unregistered = new IdentityHashMap<RPObject, Timestamp>();
+	/** Items waiting for a log id, in the order they were requested. */
+	private final List<RPObject> registerOrder = new ArrayList<RPObject>();
+	private PreparedStatement logStatement;
+	private int entries;
+
+	/**
+	 * Creates a new ItemLogBatch.
+	 *
+	 * @param transaction transaction to write to
+	 */
+	ItemLogBatch(final DBTransaction transaction) {
+		this.transaction = transaction;
+	}
+
+	/**
+	 * Requests a log id for an item in case it does not already have one.
+	 * The id is assigned by {@link #assignIDs()}.
+	 *
+	 * @param item item
+	 * @param timestamp timestamp
+	 */
+	public void assignIDIfNotPresent(final RPObject item, final Timestamp timestamp) {
+		if (ItemLogIDs.has(item) || unregistered.containsKey(item)) {
+			return;
+		}
+		unregistered.put(item, timestamp);
+		registerOrder.add(item);
+	}
+
+	/**
+	 * Inserts the items that requested a log id, assigns the ids to the
+	 * items, and logs their registration.
+	 *
+	 * @throws SQLException in case of a database error
+	 */
+	public void assignIDs() throws SQLException {
+		if (registerOrder.isEmpty()) {
+			return;
+		}
+		final int[] ids = insertItems();
+		for (int i = 0; i < ids.length; i++) {
+			final RPObject item = registerOrder.get(i);
+			ItemLogIDs.assign(item, ids[i]);
+			writeEntry(unregistered.get(item), ids[i], null, "register", getAttribute(item, "name"),
+					getAttribute(item, "quantity"), getAttribute(item, "itemdata"), getAttribute(item, "bound"));
+		}
+		unregistered.clear();
+		registerOrder.clear();
+	}
+
+	/**
+	 * Insert the items waiting for an id.
+	 *
+	 * @return ids of the items in the register order
+	 * @throws SQLException in case of a database error
+	 */
+	private int[] insertItems() throws SQLException {
+		final int[] ids = new int[registerOrder.size()];
+		final Connection connection = getLogStatement().getConnection();
+		final Savepoint savepoint = connection.setSavepoint();
+		final PreparedStatement stmt = connection.prepareStatement(INSERT_ITEM, Statement.RETURN_GENERATED_KEYS);
+		try {
+			for (final RPObject item : registerOrder) {
+				setItemParameters(stmt, item);
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+			final ResultSet keys = stmt.getGeneratedKeys();
+			int count = 0;
+			while (keys.next()) {
+				if (count < ids.length) {
+					ids[count] = keys.getInt(1);
+				}
+				count++;
+			}
+			keys.close();
+			if (count == ids.length) {
+				connection.releaseSavepoint(savepoint);
+				return ids;
+			}
+
+			/*
+			 * MySQL reports the keys of every row of a batch, but some drivers,
+			 * like H2, only the last one. Undo the batch, and insert the items
+			 * one by one to get the id of each.
+			 */
+			connection.rollback(savepoint);
+			for (int i = 0; i < ids.length; i++) {
+				setItemParameters(stmt, registerOrder.get(i));
+				stmt.executeUpdate();
+				ids[i] = getGeneratedKey(stmt);
+			}
+			return ids;
+		} finally {
+			stmt.close();
+		}
+	}
+
+	/**
+	 * Sets the parameters of an item insert statement.
+	 *
+	 * @param stmt statement
+	 * @param item item to insert
+	 * @throws SQLException in case of a database error
+	 */
+	private void setItemParameters(final PreparedStatement stmt, final RPObject item) throws SQLException {
+		stmt.setString(1, item.get("name"));
+		stmt.setTimestamp(2, unregistered.get(item));
+	}
+
+	/**
+	 * Get the id of the item inserted last.
+	 *
+	 * @param stmt statement that inserted the item
+	 * @return id
+	 * @throws SQLException in case of a database error
+	 */
+	private int getGeneratedKey(final PreparedStatement stmt) throws SQLException {
+		final ResultSet keys = stmt.getGeneratedKeys();
+		try {
+			if (keys.next()) {
+				return keys.getInt(1);
+			}
+		} finally {
+			keys.close();
+		}
+		return transaction.getLastInsertId("item", "id");
+	}
+
+	/**
+	 * Get the prepared statement for the log entries.
+	 *
+	 * @return statement
+	 * @throws SQLException in case of a database error
+	 */
+	private PreparedStatement getLogStatement() throws SQLException {
+		if (logStatement == null) {
+			logStatement = transaction.prepareStatement(INSERT_LOG, null);
+		}
+		return logStatement;
+	}
+
+	/**
+	 * Adds a log entry to the batch.
+	 *
+	 * @param timestamp timestamp
+	 * @param itemid itemid of item
+	 * @param player player object
+	 * @param event  name of event
+	 * @param param1 param 1
+	 * @param param2 param 2
+	 * @param param3 param 3
+	 * @param param4 param 4
+	 * @throws SQLException in case of an database error
+	 */
+	public void writeEntry(final Timestamp timestamp, final int itemid, final RPEntity player, final String event,
+			final String param1, final String param2, final String param3, final String param4) throws SQLException {
+		final PreparedStatement stmt = getLogStatement();
+		String playerName = null;
+		if (player != null) {
+			playerName = player.getName();
+		}
+		stmt.setInt(1, itemid);
+		stmt.setString(2, column(playerName));
+		stmt.setString(3, column(event));
+		stmt.setString(4, column(param1));
+		stmt.setString(5, column(param2));
+		stmt.setString(6, column(param3));
+		stmt.setString(7, column(param4));
+		stmt.setTimestamp(8, timestamp);
+		stmt.addBatch();
+		entries++;
+	}
+
+	/**
+	 * Adds a log entry of an item with a log id to the batch.
+	 *
+	 * @param timestamp timestamp
+	 * @param item item
+	 * @param player player object
+	 * @param event  name of event
+	 * @param param1 param 1
+	 * @param param2 param 2
+	 * @param param3 param 3
+	 * @param param4 param 4
+	 * @throws SQLException in case of an database error
+	 */
+	public void writeEntry(final Timestamp timestamp, final RPObject item, final RPEntity player, final String event,
+			final String param1, final String param2, final String param3, final String param4) throws SQLException {
+		writeEntry(timestamp, ItemLogIDs.get(item), player, event, param1, param2, param3, param4);
+	}
+
+	/**
+	 * Get the number of log entries added to the batch since the last
+	 * execution.
+	 *
+	 * @return number of log entries
+	 */
+	public int size() {
+		return entries;
+	}
+
+	/**
+	 * Writes the collected log entries.
+	 *
+	 * @throws SQLException in case of an database error
+	 */
+	public void execute() throws SQLException {
+		if (logStatement == null) {
+			return;
+		}
+		if (entries > 0) {
+			logStatement.executeBatch();
+			entries = 0;
+		}
+		logStatement.close();
+		logStatement = null;
+	}
+
+	/**
+	 * Converts a value for a text column. Missing values are written as empty
+	 * strings, like the templated queries do.
+	 *
+	 * @param value value
+	 * @return column value
+	 */
+	private static String column(final String value) {
+		if (value == null) {
+			return "";
+		}
+		return StringUtils.trimTo(value, 64);
+	}
+
+	/**
+	 * gets an optional attribute.
+	 *
+	 * @param object object to read the optional attribute from
+	 * @param attribute
+	 * @return attribute value, or "null" if the object does not have it
+	 */
+	private String getAttribute(final RPObject object, final String attribute) {
+		if (object.has(attribute)) {
+			return object.get(attribute);
+		} else {
+			return "null";
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import games.stendhal.server.core.events.TurnListener;
+import games.stendhal.server.core.events.TurnNotifier;
+import marauroa.common.game.RPObject;
+
+/**
+ * Log ids of items. New ids are assigned on the database thread, but items
+ * may only be changed on the game thread, where their changes are tracked for
+ * saving the players. A new id is kept here until the game thread has stored
+ * it in the item.
+ */
+public final class ItemLogIDs {
+	/** Assigned ids, which are not yet stored in their items. */
+	private static final Map<RPObject, Integer> pending = Collections.synchronizedMap(
+			new IdentityHashMap<RPObject, Integer>());
+
+	private ItemLogIDs() {
+		// static methods only
+	}
+
+	/**
+	 * Checks if an item has a log id.
+	 *
+	 * @param item item
+	 * @return <code>true</code> if the item has been assigned a log id
+	 */
+	public static boolean has(final RPObject item) {
+		// the game thread removes a pending id only after storing it in the item
+		return pending.containsKey(item) || item.has(StendhalItemDAO.ATTR_ITEM_LOGID);
+	}
+
+	/**
+	 * Get the log id of an item.
+	 *
+	 * @param item item that has a log id
+	 * @return log id
+	 */
+	public static int get(final RPObject item) {
+		final Integer id = pending.get(item);
+		if (id != null) {
+			return id.intValue();
+		}
+		return item.getInt(StendhalItemDAO.ATTR_ITEM_LOGID);
+	}
+
+	/**
+	 * Assigns a log id to an item. The id is stored in the item on the next
+	 * turn.
+	 *
+	 * @param item item
+	 * @param id log id
+	 */
+	static void assign(final RPObject item, final int id) {
+		pending.put(item, Integer.valueOf(id));
+		TurnNotifier.get().notifyInTurns(0, new TurnListener() {
+			@Override
+			public void onTurnReached(final int currentTurn) {
+				item.put(StendhalItemDAO.ATTR_ITEM_LOGID, id);
+				pending.remove(item);
+			}
+		});
+	}
+}
@@ -0,0 +1,444 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import marauroa.common.game.Definition;
+import marauroa.common.game.Definition.DefinitionClass;
+import marauroa.common.game.RPClass;
+import marauroa.common.game.RPEvent;
+import marauroa.common.game.RPObject;
+import marauroa.common.game.RPSlot;
+
+/**
+ * Binary snapshot format for the stored player objects.
+ * <p>
+ * Player objects repeat the same strings many times: quest names, the keys of
+ * keyed slots such as <code>!visited</code> and <code>!kills</code>, and
+ * the class names of the items. A snapshot writes every distinct string only
+ * the first time, and refers to it by index after that. Numeric values are
+ * written as variable length integers. The result is deflate compressed.
+ * <p>
+ * The same attributes, maps and slots are written as by the marauroa
+ * serialization with <code>DetailLevel.FULL</code>. Objects with stored
+ * links or events are not supported, and {@link #encode(RPObject)} returns
+ * <code>null</code> for them, so that they are written in the legacy format.
+ * <p>
+ * Snapshots start with a magic header. Legacy blobs are plain zlib streams,
+ * which start with <code>0x78</code>, so the two formats can be told apart by
+ * {@link #isSnapshot(byte[])}.
+ */
+public final class PlayerSnapshotCodec {
+	/** Format version. Increase on incompatible changes. */
+	static final int VERSION = 1;
+	private static final byte[] MAGIC = { 'S', 'P', 'S' };
+	private static final int HEADER_SIZE = MAGIC.length + 1;
+
+	private static final int FLAG_HIDDEN = 1;
+	private static final int FLAG_STORABLE = 2;
+
+	private static final int TAG_REFERENCE = 0;
+	private static final int TAG_NUMBER = 1;
+	private static final int TAG_STRING = 2;
+
+	/**
+	 * Longest numbers written as integers. Longer ones are written as strings,
+	 * so that the tagged number fits in a long.
+	 */
+	private static final int MAX_NUMBER_DIGITS = 18;
+
+	private PlayerSnapshotCodec() {
+		// static methods only
+	}
+
+	/**
+	 * Check if the data is a snapshot.
+	 *
+	 * @param data stored data
+	 * @return <code>true</code> if the data starts with the snapshot header,
+	 * 	<code>false</code> for legacy data
+	 */
+	public static boolean isSnapshot(final byte[] data) {
+		if ((data == null) || (data.length < HEADER_SIZE)) {
+			return false;
+		}
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (data[i] != MAGIC[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Encode an object as a snapshot.
+	 *
+	 * @param object object to encode
+	 * @return snapshot data, or <code>null</code> if the object contains
+	 * 	parts the format does not support
+	 * @throws IOException on an encoding error
+	 */
+	public static byte[] encode(final RPObject object) throws IOException {
+		final ByteArrayOutputStream result = new ByteArrayOutputStream();
+		result.write(MAGIC);
+		result.write(VERSION);
+		final Deflater deflater = new Deflater();
+		try {
+			final DeflaterOutputStream out = new DeflaterOutputStream(result, deflater);
+			if (!new Encoder(out).writeObject(object)) {
+				return null;
+			}
+			out.close();
+		} finally {
+			deflater.end();
+		}
+		return result.toByteArray();
+	}
+
+	/**
+	 * Decode a snapshot.
+	 *
+	 * @param data snapshot data
+	 * @return decoded object
+	 * @throws IOException if the data is not a valid snapshot
+	 */
+	public static RPObject decode(final byte[] data) throws IOException {
+		if (!isSnapshot(data)) {
+			throw new IOException("Not a player snapshot");
+		}
+		final int version = data[MAGIC.length];
+		if (version != VERSION) {
+			throw new IOException("Unsupported player snapshot version " + version);
+		}
+
+		final InputStream in = new InflaterInputStream(new ByteArrayInputStream(data, HEADER_SIZE, data.length - HEADER_SIZE));
+		try {
+			return new Decoder(in).readObject();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes the object tree.
+	 */
+	private static class Encoder {
+		private final OutputStream out;
+		/** Indices of the strings written so far. */
+		private final Map<String, Integer> dictionary = new HashMap<String, Integer>();
+
+		Encoder(final OutputStream out) {
+			this.out = out;
+		}
+
+		/**
+		 * Write an object and its contents.
+		 *
+		 * @param object written object
+		 * @return <code>false</code> if the object can not be written as a
+		 * 	snapshot
+		 * @throws IOException on an encoding error
+		 */
+		private boolean writeObject(final RPObject object) throws IOException {
+			final RPClass rpClass = object.getRPClass();
+			// Links can only be looked up by name
+			for (RPClass c = rpClass; c != null; c = c.getParent()) {
+				for (final Definition definition : c.getDefinitions()) {
+					if ((definition.getDefinitionClass() == DefinitionClass.RPLINK)
+							&& definition.isStorable() && object.hasLink(definition.getName())) {
+						return false;
+					}
+				}
+			}
+			for (final RPEvent event : object.events()) {
+				if (isStorable(rpClass, DefinitionClass.RPEVENT, event.getName())) {
+					return false;
+				}
+			}
+
+			writeString(rpClass.getName());
+			int flags = 0;
+			if (object.isHidden()) {
+				flags |= FLAG_HIDDEN;
+			}
+			if (object.isStorable()) {
+				flags |= FLAG_STORABLE;
+			}
+			out.write(flags);
+
+			final List<String> attributes = new ArrayList<String>();
+			for (final String name : object) {
+				if (isStorable(rpClass, DefinitionClass.ATTRIBUTE, name)) {
+					attributes.add(name);
+				}
+			}
+			writeVarLong(out, attributes.size());
+			for (final String name : attributes) {
+				writeString(name);
+				writeString(object.get(name));
+			}
+
+			final Map<String, Map<String, String>> maps = new LinkedHashMap<String, Map<String, String>>();
+			for (final Map.Entry<String, Map<String, String>> entry : object.maps().entrySet()) {
+				if (isStorable(rpClass, DefinitionClass.ATTRIBUTE, entry.getKey())) {
+					maps.put(entry.getKey(), entry.getValue());
+				}
+			}
+			writeVarLong(out, maps.size());
+			for (final Map.Entry<String, Map<String, String>> entry : maps.entrySet()) {
+				writeString(entry.getKey());
+				writeVarLong(out, entry.getValue().size());
+				for (final Map.Entry<String, String> value : entry.getValue().entrySet()) {
+					writeString(value.getKey());
+					writeString(value.getValue());
+				}
+			}
+
+			final List<RPSlot> slots = new ArrayList<RPSlot>();
+			for (final RPSlot slot : object.slots()) {
+				if (isStorable(rpClass, DefinitionClass.RPSLOT, slot.getName())) {
+					slots.add(slot);
+				}
+			}
+			writeVarLong(out, slots.size());
+			for (final RPSlot slot : slots) {
+				writeString(slot.getName());
+				writeVarLong(out, slot.size());
+				for (final RPObject content : slot) {
+					if (!writeObject(content)) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Write a string. The lowest two bits of the tag tell if the string is
+		 * a reference to an earlier string, a number, or a new string that
+		 * follows the tag as UTF-8.
+		 *
+		 * @param value written string
+		 * @throws IOException on an encoding error
+		 */
+		private void writeString(final String value) throws IOException {
+			final Integer index = dictionary.get(value);
+			if (index != null) {
+				writeVarLong(out, ((long) index.intValue()) << 2 | TAG_REFERENCE);
+			} else if (isCanonicalNumber(value)) {
+				final long number = Long.parseLong(value);
+				writeVarLong(out, ((number << 1) ^ (number >> 63)) << 2 | TAG_NUMBER);
+			} else {
+				dictionary.put(value, Integer.valueOf(dictionary.size()));
+				final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				writeVarLong(out, ((long) bytes.length) << 2 | TAG_STRING);
+				out.write(bytes);
+			}
+		}
+	}
+
+	/**
+	 * Reads the object tree.
+	 */
+	private static class Decoder {
+		private final InputStream in;
+		/** The strings read so far. */
+		private final List<String> dictionary = new ArrayList<String>();
+
+		Decoder(final InputStream in) {
+			this.in = in;
+		}
+
+		private RPObject readObject() throws IOException {
+			final RPObject object = new RPObject();
+			object.setRPClass(readString());
+			final int flags = in.read();
+			if (flags < 0) {
+				throw new EOFException();
+			}
+			if ((flags & FLAG_HIDDEN) != 0) {
+				object.hide();
+			}
+			if ((flags & FLAG_STORABLE) != 0) {
+				object.store();
+			}
+
+			final int attributes = readInt(in);
+			for (int i = 0; i < attributes; i++) {
+				final String name = readString();
+				object.put(name, readString());
+			}
+
+			final int maps = readInt(in);
+			for (int i = 0; i < maps; i++) {
+				final String name = readString();
+				object.addMap(name);
+				final int entries = readInt(in);
+				for (int j = 0; j < entries; j++) {
+					final String key = readString();
+					object.put(name, key, readString());
+				}
+			}
+
+			final int slots = readInt(in);
+			for (int i = 0; i < slots; i++) {
+				final String name = readString();
+				final RPSlot slot = new RPSlot(name);
+				object.addSlot(slot);
+				final int contents = readInt(in);
+				for (int j = 0; j < contents; j++) {
+					slot.addPreservingId(readObject());
+				}
+				// Capacity is not stored. Use the defined, like marauroa does
+				final Definition definition = object.getRPClass().getDefinition(DefinitionClass.RPSLOT, name);
+				if (definition != null) {
+					slot.setCapacity(definition.getCapacity());
+				}
+			}
+			return object;
+		}
+
+		private String readString() throws IOException {
+			final long tag = readVarLong(in);
+			final long value = tag >>> 2;
+			switch ((int) (tag & 3)) {
+			case TAG_REFERENCE:
+				if (value >= dictionary.size()) {
+					throw new IOException("Invalid string reference " + value);
+				}
+				return dictionary.get((int) value);
+			case TAG_NUMBER:
+				return Long.toString((value >>> 1) ^ -(value & 1));
+			case TAG_STRING:
+				if (value > Integer.MAX_VALUE) {
+					throw new IOException("Invalid string length " + value);
+				}
+				final byte[] bytes = new byte[(int) value];
+				readFully(in, bytes);
+				final String string = new String(bytes, StandardCharsets.UTF_8);
+				dictionary.add(string);
+				return string;
+			default:
+				throw new IOException("Invalid string tag " + tag);
+			}
+		}
+	}
+
+	/**
+	 * Check if an attribute, slot, link or event is written to the database.
+	 *
+	 * @param rpClass class of the object
+	 * @param type definition type
+	 * @param name name of the attribute, slot, link or event
+	 * @return <code>true</code> if the definition exists and is storable
+	 */
+	private static boolean isStorable(final RPClass rpClass, final DefinitionClass type, final String name) {
+		final Definition definition = rpClass.getDefinition(type, name);
+		return (definition != null) && definition.isStorable();
+	}
+
+	/**
+	 * Check if a value is a number that is converted back to the same
+	 * string, such as "-12", but not "012", "+1" or "-0".
+	 *
+	 * @param value checked value
+	 * @return <code>true</code> if the value can be written as a number
+	 */
+	static boolean isCanonicalNumber(final String value) {
+		final int start = value.startsWith("-") ? 1 : 0;
+		final int digits = value.length() - start;
+		if ((digits < 1) || (digits > MAX_NUMBER_DIGITS)) {
+			return false;
+		}
+		if ((value.charAt(start) == '0') && ((digits > 1) || (start > 0))) {
+			return false;
+		}
+		for (int i = start; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if ((c < '0') || (c > '9')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Write a non negative number in 7 bit groups, lowest first.
+	 *
+	 * @param out output stream
+	 * @param value written value
+	 * @throws IOException on a write error
+	 */
+	static void writeVarLong(final OutputStream out, final long value) throws IOException {
+		long remaining = value;
+		while ((remaining & ~0x7FL) != 0) {
+			out.write((int) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		out.write((int) remaining);
+	}
+
+	/**
+	 * Read a number written by {@link #writeVarLong(OutputStream, long)}.
+	 *
+	 * @param in input stream
+	 * @return read value
+	 * @throws IOException on a read error or invalid data
+	 */
+	static long readVarLong(final InputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			final int b = in.read();
+			if (b < 0) {
+				throw new EOFException();
+			}
+			value |= ((long) (b & 0x7F)) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length number");
+	}
+
+	private static int readInt(final InputStream in) throws IOException {
+		final long value = readVarLong(in);
+		if ((value < 0) || (value > Integer.MAX_VALUE)) {
+			throw new IOException("Invalid length " + value);
+		}
+		return (int) value;
+	}
+
+	private static void readFully(final InputStream in, final byte[] buffer) throws IOException {
+		int offset = 0;
+		while (offset < buffer.length) {
+			final int count = in.read(buffer, offset, buffer.length - offset);
+			if (count < 0) {
+				throw new EOFException();
+			}
+			offset += count;
+		}
+	}
+}
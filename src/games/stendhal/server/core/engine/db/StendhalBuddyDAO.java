@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2003-2010 - Stendhal                   *
+ *                    (C) Copyright 2003-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -23,6 +23,7 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
 import games.stendhal.server.entity.player.Player;
+import games.stendhal.server.entity.player.PlayerChanges;
 import marauroa.server.db.DBTransaction;
 
 /**
@@ -79,12 +80,51 @@ public class StendhalBuddyDAO {
 	 * @throws SQLException in case of an database error
 	 */
 	public void saveRelations(DBTransaction transaction, String charname, Player player) throws SQLException {
-		Multimap<String, String> oldList = loadRelations(transaction, charname);
+		saveRelations(transaction, charname, player, loadRelations(transaction, charname));
+	}
+
+
+	/**
+	 * saves the buddy list for the specified charname, comparing it to the
+	 * last stored list instead of reading the stored list from the database
+	 *
+	 * @param transaction transaction
+	 * @param charname name of char
+	 * @param player player
+	 * @param changes change tracking of the player
+	 * @throws SQLException in case of an database error
+	 */
+	public void saveRelations(DBTransaction transaction, String charname, Player player, PlayerChanges changes) throws SQLException {
+		Multimap<String, String> oldList = changes.getStoredRelations();
+		if (oldList == null) {
+			oldList = loadRelations(transaction, charname);
+		}
+		changes.setStoredRelations(saveRelations(transaction, charname, player, oldList));
+	}
+
 
+	/**
+	 * saves the buddy list for the specified charname
+	 *
+	 * @param transaction transaction
+	 * @param charname name of char
+	 * @param player player
+	 * @param oldList stored relations
+	 * @return current relations
+	 * @throws SQLException in case of an database error
+	 */
+	private Multimap<String, String> saveRelations(DBTransaction transaction, String charname, Player player,
+			Multimap<String, String> oldList) throws SQLException {
 		Set<String> buddies = player.getBuddies();
 		buddies.add(charname);
+		Set<String> ignores = player.getIgnores();
 		syncBuddyListToDB(transaction, charname, "buddy", oldList.get("buddy"), buddies);
-		syncBuddyListToDB(transaction, charname, "ignore", oldList.get("ignore"), player.getIgnores());
+		syncBuddyListToDB(transaction, charname, "ignore", oldList.get("ignore"), ignores);
+
+		HashMultimap<String, String> relations = HashMultimap.create();
+		relations.putAll("buddy", buddies);
+		relations.putAll("ignore", ignores);
+		return relations;
 	}
 
 
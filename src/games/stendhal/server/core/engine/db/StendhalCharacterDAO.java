@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2003-2020 - Stendhal                   *
+ *                    (C) Copyright 2003-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -18,6 +18,8 @@ import java.sql.Timestamp;
 import org.apache.log4j.Logger;
 
 import games.stendhal.server.entity.player.Player;
+import games.stendhal.server.entity.player.PlayerChanges;
+import games.stendhal.server.entity.player.PlayerChanges.Section;
 import marauroa.common.game.RPObject;
 import marauroa.server.db.DBTransaction;
 import marauroa.server.game.db.CharacterDAO;
@@ -56,24 +58,33 @@ public class StendhalCharacterDAO extends CharacterDAO {
 	public void storeCharacter(final DBTransaction transaction, final String username,
 			final String character, final RPObject player, Timestamp timestamp) throws SQLException, IOException {
 
-		super.storeCharacter(transaction, username, character, player, timestamp);
+		if (!(player instanceof Player)) {
+			super.storeCharacter(transaction, username, character, player, timestamp);
+			logger.error("player no instance of Player but: " + player, new Throwable());
+			return;
+		}
+
+		// Only the sections that changed since the last save are written
+		final Player instance = (Player) player;
+		final PlayerChanges changes = instance.getChanges();
+		if (!player.has("#db_id") || changes.isChanged(Section.ATTRIBUTES, Section.SLOTS, Section.QUESTS)) {
+			super.storeCharacter(transaction, username, character, player, timestamp);
+		}
 
 		// Here goes the Stendhal specific code.
-		if (player instanceof Player) {
-			try {
-				final Player instance = (Player) player;
-				final int count = DAORegister.get().get(StendhalWebsiteDAO.class).updateCharStats(transaction, instance, timestamp);
-				if (count == 0) {
-					DAORegister.get().get(StendhalWebsiteDAO.class).insertIntoCharStats(transaction, instance, timestamp);
-				}
-				DAORegister.get().get(StendhalBuddyDAO.class).saveRelations(transaction, character, instance);
-			} catch (final SQLException sqle) {
-				logger.warn("error storing character", sqle);
-				throw sqle;
+		try {
+			// The statistics are calculated from the attributes, slots and quests
+			if (changes.isChanged(Section.ATTRIBUTES, Section.SLOTS, Section.QUESTS, Section.STATS)) {
+				DAORegister.get().get(StendhalWebsiteDAO.class).storeCharStats(transaction, instance, changes, timestamp);
 			}
-		} else {
-			logger.error("player no instance of Player but: " + player, new Throwable());
+			if (changes.isChanged(Section.BUDDIES)) {
+				DAORegister.get().get(StendhalBuddyDAO.class).saveRelations(transaction, character, instance, changes);
+			}
+		} catch (final SQLException sqle) {
+			logger.warn("error storing character", sqle);
+			throw sqle;
 		}
+		changes.setStored();
 	}
 
 }
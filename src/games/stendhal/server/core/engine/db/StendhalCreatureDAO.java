@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2003-2023 - Stendhal                   *
+ *                    (C) Copyright 2003-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -98,6 +98,18 @@ public class StendhalCreatureDAO {
 		return enumValue.toString();
 	}
 
+	/**
+	 * adds the dumped data of all creatures to a hash
+	 *
+	 * @param hash ContentHash
+	 * @throws SQLException in case of an database error
+	 */
+	public void hash(ContentHash hash) throws SQLException {
+		for (DefaultCreature creature : SingletonRepository.getEntityManager().getDefaultCreatures()) {
+			dump(hash.getStatement(), creature);
+		}
+	}
+
 	/**
 	 * dumps all creatures
 	 *
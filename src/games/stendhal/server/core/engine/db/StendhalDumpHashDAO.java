@@ -0,0 +1,64 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import marauroa.server.db.DBTransaction;
+
+/**
+ * database access for the hashes of the game data dumped for the website
+ */
+public class StendhalDumpHashDAO {
+
+	/**
+	 * gets the hash of the last dump
+	 *
+	 * @param transaction DBTransaction
+	 * @param name name of the dump
+	 * @return hash, or <code>null</code> if the data was not dumped before
+	 * @throws SQLException in case of an database error
+	 */
+	public String getHash(DBTransaction transaction, String name) throws SQLException {
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("name", name);
+		ResultSet resultSet = transaction.query("SELECT hash FROM dumphash WHERE name='[name]'", params);
+		try {
+			if (resultSet.next()) {
+				return resultSet.getString(1);
+			}
+			return null;
+		} finally {
+			resultSet.close();
+		}
+	}
+
+	/**
+	 * remembers the hash of a completed dump
+	 *
+	 * @param transaction DBTransaction
+	 * @param name name of the dump
+	 * @param hash hash of the dumped data
+	 * @throws SQLException in case of an database error
+	 */
+	public void setHash(DBTransaction transaction, String name, String hash) throws SQLException {
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("name", name);
+		params.put("hash", hash);
+		int count = transaction.execute("UPDATE dumphash SET hash='[hash]', timedate=CURRENT_TIMESTAMP WHERE name='[name]'", params);
+		if (count == 0) {
+			transaction.execute("INSERT INTO dumphash (name, hash) VALUES ('[name]', '[hash]')", params);
+		}
+	}
+}
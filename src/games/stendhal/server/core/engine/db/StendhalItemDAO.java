@@ -1,5 +1,5 @@
 /***************************************************************************
- *                 (C) Copyright 2007-2023 - Faiumoni e. V.                *
+ *                 (C) Copyright 2007-2026 - Faiumoni e. V.                *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -40,6 +40,16 @@ public class StendhalItemDAO {
 	public static final String ATTR_ITEM_LOGID = "logid";
 	private static final Logger logger = Logger.getLogger(StendhalItemDAO.class);
 
+	/**
+	 * Starts a batch of item log writes.
+	 *
+	 * @param transaction database transaction
+	 * @return ItemLogBatch
+	 */
+	public ItemLogBatch startItemLogBatch(final DBTransaction transaction) {
+		return new ItemLogBatch(transaction);
+	}
+
 	/**
 	 * Assigns the next logid to the specified item in case it does not already have one.
 	 *
@@ -49,7 +59,7 @@ public class StendhalItemDAO {
 	 * @throws SQLException in case of a database error
 	 */
 	public void itemLogAssignIDIfNotPresent(final DBTransaction transaction, final RPObject item, Timestamp timestamp) throws SQLException {
-		if (item.has(ATTR_ITEM_LOGID)) {
+		if (ItemLogIDs.has(item)) {
 			return;
 		}
 
@@ -60,8 +70,8 @@ public class StendhalItemDAO {
 		params.put("timedate", timestamp);
 		transaction.execute(sql, params);
 
-		// get the insert id and store it into the item
-		item.put(ATTR_ITEM_LOGID, transaction.getLastInsertId("item", "id"));
+		// get the insert id and assign it to the item
+		ItemLogIDs.assign(item, transaction.getLastInsertId("item", "id"));
 		itemLogInsertName(transaction, item, timestamp);
 	}
 
@@ -92,7 +102,7 @@ public class StendhalItemDAO {
 	 * @throws SQLException in case of an database error
 	 */
 	public  void itemLogWriteEntry(final DBTransaction transaction, Timestamp timestamp, final RPObject item, final RPEntity player, final String event, final String param1, final String param2, final String param3, final String param4) throws SQLException {
-		int itemid = item.getInt(StendhalItemDAO.ATTR_ITEM_LOGID);
+		int itemid = ItemLogIDs.get(item);
 		itemLogWriteEntry(transaction, timestamp, itemid, player, event, param1, param2, param3, param4);
 	}
 
@@ -230,6 +240,18 @@ public class StendhalItemDAO {
 	}
 
 
+	/**
+	 * adds the dumped data of all items to a hash
+	 *
+	 * @param hash ContentHash
+	 * @throws SQLException in case of an database error
+	 */
+	public void hash(ContentHash hash) throws SQLException {
+		for (DefaultItem item : SingletonRepository.getEntityManager().getDefaultItems()) {
+			dump(hash.getStatement(), item);
+		}
+	}
+
 	/**
 	 * dumps all NPCs
 	 *
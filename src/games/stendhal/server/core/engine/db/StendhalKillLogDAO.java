@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2003-2020 - Stendhal                   *
+ *                    (C) Copyright 2003-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -11,11 +11,18 @@
  ***************************************************************************/
 package games.stendhal.server.core.engine.db;
 
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.Killer;
@@ -39,28 +46,112 @@ public class StendhalKillLogDAO {
 	 * @throws SQLException in case of an database error
 	 */
 	public void logKill(final DBTransaction transaction, final Entity killed, final Killer killer, Timestamp timestamp) throws SQLException {
-		// try update in case we already have this combination
-		String query = "UPDATE kills SET cnt = cnt+1"
-			+ " WHERE killed = '[killed]' AND killed_type = '[killed_type]'"
-			+ " AND killer = '[killer]' AND killer_type = '[killer_type]'"
-			+ " AND day = '[day]';";
+		final KillCount count = new KillCount(killed.getName(), entityToType(killed), killer.getName(),
+				entityToType(killer), Date.valueOf(timestamp.toLocalDateTime().toLocalDate()));
+		count.increment();
+		logKills(transaction, Collections.singletonList(count));
+	}
 
-		Map<String, Object> params = new HashMap<String, Object>();
-		params.put("killed", killed.getName());
-		params.put("killed_type", entityToType(killed));
-		params.put("killer", killer.getName());
-		params.put("killer_type", entityToType(killer));
-		params.put("day", new SimpleDateFormat("yyyy-MM-dd").format(timestamp));
+	/**
+	 * Adds aggregated kill counts to the kill log. The existing rows are
+	 * updated in one batch, and the missing ones inserted in another.
+	 *
+	 * @param transaction transaction
+	 * @param counts kill counts to add
+	 * @throws SQLException in case of an database error
+	 */
+	public void logKills(final DBTransaction transaction, final Collection<KillCount> counts) throws SQLException {
+		if (counts.isEmpty()) {
+			return;
+		}
+		final List<KillCount> ordered = new ArrayList<KillCount>(counts);
 
-		final int rowCount = transaction.execute(query, params);
+		final int[] rowCounts;
+		PreparedStatement stmt = transaction.prepareStatement("UPDATE kills SET cnt = cnt + ?"
+				+ " WHERE killed = ? AND killed_type = ? AND killer = ? AND killer_type = ? AND day = ?", null);
+		try {
+			final Connection connection = stmt.getConnection();
+			final Savepoint savepoint = connection.setSavepoint();
+			for (final KillCount count : ordered) {
+				setUpdateParameters(stmt, count);
+				stmt.addBatch();
+			}
+			rowCounts = stmt.executeBatch();
+			if (hasUnknownRowCounts(rowCounts)) {
+				/*
+				 * Some drivers do not tell the number of updated rows of a
+				 * batch. Then the missing combinations are not known, so undo
+				 * the batch and update the rows one by one.
+				 */
+				connection.rollback(savepoint);
+				for (int i = 0; i < rowCounts.length; i++) {
+					setUpdateParameters(stmt, ordered.get(i));
+					rowCounts[i] = stmt.executeUpdate();
+				}
+			} else {
+				connection.releaseSavepoint(savepoint);
+			}
+		} finally {
+			stmt.close();
+		}
 
-		// in case we did not have this combination yet, make an insert
-		if (rowCount == 0) {
-			query = "INSERT INTO kills (killed, killed_type, killer, killer_type, day, cnt)"
-				+ " VALUES ('[killed]', '[killed_type]', '[killer]', '[killer_type]', '[day]', 1)";
-			transaction.execute(query, params);
+		// in case we did not have a combination yet, make an insert
+		stmt = transaction.prepareStatement("INSERT INTO kills (killed, killed_type, killer, killer_type, day, cnt)"
+				+ " VALUES (?, ?, ?, ?, ?, ?)", null);
+		try {
+			boolean inserts = false;
+			for (int i = 0; i < rowCounts.length; i++) {
+				if (rowCounts[i] == 0) {
+					final KillCount count = ordered.get(i);
+					stmt.setString(1, count.getKilled());
+					stmt.setString(2, count.getKilledType());
+					stmt.setString(3, count.getKiller());
+					stmt.setString(4, count.getKillerType());
+					stmt.setDate(5, count.getDay());
+					stmt.setInt(6, count.getCount());
+					stmt.addBatch();
+					inserts = true;
+				}
+			}
+			if (inserts) {
+				stmt.executeBatch();
+			}
+		} finally {
+			stmt.close();
 		}
+	}
+
+	/**
+	 * Sets the parameters of the kill count update statement.
+	 *
+	 * @param stmt update statement
+	 * @param count kill count to add
+	 * @throws SQLException in case of an database error
+	 */
+	private void setUpdateParameters(final PreparedStatement stmt, final KillCount count) throws SQLException {
+		stmt.setInt(1, count.getCount());
+		stmt.setString(2, count.getKilled());
+		stmt.setString(3, count.getKilledType());
+		stmt.setString(4, count.getKiller());
+		stmt.setString(5, count.getKillerType());
+		stmt.setDate(6, count.getDay());
+	}
 
+	/**
+	 * Checks if the driver left out the number of updated rows for any
+	 * statement of a batch.
+	 *
+	 * @param rowCounts results of the batch
+	 * @return <code>true</code> if at least one count is
+	 * 	{@link Statement#SUCCESS_NO_INFO}
+	 */
+	private static boolean hasUnknownRowCounts(final int[] rowCounts) {
+		for (final int rowCount : rowCounts) {
+			if (rowCount == Statement.SUCCESS_NO_INFO) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -79,4 +170,93 @@ public class StendhalKillLogDAO {
 		}
 	}
 
+	/**
+	 * Number of kills of one kind on one day.
+	 */
+	public static final class KillCount {
+		private final String killed;
+		private final String killedType;
+		private final String killer;
+		private final String killerType;
+		private final Date day;
+		private int count;
+
+		/**
+		 * Creates a new KillCount with a count of zero.
+		 *
+		 * @param killed name of the killed entity
+		 * @param killedType type of the killed entity
+		 * @param killer name of the killer
+		 * @param killerType type of the killer
+		 * @param day day of the kills
+		 */
+		public KillCount(final String killed, final String killedType, final String killer,
+				final String killerType, final Date day) {
+			this.killed = killed;
+			this.killedType = killedType;
+			this.killer = killer;
+			this.killerType = killerType;
+			this.day = day;
+		}
+
+		public String getKilled() {
+			return killed;
+		}
+
+		public String getKilledType() {
+			return killedType;
+		}
+
+		public String getKiller() {
+			return killer;
+		}
+
+		public String getKillerType() {
+			return killerType;
+		}
+
+		public Date getDay() {
+			return day;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * Adds one kill.
+		 */
+		public void increment() {
+			count++;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(killed, killedType, killer, killerType, day);
+		}
+
+		/**
+		 * Kill counts are equal, if they count the same kind of kills on the
+		 * same day. The count is ignored.
+		 */
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof KillCount)) {
+				return false;
+			}
+			final KillCount other = (KillCount) obj;
+			return Objects.equals(killed, other.killed) && Objects.equals(killedType, other.killedType)
+					&& Objects.equals(killer, other.killer) && Objects.equals(killerType, other.killerType)
+					&& day.equals(other.day);
+		}
+
+		@Override
+		public String toString() {
+			return "KillCount [killed=" + killed + ", killedType=" + killedType + ", killer=" + killer
+					+ ", killerType=" + killerType + ", day=" + day + ", count=" + count + "]";
+		}
+	}
 }
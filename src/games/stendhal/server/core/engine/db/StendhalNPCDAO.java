@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2003-2023 - Stendhal                   *
+ *                    (C) Copyright 2003-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -94,6 +94,18 @@ public class StendhalNPCDAO {
 		return outfit;
 	}
 
+	/**
+	 * adds the dumped data of all NPCs to a hash
+	 *
+	 * @param hash ContentHash
+	 * @throws SQLException in case of an database error
+	 */
+	public void hash(ContentHash hash) throws SQLException {
+		for (SpeakerNPC npc : SingletonRepository.getNPCList()) {
+			dumpNPC(hash.getStatement(), npc);
+		}
+	}
+
 	/**
 	 * dumps all NPCs
 	 *
@@ -0,0 +1,91 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import marauroa.common.game.RPObject;
+import marauroa.common.net.NetConst;
+import marauroa.server.db.DBTransaction;
+import marauroa.server.game.db.RPObjectDAO;
+import marauroa.server.game.rp.RPObjectFactory;
+
+/**
+ * Stendhal specific extensions to the normal RPObjectDAO, which stores player
+ * objects as {@link PlayerSnapshotCodec} snapshots. Objects in the legacy
+ * format can still be read.
+ */
+public class StendhalRPObjectDAO extends RPObjectDAO {
+	private static Logger logger = Logger.getLogger(StendhalRPObjectDAO.class);
+
+	/**
+	 * Create a new StendhalRPObjectDAO.
+	 *
+	 * @param factory factory for creating the game objects
+	 */
+	public StendhalRPObjectDAO(final RPObjectFactory factory) {
+		super(factory);
+	}
+
+	@Override
+	public RPObject readRPObject(final int objectid, final byte[] data, final int protocolVersion,
+			final boolean transform) throws SQLException, IOException {
+		if (!PlayerSnapshotCodec.isSnapshot(data)) {
+			return super.readRPObject(objectid, data, protocolVersion, transform);
+		}
+
+		RPObject object = PlayerSnapshotCodec.decode(data);
+		if (transform) {
+			object = factory.transform(object);
+		}
+		object.put("#db_id", objectid);
+		return object;
+	}
+
+	@Override
+	public int storeRPObject(final DBTransaction transaction, final RPObject object)
+			throws IOException, SQLException {
+		if (!"player".equals(object.getRPClass().getName())) {
+			return super.storeRPObject(transaction, object);
+		}
+		final byte[] data = PlayerSnapshotCodec.encode(object);
+		if (data == null) {
+			logger.warn("Storing " + object.get("name") + " in the legacy format");
+			return super.storeRPObject(transaction, object);
+		}
+
+		final Map<String, Object> params = new HashMap<String, Object>();
+		params.put("protocolVersion", Integer.valueOf(NetConst.NETWORK_PROTOCOL_VERSION));
+		final InputStream inStream = new ByteArrayInputStream(data);
+		final boolean update = object.has("#db_id") && hasRPObject(transaction, object.getInt("#db_id"));
+		final String query;
+		if (update) {
+			params.put("object_id", Integer.valueOf(object.getInt("#db_id")));
+			query = "update rpobject set data=?, protocol_version=[protocolVersion] where object_id=[object_id]";
+		} else {
+			query = "insert into rpobject (data, protocol_version) values(?, [protocolVersion])";
+		}
+		logger.debug("storeRPObject is executing query " + query);
+		transaction.execute(query, params, new InputStream[] { inStream });
+
+		if (!update) {
+			object.put("#db_id", transaction.getLastInsertId("rpobject", "object_id"));
+		}
+		return object.getInt("#db_id");
+	}
+}
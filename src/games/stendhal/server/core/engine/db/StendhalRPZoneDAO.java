@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -55,6 +55,18 @@ public class StendhalRPZoneDAO {
 		stmt.addBatch();
 	}
 
+	/**
+	 * adds the dumped data of all zones to a hash
+	 *
+	 * @param hash ContentHash
+	 * @throws SQLException in case of an database error
+	 */
+	public void hash(ContentHash hash) throws SQLException {
+		for (IRPZone zone : StendhalRPWorld.get()) {
+			dumpZone(hash.getStatement(), (StendhalRPZone) zone);
+		}
+	}
+
 	/**
 	 * dumps all zones
 	 *
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2003-2023 - Stendhal                   *
+ *                    (C) Copyright 2003-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -213,6 +213,24 @@ public class StendhalShopDAO extends CharacterDAO {
 	}
 
 
+	/**
+	 * adds the dumped data of all shops to a hash
+	 *
+	 * @param hash ContentHash
+	 * @throws SQLException in case of an database error
+	 */
+	public void hash(ContentHash hash) throws SQLException {
+		Map<String, Integer> noIds = new HashMap<>();
+		for (ShopInventory<?, ?> shop : getShops()) {
+			dumpShop(hash.getStatement(), shop);
+			dumpShopInventory(hash.getStatement(), shop, noIds, noIds);
+			for (MerchantConfigurator mc : shop.getMerchantConfigurators()) {
+				hash.add(mc.npc);
+				hash.add(mc.factor);
+			}
+		}
+	}
+
 	public void dump(DBTransaction transaction) throws SQLException {
 		long start = System.currentTimeMillis();
 		dumpShops(transaction);
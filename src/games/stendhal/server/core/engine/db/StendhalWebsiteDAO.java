@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2003-2020 - Stendhal                   *
+ *                    (C) Copyright 2003-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -11,9 +11,12 @@
  ***************************************************************************/
 package games.stendhal.server.core.engine.db;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
@@ -22,6 +25,7 @@ import games.stendhal.common.MathHelper;
 import games.stendhal.server.core.engine.StendhalRPZone;
 import games.stendhal.server.entity.item.Item;
 import games.stendhal.server.entity.player.Player;
+import games.stendhal.server.entity.player.PlayerChanges;
 import marauroa.common.game.RPObject;
 import marauroa.common.game.RPSlot;
 import marauroa.server.db.DBTransaction;
@@ -70,6 +74,60 @@ public class StendhalWebsiteDAO {
 		transaction.execute(query, params);
 	}
 
+	/**
+	 * sets the online status of several players with a single statement
+	 *
+	 * @param transaction DBTransaction
+	 * @param onlineStatus online status by player name
+	 * @throws SQLException in case of an database error
+	 */
+	public void setOnlineStatus(final DBTransaction transaction, final Map<String, Boolean> onlineStatus) throws SQLException {
+		if (onlineStatus.isEmpty()) {
+			return;
+		}
+		List<String> online = new ArrayList<String>();
+		for (Map.Entry<String, Boolean> entry : onlineStatus.entrySet()) {
+			if (entry.getValue().booleanValue()) {
+				online.add(entry.getKey());
+			}
+		}
+
+		StringBuilder sql = new StringBuilder("UPDATE character_stats SET online=");
+		if (online.isEmpty()) {
+			sql.append("0");
+		} else {
+			sql.append("CASE WHEN name IN (");
+			appendPlaceholders(sql, online.size());
+			sql.append(") THEN 1 ELSE 0 END");
+		}
+		sql.append(" WHERE name IN (");
+		appendPlaceholders(sql, onlineStatus.size());
+		sql.append(")");
+
+		PreparedStatement stmt = transaction.prepareStatement(sql.toString(), null);
+		try {
+			int i = 1;
+			for (String name : online) {
+				stmt.setString(i++, name);
+			}
+			for (String name : onlineStatus.keySet()) {
+				stmt.setString(i++, name);
+			}
+			stmt.executeUpdate();
+		} finally {
+			stmt.close();
+		}
+	}
+
+	private void appendPlaceholders(final StringBuilder sql, final int count) {
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+			sql.append("?");
+		}
+	}
+
 	/**
 	 * clears the online status of all players (used on server startup)
 	 */
@@ -121,6 +179,20 @@ public class StendhalWebsiteDAO {
 	 * @throws SQLException in case of an database error
 	 */
 	protected int updateCharStats(final DBTransaction transaction, final Player player, Timestamp timestamp) throws SQLException {
+		Map<String, Object> params = getParamsFromPlayer(player);
+		params.put("lastseen", timestamp);
+		return updateCharStats(transaction, params);
+	}
+
+	/**
+	 * updates the statistics information about a player
+	 *
+	 * @param transaction DBTransaction
+	 * @param params column values
+	 * @return number of updates rows
+	 * @throws SQLException in case of an database error
+	 */
+	private int updateCharStats(final DBTransaction transaction, final Map<String, Object> params) throws SQLException {
 		final String query = "UPDATE character_stats SET "
 			+ " admin=[admin], sentence='[sentence]', age=[age], level=[level],"
 			+ " outfit=[outfit], outfit_colors='[outfit_colors]', outfit_layers='[outfit_layers]', xp=[xp], money='[money]',"
@@ -130,13 +202,37 @@ public class StendhalWebsiteDAO {
 			+ " finger='[finger]', zone='[zone]'"
 			+ " WHERE name='[name]'";
 
-		Map<String, Object> params = getParamsFromPlayer(player);
-		params.put("lastseen", timestamp);
 		logger.debug("storeCharacter is running: " + query);
 		final int count = transaction.execute(query, params);
 		return count;
 	}
 
+	/**
+	 * stores the statistics information about a player, if any of the values
+	 * changed since they were last stored
+	 *
+	 * @param transaction DBTransaction
+	 * @param player Player
+	 * @param changes change tracking of the player
+	 * @param timestamp timestamp
+	 * @return <code>true</code>, if the statistics were written
+	 * @throws SQLException in case of an database error
+	 */
+	protected boolean storeCharStats(final DBTransaction transaction, final Player player,
+			final PlayerChanges changes, final Timestamp timestamp) throws SQLException {
+		final Map<String, Object> stats = getParamsFromPlayer(player);
+		if (!changes.isChanged(PlayerChanges.Section.STATS) && stats.equals(changes.getStoredStats())) {
+			return false;
+		}
+		final Map<String, Object> params = new HashMap<String, Object>(stats);
+		params.put("lastseen", timestamp);
+		if (updateCharStats(transaction, params) == 0) {
+			insertIntoCharStats(transaction, params);
+		}
+		changes.setStoredStats(stats);
+		return true;
+	}
+
 	/**
 	 * gets the attributes from a player object.
 	 *
@@ -186,6 +282,19 @@ public class StendhalWebsiteDAO {
 	 * @throws SQLException in case of an database error
 	 */
 	protected void insertIntoCharStats(final DBTransaction transaction, final Player player, Timestamp timestamp) throws SQLException {
+		Map<String, Object> params = getParamsFromPlayer(player);
+		params.put("lastseen", timestamp);
+		insertIntoCharStats(transaction, params);
+	}
+
+	/**
+	 * Insert statistics information about a new player
+	 *
+	 * @param transaction DBTransaction
+	 * @param params column values
+	 * @throws SQLException in case of an database error
+	 */
+	private void insertIntoCharStats(final DBTransaction transaction, final Map<String, Object> params) throws SQLException {
 		final String query = "INSERT INTO character_stats"
 			+ " (name, admin, sentence, age, level,"
 			+ " outfit, outfit_colors, outfit_layers, xp, money, married, atk, def, hp,"
@@ -196,8 +305,6 @@ public class StendhalWebsiteDAO {
 			+ " '[atk]', '[atk]', '[hp]', '[karma]', '[head]', '[armor]',"
 			+ " '[lhand]', '[rhand]', '[legs]', '[feet]', '[cloak]', '[finger]',"
 			+ " '[zone]', '[lastseen]')";
-		Map<String, Object> params = getParamsFromPlayer(player);
-		params.put("lastseen", timestamp);
 		logger.debug("storeCharacter is running: " + query);
 		transaction.execute(query, params);
 	}
@@ -0,0 +1,70 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.dbcommand;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import org.apache.log4j.Logger;
+
+import games.stendhal.server.core.engine.db.ContentHash;
+import games.stendhal.server.core.engine.db.StendhalDumpHashDAO;
+import marauroa.server.db.DBTransaction;
+import marauroa.server.db.command.AbstractDBCommand;
+import marauroa.server.game.db.DAORegister;
+
+/**
+ * base class for dumping game data for the website. The dump is skipped if
+ * the data did not change since the last dump.
+ */
+public abstract class AbstractDumpCommand extends AbstractDBCommand {
+	private static Logger logger = Logger.getLogger(AbstractDumpCommand.class);
+
+	@Override
+	public void execute(DBTransaction transaction) throws SQLException, IOException {
+		ContentHash contentHash = new ContentHash();
+		hash(contentHash);
+		String hash = contentHash.getHash();
+
+		StendhalDumpHashDAO dao = DAORegister.get().get(StendhalDumpHashDAO.class);
+		if (hash.equals(dao.getHash(transaction, getName()))) {
+			logger.debug("Skipping dump of unchanged " + getName() + ".");
+			return;
+		}
+
+		dump(transaction);
+		dao.setHash(transaction, getName(), hash);
+	}
+
+	/**
+	 * gets the name of the dumped data
+	 *
+	 * @return name
+	 */
+	protected abstract String getName();
+
+	/**
+	 * adds the data to dump to a hash
+	 *
+	 * @param hash ContentHash
+	 * @throws SQLException in case of an database error
+	 */
+	protected abstract void hash(ContentHash hash) throws SQLException;
+
+	/**
+	 * dumps the data to the database
+	 *
+	 * @param transaction DBTransaction
+	 * @throws SQLException in case of an database error
+	 * @throws IOException in case of an input/output error
+	 */
+	protected abstract void dump(DBTransaction transaction) throws SQLException, IOException;
+}
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2007-2013 - Stendhal                   *
+ *                    (C) Copyright 2007-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -12,10 +12,15 @@
 package games.stendhal.server.core.engine.dbcommand;
 
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
 
+import games.stendhal.server.core.engine.db.ItemLogBatch;
+import games.stendhal.server.core.engine.db.StendhalItemDAO;
 import marauroa.common.game.RPObject;
 import marauroa.server.db.DBTransaction;
 import marauroa.server.db.command.AbstractDBCommand;
+import marauroa.server.game.db.DAORegister;
 
 /**
  * base class for item logging
@@ -27,17 +32,44 @@ public abstract class AbstractLogItemEventCommand extends AbstractDBCommand {
 
 	@Override
 	public void execute(DBTransaction transaction) throws SQLException {
-		log(transaction);
+		log(transaction, Collections.singletonList(this));
 	}
 
-
 	/**
-	 * logs the event to the database.
+	 * logs several events to the database using batched statements.
 	 *
 	 * @param transaction DBTransaction
+	 * @param commands item log commands in the order of the events
+	 * @throws SQLException in case of an database error
+	 */
+	public static void log(DBTransaction transaction, List<? extends AbstractLogItemEventCommand> commands) throws SQLException {
+		StendhalItemDAO stendhalItemDAO = DAORegister.get().get(StendhalItemDAO.class);
+		ItemLogBatch batch = stendhalItemDAO.startItemLogBatch(transaction);
+		for (AbstractLogItemEventCommand command : commands) {
+			command.prepare(batch);
+		}
+		batch.assignIDs();
+		for (AbstractLogItemEventCommand command : commands) {
+			command.log(batch);
+		}
+		batch.execute();
+	}
+
+	/**
+	 * requests log ids for the items that need one.
+	 *
+	 * @param batch ItemLogBatch
+	 */
+	protected abstract void prepare(ItemLogBatch batch);
+
+	/**
+	 * logs the event to the database. The log ids requested in
+	 * {@link #prepare(ItemLogBatch)} have been assigned at this point.
+	 *
+	 * @param batch ItemLogBatch
 	 * @throws SQLException in case of an database error
 	 */
-	protected abstract void log(DBTransaction transaction) throws SQLException;
+	protected abstract void log(ItemLogBatch batch) throws SQLException;
 
 	/**
 	 * gets the quantity from an item; correctly handles non stackable items
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2009-2023 - Stendhal                   *
+ *                    (C) Copyright 2009-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -13,9 +13,9 @@ package games.stendhal.server.core.engine.dbcommand;
 
 import java.sql.SQLException;
 
+import games.stendhal.server.core.engine.db.ContentHash;
 import games.stendhal.server.core.engine.db.StendhalItemDAO;
 import marauroa.server.db.DBTransaction;
-import marauroa.server.db.command.AbstractDBCommand;
 import marauroa.server.game.db.DAORegister;
 
 /**
@@ -23,10 +23,20 @@ import marauroa.server.game.db.DAORegister;
  *
  * @author hendrik
  */
-public class DumpItemsCommand extends AbstractDBCommand {
+public class DumpItemsCommand extends AbstractDumpCommand {
 
 	@Override
-	public void execute(DBTransaction transaction) throws SQLException {
+	protected String getName() {
+		return "items";
+	}
+
+	@Override
+	protected void hash(ContentHash hash) throws SQLException {
+		DAORegister.get().get(StendhalItemDAO.class).hash(hash);
+	}
+
+	@Override
+	protected void dump(DBTransaction transaction) throws SQLException {
 		DAORegister.get().get(StendhalItemDAO.class).dump(transaction);
 	}
 
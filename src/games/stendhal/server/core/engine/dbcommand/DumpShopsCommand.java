@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2009-2023 - Stendhal                   *
+ *                    (C) Copyright 2009-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -13,9 +13,11 @@ package games.stendhal.server.core.engine.dbcommand;
 
 import java.sql.SQLException;
 
+import games.stendhal.server.core.engine.db.ContentHash;
+import games.stendhal.server.core.engine.db.StendhalItemDAO;
+import games.stendhal.server.core.engine.db.StendhalNPCDAO;
 import games.stendhal.server.core.engine.db.StendhalShopDAO;
 import marauroa.server.db.DBTransaction;
-import marauroa.server.db.command.AbstractDBCommand;
 import marauroa.server.game.db.DAORegister;
 
 /**
@@ -23,10 +25,23 @@ import marauroa.server.game.db.DAORegister;
  *
  * @author hendrik
  */
-public class DumpShopsCommand extends AbstractDBCommand {
+public class DumpShopsCommand extends AbstractDumpCommand {
 
 	@Override
-	public void execute(DBTransaction transaction) throws SQLException {
+	protected String getName() {
+		return "shops";
+	}
+
+	@Override
+	protected void hash(ContentHash hash) throws SQLException {
+		// the shop tables refer to the ids of items and NPCs
+		DAORegister.get().get(StendhalItemDAO.class).hash(hash);
+		DAORegister.get().get(StendhalNPCDAO.class).hash(hash);
+		DAORegister.get().get(StendhalShopDAO.class).hash(hash);
+	}
+
+	@Override
+	protected void dump(DBTransaction transaction) throws SQLException {
 		DAORegister.get().get(StendhalShopDAO.class).dump(transaction);
 	}
 
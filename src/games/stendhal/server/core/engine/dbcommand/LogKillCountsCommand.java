@@ -1,6 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2007-2010 - Stendhal                   *
- ***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
  ***************************************************************************
  *                                                                         *
  *   This program is free software; you can redistribute it and/or modify  *
@@ -12,39 +11,35 @@
 package games.stendhal.server.core.engine.dbcommand;
 
 import java.sql.SQLException;
+import java.util.Collection;
 
 import games.stendhal.server.core.engine.db.StendhalKillLogDAO;
-import games.stendhal.server.entity.Entity;
-import games.stendhal.server.entity.Killer;
+import games.stendhal.server.core.engine.db.StendhalKillLogDAO.KillCount;
 import marauroa.server.db.DBTransaction;
 import marauroa.server.db.command.AbstractDBCommand;
 import marauroa.server.game.db.DAORegister;
 
 /**
- * logs kill events
- *
- * @author hendrik
+ * writes aggregated kill counts to the kill log
  */
-public class LogKillEventCommand extends AbstractDBCommand {
+public class LogKillCountsCommand extends AbstractDBCommand {
 
-	private Entity frozenKilled;
-	private Killer frozenKiller;
+	private final Collection<KillCount> counts;
 
 	/**
-	 * creates a new LogKillEventCommand
+	 * creates a new LogKillCountsCommand
 	 *
-	 * @param killed killed entity
-	 * @param killer killer entity
+	 * @param counts kill counts. The collection must not be modified
+	 * 	afterwards
 	 */
-	public LogKillEventCommand(Entity killed, Killer killer) {
-		this.frozenKilled = (Entity) killed.clone();
-		this.frozenKiller = (Killer) killer.clone();
+	public LogKillCountsCommand(Collection<KillCount> counts) {
+		this.counts = counts;
 	}
 
 	@Override
 	public void execute(DBTransaction transaction) throws SQLException {
 		StendhalKillLogDAO killLog = DAORegister.get().get(StendhalKillLogDAO.class);
-		killLog.logKill(transaction, frozenKilled, frozenKiller, getEnqueueTime());
+		killLog.logKills(transaction, counts);
 	}
 
 	/**
@@ -54,7 +49,6 @@ public class LogKillEventCommand extends AbstractDBCommand {
 	 */
 	@Override
 	public String toString() {
-		return "LogKillEventCommand [frozenKilled=" + frozenKilled
-				+ ", frozenKiller=" + frozenKiller + "]";
+		return "LogKillCountsCommand [" + counts.size() + " counts]";
 	}
 }
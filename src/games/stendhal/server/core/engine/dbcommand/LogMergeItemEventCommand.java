@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2007-2010 - Stendhal                   *
+ *                    (C) Copyright 2007-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -15,11 +15,10 @@ import java.sql.SQLException;
 
 import com.google.common.base.MoreObjects;
 
-import games.stendhal.server.core.engine.db.StendhalItemDAO;
+import games.stendhal.server.core.engine.db.ItemLogBatch;
+import games.stendhal.server.core.engine.db.ItemLogIDs;
 import games.stendhal.server.entity.RPEntity;
 import marauroa.common.game.RPObject;
-import marauroa.server.db.DBTransaction;
-import marauroa.server.game.db.DAORegister;
 
 /**
  * logs merging of items into a stack
@@ -49,20 +48,22 @@ public class LogMergeItemEventCommand extends AbstractLogItemEventCommand {
 	}
 
 	@Override
-	protected void log(DBTransaction transaction) throws SQLException {
-		StendhalItemDAO stendhalItemDAO = DAORegister.get().get(StendhalItemDAO.class);
-		stendhalItemDAO.itemLogAssignIDIfNotPresent(transaction, liveOldItem, getEnqueueTime());
-		stendhalItemDAO.itemLogAssignIDIfNotPresent(transaction, liveOutlivingItem, getEnqueueTime());
+	protected void prepare(ItemLogBatch batch) {
+		batch.assignIDIfNotPresent(liveOldItem, getEnqueueTime());
+		batch.assignIDIfNotPresent(liveOutlivingItem, getEnqueueTime());
+	}
 
+	@Override
+	protected void log(ItemLogBatch batch) throws SQLException {
 		final String oldQuantity = getQuantity(frozenOldItem);
 		final String oldOutlivingQuantity = getQuantity(frozenOutlivingItem);
 		final String newQuantity = Integer.toString(Integer.parseInt(oldQuantity) + Integer.parseInt(oldOutlivingQuantity));
 
-		stendhalItemDAO.itemLogWriteEntry(transaction, getEnqueueTime(), liveOldItem.getInt(StendhalItemDAO.ATTR_ITEM_LOGID), player, "merge in",
-				liveOutlivingItem.get(StendhalItemDAO.ATTR_ITEM_LOGID), oldQuantity,
+		batch.writeEntry(getEnqueueTime(), ItemLogIDs.get(liveOldItem), player, "merge in",
+				Integer.toString(ItemLogIDs.get(liveOutlivingItem)), oldQuantity,
 				oldOutlivingQuantity, newQuantity);
-		stendhalItemDAO.itemLogWriteEntry(transaction, getEnqueueTime(), liveOutlivingItem.getInt(StendhalItemDAO.ATTR_ITEM_LOGID), player, "merged in",
-				liveOldItem.get(StendhalItemDAO.ATTR_ITEM_LOGID), oldOutlivingQuantity,
+		batch.writeEntry(getEnqueueTime(), ItemLogIDs.get(liveOutlivingItem), player, "merged in",
+				Integer.toString(ItemLogIDs.get(liveOldItem)), oldOutlivingQuantity,
 				oldQuantity, newQuantity);
 	}
 
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2007-2013 - Stendhal                   *
+ *                    (C) Copyright 2007-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -15,11 +15,10 @@ import java.sql.SQLException;
 
 import com.google.common.base.MoreObjects;
 
-import games.stendhal.server.core.engine.db.StendhalItemDAO;
+import games.stendhal.server.core.engine.db.ItemLogBatch;
+import games.stendhal.server.core.engine.db.ItemLogIDs;
 import games.stendhal.server.entity.RPEntity;
 import marauroa.common.game.RPObject;
-import marauroa.server.db.DBTransaction;
-import marauroa.server.game.db.DAORegister;
 
 /**
  * logs a simple item event
@@ -60,14 +59,21 @@ public class LogSimpleItemEventCommand extends AbstractLogItemEventCommand {
 
 
 	@Override
-	protected void log(final DBTransaction transaction) throws SQLException {
+	protected void prepare(final ItemLogBatch batch) {
 		// don't log the destruction of items that have not been logged prior.
-		if (event.equals("destroy") && !item.has("logid")) {
+		if (event.equals("destroy")) {
 			return;
 		}
-		StendhalItemDAO stendhalItemDAO = DAORegister.get().get(StendhalItemDAO.class);
-		stendhalItemDAO.itemLogAssignIDIfNotPresent(transaction, item, getEnqueueTime());
-		stendhalItemDAO.itemLogWriteEntry(transaction, getEnqueueTime(), item, player, event, param1, param2, param3, param4);
+		batch.assignIDIfNotPresent(item, getEnqueueTime());
+	}
+
+	@Override
+	protected void log(final ItemLogBatch batch) throws SQLException {
+		// an earlier event of the batch may have logged the item
+		if (!ItemLogIDs.has(item)) {
+			return;
+		}
+		batch.writeEntry(getEnqueueTime(), item, player, event, param1, param2, param3, param4);
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2007-2010 - Stendhal                   *
+ *                    (C) Copyright 2007-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -15,11 +15,10 @@ import java.sql.SQLException;
 
 import com.google.common.base.MoreObjects;
 
-import games.stendhal.server.core.engine.db.StendhalItemDAO;
+import games.stendhal.server.core.engine.db.ItemLogBatch;
+import games.stendhal.server.core.engine.db.ItemLogIDs;
 import games.stendhal.server.entity.RPEntity;
 import marauroa.common.game.RPObject;
-import marauroa.server.db.DBTransaction;
-import marauroa.server.game.db.DAORegister;
 
 /**
  * logs splitting off items from a stack.
@@ -49,19 +48,21 @@ public class LogSplitItemEventCommand extends AbstractLogItemEventCommand {
 	}
 
 	@Override
-	protected void log(DBTransaction transaction) throws SQLException {
-		StendhalItemDAO stendhalItemDAO = DAORegister.get().get(StendhalItemDAO.class);
-		stendhalItemDAO.itemLogAssignIDIfNotPresent(transaction, liveItem, getEnqueueTime());
-		stendhalItemDAO.itemLogAssignIDIfNotPresent(transaction, liveNewItem, getEnqueueTime());
+	protected void prepare(ItemLogBatch batch) {
+		batch.assignIDIfNotPresent(liveItem, getEnqueueTime());
+		batch.assignIDIfNotPresent(liveNewItem, getEnqueueTime());
+	}
 
+	@Override
+	protected void log(ItemLogBatch batch) throws SQLException {
 		final String outlivingQuantity = getQuantity(frozenItem);
 		final String newQuantity = getQuantity(frozenNewItem);
 		final String oldQuantity = Integer.toString(Integer.parseInt(outlivingQuantity) + Integer.parseInt(newQuantity));
-		stendhalItemDAO.itemLogWriteEntry(transaction, getEnqueueTime(), liveItem.getInt(StendhalItemDAO.ATTR_ITEM_LOGID), player, "split out",
-				liveNewItem.get(StendhalItemDAO.ATTR_ITEM_LOGID), oldQuantity,
+		batch.writeEntry(getEnqueueTime(), ItemLogIDs.get(liveItem), player, "split out",
+				Integer.toString(ItemLogIDs.get(liveNewItem)), oldQuantity,
 				outlivingQuantity, newQuantity);
-		stendhalItemDAO.itemLogWriteEntry(transaction, getEnqueueTime(), liveNewItem.getInt(StendhalItemDAO.ATTR_ITEM_LOGID), player, "splitted out",
-				liveItem.get(StendhalItemDAO.ATTR_ITEM_LOGID), oldQuantity,
+		batch.writeEntry(getEnqueueTime(), ItemLogIDs.get(liveNewItem), player, "splitted out",
+				Integer.toString(ItemLogIDs.get(liveItem)), oldQuantity,
 				newQuantity, outlivingQuantity);
 
 	}
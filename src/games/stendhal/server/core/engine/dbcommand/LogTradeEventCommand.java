@@ -14,6 +14,7 @@ package games.stendhal.server.core.engine.dbcommand;
 import java.io.IOException;
 import java.sql.SQLException;
 
+import games.stendhal.server.core.engine.db.ItemLogIDs;
 import games.stendhal.server.core.engine.db.StendhalItemDAO;
 import games.stendhal.server.core.engine.db.StendhalWebsiteDAO;
 import games.stendhal.server.entity.item.Item;
@@ -60,7 +61,7 @@ public class LogTradeEventCommand extends AbstractDBCommand {
 		if(start > -1) {
 			stats = description.substring(start);
 		}
-		stendhalWebsiteDao.logTradeEvent(transaction, charname, item.getName(), item.getInt(StendhalItemDAO.ATTR_ITEM_LOGID), quantity, price, stats, getEnqueueTime());
+		stendhalWebsiteDao.logTradeEvent(transaction, charname, item.getName(), ItemLogIDs.get(item), quantity, price, stats, getEnqueueTime());
 	}
 
 }
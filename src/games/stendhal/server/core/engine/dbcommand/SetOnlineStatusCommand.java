@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2007-2011 - Stendhal                   *
+ *                    (C) Copyright 2007-2026 - Stendhal                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -13,6 +13,9 @@ package games.stendhal.server.core.engine.dbcommand;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import games.stendhal.server.core.engine.db.StendhalWebsiteDAO;
 import marauroa.server.db.DBTransaction;
@@ -25,8 +28,7 @@ import marauroa.server.game.db.DAORegister;
  * @author hendrik
  */
 public class SetOnlineStatusCommand extends AbstractDBCommand {
-	private String playerName;
-	private boolean online;
+	private final Map<String, Boolean> onlineStatus;
 
 	/**
 	 * Creates a new SetOnlineStatusCommand
@@ -35,13 +37,31 @@ public class SetOnlineStatusCommand extends AbstractDBCommand {
 	 * @param online true, to mark as online; false to mark as offline
 	 */
 	public SetOnlineStatusCommand(String playerName, boolean online) {
-		this.playerName = playerName;
-		this.online = online;
+		this.onlineStatus = Collections.singletonMap(playerName, Boolean.valueOf(online));
+	}
+
+	/**
+	 * Creates a new SetOnlineStatusCommand for several players
+	 *
+	 * @param onlineStatus online status by player name
+	 */
+	public SetOnlineStatusCommand(Map<String, Boolean> onlineStatus) {
+		this.onlineStatus = new LinkedHashMap<String, Boolean>(onlineStatus);
 	}
 
 	@Override
 	public void execute(DBTransaction transaction) throws SQLException, IOException {
-		DAORegister.get().get(StendhalWebsiteDAO.class).setOnlineStatus(transaction, playerName, online);
+		DAORegister.get().get(StendhalWebsiteDAO.class).setOnlineStatus(transaction, onlineStatus);
+	}
+
+	/**
+	 * returns a string suitable for debug output of this DBCommand.
+	 *
+	 * @return debug string
+	 */
+	@Override
+	public String toString() {
+		return "SetOnlineStatusCommand [onlineStatus=" + onlineStatus + "]";
 	}
 
 }
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2014 - Faiumoni e. V.                  *
+ *                 (C) Copyright 2014-2026 - Faiumoni e. V.                *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -17,11 +17,11 @@ import java.util.Set;
 
 import org.apache.log4j.Logger;
 
+import games.stendhal.server.core.engine.db.ContentHash;
 import games.stendhal.server.core.engine.db.StendhalSearchIndexDAO;
 import games.stendhal.server.core.rp.searchindex.SearchIndexEntry;
 import games.stendhal.server.core.rp.searchindex.SearchIndexManager;
 import marauroa.server.db.DBTransaction;
-import marauroa.server.db.command.AbstractDBCommand;
 import marauroa.server.game.db.DAORegister;
 
 /**
@@ -29,11 +29,21 @@ import marauroa.server.game.db.DAORegister;
  *
  * @author hendrik
  */
-public class UpdateSearchIndexCommand extends AbstractDBCommand {
+public class UpdateSearchIndexCommand extends AbstractDumpCommand {
 	private static Logger logger = Logger.getLogger(UpdateSearchIndexCommand.class);
 
 	@Override
-	public void execute(DBTransaction transaction) throws SQLException, IOException {
+	protected String getName() {
+		return "searchindex";
+	}
+
+	@Override
+	protected void hash(ContentHash hash) {
+		new SearchIndexManager().hash(hash);
+	}
+
+	@Override
+	protected void dump(DBTransaction transaction) throws SQLException, IOException {
 		long start = System.currentTimeMillis();
 
 		SearchIndexManager manager = new SearchIndexManager();
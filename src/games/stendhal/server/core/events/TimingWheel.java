@@ -0,0 +1,434 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.events;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Hierarchical timing wheel holding the TurnListeners of the TurnNotifier.
+ * <p>
+ * The first level has one slot per turn for the next 256 turns. Each of the
+ * following levels has 64 slots, each covering a whole revolution of the
+ * previous level. When the first level wraps around, the due slot of the
+ * next level is cascaded down. Scheduling and cancelling are O(1), and a
+ * listener-to-entry index makes looking up the entries of a listener
+ * independent of the total number of scheduled events.
+ * <p>
+ * A listener is scheduled at most once for any turn, but may be scheduled at
+ * several different turns. Listeners are compared using
+ * <code>equals()</code>, like they were in the set based implementation.
+ * <p>
+ * This class is not thread safe. TurnNotifier takes care of synchronization.
+ */
+final class TimingWheel {
+	private static final int ROOT_BITS = 8;
+	private static final int LEVEL_BITS = 6;
+	private static final int ROOT_SIZE = 1 << ROOT_BITS;
+	private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+	private static final int ROOT_MASK = ROOT_SIZE - 1;
+	private static final int LEVEL_MASK = LEVEL_SIZE - 1;
+	/** Number of levels. Together they cover the whole int range. */
+	private static final int LEVELS = 5;
+	/** Level number of the list of entries that are not in the wheel. */
+	private static final int PAST = -1;
+	/** Maximum number of entries kept for reuse. */
+	private static final int MAX_POOL_SIZE = 4096;
+
+	/**
+	 * A scheduled notification. Entries are linked both into the slot they
+	 * are stored in, and into the chain of entries of the same listener.
+	 */
+	private static final class Entry {
+		TurnListener listener;
+		ListenerKey key;
+		int turn;
+		int level;
+		int slot;
+		Entry prev;
+		Entry next;
+		Entry nextOfListener;
+	}
+
+	/**
+	 * Key of the listener index. The hash code is captured when the listener
+	 * gets scheduled, so that the index stays consistent even if the hash
+	 * code of the listener changes later.
+	 */
+	private static final class ListenerKey {
+		TurnListener listener;
+		int hash;
+
+		void set(final TurnListener listener) {
+			this.listener = listener;
+			this.hash = listener.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ListenerKey)) {
+				return false;
+			}
+			final ListenerKey other = (ListenerKey) obj;
+			return (hash == other.hash) && listener.equals(other.listener);
+		}
+	}
+
+	/** Slot list heads, indexed by level and slot. */
+	private final Entry[][] slots = new Entry[LEVELS][];
+	/**
+	 * Entries that can not be placed in the wheel, because their turn is
+	 * not after the current position. They can only be reached again if the
+	 * turn counter jumps backwards.
+	 */
+	private Entry past;
+	/** First entry of each listener. */
+	private final Map<ListenerKey, Entry> index = new HashMap<ListenerKey, Entry>();
+	/** Reused key for index lookups. */
+	private final ListenerKey probe = new ListenerKey();
+	/** Unused entries. */
+	private Entry pool;
+	private int poolSize;
+	/** The next turn that will be processed. */
+	private int nextTurn;
+	/** Number of scheduled entries. */
+	private int size;
+
+	/**
+	 * Creates a new wheel.
+	 *
+	 * @param nextTurn the first turn that will be processed
+	 */
+	TimingWheel(final int nextTurn) {
+		slots[0] = new Entry[ROOT_SIZE];
+		for (int level = 1; level < LEVELS; level++) {
+			slots[level] = new Entry[LEVEL_SIZE];
+		}
+		this.nextTurn = nextTurn;
+	}
+
+	/**
+	 * Get the number of scheduled notifications.
+	 *
+	 * @return size
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Schedules a listener.
+	 *
+	 * @param turn turn when the listener should be notified
+	 * @param listener listener to notify
+	 */
+	void schedule(final int turn, final TurnListener listener) {
+		probe.set(listener);
+		final Entry first = index.get(probe);
+		probe.listener = null;
+		for (Entry e = first; e != null; e = e.nextOfListener) {
+			if (e.turn == turn) {
+				// already scheduled for that turn
+				return;
+			}
+		}
+
+		final Entry entry = obtainEntry();
+		entry.listener = listener;
+		entry.turn = turn;
+		if (first != null) {
+			entry.key = first.key;
+			entry.nextOfListener = first;
+		} else {
+			entry.key = new ListenerKey();
+			entry.key.set(listener);
+		}
+		index.put(entry.key, entry);
+		place(entry);
+		size++;
+	}
+
+	/**
+	 * Removes all scheduled notifications of a listener.
+	 *
+	 * @param listener listener to forget
+	 */
+	void cancel(final TurnListener listener) {
+		if (listener == null) {
+			return;
+		}
+		probe.set(listener);
+		Entry entry = index.remove(probe);
+		probe.listener = null;
+		while (entry != null) {
+			final Entry next = entry.nextOfListener;
+			unlink(entry);
+			releaseEntry(entry);
+			size--;
+			entry = next;
+		}
+	}
+
+	/**
+	 * Get the first turn at which a listener will be notified.
+	 *
+	 * @param listener listener
+	 * @return turn, or <code>null</code> if the listener is not scheduled
+	 */
+	Integer getFirstTurn(final TurnListener listener) {
+		if (listener == null) {
+			return null;
+		}
+		probe.set(listener);
+		final Entry first = index.get(probe);
+		probe.listener = null;
+		if (first == null) {
+			return null;
+		}
+		int min = first.turn;
+		for (Entry e = first.nextOfListener; e != null; e = e.nextOfListener) {
+			min = Math.min(min, e.turn);
+		}
+		return Integer.valueOf(min);
+	}
+
+	/**
+	 * Removes all the listeners that are due at a turn, and advances the
+	 * wheel past that turn.
+	 *
+	 * @param turn processed turn
+	 * @param due list where the due listeners are appended to
+	 */
+	void advance(final int turn, final List<TurnListener> due) {
+		if (turn != nextTurn) {
+			// the turn counter jumped. Rebuild the wheel around the new
+			// position. This does not happen during normal operation.
+			nextTurn = turn;
+			rebuild();
+		}
+
+		final int rootSlot = turn & ROOT_MASK;
+		if (rootSlot == 0) {
+			cascade(turn);
+		}
+		Entry entry = slots[0][rootSlot];
+		slots[0][rootSlot] = null;
+		nextTurn = turn + 1;
+
+		while (entry != null) {
+			final Entry next = entry.next;
+			removeFromListenerChain(entry);
+			due.add(entry.listener);
+			releaseEntry(entry);
+			size--;
+			entry = next;
+		}
+	}
+
+	/**
+	 * Removes all scheduled notifications.
+	 */
+	void clear() {
+		for (final Entry[] level : slots) {
+			for (int i = 0; i < level.length; i++) {
+				level[i] = null;
+			}
+		}
+		past = null;
+		index.clear();
+		size = 0;
+	}
+
+	/**
+	 * Get all scheduled notifications ordered by turn.
+	 *
+	 * @return map of turn to the listeners notified at that turn
+	 */
+	Map<Integer, Set<TurnListener>> snapshot() {
+		final Map<Integer, Set<TurnListener>> result = new TreeMap<Integer, Set<TurnListener>>();
+		for (final Entry first : index.values()) {
+			for (Entry e = first; e != null; e = e.nextOfListener) {
+				final Integer turn = Integer.valueOf(e.turn);
+				Set<TurnListener> set = result.get(turn);
+				if (set == null) {
+					set = new LinkedHashSet<TurnListener>();
+					result.put(turn, set);
+				}
+				set.add(e.listener);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Moves the entries of the higher level slots that are due in the next
+	 * revolution of the first level down to the lower levels.
+	 *
+	 * @param turn turn at which the first level wraps around
+	 */
+	private void cascade(final int turn) {
+		int shift = ROOT_BITS;
+		for (int level = 1; level < LEVELS; level++) {
+			final int slot = (turn >>> shift) & LEVEL_MASK;
+			Entry entry = slots[level][slot];
+			slots[level][slot] = null;
+			while (entry != null) {
+				final Entry next = entry.next;
+				place(entry);
+				entry = next;
+			}
+			if (slot != 0) {
+				// the higher levels did not wrap around
+				break;
+			}
+			shift += LEVEL_BITS;
+		}
+	}
+
+	/**
+	 * Re-places all entries relative to the current position.
+	 */
+	private void rebuild() {
+		Entry all = past;
+		past = null;
+		for (final Entry[] level : slots) {
+			for (int i = 0; i < level.length; i++) {
+				Entry entry = level[i];
+				level[i] = null;
+				while (entry != null) {
+					final Entry next = entry.next;
+					entry.next = all;
+					all = entry;
+					entry = next;
+				}
+			}
+		}
+		while (all != null) {
+			final Entry next = all.next;
+			place(all);
+			all = next;
+		}
+	}
+
+	/**
+	 * Links an entry into the slot matching its turn.
+	 */
+	private void place(final Entry entry) {
+		final long delta = (long) entry.turn - nextTurn;
+		if (delta < 0) {
+			entry.level = PAST;
+			entry.slot = 0;
+			entry.prev = null;
+			entry.next = past;
+			if (past != null) {
+				past.prev = entry;
+			}
+			past = entry;
+			return;
+		}
+
+		int level = 0;
+		int slot;
+		if (delta < ROOT_SIZE) {
+			slot = entry.turn & ROOT_MASK;
+		} else {
+			level = 1;
+			int shift = ROOT_BITS;
+			while ((level < LEVELS - 1) && (delta >= (1L << (shift + LEVEL_BITS)))) {
+				level++;
+				shift += LEVEL_BITS;
+			}
+			slot = (entry.turn >>> shift) & LEVEL_MASK;
+		}
+		entry.level = level;
+		entry.slot = slot;
+		entry.prev = null;
+		entry.next = slots[level][slot];
+		if (entry.next != null) {
+			entry.next.prev = entry;
+		}
+		slots[level][slot] = entry;
+	}
+
+	/**
+	 * Removes an entry from its slot list.
+	 */
+	private void unlink(final Entry entry) {
+		if (entry.prev != null) {
+			entry.prev.next = entry.next;
+		} else if (entry.level == PAST) {
+			past = entry.next;
+		} else {
+			slots[entry.level][entry.slot] = entry.next;
+		}
+		if (entry.next != null) {
+			entry.next.prev = entry.prev;
+		}
+	}
+
+	/**
+	 * Removes an entry from the chain of entries of its listener.
+	 */
+	private void removeFromListenerChain(final Entry entry) {
+		final Entry first = index.get(entry.key);
+		if (first == entry) {
+			if (entry.nextOfListener == null) {
+				index.remove(entry.key);
+			} else {
+				index.put(entry.key, entry.nextOfListener);
+			}
+			return;
+		}
+		for (Entry e = first; e != null; e = e.nextOfListener) {
+			if (e.nextOfListener == entry) {
+				e.nextOfListener = entry.nextOfListener;
+				return;
+			}
+		}
+	}
+
+	private Entry obtainEntry() {
+		final Entry entry = pool;
+		if (entry == null) {
+			return new Entry();
+		}
+		pool = entry.next;
+		poolSize--;
+		entry.next = null;
+		return entry;
+	}
+
+	private void releaseEntry(final Entry entry) {
+		entry.listener = null;
+		entry.key = null;
+		entry.prev = null;
+		entry.nextOfListener = null;
+		if (poolSize < MAX_POOL_SIZE) {
+			entry.next = pool;
+			pool = entry;
+			poolSize++;
+		} else {
+			entry.next = null;
+		}
+	}
+}
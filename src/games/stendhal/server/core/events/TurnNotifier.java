@@ -12,10 +12,8 @@
  ***************************************************************************/
 package games.stendhal.server.core.events;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,11 +38,13 @@ public final class TurnNotifier {
 	private int currentTurn = -1;
 
 	/**
-	 * This Map maps each turn to the set of all events that will take place at
-	 * this turn. Turns at which no event should take place needn't be
-	 * registered here.
+	 * The scheduled events. Only turns at which some event should take
+	 * place occupy memory.
 	 */
-	private final Map<Integer, Set<TurnListener>> register = new HashMap<Integer, Set<TurnListener>>();
+	private final TimingWheel register = new TimingWheel(currentTurn + 1);
+
+	/** Listeners due at the turn being processed. Reused between turns. */
+	private final List<TurnListener> due = new ArrayList<TurnListener>();
 
 	/** Used for multi-threading synchronization. * */
 	private final Object sync = new Object();
@@ -85,34 +85,28 @@ public final class TurnNotifier {
 
 		this.currentTurn = currentTurn;
 
-		// get and remove the set for this turn
-		Set<TurnListener> set = null;
+		// get and remove the listeners for this turn
 		synchronized (sync) {
-			set = register.remove(Integer.valueOf(currentTurn));
+			register.advance(currentTurn, due);
 		}
 
 		if (logger.isDebugEnabled()) {
 			final StringBuilder os = new StringBuilder();
 			os.append("register: " + register.size() + "\n");
-			int setSize;
-			if (set != null) {
-				setSize = set.size();
-			} else {
-				setSize = 0;
-			}
-			os.append("set: " + setSize + "\n");
+			os.append("set: " + due.size() + "\n");
 			logger.info(os);
 		}
 
-		if (set != null) {
-			for (final TurnListener turnListener : set) {
-
+		try {
+			for (final TurnListener turnListener : due) {
 				try {
 					turnListener.onTurnReached(currentTurn);
 				} catch (final RuntimeException e) {
 					logger.error("Exception in " + turnListener, e);
 				}
 			}
+		} finally {
+			due.clear();
 		}
 	}
 
@@ -177,15 +171,7 @@ public final class TurnNotifier {
 		}
 
 		synchronized (sync) {
-			// do we have other events for this turn?
-			final Integer turnInt = Integer.valueOf(turn);
-			Set<TurnListener> set = register.get(turnInt);
-			if (set == null) {
-				set = new HashSet<TurnListener>();
-				register.put(turnInt, set);
-			}
-			// add it to the list
-			set.add(turnListener);
+			register.schedule(turn, turnListener);
 		}
 	}
 
@@ -198,18 +184,8 @@ public final class TurnNotifier {
 
 	public void dontNotify(final TurnListener turnListener) {
 		// all events that are equal to this one should be forgotten.
-		// TurnEvent turnEvent = new TurnEvent(turnListener);
-		for (final Map.Entry<Integer, Set<TurnListener>> mapEntry : register.entrySet()) {
-			final Set<TurnListener> set = mapEntry.getValue();
-			// We don't remove directly, but first store in this
-			// set. This is to avoid ConcurrentModificationExceptions.
-			final Set<TurnListener> toBeRemoved = new HashSet<TurnListener>();
-			if (set.contains(turnListener)) {
-					toBeRemoved.add(turnListener);
-			}
-			for (final TurnListener event : toBeRemoved) {
-				set.remove(event);
-			}
+		synchronized (sync) {
+			register.cancel(turnListener);
 		}
 	}
 
@@ -224,21 +200,12 @@ public final class TurnNotifier {
 
 	public int getRemainingTurns(final TurnListener turnListener) {
 		// all events match that are equal to this.
-		// TurnEvent turnEvent = new TurnEvent(turnListener);
-		// the HashMap is unsorted, so we need to run through
-		// all of it.
-		final List<Integer> matchingTurns = new ArrayList<Integer>();
-		for (final Map.Entry<Integer, Set<TurnListener>> mapEntry : register.entrySet()) {
-			final Set<TurnListener> set = mapEntry.getValue();
-			for (final TurnListener currentEvent : set) {
-				if (currentEvent.equals(turnListener)) {
-					matchingTurns.add(mapEntry.getKey());
-				}
-			}
+		final Integer turn;
+		synchronized (sync) {
+			turn = register.getFirstTurn(turnListener);
 		}
-		if (matchingTurns.size() > 0) {
-			Collections.sort(matchingTurns);
-			return matchingTurns.get(0).intValue() - currentTurn;
+		if (turn != null) {
+			return turn.intValue() - currentTurn;
 		} else {
 			return -1;
 		}
@@ -260,12 +227,39 @@ public final class TurnNotifier {
 
 	/**
 	 * Returns the list of events. Note this is only for debugging the
-	 * TurnNotifier
+	 * TurnNotifier. The returned map is a snapshot, except that clearing it
+	 * forgets all registered events.
 	 *
 	 * @return eventList
 	 */
 	public Map<Integer, Set<TurnListener>> getEventListForDebugging() {
-		return register;
+		return new DebugView();
+	}
+
+	/**
+	 * Read only view of the registered events for debugging.
+	 */
+	private class DebugView extends AbstractMap<Integer, Set<TurnListener>> {
+		@Override
+		public Set<Map.Entry<Integer, Set<TurnListener>>> entrySet() {
+			synchronized (sync) {
+				return register.snapshot().entrySet();
+			}
+		}
+
+		@Override
+		public boolean isEmpty() {
+			synchronized (sync) {
+				return register.size() == 0;
+			}
+		}
+
+		@Override
+		public void clear() {
+			synchronized (sync) {
+				register.clear();
+			}
+		}
 	}
 
 	/**
@@ -14,6 +14,7 @@ package games.stendhal.server.core.pathfinder;
 
 import java.awt.Point;
 import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 
 import games.stendhal.server.core.engine.StendhalRPZone;
 import games.stendhal.server.entity.Entity;
@@ -42,6 +43,16 @@ class EntityPathfinder extends games.stendhal.server.core.pathfinder.Pathfinder
 
 	private final boolean checkEntities;
 
+	/**
+	 * Resistance data of the searches done in the current thread.
+	 */
+	private static final ThreadLocal<ResistanceMap> RESISTANCE_MAP = new ThreadLocal<ResistanceMap>() {
+		@Override
+		protected ResistanceMap initialValue() {
+			return new ResistanceMap();
+		}
+	};
+
 	/**
 	 * Contains the resistance data for entities.
 	 */
@@ -63,6 +74,14 @@ class EntityPathfinder extends games.stendhal.server.core.pathfinder.Pathfinder
 		}
 	}
 
+	@Override
+	protected void finish() {
+		if (resistanceMap != null) {
+			resistanceMap.inUse = false;
+			resistanceMap = null;
+		}
+	}
+
 	/**
 	 * Creates resistance data for entities.
 	 * <p>The positions with entities are only
@@ -71,12 +90,17 @@ class EntityPathfinder extends games.stendhal.server.core.pathfinder.Pathfinder
 	 * <li> have stopped
 	 */
 	private void createEntityCollisionMap() {
-		Point targetPoint = new Point(goalNode.getX(), goalNode.getY());
-		resistanceMap = new ResistanceMap(zone.getWidth(), zone.getHeight());
+		Point targetPoint = new Point(getGoalX(), getGoalY());
+		resistanceMap = RESISTANCE_MAP.get();
+		if (resistanceMap.inUse) {
+			resistanceMap = new ResistanceMap();
+		}
+		resistanceMap.inUse = true;
+		resistanceMap.reset(zone.getWidth(), zone.getHeight());
 		for (final RPObject obj : zone) {
 			final Entity otherEntity = (Entity) obj;
 			if (!entity.getID().equals(otherEntity.getID())
-					&& (otherEntity.stopped()|| (otherEntity.squaredDistance(startNode.getX(), startNode.getY()) < COLLISION_DISTANCE_SQUARED))) {
+					&& (otherEntity.stopped()|| (otherEntity.squaredDistance(getStartX(), getStartY()) < COLLISION_DISTANCE_SQUARED))) {
 				final Rectangle2D area = otherEntity.getArea();
 				// Hack: Allow players to move onto portals as destination
 				if ((entity instanceof Player) && (otherEntity instanceof Portal) && area.contains(targetPoint)) {
@@ -89,54 +113,35 @@ class EntityPathfinder extends games.stendhal.server.core.pathfinder.Pathfinder
 	}
 
 	@Override
-	public TreeNode createNode(int x, int y) {
-		return new PathTreeNode(x, y);
+	protected int getMapWidth() {
+		return zone.getWidth();
+	}
+
+	@Override
+	protected int getMapHeight() {
+		return zone.getHeight();
 	}
 
 	/**
-	 * Pathfinder node
+	 * Modify movement cost by resistance.
 	 */
-	private class PathTreeNode extends TreeNode {
-		private final double cost;
-
-		protected PathTreeNode(int x, int y) {
-			super(x, y);
-
-			/*
-			 * Modify movement cost by resistance
-			 */
-			if (resistanceMap != null) {
-				int resistance = resistanceMap.getResistance(x, y , entity.getWidth(), entity.getHeight());
-				cost = 100.0 / (100 - resistance);
-			} else {
-				cost = 1.0;
-			}
-		}
-
-		@Override
-		protected double getCost() {
-			return cost;
-		}
-
-		@Override
-		public TreeNode createNode(int x, int y) {
-			return new PathTreeNode(x, y);
+	@Override
+	protected double getCost(int x, int y) {
+		if (resistanceMap != null) {
+			int resistance = resistanceMap.getResistance(x, y , entity.getWidth(), entity.getHeight());
+			return 100.0 / (100 - resistance);
 		}
+		return 1.0;
+	}
 
-		@Override
-		protected int createNodeID(int x, int y) {
-			return x + y * zone.getWidth();
+	@Override
+	protected boolean isValid(int x, int y) {
+		boolean result = !zone.simpleCollides(entity, x, y, entity.getWidth(), entity.getHeight());
+		if (checkEntities && result) {
+			result = !resistanceMap.collides(x, y, entity.getWidth(), entity.getHeight());
 		}
 
-		@Override
-		public boolean isValid(int x, int y) {
-			boolean result = !zone.simpleCollides(entity, x, y, entity.getWidth(), entity.getHeight());
-			if (checkEntities && result) {
-				result = !resistanceMap.collides(x, y, entity.getWidth(), entity.getHeight());
-			}
-
-			return result;
-		}
+		return result;
 	}
 
 	/**
@@ -148,19 +153,38 @@ class EntityPathfinder extends games.stendhal.server.core.pathfinder.Pathfinder
 		/** Minimum resistance that is considered a collision */
 		private static final int COLLIDE_THRESHOLD = 95;
 
-		private final int width, height;
-		private final int[][] map;
+		private int width, height;
+		/** Resistances, indexed by x + y * width. */
+		private int[] map = new int[0];
+		/**
+		 * Generation when the resistance was last set. Older values are
+		 * treated as 0, so the map can be reused without clearing it.
+		 */
+		private int[] stamp = new int[0];
+		private int generation;
+		/** <code>true</code> when a search is using this map. */
+		private boolean inUse;
 
 		/**
-		 * Create a new ResistanceMap.
+		 * Prepare the map for a new search.
 		 *
 		 * @param width width of the area
 		 * @param height height of the area
 		 */
-		public ResistanceMap(int width, int height) {
+		void reset(int width, int height) {
 			this.width = width;
 			this.height = height;
-			map = new int[width][height];
+			final int size = width * height;
+			if (map.length < size) {
+				map = new int[size];
+				stamp = new int[size];
+				generation = 0;
+			}
+			generation++;
+			if (generation == 0) {
+				Arrays.fill(stamp, 0);
+				generation = 1;
+			}
 		}
 
 		/**
@@ -204,18 +228,33 @@ class EntityPathfinder extends games.stendhal.server.core.pathfinder.Pathfinder
 					 * want to give something like corpses some resistance to
 					 * make it harder to wade through a pile of bodies.
 					 */
-					int old = map[k][i];
+					final int index = k + i * width;
+					int old = get(index);
 					/*
 					 * Add up like probabilities. Several slightly resistant
 					 * entities can still add up to a completely impassable
 					 * barrier, when the resistance grows over
 					 * COLLIDE_THRESHOLD.
 					 */
-					map[k][i] = 100 - ((100 - old) * (100 - resistance)) / 100;
+					map[index] = 100 - ((100 - old) * (100 - resistance)) / 100;
+					stamp[index] = generation;
 				}
 			}
 		}
 
+		/**
+		 * Get the resistance of a single tile.
+		 *
+		 * @param index tile index
+		 * @return resistance
+		 */
+		private int get(final int index) {
+			if (stamp[index] != generation) {
+				return 0;
+			}
+			return map[index];
+		}
+
 		/**
 		 * Get resistance for placing the entity to an area.
 		 *
@@ -243,7 +282,7 @@ class EntityPathfinder extends games.stendhal.server.core.pathfinder.Pathfinder
 			int resistance = 0;
 			for (int k = startx; k < endx; k++) {
 				for (int i = starty; i < endy; i++) {
-					int r = map[k][i];
+					int r = get(k + i * width);
 					if (r > COLLIDE_THRESHOLD) {
 						/*
 						 * A full collision is always collision, regardless of
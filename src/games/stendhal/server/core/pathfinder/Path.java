@@ -119,10 +119,25 @@ public abstract class Path {
 		// long startTimeNano = System.nanoTime();
 		final long startTime = System.currentTimeMillis();
 
+		final StendhalRPZone searchZone = zone;
+		List<Node> resultPath = zone.getNavigation().searchPath(sourceEntity.getWidth(),
+				sourceEntity.getHeight(), x, y, destination, maxDistance,
+				new ZoneNavigation.LegSearch() {
+			@Override
+			public List<Node> searchPath(final int legX, final int legY,
+					final Rectangle2D legDestination, final double legMaxDistance) {
+				return new EntityPathfinder(sourceEntity, searchZone, legX, legY,
+						legDestination, legMaxDistance, withEntities).getPath();
+			}
+		});
+		if (resultPath != null) {
+			return resultPath;
+		}
+
 		final EntityPathfinder pathfinder = new EntityPathfinder(sourceEntity, zone, x, y,
 				destination, maxDistance, withEntities);
 
-		final List<Node> resultPath = pathfinder.getPath();
+		resultPath = pathfinder.getPath();
 		if (logger.isDebugEnabled()
 				&& (pathfinder.getStatus() == Pathfinder.PATH_NOT_FOUND)) {
 			logger.debug("Pathfinding aborted: " + zone.getID() + " "
@@ -148,6 +163,17 @@ public abstract class Path {
 	 */
 	public static List<Node> searchPath(final StendhalRPZone zone, final int startX, final int startY, final int destX,
 			final int destY, final double maxDistance) {
+		final List<Node> path = zone.getNavigation().searchPath(1, 1, startX, startY,
+				new Rectangle(destX, destY, 1, 1), maxDistance, new ZoneNavigation.LegSearch() {
+			@Override
+			public List<Node> searchPath(final int legX, final int legY,
+					final Rectangle2D legDestination, final double legMaxDistance) {
+				return new SimplePathfinder(zone, legX, legY, legDestination, legMaxDistance).getPath();
+			}
+		});
+		if (path != null) {
+			return path;
+		}
 		final Pathfinder pathfinder = new SimplePathfinder(zone, startX, startY, new Rectangle(destX, destY, 1, 1), maxDistance);
 		return pathfinder.getPath();
 	}
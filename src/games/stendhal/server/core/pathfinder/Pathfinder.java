@@ -25,16 +25,18 @@ package games.stendhal.server.core.pathfinder;
 
 
 import java.awt.geom.Rectangle2D;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Stack;
 
 /**
- * Implements the A* algorithm. Pathing can be done on any class that implements
- * the <code>Navigable</code> interface. See org.generation5.ai.Navigable.
+ * Implements the A* algorithm. Pathing can be done on any rectangular map
+ * where the implementing class can tell which positions are valid.
+ * <p>
+ * The search does not allocate per node. The nodes are identified by their
+ * position index, and their data lives in arrays that are reused by all the
+ * searches done in the same thread. The arrays are cleared by bumping a
+ * generation counter, so a search only touches the nodes it visits.
  *
  * @author James Matthews
  *
@@ -66,6 +68,17 @@ public abstract class Pathfinder {
 	 */
 	protected static final double STRAIGHT_PATH_PREFERENCE_FACTOR = 0.2;
 
+	/** Marker for a missing node. */
+	private static final int NONE = -1;
+
+	/** Node data of the searches done in the current thread. */
+	private static final ThreadLocal<SearchSpace> SEARCH_SPACE = new ThreadLocal<SearchSpace>() {
+		@Override
+		protected SearchSpace initialValue() {
+			return new SearchSpace();
+		}
+	};
+
 	/**
 	 * The current status of the pathfinder.
 	 *
@@ -74,34 +87,21 @@ public abstract class Pathfinder {
 	 * @see #IN_PROGRESS
 	 */
 	private int pathStatus = IN_PROGRESS;
-	/**
-	 * The open list.
-	 */
-	private final PriorityQueue<TreeNode> openList = new PriorityQueue<TreeNode>(16,
-			new Comparator<TreeNode>() {
-		@Override
-		public int compare(final TreeNode o1, final TreeNode o2) {
-			return (int) Math.signum(o1.weight - o2.weight);
-		}
-	});
 
-	private final HashMap<Integer, TreeNode> nodeRegistry = new HashMap<Integer, TreeNode>();
+	/** Node data used by the running search. */
+	private SearchSpace space;
 
-	/**
-	 * The goal node.
-	 */
-	protected TreeNode goalNode;
+	/** Size of the searched map. */
+	private int width, height;
 
-	/**
-	 * The start node.
-	 */
-	protected TreeNode startNode;
+	/** Goal position. */
+	private int goalX, goalY;
 
 	/**
 	 * The current best node. The best node is taken from the open list after
 	 * every iteration of <code>doStep</code>.
 	 */
-	private TreeNode bestNode;
+	private int bestNode = NONE;
 
 	/**
 	 * The maximum distance for the path. It is compared with the f value of the
@@ -118,23 +118,16 @@ public abstract class Pathfinder {
 	/** Initialization data */
 	private final int startX, startY;
 	/** Initialization data */
-	private final Rectangle2D destination;
-	/** Initialization data */
 	private final double initMaxDist;
 
 	protected Pathfinder(final int startX, final int startY, final Rectangle2D destination, final double maxDist) {
 		this.goalArea = destination;
 
-		// Setup the initialization data needed for node creation
+		// Setup the initialization data needed for the search
 		this.startX = startX;
 		this.startY = startY;
-		this.destination = destination;
 		this.initMaxDist = maxDist;
 
-		openList.clear();
-		nodeRegistry.clear();
-
-		bestNode = null;
 		pathStatus = IN_PROGRESS;
 	}
 
@@ -142,18 +135,11 @@ public abstract class Pathfinder {
 	 * Initialization that can not be done safely in the constructor.
 	 */
 	protected void init() {
-		/*
-		 * createNode is defined in child classes, so it may require
-		 * work in the child's constructor.
-		 */
-		startNode = createNode(startX, startY);
-		goalNode = createNode((int) (destination.getCenterX()),
-				(int) (destination.getCenterY()));
-		openList.offer(startNode);
-		nodeRegistry.put(startNode.nodeNumber, startNode);
+		goalX = (int) goalArea.getCenterX();
+		goalY = (int) goalArea.getCenterY();
 
 		// calculate shortest distance and allow a variance of X percent
-		final double startF = 1.1 * startNode.getHeuristic(goalNode) + 1;
+		final double startF = 1.1 * getHeuristic(startX, startY) + 1;
 		this.maxDistance = Math.max(initMaxDist, startF);
 	}
 
@@ -167,73 +153,139 @@ public abstract class Pathfinder {
 		return pathStatus;
 	}
 
+	/**
+	 * Get the x coordinate of the start position.
+	 *
+	 * @return start x
+	 */
+	protected final int getStartX() {
+		return startX;
+	}
+
+	/**
+	 * Get the y coordinate of the start position.
+	 *
+	 * @return start y
+	 */
+	protected final int getStartY() {
+		return startY;
+	}
+
+	/**
+	 * Get the x coordinate of the goal position. Valid after <code>init</code>.
+	 *
+	 * @return goal x
+	 */
+	protected final int getGoalX() {
+		return goalX;
+	}
+
+	/**
+	 * Get the y coordinate of the goal position. Valid after <code>init</code>.
+	 *
+	 * @return goal y
+	 */
+	protected final int getGoalY() {
+		return goalY;
+	}
+
 	public final List<Node> getPath() {
-		init();
 		final List<Node> list = new LinkedList<Node>();
+		try {
+			init();
+			if (unreachableGoal()) {
+				return list;
+			}
 
-		if (unreachableGoal()) {
-			return list;
-		}
+			space = acquireSearchSpace();
+			width = getMapWidth();
+			height = getMapHeight();
+			final int size = width * height;
+			space.reset(size + 1);
 
-		while (pathStatus == Pathfinder.IN_PROGRESS) {
-			doStep();
-		}
+			// A start outside the map gets the spare slot after the map nodes
+			final int startNode;
+			if ((startX >= 0) && (startX < width) && (startY >= 0) && (startY < height)) {
+				startNode = startX + startY * width;
+			} else {
+				startNode = size;
+			}
+			space.register(startNode, startX, startY);
+			space.offer(startNode);
+
+			while (pathStatus == Pathfinder.IN_PROGRESS) {
+				doStep();
+			}
 
-		if (pathStatus == Pathfinder.PATH_FOUND) {
-			TreeNode node = bestNode;
-			while (node != null) {
-				list.add(0, new Node(node.getX(), node.getY()));
-				node = node.getParent();
+			if (pathStatus == Pathfinder.PATH_FOUND) {
+				int node = bestNode;
+				while (node != NONE) {
+					list.add(0, new Node(space.x[node], space.y[node]));
+					node = space.parent[node];
+				}
+			}
+		} finally {
+			if (space != null) {
+				releaseSearchSpace(space);
+				space = null;
 			}
+			finish();
 		}
-		/* */
 
 		return list;
 	}
 
 	/**
-	 * Iterate the pathfinder through one step.
+	 * Release the resources used by the search. Called after every search,
+	 * also if it failed.
 	 */
-	private void doStep() {
-		bestNode = getBest();
-		if (bestNode == null) {
-			pathStatus = PATH_NOT_FOUND;
-			return;
-		}
+	protected void finish() {
+		// nothing to release by default
+	}
 
-		if (reachedGoal(bestNode)) {
-			pathStatus = PATH_FOUND;
-			return;
+	/**
+	 * Get the node data for a new search.
+	 *
+	 * @return search space
+	 */
+	private static SearchSpace acquireSearchSpace() {
+		SearchSpace result = SEARCH_SPACE.get();
+		if (result.inUse) {
+			// A search started from within another one. Should not happen,
+			// but do not let it clobber the outer search.
+			result = new SearchSpace();
 		}
-
-		bestNode.createChildren();
+		result.inUse = true;
+		return result;
 	}
 
 	/**
-	 * Assigns the best node from the open list.
+	 * Release node data after a search.
 	 *
-	 * @return the best node.
+	 * @param released search space
 	 */
-	private TreeNode getBest() {
-		if (openList.isEmpty()) {
-			return null;
+	private static void releaseSearchSpace(final SearchSpace released) {
+		if (released == SEARCH_SPACE.get()) {
+			released.inUse = false;
 		}
-
-		final TreeNode first = openList.poll();
-		first.setOpen(false);
-
-		return first;
 	}
 
 	/**
-	 * Checks if the goal is reached.
-	 *
-	 * @param nodeBest
-	 *            the currently best node
-	 * @return true if the goal is reached
+	 * Iterate the pathfinder through one step.
 	 */
-	private boolean reachedGoal(final TreeNode nodeBest) {
-		return goalArea.contains(nodeBest.getX(), nodeBest.getY());
+	private void doStep() {
+		bestNode = space.poll();
+		if (bestNode == NONE) {
+			pathStatus = PATH_NOT_FOUND;
+			return;
+		}
+
+		if (goalArea.contains(space.x[bestNode], space.y[bestNode])) {
+			pathStatus = PATH_FOUND;
+			return;
+		}
+
+		createChildren(bestNode);
 	}
 
 	/**
@@ -251,7 +303,7 @@ public abstract class Pathfinder {
 		for (int i = 0; i <= w; i++) {
 			for (int j = 0; j <= h; j++) {
 				if ((i == 0) || (j == 0) || (i == w) || (j == h)) {
-					if (createNode(x + i, y + j).isValid()) {
+					if (isValid(x + i, y + j)) {
 						return false;
 					}
 				}
@@ -262,15 +314,63 @@ public abstract class Pathfinder {
 	}
 
 	/**
-	 * Create a new TreeNode
+	 * Get the width of the searched map. Nodes outside the map are never
+	 * valid.
 	 *
-	 * @param x x coordinate of the node
-	 * @param y y coordinate of the node
-	 * @return TreeNode
+	 * @return map width
 	 */
-	// A workaround for java lacking proper generics
-	public abstract TreeNode createNode(final int x, final int y);
+	protected abstract int getMapWidth();
 
+	/**
+	 * Get the height of the searched map. Nodes outside the map are never
+	 * valid.
+	 *
+	 * @return map height
+	 */
+	protected abstract int getMapHeight();
+
+	/**
+	 * Checks if the entity could stand on the given by the coordinates.
+	 * @param x coordinate of the position to be checked
+	 * @param y coordinate of the position to be checked
+	 *
+	 * @return true if the the entity could stand on the position
+	 */
+	protected abstract boolean isValid(int x, int y);
+
+	/**
+	 * The cost of moving to a position. Called once for every node the search
+	 * reaches.
+	 *
+	 * @param x x coordinate of the position
+	 * @param y y coordinate of the position
+	 * @return movement cost
+	 */
+	protected double getCost(final int x, final int y) {
+		return 1.0;
+	}
+
+	/**
+	 * Calculates the heuristic for the move form a position to the goal. <p>
+	 * The right heuristic is very important for A* - a over estimated heuristic
+	 * will turn A* in to bsf - a under estimated heuristic will turn A* in to
+	 * Dijkstra's so the manhattan distance seams to be the optimal heuristic
+	 * here. But it has one disadvantage. It will expand to much. Several nodes
+	 * will have the same f value It will search the area of the size
+	 * (abs(startX - goalX) + 1) * (abs(startY - goalY) + 1) So a tie-breaker
+	 * is needed. 1% square distace seems to work fine. A* will prefer nodes
+	 * closer to the goal.
+	 *
+	 * @param x x coordinate of the position
+	 * @param y y coordinate of the position
+	 * @return heuristic value for move
+	 */
+	private double getHeuristic(final int x, final int y) {
+		final double heuristic = manhattanDistance(x, y, goalX, goalY);
+		final double tieBreaking = 0.01 * squareDistance(x, y, goalX, goalY);
+
+		return heuristic + tieBreaking;
+	}
 
 	/**
 	 * Calculates the manhattan distance between to positions.
@@ -306,334 +406,321 @@ public abstract class Pathfinder {
 		return (x1 - x2) * (x1 - x2) + (y1 - y2) * (y1 - y2);
 	}
 
-
 	/**
-	 * The pathfinder node.
+	 * Creates valid child nodes.
+	 * <p>
+	 * The child nodes have to be
+	 * <ul>
+	 * <li> a valid position
+	 * <li> a f value less than maxDistance (checked against the given node)
+	 * </ul>
+	 *
+	 * @param node parent node
 	 */
-	protected abstract class TreeNode {
-
-		/**
-		 * The f-value.
-		 */
-		private double weight;
-
-		/**
-		 * The g-value.
-		 */
-		private double g;
-
-		/**
-		 * The x-position of the node.
-		 */
-		private final int x;
-
-		/**
-		 * The y-position of the node.
-		 */
-		private final int y;
+	private void createChildren(final int node) {
+		if (space.g[node] < maxDistance) {
+			final int x = space.x[node];
+			final int y = space.y[node];
+			linkChild(node, x - 1, y + 0);
+			linkChild(node, x + 1, y + 0);
+			linkChild(node, x + 0, y - 1);
+			linkChild(node, x + 0, y + 1);
+		}
+	}
 
-		/**
-		 * The number of children the node has.
-		 */
-		private int numChildren;
+	/**
+	 * Links the children to this parent node  and may also update the
+	 * parent path, if a shorter path is found.
+	 *
+	 * @param node parent node
+	 * @param x1 x coordinate of the child
+	 * @param y1 y coordinate of the child
+	 */
+	private void linkChild(final int node, final int x1, final int y1) {
+		if ((x1 < 0) || (y1 < 0) || (x1 >= width) || (y1 >= height)
+				|| !isValid(x1, y1)) {
+			return;
+		}
 
-		/**
-		 * The node identifier.
-		 */
-		private final Integer nodeNumber;
+		final SearchSpace s = space;
+		// search for original child node
+		final int child = x1 + y1 * width;
+		if (!s.isRegistered(child)) {
+			// if not found original child node then create a new one
+			s.register(child, x1, y1);
+			s.cost[child] = getCost(x1, y1);
+
+			s.addChild(node, child);
+			updateChild(node, child);
+
+			s.offer(child);
+		} else {
+			// note:
+			// - working on closed nodes is stopped but they may own a better
+			// parent
+			// so they will also be added to this node (parent)
+			if (s.g[child] > (s.g[node] + s.cost[child])) {
+				updateChild(node, child);
+			}
 
-		/**
-		 * The parent of the node.
-		 */
-		private TreeNode parent;
+			// update parents for closed nodes only
+			if (s.isClosed(child)) {
+				updateSubTree(child);
+			}
+		}
+	}
 
-		private final TreeNode[] children = new TreeNode[4];
+	/**
+	 * Make a node the parent of another.
+	 *
+	 * @param node parent node
+	 * @param child child node
+	 */
+	private void updateChild(final int node, final int child) {
+		final SearchSpace s = space;
+		s.parent[child] = node;
+		s.g[child] = s.g[node] + s.cost[child];
 
-		private boolean open = true;
+		s.weight[child] = calculateChildWeight(node, child);
+	}
 
-		/**
-		 * The default constructor with positional information.
-		 *
-		 * @param x
-		 *            the x-position of the node.
-		 * @param y
-		 *            the y-position of the node.
-		 */
-		protected TreeNode(final int x, final int y) {
-			this.x = x;
-			this.y = y;
+	/**
+	 * Calculate node weight for a child node.
+	 *
+	 * @param node parent node
+	 * @param child the child to be calculated
+	 * @return weight for the child node
+	 */
+	private double calculateChildWeight(final int node, final int child) {
+		final SearchSpace s = space;
+		double childweight = s.g[child] + getHeuristic(s.x[child], s.y[child]);
 
-			this.nodeNumber = createNodeID(x, y);
+		// Prefer nodes that do not result in direction change
+		final int parent = s.parent[node];
+		if (parent != NONE) {
+			final int incx = s.x[parent] - s.x[node];
+			final int incy = s.y[parent] - s.y[node];
 
-			init();
-		}
+			final int incx2 = s.x[node] - s.x[child];
+			final int incy2 = s.y[node] - s.y[child];
 
-		/**
-		 * Resets the node. This involves all f, g and h-values to 0 as well as
-		 * removing all children.
-		 */
-		private void init() {
-			this.weight = 0.0;
-			this.g = 0.0;
-			this.numChildren = 0;
-			for (int i = 0; i < 4; i++) {
-				this.children[i] = null;
+			if ((incx == incx2) && (incy == incy2)) {
+				childweight -= STRAIGHT_PATH_PREFERENCE_FACTOR;
 			}
-
-			this.open = true;
 		}
 
-		/**
-		 * Add a child to the node.
-		 *
-		 * @param child
-		 *            the child node.
-		 */
-		private void addChild(final TreeNode child) {
-			this.children[numChildren++] = child;
-
-			updateChild(child);
-		}
-
-		/**
-		 * Add a child to the node.
-		 *
-		 * @param child
-		 *            the child node.
-		 */
-		private void updateChild(final TreeNode child) {
-			child.parent = this;
-			child.g = this.g + child.getCost();
-
-			child.weight = calculateChildWeight(child);
-		}
+		return childweight;
+	}
 
-		/**
-		 * Calculate node weight for a child node.
-		 *
-		 * @param child the child to be calculated
-		 * @return weight for the child node
-		 */
-		private double calculateChildWeight(final TreeNode child) {
-			double childweight = child.g + child.getHeuristic(goalNode);
+	/**
+	 * Update the parents for the new route.
+	 *
+	 * @param node
+	 *            the root node.
+	 */
+	private void updateSubTree(final int node) {
+		final SearchSpace s = space;
+		s.stackSize = 0;
+		s.push(node);
 
-			// Prefer nodes that do not result in direction change
-			if (parent != null) {
-				final int incx = parent.x - x;
-				final int incy = parent.y - y;
+		while (s.stackSize > 0) {
+			final int parentTemp = s.stack[--s.stackSize];
+			final int c = s.numChildren[parentTemp];
+			for (int i = 0; i < c; i++) {
+				final int child = s.children[4 * parentTemp + i];
 
-				final int incx2 = x - child.x;
-				final int incy2 = y - child.y;
+				if (s.g[parentTemp] + s.cost[child] < s.g[child]) {
+					updateChild(parentTemp, child);
 
-				if ((incx == incx2) && (incy == incy2)) {
-					childweight -= STRAIGHT_PATH_PREFERENCE_FACTOR;
+					s.push(child);
 				}
 			}
-
-			return childweight;
 		}
+	}
 
-		/**
-		 * Return the x-position of the node.
-		 *
-		 * @return the x-position of the node.
-		 */
-		public int getX() {
-			return x;
-		}
+	/**
+	 * Node data of a search. The arrays are indexed by node number, and only
+	 * the entries stamped with the current generation belong to the running
+	 * search.
+	 */
+	private static final class SearchSpace {
+		/** Generation when the node was last reached. */
+		private int[] stamp = new int[0];
+		/** Current generation. */
+		private int generation;
+		/** Node positions. */
+		private int[] x = new int[0];
+		private int[] y = new int[0];
+		/** The g-values. */
+		private double[] g = new double[0];
+		/** The f-values. */
+		private double[] weight = new double[0];
+		/** The costs of moving to the nodes. */
+		private double[] cost = new double[0];
+		/** Parent nodes. */
+		private int[] parent = new int[0];
+		/** Up to 4 children per node. */
+		private int[] children = new int[0];
+		private byte[] numChildren = new byte[0];
+		/** Closed nodes. */
+		private long[] closed = new long[0];
+		/** The open list as a binary heap. */
+		private int[] heap = new int[16];
+		private int heapSize;
+		/** Work stack for updating sub trees. */
+		private int[] stack = new int[16];
+		private int stackSize;
+		/** <code>true</code> when a search is using this space. */
+		private boolean inUse;
 
 		/**
-		 * Return the y-position of the node.
+		 * Prepare for a new search.
 		 *
-		 * @return the y-position of the node.
+		 * @param size number of nodes the search may use
 		 */
-		public int getY() {
-			return y;
+		void reset(final int size) {
+			if (stamp.length < size) {
+				stamp = new int[size];
+				x = new int[size];
+				y = new int[size];
+				g = new double[size];
+				weight = new double[size];
+				cost = new double[size];
+				parent = new int[size];
+				children = new int[4 * size];
+				numChildren = new byte[size];
+				closed = new long[(size + 63) >>> 6];
+				generation = 0;
+			}
+			generation++;
+			if (generation == 0) {
+				Arrays.fill(stamp, 0);
+				generation = 1;
+			}
+			Arrays.fill(closed, 0, (size + 63) >>> 6, 0L);
+			heapSize = 0;
 		}
 
 		/**
-		 * Return the parent node.
+		 * Check if a node has been reached by the current search.
 		 *
-		 * @return the parent node.
+		 * @param node node number
+		 * @return <code>true</code> if the node exists
 		 */
-		public TreeNode getParent() {
-			return parent;
+		boolean isRegistered(final int node) {
+			return stamp[node] == generation;
 		}
 
 		/**
-		 * The cost of moving to this node.
+		 * Create a node.
 		 *
-		 * @return movement cost
+		 * @param node node number
+		 * @param nodeX x coordinate
+		 * @param nodeY y coordinate
 		 */
-		protected double getCost() {
-			return 1.0;
+		void register(final int node, final int nodeX, final int nodeY) {
+			stamp[node] = generation;
+			x[node] = nodeX;
+			y[node] = nodeY;
+			g[node] = 0.0;
+			weight[node] = 0.0;
+			cost[node] = 1.0;
+			parent[node] = NONE;
+			numChildren[node] = 0;
 		}
 
 		/**
-		 * Calculates the heuristic for the move form node1 to node2. <p> The right
-		 * heuristic is very important for A* - a over estimated heuristic will
-		 * turn A* in to bsf - a under estimated heuristic will turn A* in to
-		 * Dijkstra's so the manhattan distance seams to be the optimal
-		 * heuristic here. But it has one disadvantage. It will expand to much.
-		 * Several nodes will have the same f value It will search the area of
-		 * the size (abs(startX - goalX) + 1) * (abs(startY - goalY) + 1) So a
-		 * tie-breaker is needed. 1% square distace seems to work fine. A* will
-		 * prefer nodes closer to the goal.
-		 * @param nodeGoal
-		 * @return heuristic value for move
-		 */
-		public double getHeuristic(final TreeNode nodeGoal) {
-			final double heuristic = manhattanDistance(x, y, nodeGoal.x, nodeGoal.y);
-			final double tieBreaking = 0.01 * squareDistance(x, y, nodeGoal.x,
-					nodeGoal.y);
-
-			return heuristic + tieBreaking;
-		}
-
-		/**
-		 * Checks if the entity could stand on the position of this node.
+		 * Add a child to a node.
 		 *
-		 * @return true if the the entity could stand on the position
+		 * @param node parent node
+		 * @param child child node
 		 */
-		public boolean isValid() {
-			return isValid(x, y);
+		void addChild(final int node, final int child) {
+			children[4 * node + numChildren[node]++] = child;
 		}
 
 		/**
-		 * Checks if the entity could stand on the given by the coordinates.
-		 * @param x coordinate of the position to be checked
-		 * @param y coordinate of the position to be checked
-		 *
-		 * @return true if the the entity could stand on the position
-		 */
-		public abstract boolean isValid(int x, int y);
-
-		/**
-		 * Create a new <code>TreeNode</code>.
+		 * Check if a node has been taken from the open list.
 		 *
-		 * @param x x coordinate of the created node
-		 * @param y y coordinate of the created node
-		 * @return a <code>TreeNode</code>
+		 * @param node node number
+		 * @return <code>true</code> if the node is closed
 		 */
-		// A workaround for java lacking proper generics
-		public abstract TreeNode createNode(int x, int y);
+		boolean isClosed(final int node) {
+			return (closed[node >>> 6] & (1L << node)) != 0;
+		}
 
 		/**
-		 * Creates valid child nodes.
-		 * <p>
-		 * The child nodes have to be
-		 * <ul>
-		 * <li> a valid position
-		 * <li> a f value less than maxDistance (checked against the given node)
-		 * </ul>
+		 * Push a node to the work stack.
 		 *
+		 * @param node node number
 		 */
-		public void createChildren() {
-			if (g < maxDistance) {
-				linkChild(x - 1, y + 0);
-				linkChild(x + 1, y + 0);
-				linkChild(x + 0, y - 1);
-				linkChild(x + 0, y + 1);
+		void push(final int node) {
+			if (stackSize == stack.length) {
+				stack = Arrays.copyOf(stack, 2 * stackSize);
 			}
+			stack[stackSize++] = node;
 		}
 
 		/**
-		 * Links the children to this parent node  and may also update the
-		 * parent path, if a shorter path is found.
-		 * @param x1
-		 * @param y1
+		 * Add a node to the open list.
+		 * <p>
+		 * The heap is ordered the same way as the PriorityQueue that
+		 * the open list used to be, so that ties are broken the same way.
+		 *
+		 * @param node node number
 		 */
-		private void linkChild(final int x1, final int y1) {
-			if (!isValid(x1, y1)) {
-				return;
+		void offer(final int node) {
+			if (heapSize == heap.length) {
+				heap = Arrays.copyOf(heap, 2 * heapSize);
 			}
-
-			// search for original child node
-			TreeNode child = nodeRegistry.get(createNodeID(x1, y1));
-			if (child == null) {
-				// if not found original child node then create a new one
-				child = createNode(x1, y1);
-
-				addChild(child);
-
-				openList.offer(child);
-				child.setOpen(true);
-
-				nodeRegistry.put(child.nodeNumber, child);
-			} else {
-				// note:
-				// - working on closed nodes is stopped but they may own a better
-				// parent
-				// so they will also be added to this node (parent)
-				if (child.g > (this.g + child.getCost())) {
-					updateChild(child);
-				}
-
-				// update parents for closed nodes only
-				if (!child.isOpen()) {
-					updateSubTree(child);
+			int k = heapSize++;
+			final double w = weight[node];
+			while (k > 0) {
+				final int p = (k - 1) >>> 1;
+				final int e = heap[p];
+				if (w - weight[e] >= 0) {
+					break;
 				}
+				heap[k] = e;
+				k = p;
 			}
+			heap[k] = node;
 		}
 
 		/**
-		 * Update the parents for the new route.
+		 * Take the best node from the open list, and close it.
 		 *
-		 * @param node
-		 *            the root node.
+		 * @return best node, or NONE if the list is empty
 		 */
-		private void updateSubTree(final TreeNode node) {
-			int c = node.numChildren;
-			final Stack<TreeNode> nodeStack = new Stack<TreeNode>();
-
-			nodeStack.push(node);
-
-			TreeNode parentTemp;
-			TreeNode child;
-			while (nodeStack.size() > 0) {
-				parentTemp = nodeStack.pop();
-				c = parentTemp.numChildren;
-				for (int i = 0; i < c; i++) {
-					child = parentTemp.children[i];
-
-					if (parentTemp.g + child.getCost() < child.g) {
-						parentTemp.updateChild(child);
-
-						nodeStack.push(child);
+		int poll() {
+			if (heapSize == 0) {
+				return NONE;
+			}
+			final int result = heap[0];
+			final int s = --heapSize;
+			if (s != 0) {
+				final int node = heap[s];
+				final double w = weight[node];
+				int k = 0;
+				final int half = s >>> 1;
+				while (k < half) {
+					int child = (k << 1) + 1;
+					int c = heap[child];
+					final int right = child + 1;
+					if ((right < s) && (weight[c] - weight[heap[right]] > 0)) {
+						child = right;
+						c = heap[child];
+					}
+					if (w - weight[c] <= 0) {
+						break;
 					}
+					heap[k] = c;
+					k = child;
 				}
+				heap[k] = node;
 			}
-		}
-
-		/**
-		 * Calculates the node id.
-		 * @param x of the node
-		 * @param y of the node
-		 *
-		 * @return the id of the node
-		 */
-		protected abstract int createNodeID(int x, int y);
-
-		public final boolean isOpen() {
-			return open;
-		}
-
-		public final void setOpen(final boolean open) {
-			this.open = open;
-		}
-
-		@Override
-		public boolean equals(final Object obj) {
-			if (obj instanceof TreeNode) {
-				final TreeNode treeN = (TreeNode) obj;
-				return this.nodeNumber.intValue() == treeN.nodeNumber.intValue();
-			}
-			return false;
-		}
-
-		@Override
-		public int hashCode() {
-			return nodeNumber.hashCode();
+			closed[result >>> 6] |= 1L << result;
+			return result;
 		}
 	}
 }
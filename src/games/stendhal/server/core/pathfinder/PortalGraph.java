@@ -0,0 +1,666 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.pathfinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import games.stendhal.common.CollisionDetection;
+import games.stendhal.server.core.engine.StendhalRPWorld;
+import games.stendhal.server.core.engine.StendhalRPZone;
+import games.stendhal.server.entity.mapstuff.portal.Portal;
+import marauroa.common.game.IRPZone;
+
+/**
+ * Plans routes across zones.
+ * <p>
+ * The graph nodes are the portals of the zones, and the places where an
+ * exterior zone can be left to a neighbouring zone by walking over the
+ * border. The walking distances between the nodes of each zone are
+ * calculated when the zone is first needed, and kept until its portals or
+ * collision change. A route is searched over those distances, and only the
+ * zones on the found route need their local paths calculated.
+ * <p>
+ * The routes follow the one tile wide walkable paths of the static collision,
+ * and do not check portal conditions, such as keys or levels.
+ * <p>
+ * Nothing walks the routes yet. They are lists of {@link RPZonePath}, the
+ * format {@link MultiZonesFixedPath} takes, so that NPC routes across zones,
+ * which are written out by hand so far, can be planned with this later.
+ */
+public final class PortalGraph {
+	/** Cost of changing the zone. */
+	private static final int ZONE_CHANGE_COST = 1;
+
+	/** The world whose zones are used. */
+	private final StendhalRPWorld world;
+	/** Waypoint data of the zones that have been needed so far. */
+	private final Map<StendhalRPZone, ZoneWaypoints> zones = new IdentityHashMap<StendhalRPZone, ZoneWaypoints>();
+
+	/**
+	 * Create a new PortalGraph.
+	 *
+	 * @param world the world whose zones are used
+	 */
+	public PortalGraph(final StendhalRPWorld world) {
+		this.world = world;
+	}
+
+	/**
+	 * Forget all calculated data. Called when zones are added or removed, as
+	 * that changes how the exterior zones are connected.
+	 */
+	public synchronized void invalidate() {
+		zones.clear();
+	}
+
+	/**
+	 * Find a route between two places.
+	 *
+	 * @param fromZone start zone
+	 * @param fromX start x
+	 * @param fromY start y
+	 * @param toZone destination zone
+	 * @param toX destination x
+	 * @param toY destination y
+	 * @return route as the paths within the zones on it, or an empty list if
+	 * 	no route was found
+	 */
+	public synchronized List<RPZonePath> findRoute(final StendhalRPZone fromZone, final int fromX,
+			final int fromY, final StendhalRPZone toZone, final int toX, final int toY) {
+		final List<RPZonePath> result = new LinkedList<RPZonePath>();
+		final ZoneWaypoints from = getWaypoints(fromZone);
+		final ZoneWaypoints to = getWaypoints(toZone);
+		if (!from.isInside(fromX, fromY) || !to.isInside(toX, toY)) {
+			return result;
+		}
+		final int[] fromStart = from.distances(fromX, fromY, null);
+		final int[] toGoal = to.distances(toX, toY, null);
+
+		final Map<ZoneWaypoints, int[]> best = new IdentityHashMap<ZoneWaypoints, int[]>();
+		final PriorityQueue<Visit> open = new PriorityQueue<Visit>(16, new Comparator<Visit>() {
+			@Override
+			public int compare(final Visit o1, final Visit o2) {
+				return Integer.compare(o1.cost, o2.cost);
+			}
+		});
+		final Visit start = new Visit(from, Visit.START, 0, null, false);
+		if (from == to) {
+			final int direct = fromStart[from.cell(toX, toY)];
+			if (direct >= 0) {
+				open.add(new Visit(to, Visit.GOAL, direct, start, false));
+			}
+		}
+		for (int i = 0; i < from.size(); i++) {
+			final int d = fromStart[from.cell(from.x[i], from.y[i])];
+			if (d >= 0) {
+				relax(open, best, from, i, d, start, false);
+			}
+		}
+
+		while (!open.isEmpty()) {
+			final Visit visit = open.poll();
+			if (visit.index == Visit.GOAL) {
+				return createRoute(visit, fromX, fromY, toX, toY);
+			}
+			final ZoneWaypoints zone = visit.zone;
+			if (visit.cost > best.get(zone)[visit.index]) {
+				// Found a shorter way already
+				continue;
+			}
+			if (zone == to) {
+				final int d = toGoal[to.cell(to.x[visit.index], to.y[visit.index])];
+				if (d >= 0) {
+					open.add(new Visit(to, Visit.GOAL, visit.cost + d, visit, false));
+				}
+			}
+			final int[] distances = zone.distances[visit.index];
+			for (int i = 0; i < distances.length; i++) {
+				if ((i != visit.index) && (distances[i] >= 0)) {
+					relax(open, best, zone, i, visit.cost + distances[i], visit, false);
+				}
+			}
+			followLink(open, best, visit);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Add the node at the other side of a portal or zone border to the open
+	 * list.
+	 *
+	 * @param open open list
+	 * @param best lowest known costs
+	 * @param visit visit at the portal or zone border
+	 */
+	private void followLink(final PriorityQueue<Visit> open, final Map<ZoneWaypoints, int[]> best,
+			final Visit visit) {
+		final ZoneWaypoints zone = visit.zone;
+		final Portal portal = zone.portals[visit.index];
+		final StendhalRPZone targetZone;
+		if (portal != null) {
+			if (portal.getDestinationZone() == null) {
+				return;
+			}
+			targetZone = world.getZone(portal.getDestinationZone());
+			if (targetZone == null) {
+				return;
+			}
+			final Portal destination = targetZone.getPortal(portal.getDestinationReference());
+			if (destination == null) {
+				return;
+			}
+			final ZoneWaypoints target = getWaypoints(targetZone);
+			final int index = target.indexOf(destination);
+			if (index >= 0) {
+				relax(open, best, target, index, visit.cost + ZONE_CHANGE_COST, visit, true);
+			}
+		} else {
+			targetZone = zone.linkZone[visit.index];
+			final ZoneWaypoints target = getWaypoints(targetZone);
+			final int index = target.indexAt(zone.linkX[visit.index], zone.linkY[visit.index]);
+			if (index >= 0) {
+				relax(open, best, target, index, visit.cost + ZONE_CHANGE_COST, visit, true);
+			}
+		}
+	}
+
+	/**
+	 * Add a node to the open list, if it was not reached more cheaply before.
+	 *
+	 * @param open open list
+	 * @param best lowest known costs
+	 * @param zone zone of the node
+	 * @param index node index within the zone
+	 * @param cost cost of reaching the node
+	 * @param previous previous node on the route
+	 * @param link <code>true</code> if the node was reached through a portal
+	 * 	or over a zone border
+	 */
+	private static void relax(final PriorityQueue<Visit> open, final Map<ZoneWaypoints, int[]> best,
+			final ZoneWaypoints zone, final int index, final int cost, final Visit previous,
+			final boolean link) {
+		int[] costs = best.get(zone);
+		if (costs == null) {
+			costs = new int[zone.size()];
+			Arrays.fill(costs, Integer.MAX_VALUE);
+			best.put(zone, costs);
+		}
+		if (cost < costs[index]) {
+			costs[index] = cost;
+			open.add(new Visit(zone, index, cost, previous, link));
+		}
+	}
+
+	/**
+	 * Build the zone paths of a found route.
+	 *
+	 * @param goal the goal visit
+	 * @param fromX start x
+	 * @param fromY start y
+	 * @param toX destination x
+	 * @param toY destination y
+	 * @return route, or an empty list if a local path could not be built
+	 */
+	private List<RPZonePath> createRoute(final Visit goal, final int fromX, final int fromY,
+			final int toX, final int toY) {
+		// Collect the visited places in order
+		final List<Visit> visits = new ArrayList<Visit>();
+		for (Visit visit = goal; visit != null; visit = visit.previous) {
+			visits.add(0, visit);
+		}
+
+		final List<RPZonePath> result = new LinkedList<RPZonePath>();
+		int i = 0;
+		while (i < visits.size()) {
+			// Walk from the first place in the zone to the last one
+			final ZoneWaypoints zone = visits.get(i).zone;
+			int last = i;
+			while ((last + 1 < visits.size()) && !visits.get(last + 1).link) {
+				last++;
+			}
+			final Visit first = visits.get(i);
+			final Visit end = visits.get(last);
+			final int startX = (first.index == Visit.START) ? fromX : zone.x[first.index];
+			final int startY = (first.index == Visit.START) ? fromY : zone.y[first.index];
+			final int endX = (end.index == Visit.GOAL) ? toX : zone.x[end.index];
+			final int endY = (end.index == Visit.GOAL) ? toY : zone.y[end.index];
+			final List<Node> path = zone.path(startX, startY, endX, endY);
+			if (path == null) {
+				return new LinkedList<RPZonePath>();
+			}
+			result.add(new RPZonePath(zone.zone, path));
+			i = last + 1;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Get the waypoint data of a zone, calculating it if needed.
+	 *
+	 * @param zone zone
+	 * @return waypoint data
+	 */
+	private ZoneWaypoints getWaypoints(final StendhalRPZone zone) {
+		ZoneWaypoints waypoints = zones.get(zone);
+		if ((waypoints == null) || !waypoints.isValid()) {
+			waypoints = new ZoneWaypoints(zone, findNeighbours(zone));
+			zones.put(zone, waypoints);
+		}
+		return waypoints;
+	}
+
+	/**
+	 * Find the exterior zones that share a border with a zone.
+	 *
+	 * @param zone zone
+	 * @return neighbouring zones
+	 */
+	private List<StendhalRPZone> findNeighbours(final StendhalRPZone zone) {
+		final List<StendhalRPZone> neighbours = new ArrayList<StendhalRPZone>();
+		if (zone.isInterior()) {
+			return neighbours;
+		}
+		for (final IRPZone izone : world) {
+			final StendhalRPZone other = (StendhalRPZone) izone;
+			if ((other != zone) && !other.isInterior() && (other.getLevel() == zone.getLevel())
+					&& (other.getX() <= zone.getX() + zone.getWidth())
+					&& (other.getX() + other.getWidth() >= zone.getX())
+					&& (other.getY() <= zone.getY() + zone.getHeight())
+					&& (other.getY() + other.getHeight() >= zone.getY())) {
+				neighbours.add(other);
+			}
+		}
+		return neighbours;
+	}
+
+	/**
+	 * A node reached by the route search.
+	 */
+	private static final class Visit {
+		/** Index of the start position. */
+		static final int START = -1;
+		/** Index of the destination position. */
+		static final int GOAL = -2;
+
+		final ZoneWaypoints zone;
+		final int index;
+		final int cost;
+		final Visit previous;
+		/** <code>true</code> if the node was reached by changing the zone. */
+		final boolean link;
+
+		/**
+		 * Create a new Visit.
+		 *
+		 * @param zone zone of the node
+		 * @param index node index within the zone, or START or GOAL
+		 * @param cost cost of the route so far
+		 * @param previous previous node on the route
+		 * @param link <code>true</code> if the node was reached through a
+		 * 	portal or over a zone border
+		 */
+		Visit(final ZoneWaypoints zone, final int index, final int cost, final Visit previous,
+				final boolean link) {
+			this.zone = zone;
+			this.index = index;
+			this.cost = cost;
+			this.previous = previous;
+			this.link = link;
+		}
+	}
+
+	/**
+	 * The portals and border crossings of a zone, and the walking distances
+	 * between them.
+	 */
+	private static final class ZoneWaypoints {
+		final StendhalRPZone zone;
+		/** Collision data, and its version when the data was calculated. */
+		private final CollisionDetection collision;
+		private final int collisionVersion;
+		/** Portals of the zone when the data was calculated. */
+		private final List<Portal> portalList;
+		private final int[] portalX, portalY;
+		private final int width, height;
+
+		/** Waypoint positions. */
+		final int[] x, y;
+		/** Waypoint portals, <code>null</code> for border crossings. */
+		final Portal[] portals;
+		/** Zone, and the position in it, where a border crossing leads. */
+		final StendhalRPZone[] linkZone;
+		final int[] linkX, linkY;
+		/** Walking distances between the waypoints, or -1 if unreachable. */
+		final int[][] distances;
+		/** Waypoint indices by position. */
+		private final Map<Integer, Integer> indices = new HashMap<Integer, Integer>();
+		/** Positions that can be walked to even when they collide. */
+		private final boolean[] targets;
+
+		/**
+		 * Calculate the waypoints of a zone.
+		 *
+		 * @param zone zone
+		 * @param neighbours exterior zones sharing a border with the zone
+		 */
+		ZoneWaypoints(final StendhalRPZone zone, final List<StendhalRPZone> neighbours) {
+			this.zone = zone;
+			collision = zone.collisionMap;
+			collisionVersion = collision.getVersion();
+			portalList = new ArrayList<Portal>(zone.getPortals());
+			width = zone.getWidth();
+			height = zone.getHeight();
+			portalX = new int[portalList.size()];
+			portalY = new int[portalList.size()];
+
+			final List<int[]> crossings = new ArrayList<int[]>();
+			final List<StendhalRPZone> crossingZones = new ArrayList<StendhalRPZone>();
+			if (!neighbours.isEmpty()) {
+				findCrossings(neighbours, crossings, crossingZones);
+			}
+
+			final int count = portalList.size() + crossings.size();
+			x = new int[count];
+			y = new int[count];
+			portals = new Portal[count];
+			linkZone = new StendhalRPZone[count];
+			linkX = new int[count];
+			linkY = new int[count];
+			for (int i = 0; i < portalList.size(); i++) {
+				final Portal portal = portalList.get(i);
+				portalX[i] = portal.getX();
+				portalY[i] = portal.getY();
+				x[i] = portalX[i];
+				y[i] = portalY[i];
+				portals[i] = portal;
+			}
+			for (int i = 0; i < crossings.size(); i++) {
+				final int[] crossing = crossings.get(i);
+				final int index = portalList.size() + i;
+				x[index] = crossing[0];
+				y[index] = crossing[1];
+				linkZone[index] = crossingZones.get(i);
+				linkX[index] = crossing[2];
+				linkY[index] = crossing[3];
+			}
+
+			targets = new boolean[width * height];
+			for (int i = 0; i < count; i++) {
+				if (isInside(x[i], y[i])) {
+					targets[cell(x[i], y[i])] = true;
+					// The first one wins, if several are at the same place
+					if (!indices.containsKey(Integer.valueOf(cell(x[i], y[i])))) {
+						indices.put(Integer.valueOf(cell(x[i], y[i])), Integer.valueOf(i));
+					}
+				}
+			}
+
+			distances = new int[count][];
+			for (int i = 0; i < count; i++) {
+				distances[i] = new int[count];
+				if (!isInside(x[i], y[i])) {
+					Arrays.fill(distances[i], -1);
+					continue;
+				}
+				final int[] dist = distances(x[i], y[i], null);
+				for (int j = 0; j < count; j++) {
+					distances[i][j] = isInside(x[j], y[j]) ? dist[cell(x[j], y[j])] : -1;
+				}
+			}
+		}
+
+		/**
+		 * Find the places where the zone border can be crossed to a
+		 * neighbouring zone. Each continuous walkable stretch of the border
+		 * gets a crossing at its middle. The middle is calculated in world
+		 * coordinates, so the zone at the other side finds the same
+		 * crossings.
+		 *
+		 * @param neighbours neighbouring zones
+		 * @param crossings list for the crossings, as {x, y, target x,
+		 * 	target y}
+		 * @param crossingZones list for the target zones of the crossings
+		 */
+		private void findCrossings(final List<StendhalRPZone> neighbours, final List<int[]> crossings,
+				final List<StendhalRPZone> crossingZones) {
+			final int zoneX = zone.getX();
+			final int zoneY = zone.getY();
+			// top, bottom, left, right: edge position and the step out
+			final int[][] sides = {
+				{ 0, 0, 1, 0, 0, -1, width },
+				{ 0, height - 1, 1, 0, 0, 1, width },
+				{ 0, 0, 0, 1, -1, 0, height },
+				{ width - 1, 0, 0, 1, 1, 0, height }
+			};
+			for (final int[] side : sides) {
+				StendhalRPZone runZone = null;
+				int runStart = 0;
+				final int length = side[6];
+				for (int i = 0; i <= length; i++) {
+					StendhalRPZone next = null;
+					final int ex = side[0] + i * side[2];
+					final int ey = side[1] + i * side[3];
+					if ((i < length) && !collision.collides(ex, ey)) {
+						next = findZoneAt(neighbours, zoneX + ex + side[4], zoneY + ey + side[5]);
+						if ((next != null) && next.collisionMap.collides(zoneX + ex + side[4] - next.getX(),
+								zoneY + ey + side[5] - next.getY())) {
+							next = null;
+						}
+					}
+					if (next != runZone) {
+						if (runZone != null) {
+							// World coordinate along the side, for the both ends
+							final int offset = (side[2] == 1) ? zoneX : zoneY;
+							final int middle = Math.floorDiv(2 * offset + runStart + i - 1, 2) - offset;
+							final int cx = side[0] + middle * side[2];
+							final int cy = side[1] + middle * side[3];
+							crossings.add(new int[] { cx, cy, zoneX + cx + side[4] - runZone.getX(),
+									zoneY + cy + side[5] - runZone.getY() });
+							crossingZones.add(runZone);
+						}
+						runZone = next;
+						runStart = i;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Find the zone that contains a position.
+		 *
+		 * @param candidates checked zones
+		 * @param wx world x coordinate
+		 * @param wy world y coordinate
+		 * @return zone, or <code>null</code> if none of the zones contains
+		 * 	the position
+		 */
+		private static StendhalRPZone findZoneAt(final List<StendhalRPZone> candidates, final int wx, final int wy) {
+			for (final StendhalRPZone candidate : candidates) {
+				if ((wx >= candidate.getX()) && (wx < candidate.getX() + candidate.getWidth())
+						&& (wy >= candidate.getY()) && (wy < candidate.getY() + candidate.getHeight())) {
+					return candidate;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Check if the data still matches the zone.
+		 *
+		 * @return <code>true</code> if the collision and portals are unchanged
+		 */
+		boolean isValid() {
+			if ((zone.collisionMap != collision) || (collision.getVersion() != collisionVersion)) {
+				return false;
+			}
+			final List<Portal> current = zone.getPortals();
+			if (current.size() != portalList.size()) {
+				return false;
+			}
+			int i = 0;
+			for (final Portal portal : current) {
+				if ((portal != portalList.get(i)) || (portal.getX() != portalX[i]) || (portal.getY() != portalY[i])) {
+					return false;
+				}
+				i++;
+			}
+			return true;
+		}
+
+		/**
+		 * Get the number of waypoints.
+		 *
+		 * @return number of waypoints
+		 */
+		int size() {
+			return x.length;
+		}
+
+		/**
+		 * Get the waypoint of a portal.
+		 *
+		 * @param portal portal
+		 * @return waypoint index, or -1 if the portal is not known
+		 */
+		int indexOf(final Portal portal) {
+			for (int i = 0; i < portalList.size(); i++) {
+				if (portals[i] == portal) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Get the waypoint at a position.
+		 *
+		 * @param px x coordinate
+		 * @param py y coordinate
+		 * @return waypoint index, or -1 if there is no waypoint at the position
+		 */
+		int indexAt(final int px, final int py) {
+			if (!isInside(px, py)) {
+				return -1;
+			}
+			final Integer index = indices.get(Integer.valueOf(cell(px, py)));
+			return (index != null) ? index.intValue() : -1;
+		}
+
+		/**
+		 * Check if a position is within the zone.
+		 *
+		 * @param px x coordinate
+		 * @param py y coordinate
+		 * @return <code>true</code> if the position is inside
+		 */
+		boolean isInside(final int px, final int py) {
+			return (px >= 0) && (py >= 0) && (px < width) && (py < height);
+		}
+
+		/**
+		 * Get the index of a position in the distance arrays.
+		 *
+		 * @param px x coordinate
+		 * @param py y coordinate
+		 * @return cell index
+		 */
+		int cell(final int px, final int py) {
+			return px + py * width;
+		}
+
+		/**
+		 * Calculate the walking distances from a position to all the
+		 * positions of the zone. Waypoints can be walked to even if they
+		 * collide, but not through.
+		 *
+		 * @param startX start x
+		 * @param startY start y
+		 * @param parents array for the previous cells on the shortest paths,
+		 * 	or <code>null</code>
+		 * @return distances by cell index, -1 for unreachable cells
+		 */
+		int[] distances(final int startX, final int startY, final int[] parents) {
+			final int[] dist = new int[width * height];
+			Arrays.fill(dist, -1);
+			final int[] queue = new int[width * height];
+			int head = 0;
+			int tail = 0;
+			final int start = cell(startX, startY);
+			dist[start] = 0;
+			queue[tail++] = start;
+			while (head < tail) {
+				final int index = queue[head++];
+				final int cx = index % width;
+				final int cy = index / width;
+				if ((index != start) && collision.collides(cx, cy)) {
+					// A waypoint on collision
+					continue;
+				}
+				final int d = dist[index] + 1;
+				for (int dir = 0; dir < 4; dir++) {
+					final int nx = cx + ((dir == 0) ? -1 : (dir == 1) ? 1 : 0);
+					final int ny = cy + ((dir == 2) ? -1 : (dir == 3) ? 1 : 0);
+					if (!isInside(nx, ny)) {
+						continue;
+					}
+					final int next = cell(nx, ny);
+					if ((dist[next] == -1) && (targets[next] || !collision.collides(nx, ny))) {
+						dist[next] = d;
+						if (parents != null) {
+							parents[next] = index;
+						}
+						queue[tail++] = next;
+					}
+				}
+			}
+			return dist;
+		}
+
+		/**
+		 * Find the shortest path between two positions.
+		 *
+		 * @param startX start x
+		 * @param startY start y
+		 * @param endX end x
+		 * @param endY end y
+		 * @return path, or <code>null</code> if there is none
+		 */
+		List<Node> path(final int startX, final int startY, final int endX, final int endY) {
+			final int[] parents = new int[width * height];
+			final boolean wasTarget = targets[cell(endX, endY)];
+			targets[cell(endX, endY)] = true;
+			final int[] dist = distances(startX, startY, parents);
+			targets[cell(endX, endY)] = wasTarget;
+			if (dist[cell(endX, endY)] < 0) {
+				return null;
+			}
+			final LinkedList<Node> path = new LinkedList<Node>();
+			final int start = cell(startX, startY);
+			int index = cell(endX, endY);
+			path.addFirst(new Node(endX, endY));
+			while (index != start) {
+				index = parents[index];
+				path.addFirst(new Node(index % width, index / width));
+			}
+			return path;
+		}
+	}
+}
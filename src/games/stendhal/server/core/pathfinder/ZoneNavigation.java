@@ -0,0 +1,824 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.pathfinder;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import games.stendhal.common.CollisionDetection;
+
+/**
+ * Precomputed navigation data of a zone collision map.
+ * <p>
+ * For every entity size that searches long paths in the zone a layer is
+ * built when first needed. The layer labels the connected areas of the map,
+ * so that searches for goals that can never be reached fail immediately
+ * instead of expanding everything within the search distance. It also
+ * splits the map to clusters, and connects the cluster entrances to a graph
+ * (HPA*). Long searches first find a route over that graph, and then run
+ * the normal A* only between the route waypoints, so the dynamic obstacles
+ * are still taken in account.
+ * <p>
+ * The data depends only on the static collision, and is rebuilt when the
+ * collision map changes.
+ */
+public final class ZoneNavigation {
+	/** Width and height of the clusters. */
+	static final int CLUSTER_SIZE = 16;
+	/**
+	 * Minimum manhattan distance between the start and the goal for using
+	 * the cluster graph. Shorter searches are cheap enough as they are.
+	 */
+	static final int MIN_HIERARCHICAL_DISTANCE = 2 * CLUSTER_SIZE;
+	/** Entrances at least this wide get a transition at both ends. */
+	private static final int WIDE_ENTRANCE = 6;
+	/** Extra search distance allowed for walking around dynamic obstacles. */
+	private static final int LEG_SLACK = 8;
+
+	/**
+	 * Searches a path between two points.
+	 */
+	interface LegSearch {
+		/**
+		 * Search a path.
+		 *
+		 * @param x start x
+		 * @param y start y
+		 * @param destination destination area
+		 * @param maxDistance maximum search distance
+		 * @return path, or an empty list if no path was found
+		 */
+		List<Node> searchPath(int x, int y, Rectangle2D destination, double maxDistance);
+	}
+
+	/** The collision data this is built from. */
+	private final CollisionDetection collision;
+	/** Version of the collision data when this was created. */
+	private final int version;
+	/** Navigation layers for different entity sizes. */
+	private final List<Layer> layers = new ArrayList<Layer>();
+
+	/**
+	 * Create navigation data for a collision map.
+	 *
+	 * @param collision collision map
+	 */
+	public ZoneNavigation(final CollisionDetection collision) {
+		this.collision = collision;
+		this.version = collision.getVersion();
+	}
+
+	/**
+	 * Check if the navigation data still describes a collision map.
+	 *
+	 * @param collision collision map
+	 * @return <code>true</code> if the data is up to date
+	 */
+	public boolean isValidFor(final CollisionDetection collision) {
+		return (this.collision == collision) && (collision.getVersion() == version);
+	}
+
+	/**
+	 * Get the navigation layer for an entity size, building it if needed.
+	 *
+	 * @param width entity width
+	 * @param height entity height
+	 * @return layer
+	 */
+	synchronized Layer getLayer(final double width, final double height) {
+		for (final Layer layer : layers) {
+			if ((layer.entityWidth == width) && (layer.entityHeight == height)) {
+				return layer;
+			}
+		}
+		final Layer layer = new Layer(collision, width, height);
+		layers.add(layer);
+		return layer;
+	}
+
+	/**
+	 * Search a path using the precomputed data.
+	 *
+	 * @param width width of the walking entity
+	 * @param height height of the walking entity
+	 * @param startX start x
+	 * @param startY start y
+	 * @param destination destination area
+	 * @param maxDistance maximum search distance
+	 * @param legs the search used between waypoints
+	 * @return found path, an empty list if the destination can not be
+	 * 	reached, or <code>null</code> if the caller should do a normal search
+	 */
+	List<Node> searchPath(final double width, final double height, final int startX,
+			final int startY, final Rectangle2D destination, final double maxDistance,
+			final LegSearch legs) {
+		final int goalCenterX = (int) destination.getCenterX();
+		final int goalCenterY = (int) destination.getCenterY();
+		final int distance = Math.abs(startX - goalCenterX) + Math.abs(startY - goalCenterY);
+		if ((distance < MIN_HIERARCHICAL_DISTANCE) || destination.contains(startX, startY)) {
+			return null;
+		}
+		final Layer layer = getLayer(width, height);
+
+		/*
+		 * A* starts from the start position even if it is not walkable, and
+		 * continues from there to the walkable neighbours.
+		 */
+		final int[] startAreas = {
+			layer.getArea(startX, startY),
+			layer.getArea(startX - 1, startY),
+			layer.getArea(startX + 1, startY),
+			layer.getArea(startX, startY - 1),
+			layer.getArea(startX, startY + 1)
+		};
+
+		// The goal is entered through its border
+		final int w = (int) destination.getWidth() - 1;
+		final int h = (int) destination.getHeight() - 1;
+		final int x = (int) destination.getX();
+		final int y = (int) destination.getY();
+		int goalX = 0;
+		int goalY = 0;
+		int goalDistance = Integer.MAX_VALUE;
+		for (int i = 0; i <= w; i++) {
+			for (int j = 0; j <= h; j++) {
+				if ((i == 0) || (j == 0) || (i == w) || (j == h)) {
+					final int area = layer.getArea(x + i, y + j);
+					if ((area != 0) && contains(startAreas, area)) {
+						final int centerDistance = Math.abs(x + i - goalCenterX) + Math.abs(y + j - goalCenterY);
+						if (centerDistance < goalDistance) {
+							goalDistance = centerDistance;
+							goalX = x + i;
+							goalY = y + j;
+						}
+					}
+				}
+			}
+		}
+		if (goalDistance == Integer.MAX_VALUE) {
+			// Not even the static collision allows reaching the goal
+			return new LinkedList<Node>();
+		}
+
+		final Route route = layer.findRoute(startX, startY, goalX, goalY);
+		if (route == null) {
+			return null;
+		}
+		// Let the normal search decide about routes that are too long
+		final double limit = Math.max(maxDistance, 1.1 * distance + 1);
+		if (route.length > limit) {
+			return null;
+		}
+
+		return followRoute(startX, startY, route, destination, legs);
+	}
+
+	/**
+	 * Search the path along a route.
+	 *
+	 * @param startX start x
+	 * @param startY start y
+	 * @param route route to follow
+	 * @param destination destination area
+	 * @param legs the search used between waypoints
+	 * @return found path, or <code>null</code> if a part of it could not be
+	 * 	found
+	 */
+	private List<Node> followRoute(final int startX, final int startY, final Route route,
+			final Rectangle2D destination, final LegSearch legs) {
+		final List<Node> result = new LinkedList<Node>();
+		int x = startX;
+		int y = startY;
+		int legLength = 0;
+		// The last waypoint is in the destination, so it is left for the last leg
+		final int waypoints = route.x.length - 1;
+		for (int i = 0; i < waypoints; i++) {
+			legLength += route.distance[i];
+			final int wx = route.x[i];
+			final int wy = route.y[i];
+			// Skip the waypoints that are too close to bother
+			if (Math.abs(wx - x) + Math.abs(wy - y) < CLUSTER_SIZE) {
+				continue;
+			}
+			if (!appendLeg(result, legs.searchPath(x, y, new Rectangle(wx, wy, 1, 1),
+					legLength + LEG_SLACK))) {
+				return null;
+			}
+			x = wx;
+			y = wy;
+			legLength = 0;
+		}
+		legLength += route.distance[waypoints];
+		if (!appendLeg(result, legs.searchPath(x, y, destination, legLength + LEG_SLACK))) {
+			return null;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Append a part of path to the full path.
+	 *
+	 * @param path full path
+	 * @param leg new part. The first node is the same as the last node of
+	 * 	the full path
+	 * @return <code>false</code> if the part is empty
+	 */
+	private static boolean appendLeg(final List<Node> path, final List<Node> leg) {
+		if (leg.isEmpty()) {
+			return false;
+		}
+		if (!path.isEmpty()) {
+			leg.remove(0);
+		}
+		path.addAll(leg);
+		return true;
+	}
+
+	/**
+	 * Check if an array contains a value.
+	 *
+	 * @param array array
+	 * @param value value
+	 * @return <code>true</code> if the value is in the array
+	 */
+	private static boolean contains(final int[] array, final int value) {
+		for (final int element : array) {
+			if (element == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A route over the cluster graph.
+	 */
+	static final class Route {
+		/** Waypoint coordinates. The last waypoint is the goal. */
+		final int[] x, y;
+		/** Distance to each waypoint from the previous one. */
+		final int[] distance;
+		/** Total length. */
+		final int length;
+
+		/**
+		 * Create a new route.
+		 *
+		 * @param x waypoint x coordinates
+		 * @param y waypoint y coordinates
+		 * @param distance distances between the waypoints
+		 * @param length total length
+		 */
+		Route(final int[] x, final int[] y, final int[] distance, final int length) {
+			this.x = x;
+			this.y = y;
+			this.distance = distance;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Navigation data for one entity size.
+	 */
+	static final class Layer {
+		/** Size of the entities using the layer. */
+		private final double entityWidth, entityHeight;
+		/** Map size. */
+		private final int width, height;
+		/** Number of clusters in x direction. */
+		private final int clustersX;
+		/**
+		 * Connected area numbers of the positions, indexed by x + y * width.
+		 * 0 for positions where the entity can not stand.
+		 */
+		private final int[] areas;
+		/** Positions of the graph nodes. */
+		private int[] nodeX, nodeY;
+		/** Neighbours of the graph nodes, and the distances to them. */
+		private int[][] neighbours, distances;
+		/** Graph nodes of each cluster. */
+		private int[][] clusterNodes;
+
+		/**
+		 * Build a navigation layer.
+		 *
+		 * @param collision collision map
+		 * @param entityWidth entity width
+		 * @param entityHeight entity height
+		 */
+		Layer(final CollisionDetection collision, final double entityWidth, final double entityHeight) {
+			this.entityWidth = entityWidth;
+			this.entityHeight = entityHeight;
+			width = collision.getWidth();
+			height = collision.getHeight();
+			clustersX = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+			areas = new int[width * height];
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					if (!collision.collides(x, y, entityWidth, entityHeight)) {
+						areas[x + y * width] = -1;
+					}
+				}
+			}
+			labelAreas();
+			buildGraph();
+		}
+
+		/**
+		 * Get the connected area of a position.
+		 *
+		 * @param x x coordinate
+		 * @param y y coordinate
+		 * @return area number, or 0 if the position is not walkable
+		 */
+		int getArea(final int x, final int y) {
+			if ((x < 0) || (y < 0) || (x >= width) || (y >= height)) {
+				return 0;
+			}
+			return areas[x + y * width];
+		}
+
+		/**
+		 * Number the connected walkable areas.
+		 */
+		private void labelAreas() {
+			final int[] queue = new int[areas.length];
+			int label = 0;
+			for (int start = 0; start < areas.length; start++) {
+				if (areas[start] != -1) {
+					continue;
+				}
+				label++;
+				areas[start] = label;
+				int head = 0;
+				int tail = 0;
+				queue[tail++] = start;
+				while (head < tail) {
+					final int index = queue[head++];
+					final int x = index % width;
+					if ((x > 0) && (areas[index - 1] == -1)) {
+						areas[index - 1] = label;
+						queue[tail++] = index - 1;
+					}
+					if ((x < width - 1) && (areas[index + 1] == -1)) {
+						areas[index + 1] = label;
+						queue[tail++] = index + 1;
+					}
+					if ((index >= width) && (areas[index - width] == -1)) {
+						areas[index - width] = label;
+						queue[tail++] = index - width;
+					}
+					if ((index + width < areas.length) && (areas[index + width] == -1)) {
+						areas[index + width] = label;
+						queue[tail++] = index + width;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Create the nodes at the cluster entrances, and connect them.
+		 */
+		private void buildGraph() {
+			final int clustersY = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+			final List<int[]> transitions = new ArrayList<int[]>();
+			// Vertical borders, split at the cluster corners
+			for (int border = CLUSTER_SIZE; border < width; border += CLUSTER_SIZE) {
+				for (int segment = 0; segment < height; segment += CLUSTER_SIZE) {
+					final int end = Math.min(height, segment + CLUSTER_SIZE);
+					int runStart = -1;
+					for (int y = segment; y <= end; y++) {
+						final boolean open = (y < end) && (getArea(border - 1, y) != 0) && (getArea(border, y) != 0);
+						if (open && (runStart == -1)) {
+							runStart = y;
+						} else if (!open && (runStart != -1)) {
+							addTransitions(transitions, border - 1, runStart, 0, y - runStart, 1, 0);
+							runStart = -1;
+						}
+					}
+				}
+			}
+			// Horizontal borders
+			for (int border = CLUSTER_SIZE; border < height; border += CLUSTER_SIZE) {
+				for (int segment = 0; segment < width; segment += CLUSTER_SIZE) {
+					final int end = Math.min(width, segment + CLUSTER_SIZE);
+					int runStart = -1;
+					for (int x = segment; x <= end; x++) {
+						final boolean open = (x < end) && (getArea(x, border - 1) != 0) && (getArea(x, border) != 0);
+						if (open && (runStart == -1)) {
+							runStart = x;
+						} else if (!open && (runStart != -1)) {
+							addTransitions(transitions, runStart, border - 1, x - runStart, 0, 0, 1);
+							runStart = -1;
+						}
+					}
+				}
+			}
+
+			// Create the nodes
+			final Map<Integer, Integer> nodeAt = new HashMap<Integer, Integer>();
+			final List<Integer> positions = new ArrayList<Integer>();
+			final List<List<int[]>> edges = new ArrayList<List<int[]>>();
+			for (final int[] transition : transitions) {
+				final int a = getNode(nodeAt, positions, edges, transition[0], transition[1]);
+				final int b = getNode(nodeAt, positions, edges, transition[2], transition[3]);
+				edges.get(a).add(new int[] { b, 1 });
+				edges.get(b).add(new int[] { a, 1 });
+			}
+			final int nodes = positions.size();
+			nodeX = new int[nodes];
+			nodeY = new int[nodes];
+			final List<List<Integer>> clusters = new ArrayList<List<Integer>>();
+			for (int i = 0; i < clustersX * clustersY; i++) {
+				clusters.add(new ArrayList<Integer>());
+			}
+			for (int node = 0; node < nodes; node++) {
+				final int position = positions.get(node).intValue();
+				nodeX[node] = position % width;
+				nodeY[node] = position / width;
+				clusters.get(getCluster(nodeX[node], nodeY[node])).add(Integer.valueOf(node));
+			}
+			clusterNodes = new int[clusters.size()][];
+			for (int i = 0; i < clusterNodes.length; i++) {
+				final List<Integer> list = clusters.get(i);
+				clusterNodes[i] = new int[list.size()];
+				for (int j = 0; j < list.size(); j++) {
+					clusterNodes[i][j] = list.get(j).intValue();
+				}
+			}
+
+			// Connect the nodes inside the clusters
+			for (final int[] cluster : clusterNodes) {
+				for (final int node : cluster) {
+					final int[] dist = clusterDistances(nodeX[node], nodeY[node]);
+					for (final int other : cluster) {
+						if (other != node) {
+							final int d = dist[clusterIndex(nodeX[other], nodeY[other])];
+							if (d > 0) {
+								edges.get(node).add(new int[] { other, d });
+							}
+						}
+					}
+				}
+			}
+			neighbours = new int[nodes][];
+			distances = new int[nodes][];
+			for (int node = 0; node < nodes; node++) {
+				final List<int[]> list = edges.get(node);
+				neighbours[node] = new int[list.size()];
+				distances[node] = new int[list.size()];
+				for (int i = 0; i < list.size(); i++) {
+					neighbours[node][i] = list.get(i)[0];
+					distances[node][i] = list.get(i)[1];
+				}
+			}
+		}
+
+		/**
+		 * Add the transitions of a cluster entrance.
+		 *
+		 * @param transitions list of transitions, as pairs of positions
+		 * @param x x coordinate of the first position of the entrance, on the
+		 * 	lower side of the border
+		 * @param y y coordinate of the first position of the entrance, on the
+		 * 	lower side of the border
+		 * @param dx entrance length in x direction, or 0
+		 * @param dy entrance length in y direction, or 0
+		 * @param crossX x step over the border
+		 * @param crossY y step over the border
+		 */
+		private static void addTransitions(final List<int[]> transitions, final int x, final int y,
+				final int dx, final int dy, final int crossX, final int crossY) {
+			final int length = Math.max(dx, dy);
+			final int stepX = (dx > 0) ? 1 : 0;
+			final int stepY = (dy > 0) ? 1 : 0;
+			if (length < WIDE_ENTRANCE) {
+				final int middle = (length - 1) / 2;
+				final int tx = x + middle * stepX;
+				final int ty = y + middle * stepY;
+				transitions.add(new int[] { tx, ty, tx + crossX, ty + crossY });
+			} else {
+				final int ex = x + (length - 1) * stepX;
+				final int ey = y + (length - 1) * stepY;
+				transitions.add(new int[] { x, y, x + crossX, y + crossY });
+				transitions.add(new int[] { ex, ey, ex + crossX, ey + crossY });
+			}
+		}
+
+		/**
+		 * Get or create a graph node.
+		 *
+		 * @param nodeAt node numbers by position
+		 * @param positions positions by node number
+		 * @param edges edge lists by node number
+		 * @param x x coordinate
+		 * @param y y coordinate
+		 * @return node number
+		 */
+		private int getNode(final Map<Integer, Integer> nodeAt, final List<Integer> positions,
+				final List<List<int[]>> edges, final int x, final int y) {
+			final Integer position = Integer.valueOf(x + y * width);
+			Integer node = nodeAt.get(position);
+			if (node == null) {
+				node = Integer.valueOf(positions.size());
+				nodeAt.put(position, node);
+				positions.add(position);
+				edges.add(new ArrayList<int[]>());
+			}
+			return node.intValue();
+		}
+
+		/**
+		 * Get the cluster of a position.
+		 *
+		 * @param x x coordinate
+		 * @param y y coordinate
+		 * @return cluster number
+		 */
+		private int getCluster(final int x, final int y) {
+			return x / CLUSTER_SIZE + (y / CLUSTER_SIZE) * clustersX;
+		}
+
+		/**
+		 * Get the index of a position within its cluster.
+		 *
+		 * @param x x coordinate
+		 * @param y y coordinate
+		 * @return index
+		 */
+		private static int clusterIndex(final int x, final int y) {
+			return x % CLUSTER_SIZE + (y % CLUSTER_SIZE) * CLUSTER_SIZE;
+		}
+
+		/**
+		 * Calculate the walking distances from a position to the other
+		 * positions of the same cluster, without leaving the cluster.
+		 *
+		 * @param x x coordinate
+		 * @param y y coordinate
+		 * @return distances indexed by cluster index. 0 for positions that
+		 * 	can not be reached
+		 */
+		private int[] clusterDistances(final int x, final int y) {
+			final int[] dist = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+			final int minX = x - x % CLUSTER_SIZE;
+			final int minY = y - y % CLUSTER_SIZE;
+			final int maxX = Math.min(width, minX + CLUSTER_SIZE);
+			final int maxY = Math.min(height, minY + CLUSTER_SIZE);
+			final int[] queue = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+			int head = 0;
+			int tail = 0;
+			final int start = clusterIndex(x, y);
+			// Distances are stored +1, so that 0 means unreached
+			dist[start] = 1;
+			queue[tail++] = start;
+			while (head < tail) {
+				final int index = queue[head++];
+				final int cx = minX + index % CLUSTER_SIZE;
+				final int cy = minY + index / CLUSTER_SIZE;
+				final int d = dist[index] + 1;
+				if ((cx > minX) && (dist[index - 1] == 0) && (getArea(cx - 1, cy) != 0)) {
+					dist[index - 1] = d;
+					queue[tail++] = index - 1;
+				}
+				if ((cx < maxX - 1) && (dist[index + 1] == 0) && (getArea(cx + 1, cy) != 0)) {
+					dist[index + 1] = d;
+					queue[tail++] = index + 1;
+				}
+				if ((cy > minY) && (dist[index - CLUSTER_SIZE] == 0) && (getArea(cx, cy - 1) != 0)) {
+					dist[index - CLUSTER_SIZE] = d;
+					queue[tail++] = index - CLUSTER_SIZE;
+				}
+				if ((cy < maxY - 1) && (dist[index + CLUSTER_SIZE] == 0) && (getArea(cx, cy + 1) != 0)) {
+					dist[index + CLUSTER_SIZE] = d;
+					queue[tail++] = index + CLUSTER_SIZE;
+				}
+			}
+			for (int i = 0; i < dist.length; i++) {
+				if (dist[i] > 0) {
+					dist[i]--;
+				} else {
+					dist[i] = -1;
+				}
+			}
+			return dist;
+		}
+
+		/**
+		 * Find a route over the cluster graph.
+		 *
+		 * @param startX start x
+		 * @param startY start y
+		 * @param goalX goal x. Must be walkable
+		 * @param goalY goal y. Must be walkable
+		 * @return route, or <code>null</code> if none was found
+		 */
+		Route findRoute(final int startX, final int startY, final int goalX, final int goalY) {
+			final int nodes = nodeX.length;
+			final int startNode = nodes;
+			final int goalNode = nodes + 1;
+			final int[] g = new int[nodes + 2];
+			final int[] parent = new int[nodes + 2];
+			final boolean[] closed = new boolean[nodes + 2];
+			Arrays.fill(g, Integer.MAX_VALUE);
+
+			// Connect the start and the goal to their clusters
+			final boolean startInMap = getArea(startX, startY) != 0;
+			final int[] startDist = startInMap ? clusterDistances(startX, startY) : null;
+			final int[] startCluster = startInMap ? clusterNodes[getCluster(startX, startY)] : new int[0];
+			final int[] goalDist = clusterDistances(goalX, goalY);
+			final int[] goalCluster = clusterNodes[getCluster(goalX, goalY)];
+			final int[] toGoal = new int[nodes];
+			Arrays.fill(toGoal, -1);
+			for (final int node : goalCluster) {
+				toGoal[node] = goalDist[clusterIndex(nodeX[node], nodeY[node])];
+			}
+			if (!startInMap || (startCluster.length == 0)) {
+				// An unwalkable start, or an isolated cluster. Leave it to A*
+				return null;
+			}
+
+			final Heap heap = new Heap();
+			g[startNode] = 0;
+			parent[startNode] = -1;
+			heap.push(0, startNode);
+			while (!heap.isEmpty()) {
+				final int node = heap.pop();
+				if (closed[node]) {
+					continue;
+				}
+				closed[node] = true;
+				if (node == goalNode) {
+					return createRoute(parent, g, goalNode, goalX, goalY);
+				}
+				if (node == startNode) {
+					if (getCluster(startX, startY) == getCluster(goalX, goalY)) {
+						final int d = startDist[clusterIndex(goalX, goalY)];
+						if (d >= 0) {
+							relax(heap, g, parent, node, goalNode, d, goalX, goalY);
+						}
+					}
+					for (final int next : startCluster) {
+						final int d = startDist[clusterIndex(nodeX[next], nodeY[next])];
+						if (d >= 0) {
+							relax(heap, g, parent, node, next, d, goalX, goalY);
+						}
+					}
+				} else {
+					if (toGoal[node] >= 0) {
+						relax(heap, g, parent, node, goalNode, toGoal[node], goalX, goalY);
+					}
+					final int[] next = neighbours[node];
+					final int[] dist = distances[node];
+					for (int i = 0; i < next.length; i++) {
+						relax(heap, g, parent, node, next[i], dist[i], goalX, goalY);
+					}
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Update the distance of a node, if a shorter way to it is found.
+		 *
+		 * @param heap open list
+		 * @param g distances from the start
+		 * @param parent previous nodes
+		 * @param node current node
+		 * @param next the node to be updated
+		 * @param distance distance between the nodes
+		 * @param goalX goal x
+		 * @param goalY goal y
+		 */
+		private void relax(final Heap heap, final int[] g, final int[] parent,
+				final int node, final int next, final int distance, final int goalX, final int goalY) {
+			final int newG = g[node] + distance;
+			if (newG < g[next]) {
+				g[next] = newG;
+				parent[next] = node;
+				int f = newG;
+				if (next < nodeX.length) {
+					f += Math.abs(nodeX[next] - goalX) + Math.abs(nodeY[next] - goalY);
+				}
+				heap.push(f, next);
+			}
+		}
+
+		/**
+		 * Build the route from the search result.
+		 *
+		 * @param parent previous nodes
+		 * @param g distances from the start
+		 * @param goalNode goal node
+		 * @param goalX goal x
+		 * @param goalY goal y
+		 * @return route
+		 */
+		private Route createRoute(final int[] parent, final int[] g, final int goalNode,
+				final int goalX, final int goalY) {
+			int count = 0;
+			for (int node = goalNode; parent[node] != -1; node = parent[node]) {
+				count++;
+			}
+			final int[] x = new int[count];
+			final int[] y = new int[count];
+			final int[] distance = new int[count];
+			int i = count - 1;
+			for (int node = goalNode; parent[node] != -1; node = parent[node]) {
+				if (node == goalNode) {
+					x[i] = goalX;
+					y[i] = goalY;
+				} else {
+					x[i] = nodeX[node];
+					y[i] = nodeY[node];
+				}
+				distance[i] = g[node] - g[parent[node]];
+				i--;
+			}
+			return new Route(x, y, distance, g[goalNode]);
+		}
+	}
+
+	/**
+	 * A binary heap of nodes ordered by priority.
+	 */
+	private static final class Heap {
+		/** Entries as priority &lt;&lt; 32 | node. */
+		private long[] entries = new long[64];
+		private int size;
+
+		/**
+		 * Check if the heap is empty.
+		 *
+		 * @return <code>true</code> if there are no entries
+		 */
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		/**
+		 * Add a node.
+		 *
+		 * @param priority priority. Must not be negative
+		 * @param node node
+		 */
+		void push(final int priority, final int node) {
+			if (size == entries.length) {
+				entries = Arrays.copyOf(entries, 2 * size);
+			}
+			final long entry = ((long) priority << 32) | node;
+			int k = size++;
+			while (k > 0) {
+				final int p = (k - 1) >>> 1;
+				if (entries[p] <= entry) {
+					break;
+				}
+				entries[k] = entries[p];
+				k = p;
+			}
+			entries[k] = entry;
+		}
+
+		/**
+		 * Remove the node with the lowest priority.
+		 *
+		 * @return node
+		 */
+		int pop() {
+			final long result = entries[0];
+			final long last = entries[--size];
+			int k = 0;
+			while (true) {
+				int child = 2 * k + 1;
+				if (child >= size) {
+					break;
+				}
+				if ((child + 1 < size) && (entries[child + 1] < entries[child])) {
+					child++;
+				}
+				if (last <= entries[child]) {
+					break;
+				}
+				entries[k] = entries[child];
+				k = child;
+			}
+			entries[k] = last;
+			return (int) result;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -11,6 +11,7 @@
  ***************************************************************************/
 package games.stendhal.server.core.rp;
 
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.dbcommand.DumpCreaturesCommand;
 import games.stendhal.server.core.engine.dbcommand.DumpItemsCommand;
 import games.stendhal.server.core.engine.dbcommand.DumpShopsCommand;
@@ -19,10 +20,10 @@ import games.stendhal.server.core.engine.dbcommand.DumpZonesCommand;
 import games.stendhal.server.core.engine.dbcommand.UpdateSearchIndexCommand;
 import games.stendhal.server.core.events.TurnListener;
 import marauroa.server.db.command.DBCommandPriority;
-import marauroa.server.db.command.DBCommandQueue;
 
 /**
- * Dumps information of all SpeakerNPCs to the database
+ * Dumps information of all SpeakerNPCs to the database. Each dump is skipped
+ * if its data did not change since the last server start.
  *
  * @author hendrik
  */
@@ -30,11 +31,11 @@ public class DumpGameInformationForWebsite implements TurnListener {
 
 	@Override
 	public void onTurnReached(int currentTurn) {
-		DBCommandQueue.get().enqueue(new DumpCreaturesCommand(), DBCommandPriority.LOW);
-		DBCommandQueue.get().enqueue(new DumpItemsCommand(), DBCommandPriority.LOW);
-		DBCommandQueue.get().enqueue(new DumpSpeakerNPCsCommand(), DBCommandPriority.LOW);
-		DBCommandQueue.get().enqueue(new DumpShopsCommand(), DBCommandPriority.LOW);
-		DBCommandQueue.get().enqueue(new DumpZonesCommand(), DBCommandPriority.LOW);
-		DBCommandQueue.get().enqueue(new UpdateSearchIndexCommand(), DBCommandPriority.LOW);
+		DBCommandDispatcher.get().enqueue(new DumpCreaturesCommand(), DBCommandPriority.LOW);
+		DBCommandDispatcher.get().enqueue(new DumpItemsCommand(), DBCommandPriority.LOW);
+		DBCommandDispatcher.get().enqueue(new DumpSpeakerNPCsCommand(), DBCommandPriority.LOW);
+		DBCommandDispatcher.get().enqueue(new DumpShopsCommand(), DBCommandPriority.LOW);
+		DBCommandDispatcher.get().enqueue(new DumpZonesCommand(), DBCommandPriority.LOW);
+		DBCommandDispatcher.get().enqueue(new UpdateSearchIndexCommand(), DBCommandPriority.LOW);
 	}
 }
@@ -898,7 +898,7 @@ public class StendhalRPAction {
 			}
 		}
 
-		if (!zone.collides(entity, newX, newY)) {
+		if (!zone.collidesOnPlacement(entity, newX, newY)) {
 			// Check the possibleArea now. This is a performance
 			// optimization because the pathfinding is very expensive.
 			if ((allowedArea != null) && (!allowedArea.contains(newX, newY))) {
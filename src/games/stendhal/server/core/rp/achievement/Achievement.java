@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -12,6 +12,8 @@
  ***************************************************************************/
 package games.stendhal.server.core.rp.achievement;
 
+import java.util.Collection;
+
 import games.stendhal.server.entity.npc.ChatCondition;
 import games.stendhal.server.entity.player.Player;
 /**
@@ -49,6 +51,8 @@ public class Achievement {
 
 	private final ChatCondition condition;
 
+	/** position in the {@link AchievementIndex} */
+	private int index = -1;
 
 
 	/**
@@ -114,6 +118,32 @@ public class Achievement {
 		return active;
 	}
 
+	/**
+	 * @return the position of this achievement in the index, or -1 if it
+	 * 	is not indexed
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @param index the position of this achievement in the index
+	 */
+	void setIndex(int index) {
+		this.index = index;
+	}
+
+	/**
+	 * @return the player fact changes that can make this achievement
+	 * 	reached, or <code>null</code> if they are not known
+	 */
+	Collection<AchievementTrigger> getTriggers() {
+		if (condition instanceof TriggeredCondition) {
+			return ((TriggeredCondition) condition).getTriggers();
+		}
+		return null;
+	}
+
 	/**
 	 * Check if a player has fulfilled this achievement
 	 * @param p the player to check
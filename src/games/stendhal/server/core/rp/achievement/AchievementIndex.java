@@ -0,0 +1,126 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.rp.achievement;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the achievements by category, and by the player facts their
+ * conditions depend on.
+ * <p>
+ * Achievements whose conditions implement {@link TriggeredCondition} are
+ * checked only when one of their triggers happens. The rest are checked on
+ * every event of their category.
+ */
+final class AchievementIndex {
+	/** All achievements. The position is the index of the achievement. */
+	private final List<Achievement> achievements = new ArrayList<Achievement>();
+	private final Map<String, Achievement> byIdentifier = new HashMap<String, Achievement>();
+	private final Map<Category, List<Achievement>> byCategory = new EnumMap<Category, List<Achievement>>(Category.class);
+	/** Achievements with unknown triggers by category. */
+	private final Map<Category, List<Achievement>> untriggered = new EnumMap<Category, List<Achievement>>(Category.class);
+	/** Achievements with known triggers by trigger. */
+	private final Map<AchievementTrigger, List<Achievement>> triggered = new HashMap<AchievementTrigger, List<Achievement>>();
+
+	/**
+	 * Create a new AchievementIndex, and assign the indices of the
+	 * achievements.
+	 *
+	 * @param achievements indexed achievements
+	 */
+	AchievementIndex(final Collection<Achievement> achievements) {
+		for (final Achievement achievement : achievements) {
+			achievement.setIndex(this.achievements.size());
+			this.achievements.add(achievement);
+			byIdentifier.put(achievement.getIdentifier(), achievement);
+			add(byCategory, achievement.getCategory(), achievement);
+
+			final Collection<AchievementTrigger> triggers = achievement.getTriggers();
+			if (triggers == null) {
+				add(untriggered, achievement.getCategory(), achievement);
+			} else {
+				for (final AchievementTrigger trigger : triggers) {
+					add(triggered, trigger, achievement);
+				}
+			}
+		}
+	}
+
+	private static <K> void add(final Map<K, List<Achievement>> map, final K key, final Achievement achievement) {
+		List<Achievement> list = map.get(key);
+		if (list == null) {
+			list = new ArrayList<Achievement>();
+			map.put(key, list);
+		}
+		if (!list.contains(achievement)) {
+			list.add(achievement);
+		}
+	}
+
+	/**
+	 * Get an achievement.
+	 *
+	 * @param identifier identifier of the achievement
+	 * @return achievement, or <code>null</code> if there is no such
+	 * 	achievement
+	 */
+	Achievement get(final String identifier) {
+		return byIdentifier.get(identifier);
+	}
+
+	/**
+	 * Get the achievements that need to be checked for an event.
+	 *
+	 * @param categories categories checked on the event
+	 * @param triggers changed player facts, or <code>null</code> to check
+	 * 	all achievements of the categories
+	 * @return achievements to check
+	 */
+	List<Achievement> getCandidates(final Set<Category> categories, final Collection<AchievementTrigger> triggers) {
+		final List<Achievement> res = new ArrayList<Achievement>();
+		final Map<Category, List<Achievement>> unconditional;
+		if (triggers == null) {
+			unconditional = byCategory;
+		} else {
+			unconditional = untriggered;
+		}
+		for (final Category category : categories) {
+			final List<Achievement> list = unconditional.get(category);
+			if (list != null) {
+				res.addAll(list);
+			}
+		}
+		if (triggers == null) {
+			return res;
+		}
+
+		final BitSet seen = new BitSet(achievements.size());
+		for (final AchievementTrigger trigger : triggers) {
+			final List<Achievement> list = triggered.get(trigger);
+			if (list != null) {
+				for (final Achievement achievement : list) {
+					if (categories.contains(achievement.getCategory()) && !seen.get(achievement.getIndex())) {
+						seen.set(achievement.getIndex());
+						res.add(achievement);
+					}
+				}
+			}
+		}
+		return res;
+	}
+}
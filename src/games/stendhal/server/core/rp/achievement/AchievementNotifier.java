@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2024 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -14,11 +14,14 @@ package games.stendhal.server.core.rp.achievement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 
@@ -28,8 +31,10 @@ import com.google.common.collect.ImmutableList.Builder;
 import games.stendhal.common.constants.SoundID;
 import games.stendhal.common.constants.SoundLayer;
 import games.stendhal.common.grammar.Grammar;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.GameEvent;
 import games.stendhal.server.core.engine.SingletonRepository;
+import games.stendhal.server.core.engine.StendhalRPZone;
 import games.stendhal.server.core.engine.db.AchievementDAO;
 import games.stendhal.server.core.engine.dbcommand.WriteReachedAchievementCommand;
 import games.stendhal.server.core.rp.achievement.factory.AbstractAchievementFactory;
@@ -38,7 +43,6 @@ import games.stendhal.server.entity.player.ReadAchievementsOnLogin;
 import games.stendhal.server.entity.player.UpdatePendingAchievementsOnLogin;
 import games.stendhal.server.events.ReachedAchievementEvent;
 import games.stendhal.server.events.SoundEvent;
-import marauroa.server.db.command.DBCommandQueue;
 import marauroa.server.game.db.DAORegister;
 
 /**
@@ -50,6 +54,24 @@ public final class AchievementNotifier {
 
 	private static final Logger logger = Logger.getLogger(AchievementNotifier.class);
 
+	/** Categories checked when a quest state changes. */
+	private static final Set<Category> QUEST_CATEGORIES = Collections.unmodifiableSet(EnumSet.of(Category.QUEST,
+			Category.QUEST_ADOS_ITEMS, Category.QUEST_SEMOS_MONSTER, Category.QUEST_KIRDNEH_ITEM, Category.FRIEND,
+			Category.OBTAIN, Category.PRODUCTION, Category.QUEST_MITHRILBOURGH_ENEMY_ARMY,
+			Category.QUEST_KILL_BLORDROUGHS));
+	/** Categories checked when a player enters a zone. */
+	private static final Set<Category> ZONE_CATEGORIES = Collections.unmodifiableSet(EnumSet.of(
+			Category.OUTSIDE_ZONE, Category.UNDERGROUND_ZONE, Category.INTERIOR_ZONE));
+	/** Categories checked when a player loots an item. */
+	private static final Set<Category> LOOT_CATEGORIES = Collections.unmodifiableSet(EnumSet.of(
+			Category.ITEM, Category.OBTAIN));
+	/**
+	 * Categories checked on login. Zone achievements are checked when the
+	 * player is initially placed into a zone.
+	 */
+	private static final Set<Category> LOGIN_CATEGORIES = Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(
+			Category.OUTSIDE_ZONE, Category.UNDERGROUND_ZONE)));
+
 	/** The singleton instance. */
 	private static AchievementNotifier instance;
 
@@ -57,6 +79,8 @@ public final class AchievementNotifier {
 
 	final private Map<String, Integer> identifiersToIds;
 
+	/** achievements by the player facts they depend on */
+	private AchievementIndex index = new AchievementIndex(Collections.<Achievement>emptyList());
 
 	/**
 	 * singleton accessor method
@@ -93,6 +117,7 @@ public final class AchievementNotifier {
 			}
 			achievements.get(a.getCategory()).add(a);
 		}
+		index = new AchievementIndex(allAchievements.values());
 		//collect all identifiers from database
 		final Map<String, Integer> allIdentifiersInDatabase = collectAllIdentifiersFromDatabase();
 		//update stored data with configured achievements
@@ -152,6 +177,21 @@ public final class AchievementNotifier {
 		return mapFromDB;
 	}
 
+	/**
+	 * Get the position of an achievement in the per player bit set of
+	 * reached achievements.
+	 *
+	 * @param identifier identifier of the achievement
+	 * @return index, or -1 if there is no such achievement
+	 */
+	public int getAchievementIndex(final String identifier) {
+		final Achievement achievement = index.get(identifier);
+		if (achievement == null) {
+			return -1;
+		}
+		return achievement.getIndex();
+	}
+
 	/**
 	 * checks all for level change relevant achievements for a player
 	 *
@@ -182,21 +222,35 @@ public final class AchievementNotifier {
 		getAndCheckAchievementsInCategory(player, Category.FIGHTING);
 	}
 
+	/**
+	 * checks the achievements for a player that can be reached by killing a
+	 * creature
+	 *
+	 * @param player
+	 * @param creature name of the killed creature
+	 */
+	public void onKill(final Player player, final String creature) {
+		checkAndNotify(player, EnumSet.of(Category.FIGHTING), AchievementTrigger.kill(creature));
+	}
+
 	/**
 	 * check all achievements for a player that are relevant on finishing a quest
 	 *
 	 * @param player
 	 */
 	public void onFinishQuest(final Player player) {
-		getAndCheckAchievementsInCategory(player, Category.QUEST);
-		getAndCheckAchievementsInCategory(player, Category.QUEST_ADOS_ITEMS);
-		getAndCheckAchievementsInCategory(player, Category.QUEST_SEMOS_MONSTER);
-		getAndCheckAchievementsInCategory(player, Category.QUEST_KIRDNEH_ITEM);
-		getAndCheckAchievementsInCategory(player, Category.FRIEND);
-		getAndCheckAchievementsInCategory(player, Category.OBTAIN);
-		getAndCheckAchievementsInCategory(player, Category.PRODUCTION);
-		getAndCheckAchievementsInCategory(player, Category.QUEST_MITHRILBOURGH_ENEMY_ARMY);
-		getAndCheckAchievementsInCategory(player, Category.QUEST_KILL_BLORDROUGHS);
+		checkAndNotify(player, QUEST_CATEGORIES, null);
+	}
+
+	/**
+	 * check the achievements for a player that can be reached by changing the
+	 * state of a quest
+	 *
+	 * @param player
+	 * @param questSlot evaluated name of the changed quest slot
+	 */
+	public void onFinishQuest(final Player player, final String questSlot) {
+		checkAndNotify(player, QUEST_CATEGORIES, AchievementTrigger.quest(questSlot));
 	}
 
 	/**
@@ -214,9 +268,23 @@ public final class AchievementNotifier {
 	 * @param player
 	 */
 	public void onZoneEnter(final Player player) {
-		getAndCheckAchievementsInCategory(player, Category.OUTSIDE_ZONE);
-		getAndCheckAchievementsInCategory(player, Category.UNDERGROUND_ZONE);
-		getAndCheckAchievementsInCategory(player, Category.INTERIOR_ZONE);
+		checkAndNotify(player, ZONE_CATEGORIES, null);
+	}
+
+	/**
+	 * check the achievements for a player that can be reached by entering a
+	 * zone
+	 *
+	 * @param player
+	 * @param zone entered zone
+	 */
+	public void onZoneEnter(final Player player, final StendhalRPZone zone) {
+		final String region = SingletonRepository.getRPWorld().getRegion(zone);
+		if (region == null) {
+			onZoneEnter(player);
+		} else {
+			checkAndNotify(player, ZONE_CATEGORIES, AchievementTrigger.region(region));
+		}
 	}
 
 	/**
@@ -234,8 +302,18 @@ public final class AchievementNotifier {
 	 * @param player
 	 */
 	public void onItemLoot(final Player player) {
-		getAndCheckAchievementsInCategory(player, Category.ITEM);
-		getAndCheckAchievementsInCategory(player, Category.OBTAIN);
+		checkAndNotify(player, LOOT_CATEGORIES, null);
+	}
+
+	/**
+	 * check the achievements for a player that can be reached by looting an
+	 * item
+	 *
+	 * @param player
+	 * @param item name of the looted item
+	 */
+	public void onItemLoot(final Player player, final String item) {
+		checkAndNotify(player, LOOT_CATEGORIES, AchievementTrigger.item(item));
 	}
 
 	/**
@@ -247,6 +325,17 @@ public final class AchievementNotifier {
 		getAndCheckAchievementsInCategory(player, Category.PRODUCTION);
 	}
 
+	/**
+	 * check the achievements for a player that can be reached by producing an
+	 * item
+	 *
+	 * @param player
+	 * @param item name of the produced item
+	 */
+	public void onProduction(final Player player, final String item) {
+		checkAndNotify(player, EnumSet.of(Category.PRODUCTION), AchievementTrigger.item(item));
+	}
+
 	/**
 	 * Check all achievements for a player that belong to the obtain category.
 	 *
@@ -256,6 +345,17 @@ public final class AchievementNotifier {
 		getAndCheckAchievementsInCategory(player, Category.OBTAIN);
 	}
 
+	/**
+	 * Check the achievements for a player that can be reached by obtaining an
+	 * item.
+	 *
+	 * @param player
+	 * @param item name of the obtained item
+	 */
+	public void onObtain(final Player player, final String item) {
+		checkAndNotify(player, EnumSet.of(Category.OBTAIN), AchievementTrigger.item(item));
+	}
+
 	/**
 	 * Check all achievements for player that beling to the commerce category.
 	 *
@@ -275,19 +375,11 @@ public final class AchievementNotifier {
 	 */
 	public void awardAchievementIfNotYetReached(final Player player, final String achievementIdentifier) {
 		if(!player.hasReachedAchievement(achievementIdentifier)) {
-			boolean found = false;
-			for(List<Achievement> achievementList : this.achievements.values()) {
-				if(!found) {
-					for(Achievement achievement : achievementList) {
-						if (achievement.getIdentifier().equals(achievementIdentifier)) {
-							logReachingOfAnAchievement(player, achievement);
-							notifyPlayerAboutReachedAchievement(player, achievement);
-							found = true;
-						}
-					}
-				}
-			}
-			if(!found) {
+			final Achievement achievement = index.get(achievementIdentifier);
+			if (achievement != null) {
+				logReachingOfAnAchievement(player, achievement);
+				notifyPlayerAboutReachedAchievement(player, achievement);
+			} else {
 				logger.warn("Tried to award non existing achievement identifier "+achievementIdentifier+" to "+player.getName());
 			}
 		}
@@ -299,17 +391,9 @@ public final class AchievementNotifier {
 	 * @param player
 	 */
 	public void onLogin(final Player player) {
-		List<Achievement> toCheck = new ArrayList<Achievement>();
 		//Avoid checking of zone achievements on login to
 		//prevent double check when player is initially placed into a zone
-		final Map<Category,List<Achievement>> map = new HashMap<Category, List<Achievement>>(achievements);
-		map.remove(Category.OUTSIDE_ZONE);
-		map.remove(Category.UNDERGROUND_ZONE);
-		Collection<List<Achievement>> values = map.values();
-		for (List<Achievement> list : values) {
-			toCheck.addAll(list);
-		}
-		final List<Achievement> reached = checkAchievements(player, toCheck);
+		final List<Achievement> reached = checkAchievements(player, index.getCandidates(LOGIN_CATEGORIES, null));
 		// only send notice if actually a new added achievement was reached by doing nothing
 		if(!reached.isEmpty()) {
 			StringBuilder sb = new StringBuilder();
@@ -334,6 +418,28 @@ public final class AchievementNotifier {
 		}
 	}
 
+	/**
+	 * check the achievements of the categories that depend on a changed player
+	 * fact, and notify the player about the reached ones
+	 *
+	 * @param player
+	 * @param categories categories checked on the event
+	 * @param trigger changed player fact, or <code>null</code> to check all
+	 * 	achievements of the categories
+	 */
+	private void checkAndNotify(final Player player, final Set<Category> categories, final AchievementTrigger trigger) {
+		// don't collect the candidates, if they could not be checked anyway
+		if (!player.arePlayerAchievementsLoaded()) {
+			return;
+		}
+		Collection<AchievementTrigger> triggers = null;
+		if (trigger != null) {
+			triggers = Collections.singletonList(trigger);
+		}
+		final List<Achievement> reached = checkAchievements(player, index.getCandidates(categories, triggers));
+		notifyPlayerAboutReachedAchievements(player, reached);
+	}
+
 	/**
 	 * Checks for each achievement if the player has reached it. in case of reaching
 	 * an achievement it starts logging and notifying about reaching.
@@ -352,6 +458,10 @@ public final class AchievementNotifier {
 		}
 
 		for (Achievement achievement : toCheck) {
+			// never check again what has already been reached
+			if (player.hasReachedAchievement(achievement.getIndex())) {
+				continue;
+			}
 			if(achievement.isFulfilled(player) && !player.hasReachedAchievement(achievement.getIdentifier())) {
 				logReachingOfAnAchievement(player, achievement);
 				if (achievement.isActive()) {
@@ -386,7 +496,7 @@ public final class AchievementNotifier {
 		String title = achievement.getTitle();
 		Category category = achievement.getCategory();
 		String playerName = player.getName();
-		DBCommandQueue.get().enqueue(new WriteReachedAchievementCommand(identifiersToIds.get(identifier), playerName, player.getAdminLevel() < 600));
+		DBCommandDispatcher.get().enqueue(new WriteReachedAchievementCommand(identifiersToIds.get(identifier), playerName, player.getAdminLevel() < 600));
 		player.addReachedAchievement(achievement.getIdentifier());
 		new GameEvent(playerName, "reach-achievement", category.toString(), title, identifier).raise();
 	}
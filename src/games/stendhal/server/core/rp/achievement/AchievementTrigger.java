@@ -0,0 +1,147 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.rp.achievement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A change of a player fact, such as the state of a quest or the kill count of
+ * a creature, that may make achievements reachable.
+ */
+public final class AchievementTrigger {
+	/** Kinds of player facts. */
+	public enum Type {
+		/** State of a quest slot. */
+		QUEST,
+		/** Kill count of a creature. */
+		KILL,
+		/** Loot, production, or any other count of an item. */
+		ITEM,
+		/** Visited zones in a region. */
+		REGION
+	}
+
+	private final Type type;
+	private final String name;
+
+	private AchievementTrigger(final Type type, final String name) {
+		this.type = type;
+		this.name = name;
+	}
+
+	/**
+	 * Create a trigger for a change of a quest state.
+	 *
+	 * @param questSlot evaluated name of the quest slot
+	 * @return trigger
+	 */
+	public static AchievementTrigger quest(final String questSlot) {
+		return new AchievementTrigger(Type.QUEST, questSlot);
+	}
+
+	/**
+	 * Create a trigger for killing a creature.
+	 *
+	 * @param creature name of the creature
+	 * @return trigger
+	 */
+	public static AchievementTrigger kill(final String creature) {
+		return new AchievementTrigger(Type.KILL, creature);
+	}
+
+	/**
+	 * Create a trigger for a change of an item count.
+	 *
+	 * @param item name of the item
+	 * @return trigger
+	 */
+	public static AchievementTrigger item(final String item) {
+		return new AchievementTrigger(Type.ITEM, item);
+	}
+
+	/**
+	 * Create a trigger for entering a zone.
+	 *
+	 * @param region region of the zone
+	 * @return trigger
+	 */
+	public static AchievementTrigger region(final String region) {
+		return new AchievementTrigger(Type.REGION, region);
+	}
+
+	/**
+	 * Get the triggers of a condition on a quest.
+	 *
+	 * @param questname name of the quest slot, possibly with [variables]
+	 * @return triggers, or <code>null</code> if the slot name depends on the
+	 * 	time, and can not be known in advance
+	 */
+	public static Collection<AchievementTrigger> forQuest(final String questname) {
+		if (questname.indexOf('[') >= 0) {
+			return null;
+		}
+		return Collections.singletonList(quest(questname));
+	}
+
+	/**
+	 * Get the triggers of a condition on items.
+	 *
+	 * @param items names of the items
+	 * @return triggers
+	 */
+	public static Collection<AchievementTrigger> forItems(final Collection<String> items) {
+		final List<AchievementTrigger> res = new ArrayList<AchievementTrigger>(items.size());
+		for (final String item : items) {
+			res.add(item(item));
+		}
+		return res;
+	}
+
+	/**
+	 * Get the kind of the changed fact.
+	 *
+	 * @return type
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Get the name of the quest, creature, item or region.
+	 *
+	 * @return name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public int hashCode() {
+		return type.hashCode() * 31 + name.hashCode();
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (!(obj instanceof AchievementTrigger)) {
+			return false;
+		}
+		final AchievementTrigger other = (AchievementTrigger) obj;
+		return (type == other.type) && name.equals(other.name);
+	}
+
+	@Override
+	public String toString() {
+		return type + ":" + name;
+	}
+}
@@ -0,0 +1,27 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.rp.achievement;
+
+import java.util.Collection;
+
+/**
+ * A condition that only depends on known player facts. Achievements with
+ * such conditions are checked only when one of those facts changes.
+ */
+public interface TriggeredCondition {
+
+	/**
+	 * Get the fact changes that can change the result of the condition.
+	 *
+	 * @return triggers, or <code>null</code> if they are not known
+	 */
+	Collection<AchievementTrigger> getTriggers();
+}
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2014 - Faiumoni e. V.                  *
+ *                 (C) Copyright 2014-2026 - Faiumoni e. V.                *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 
 import games.stendhal.server.core.engine.SingletonRepository;
+import games.stendhal.server.core.engine.db.ContentHash;
 import games.stendhal.server.core.rp.achievement.Achievement;
 import games.stendhal.server.core.rp.achievement.AchievementNotifier;
 import games.stendhal.server.core.rule.defaultruleset.DefaultCreature;
@@ -32,6 +33,7 @@ import games.stendhal.server.entity.npc.SpeakerNPC;
  */
 public class SearchIndexManager {
 	private final Set<SearchIndexEntry> index = Sets.newHashSet();
+	private ContentHash hash;
 
 	// keep in sync with search.php
 	private final ImmutableSet<String> STOP_WORDS =
@@ -50,6 +52,25 @@ public class SearchIndexManager {
 		return index;
 	}
 
+	/**
+	 * adds the texts the search index is generated from to a hash,
+	 * without generating the index
+	 *
+	 * @param contentHash ContentHash
+	 */
+	public void hash(ContentHash contentHash) {
+		this.hash = contentHash;
+		try {
+			hash.add(STOP_WORDS);
+			achievements();
+			creatures();
+			items();
+			npcs();
+		} finally {
+			this.hash = null;
+		}
+	}
+
 	private void achievements() {
 		for (Achievement achievement : AchievementNotifier.get().getAchievements()) {
 			if (!achievement.isActive()) {
@@ -89,6 +110,11 @@ public class SearchIndexManager {
 	 * @param type  type of entity
 	 */
 	private void addName(String name, SearchIndexEntryType type) {
+		if (hash != null) {
+			hash.add(type);
+			hash.add(name);
+			return;
+		}
 		index.add(new SearchIndexEntry(name, type.getEntityType(), name, 3000 + type.getMinorScore()));
 
 		// If the name consists of multiple words, add each word individually
@@ -111,6 +137,13 @@ public class SearchIndexManager {
 		if (description == null) {
 			return;
 		}
+		if (hash != null) {
+			hash.add(type);
+			hash.add(name);
+			hash.add(description);
+			hash.add(Integer.valueOf(baseScore));
+			return;
+		}
 		String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
 
 		// add each word individually. it is okay to add the same word multiple
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                    (C) Copyright 2003-2024 - Marauroa                   *
+ *                    (C) Copyright 2003-2026 - Marauroa                   *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -34,6 +34,7 @@ import games.stendhal.server.core.pathfinder.Node;
 import games.stendhal.server.entity.slot.EntitySlot;
 import games.stendhal.server.entity.slot.SlotNameInList;
 import games.stendhal.server.entity.slot.Slots;
+import marauroa.common.game.Attributes;
 import marauroa.common.game.Definition;
 import marauroa.common.game.Definition.Type;
 import marauroa.common.game.RPClass;
@@ -184,10 +185,6 @@ public abstract class Entity extends RPObject implements Killer {
 			}
 		}
 
-		if (moved && (zone != null)) {
-			onMoved(oldX, oldY, x, y);
-		}
-
 		if (has("height")) {
 			area.height = getInt("height");
 		}
@@ -196,6 +193,13 @@ public abstract class Entity extends RPObject implements Killer {
 			area.width = getInt("width");
 		}
 
+		if (zone != null) {
+			zone.onEntityAreaChanged(this);
+			if (moved) {
+				onMoved(oldX, oldY, x, y);
+			}
+		}
+
 		if (has("resistance")) {
 			resistance = getInt("resistance");
 		}
@@ -536,6 +540,96 @@ public abstract class Entity extends RPObject implements Killer {
 		}
 	}
 
+	@Override
+	public void put(final String attribute, final String value) {
+		super.put(attribute, value);
+		onChanged(attribute);
+	}
+
+	@Override
+	public String remove(final String attribute) {
+		final String value = super.remove(attribute);
+		onChanged(attribute);
+		return value;
+	}
+
+	@Override
+	public void put(final String map, final String key, final String value) {
+		super.put(map, key, value);
+		onChanged(map);
+	}
+
+	@Override
+	public String remove(final String map, final String key) {
+		final String value = super.remove(map, key);
+		onChanged(map);
+		return value;
+	}
+
+	@Override
+	public void addMap(final String map) {
+		super.addMap(map);
+		onChanged(map);
+	}
+
+	@Override
+	public Attributes removeMap(final String map) {
+		final Attributes value = super.removeMap(map);
+		onChanged(map);
+		return value;
+	}
+
+	@Override
+	public void addSlot(final String name) {
+		super.addSlot(name);
+		notifyContentChanged();
+	}
+
+	@Override
+	public void addSlot(final RPSlot slot) {
+		super.addSlot(slot);
+		notifyContentChanged();
+	}
+
+	@Override
+	public RPSlot removeSlot(final String name) {
+		final RPSlot slot = super.removeSlot(name);
+		notifyContentChanged();
+		return slot;
+	}
+
+	/**
+	 * Called after an attribute or a map of this entity has changed. If the
+	 * entity is inside a slot, the entity at the top of the containment is
+	 * told about the changed content.
+	 *
+	 * @param name name of the attribute or map
+	 */
+	protected void onChanged(final String name) {
+		if (getContainer() != null) {
+			notifyContentChanged();
+		}
+	}
+
+	/**
+	 * Tell the entity at the top of the containment that its content has
+	 * changed.
+	 */
+	private void notifyContentChanged() {
+		final RPObject base = getBaseContainer();
+		if (base instanceof Entity) {
+			((Entity) base).onContentChanged();
+		}
+	}
+
+	/**
+	 * Called after the content of a slot of this entity, or an entity inside
+	 * the slots has changed.
+	 */
+	public void onContentChanged() {
+		// sub classes can implement this method
+	}
+
 	/**
 	 * Describes the entity (if a players looks at it).
 	 *
@@ -658,6 +752,7 @@ public abstract class Entity extends RPObject implements Killer {
 		}
 
 		if (moved && (zone != null)) {
+			zone.onEntityAreaChanged(this);
 			onMoved(oldX, oldY, x, y);
 		}
 	}
@@ -695,6 +790,10 @@ public abstract class Entity extends RPObject implements Killer {
 
 		this.area.height = height;
 		put("height", height);
+
+		if (zone != null) {
+			zone.onEntityAreaChanged(this);
+		}
 	}
 
 	/**
@@ -477,8 +477,7 @@ public abstract class GuidedEntity extends ActiveEntity {
 		Rectangle2D thisArea = getArea();
 		Rectangle2D otherArea;
 		Rectangle2D intersect = new Rectangle2D.Double();
-		for (final RPObject obj : getZone()) {
-			final Entity entity = (Entity) obj;
+		for (final Entity entity : getZone().getEntitiesIn(thisArea)) {
 			if (this != entity) {
 				otherArea = entity.getArea();
 				Rectangle2D.intersect(thisArea, otherArea, intersect);
@@ -40,10 +40,10 @@ import games.stendhal.common.parser.WordList;
 import games.stendhal.server.actions.equip.DropAction;
 import games.stendhal.server.core.engine.GameEvent;
 import games.stendhal.server.core.engine.ItemLogger;
+import games.stendhal.server.core.engine.KillLogAggregator;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.StendhalRPZone;
 import games.stendhal.server.core.engine.db.StendhalKillLogDAO;
-import games.stendhal.server.core.engine.dbcommand.LogKillEventCommand;
 import games.stendhal.server.core.events.TurnListener;
 import games.stendhal.server.core.events.TutorialNotifier;
 import games.stendhal.server.entity.creature.Creature;
@@ -68,8 +68,6 @@ import marauroa.common.game.RPAction;
 import marauroa.common.game.RPObject;
 import marauroa.common.game.RPSlot;
 import marauroa.common.game.SyntaxException;
-import marauroa.server.db.command.DBCommandPriority;
-import marauroa.server.db.command.DBCommandQueue;
 import marauroa.server.game.Statistics;
 import marauroa.server.game.db.DAORegister;
 
@@ -1612,16 +1610,16 @@ System.out.printf("  drop: %2d %2d\n", attackerRoll, defenderRoll);
 
 			if (killedName == null) {
 				logger.warn("This entity returns null as name: " + this);
+				SingletonRepository.getAchievementNotifier().onKill(killer);
 			} else {
 				if (damageDone == totalDamageReceived) {
 					killer.setSoloKill(killedName);
 				} else {
 					killer.setSharedKill(killedName);
 				}
+				SingletonRepository.getAchievementNotifier().onKill(killer, killedName);
 			}
 
-			SingletonRepository.getAchievementNotifier().onKill(killer);
-
 			killer.notifyWorldAboutChanges();
 		}
 	}
@@ -1732,7 +1730,7 @@ System.out.printf("  drop: %2d %2d\n", attackerRoll, defenderRoll);
 			new GameEvent(killerName, "killed", this.getName(), killLog.entityToType(killer), killLog.entityToType(this)).raise();
 		}
 
-		DBCommandQueue.get().enqueue(new LogKillEventCommand(this, killer), DBCommandPriority.LOW);
+		KillLogAggregator.get().countKill(this.getName(), killLog.entityToType(this), killerName, killLog.entityToType(killer));
 
 		die(killer, remove);
 	}
@@ -12,6 +12,7 @@
  ***************************************************************************/
 package games.stendhal.server.entity.creature;
 
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -85,6 +86,14 @@ public class Creature extends NPC {
 	 */
 	private static final double SERVER_DROP_GENEROSITY = 1;
 
+	/** Reused list for the enemy searches. */
+	private static final ThreadLocal<List<RPEntity>> ENEMY_CANDIDATES = new ThreadLocal<List<RPEntity>>() {
+		@Override
+		protected List<RPEntity> initialValue() {
+			return new ArrayList<RPEntity>();
+		}
+	};
+
 	private HealerBehavior healer = HealerBehaviourFactory.get(null);
 
 	private AttackStrategy strategy;
@@ -708,94 +717,113 @@ public class Creature extends NPC {
 	}
 
 	/**
-	 * Returns the nearest enemy, which is reachable or otherwise attackable.
+	 * Finds the enemies within a distance, nearest first. The distance is
+	 * measured like {@link #squaredDistance(Entity)} does. Invisibility is
+	 * not checked.
 	 *
-	 * @param range
-	 *            attack radius
-	 * @return chosen enemy or null if no enemy was found.
+	 * @param range maximum distance
+	 * @param result list where the found enemies are appended to
 	 */
-	public RPEntity getNearestEnemy(final double range) {
-		// create list of enemies
+	public void findEnemiesNear(final double range, final List<RPEntity> result) {
 		final List<RPEntity> enemyList = getEnemyList();
-		if (enemyList.isEmpty()) {
-			return null;
+		final StendhalRPZone zone = getZone();
+		if ((zone != null) && (enemyList == zone.getPlayerAndFriends())) {
+			zone.findPlayersAndFriendsNear(this, range, Integer.MAX_VALUE, result);
+			return;
 		}
 
-		// calculate the distance of all possible enemies
-		final Map<RPEntity, Double> distances = new HashMap<RPEntity, Double>();
+		// there are usually just a few attackers
+		final double squaredRange = range * range;
+		final int start = result.size();
 		for (final RPEntity enemy : enemyList) {
 			if (enemy == this) {
 				continue;
 			}
-
-			if (enemy.isInvisibleToCreatures()) {
+			final double distance = squaredDistance(enemy);
+			if (distance > squaredRange) {
 				continue;
 			}
-
-			final double squaredDistance = this.squaredDistance(enemy);
-			if (squaredDistance <= (range * range)) {
-				distances.put(enemy, squaredDistance);
+			int pos = result.size();
+			while ((pos > start) && (squaredDistance(result.get(pos - 1)) > distance)) {
+				pos--;
 			}
+			result.add(pos, enemy);
 		}
+	}
 
-		// now choose the nearest enemy for which there is a path, or is
-		// attackable otherwise
-		RPEntity chosen = null;
-		while ((chosen == null) && !distances.isEmpty()) {
-			double shortestDistance = Double.MAX_VALUE;
-			for (final Map.Entry<RPEntity, Double> enemy : distances.entrySet()) {
-				final double distance = enemy.getValue();
-				if (distance < shortestDistance) {
-					chosen = enemy.getKey();
-					shortestDistance = distance;
+	/**
+	 * Returns the nearest enemy, which is reachable or otherwise attackable.
+	 *
+	 * @param range
+	 *            attack radius
+	 * @return chosen enemy or null if no enemy was found.
+	 */
+	public RPEntity getNearestEnemy(final double range) {
+		final List<RPEntity> candidates = ENEMY_CANDIDATES.get();
+		try {
+			findEnemiesNear(range, candidates);
+
+			// choose the nearest enemy for which there is a path, or is
+			// attackable otherwise
+			for (final RPEntity enemy : candidates) {
+				if (enemy.isInvisibleToCreatures()) {
+					continue;
 				}
-			}
 
-			if (shortestDistance >= 1) {
-				final List<Node> path = Path.searchPath(this, chosen, getMovementRange());
-				if ((path == null) || path.isEmpty() && !strategy.canAttackNow(this, chosen)) {
-					distances.remove(chosen);
-					chosen = null;
-				} else {
+				if (squaredDistance(enemy) >= 1) {
+					final List<Node> path = Path.searchPath(this, enemy, getMovementRange());
+					if ((path == null) || path.isEmpty() && !strategy.canAttackNow(this, enemy)) {
+						continue;
+					}
 					// set the path. if not setMovement() will search a new one
 					setPath(new FixedPath(path, false));
 				}
+				return enemy;
 			}
+			// no enemy in reach
+			return null;
+		} finally {
+			candidates.clear();
 		}
-		// return the chosen enemy or null if we could not find one in reach
-		return chosen;
 	}
 
 	public boolean isEnemyNear(final double range) {
 		final int x = getX();
 		final int y = getY();
 
+		final StendhalRPZone zone = getZone();
 		List<RPEntity> enemyList = getEnemyList();
-		if (enemyList.isEmpty()) {
-			final StendhalRPZone zone = getZone();
-			enemyList = zone.getPlayerAndFriends();
+		if ((zone != null) && (enemyList.isEmpty() || (enemyList == zone.getPlayerAndFriends()))) {
+			// only look at the players and friends around the creature
+			enemyList = ENEMY_CANDIDATES.get();
+			zone.findPlayersAndFriendsIn(new Rectangle2D.Double(x - range, y - range,
+					2 * range + 1, 2 * range + 1), enemyList);
 		}
 
-		for (final RPEntity playerOrFriend : enemyList) {
-			if (playerOrFriend == this) {
-				continue;
-			}
+		try {
+			for (final RPEntity playerOrFriend : enemyList) {
+				if (playerOrFriend == this) {
+					continue;
+				}
 
-			if (playerOrFriend.isInvisibleToCreatures()) {
-				continue;
-			}
+				if (playerOrFriend.isInvisibleToCreatures()) {
+					continue;
+				}
 
-			if (playerOrFriend.getZone() == getZone()) {
-				final int fx = playerOrFriend.getX();
-				final int fy = playerOrFriend.getY();
+				if (playerOrFriend.getZone() == zone) {
+					final int fx = playerOrFriend.getX();
+					final int fy = playerOrFriend.getY();
 
-				if ((Math.abs(fx - x) < range) && (Math.abs(fy - y) < range)) {
-					return true;
+					if ((Math.abs(fx - x) < range) && (Math.abs(fy - y) < range)) {
+						return true;
+					}
 				}
 			}
-		}
 
-		return false;
+			return false;
+		} finally {
+			ENEMY_CANDIDATES.get().clear();
+		}
 	}
 
 	/**
@@ -954,6 +982,17 @@ public class Creature extends NPC {
 		}
 	}
 
+	@Override
+	public boolean needsLogicWithoutPlayers() {
+		// only healing is done without players, and that can be caught up
+		return false;
+	}
+
+	@Override
+	public void onZoneWakeUp(final int firstSkippedTurn, final int currentTurn) {
+		healer.healSkippedTurns(this, firstSkippedTurn, currentTurn - 1);
+	}
+
 	/**
 	 * Random sound noises.
 	 * @param state - state for noises
@@ -161,6 +161,12 @@ public abstract class DomesticAnimal extends Creature {
 		// setAsynchonousMovement(owner,0,0);
 	}
 
+	@Override
+	public boolean needsLogicWithoutPlayers() {
+		// animals move and eat on their own
+		return true;
+	}
+
 	/**
 	 * Can be called when the sheep dies. Puts meat onto its corpse; the amount
 	 * of meat depends on the domestic animal's weight.
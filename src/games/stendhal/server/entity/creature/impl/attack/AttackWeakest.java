@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -12,6 +12,7 @@
  ***************************************************************************/
 package games.stendhal.server.entity.creature.impl.attack;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import games.stendhal.server.entity.RPEntity;
@@ -22,6 +23,14 @@ import games.stendhal.server.entity.creature.Creature;
  * A profile for creature that always tries to kill the weakest enemy first.
  */
 public class AttackWeakest extends HandToHand {
+	/** Reused list for the enemy searches. */
+	private final ThreadLocal<List<RPEntity>> candidates = new ThreadLocal<List<RPEntity>>() {
+		@Override
+		protected List<RPEntity> initialValue() {
+			return new ArrayList<RPEntity>();
+		}
+	};
+
 	/**
 	 * Check if the target is something worth attacking.
 	 * (basically a Player or Pet, to be maximally annoying)
@@ -37,7 +46,7 @@ public class AttackWeakest extends HandToHand {
 		return !(target instanceof AttackableCreature);
 	}
 	/**
-	 * Attack the weakest enemy next to the creature.
+	 * Attack the weakest enemy the creature can attack from its position.
 	 *
 	 * @param creature
 	 *            the creature checking for the optimal target
@@ -45,12 +54,6 @@ public class AttackWeakest extends HandToHand {
 	 *         keeping the current target if that is the optimal one
 	 */
 	private boolean attackWeakest(Creature creature) {
-		// create list of possible enemies
-		final List<RPEntity> enemyList = creature.getEnemyList();
-		if (enemyList.isEmpty()) {
-			return false;
-		}
-
 		RPEntity target = null;
 
 		if (creature.isAttacking() && isPreferredTarget(creature.getAttackTarget())) {
@@ -65,22 +68,34 @@ public class AttackWeakest extends HandToHand {
 			level = 1000;
 		}
 
-		for (final RPEntity enemy : enemyList) {
-			if (!isPreferredTarget(enemy)) {
-				continue;
-			}
+		/*
+		 * Only the enemies within the range of the actual attack strategy can
+		 * be attacked. That is the adjacent ones for hand to hand fighters,
+		 * but archers using this targeting can shoot further.
+		 */
+		final AttackStrategy attackStrategy = creature.getAttackStrategy();
+		final List<RPEntity> enemyList = candidates.get();
+		try {
+			creature.findEnemiesNear(Math.max(1, attackStrategy.getRange()), enemyList);
+			for (final RPEntity enemy : enemyList) {
+				if (!isPreferredTarget(enemy)) {
+					continue;
+				}
 
-			if (creature.getAttackStrategy().canAttackNow(creature, enemy)
-					&& !enemy.isInvisibleToCreatures()) {
-				/*
-				 * Use level as an approximation of the strength. Prefer keeping
-				 * the current target if the enemies are equally strong.
-				 */
-				if (enemy.getLevel() < level) {
-					target = enemy;
-					level = enemy.getLevel();
+				if (attackStrategy.canAttackNow(creature, enemy)
+						&& !enemy.isInvisibleToCreatures()) {
+					/*
+					 * Use level as an approximation of the strength. Prefer keeping
+					 * the current target if the enemies are equally strong.
+					 */
+					if (enemy.getLevel() < level) {
+						target = enemy;
+						level = enemy.getLevel();
+					}
 				}
 			}
+		} finally {
+			enemyList.clear();
 		}
 
 		if (target != null) {
@@ -40,4 +40,13 @@ class Healer implements HealerBehavior {
 
 	}
 
+	@Override
+	public void healSkippedTurns(final Creature creature, final int firstTurn, final int lastTurn) {
+		// number of turns in the range that are multiples of the frequency
+		final long times = Math.floorDiv(lastTurn, frequency) - Math.floorDiv(firstTurn - 1, frequency);
+		if ((times > 0) && (creature.getHP() > 0)) {
+			creature.heal((int) Math.min(Integer.MAX_VALUE, times * amount));
+		}
+	}
+
 }
@@ -18,4 +18,14 @@ public interface HealerBehavior {
 	void init(String healingProfile);
 	void heal(Creature creature);
 
+	/**
+	 * Heals the creature as much as it would have been healed in a range of
+	 * turns where its logic was not run.
+	 *
+	 * @param creature creature to heal
+	 * @param firstTurn first skipped turn
+	 * @param lastTurn last skipped turn
+	 */
+	void healSkippedTurns(Creature creature, int firstTurn, int lastTurn);
+
 }
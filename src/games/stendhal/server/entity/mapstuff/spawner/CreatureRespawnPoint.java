@@ -21,6 +21,7 @@ import games.stendhal.common.MathHelper;
 import games.stendhal.common.Rand;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.StendhalRPZone;
+import games.stendhal.server.core.engine.ZoneWakeUpListener;
 import games.stendhal.server.core.events.TurnListener;
 import games.stendhal.server.core.rp.StendhalRPAction;
 import games.stendhal.server.entity.creature.Creature;
@@ -38,7 +39,7 @@ import games.stendhal.server.util.Observer;
  * pattern is used; the <i>prototypeCreature</i> will be copied to create new
  * creatures.
  */
-public class CreatureRespawnPoint implements TurnListener {
+public class CreatureRespawnPoint implements TurnListener, ZoneWakeUpListener {
 	/** longest possible respawn time in turns. half a year - should be longer than the
 	 * server is up in one phase */
 	private static final int MAX_RESPAWN_TIME = 200 * 60 * 24 * 30 * 6;
@@ -169,6 +170,37 @@ public class CreatureRespawnPoint implements TurnListener {
 	 */
 	@Override
 	public void onTurnReached(final int currentTurn) {
+		if (zone.postponeWhileDormant(this, currentTurn)) {
+			// nobody would see the creature. Spawn it when the zone wakes up.
+			return;
+		}
+		spawnAndReschedule();
+	}
+
+	/**
+	 * Spawns the creatures that would have been spawned while the zone was
+	 * dormant, at most up to the maximum.
+	 */
+	@Override
+	public void onZoneWakeUp(final int dueTurn, final int currentTurn) {
+		int turn = dueTurn;
+		for (int i = 0; (i < maximum) && (creatures.size() < maximum) && (turn <= currentTurn); i++) {
+			respawn();
+			turn += calculateNextRespawnTurn() + 1;
+		}
+
+		// The point may have been filled by spawnNow() while the zone slept
+		if (creatures.size() >= maximum) {
+			respawning = false;
+			return;
+		}
+		SingletonRepository.getTurnNotifier().notifyAtTurn(Math.max(turn, currentTurn + 1), this);
+	}
+
+	/**
+	 * Spawns a creature, and schedules the next one if needed.
+	 */
+	private void spawnAndReschedule() {
 		respawn();
 
 		// Is this all or should we spawn more creatures?
@@ -287,8 +319,9 @@ public class CreatureRespawnPoint implements TurnListener {
 	public void spawnNow() {
 		if (creatures.size() < maximum) {
 			SingletonRepository.getTurnNotifier().dontNotify(this);
+			zone.cancelPostponed(this);
 			//SingletonRepository.getTurnNotifier().notifyInTurns(1, this);
-			onTurnReached(0);
+			spawnAndReschedule();
 		}
 	}
 }
@@ -18,7 +18,9 @@ import games.stendhal.common.grammar.Grammar;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.StendhalRPWorld;
 import games.stendhal.server.core.engine.StendhalRPZone;
+import games.stendhal.server.core.engine.ZoneWakeUpListener;
 import games.stendhal.server.core.events.TurnListener;
+import games.stendhal.server.core.events.TurnNotifier;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.item.Item;
 import games.stendhal.server.entity.player.Player;
@@ -39,8 +41,11 @@ import marauroa.common.game.RPObject;
  * @author Daniel Herding
  *
  */
-public class PassiveEntityRespawnPoint extends Entity implements TurnListener {
+public class PassiveEntityRespawnPoint extends Entity implements TurnListener, ZoneWakeUpListener {
 	private static Logger LOGGER = Logger.getLogger(PassiveEntityRespawnPoint.class);
+
+	/** Maximum number of growth steps done when a dormant zone wakes up. */
+	private static final int MAX_CATCH_UP_STEPS = 64;
 	/**
 	 * Tells how many turns it takes in average for a new fruit to become ripe.
 	 */
@@ -195,9 +200,41 @@ public class PassiveEntityRespawnPoint extends Entity implements TurnListener {
 
 	@Override
 	public void onTurnReached(final int currentTurn) {
+		final StendhalRPZone zone = getZone();
+		if ((zone != null) && zone.postponeWhileDormant(this, currentTurn)) {
+			// grow when someone is there to see it
+			return;
+		}
 		growNewFruit();
 	}
 
+	/**
+	 * Does the growth steps that would have happened while the zone was
+	 * dormant.
+	 */
+	@Override
+	public void onZoneWakeUp(final int dueTurn, final int currentTurn) {
+		final TurnNotifier notifier = SingletonRepository.getTurnNotifier();
+		int turn = dueTurn;
+		for (int i = 0; i < MAX_CATCH_UP_STEPS; i++) {
+			growNewFruit();
+			final int remaining = notifier.getRemainingTurns(this);
+			if (remaining < 0) {
+				// nothing more to grow
+				return;
+			}
+			// The next step was scheduled relative to the current turn.
+			// Move it to where it would have been.
+			notifier.dontNotify(this);
+			turn += remaining;
+			if (turn > currentTurn) {
+				notifier.notifyAtTurn(turn, this);
+				return;
+			}
+		}
+		notifier.notifyInTurns(0, this);
+	}
+
 	public void setStartState() {
 		onFruitPicked(null);
 
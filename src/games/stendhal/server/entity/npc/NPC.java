@@ -328,6 +328,27 @@ public abstract class NPC extends DressedEntity {
 		notifyWorldAboutChanges();
 	}
 
+	/**
+	 * Checks if the logic of this NPC has to be run while there are no
+	 * players, or friends of players, in the zone. A zone whose NPCs do not
+	 * need it can stop running its logic when it gets empty.
+	 *
+	 * @return <code>true</code> if the NPC acts on its own
+	 */
+	public boolean needsLogicWithoutPlayers() {
+		return true;
+	}
+
+	/**
+	 * Called when the zone of the NPC wakes up after its logic was skipped.
+	 *
+	 * @param firstSkippedTurn first turn for which logic was not run
+	 * @param currentTurn the current turn
+	 */
+	public void onZoneWakeUp(final int firstSkippedTurn, final int currentTurn) {
+		// sub classes can catch up here
+	}
+
 	/**
 	 * Give NPC a random path
 	 */
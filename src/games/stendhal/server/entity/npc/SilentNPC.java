@@ -45,4 +45,9 @@ public class SilentNPC extends PassiveNPC {
 
 		super.logic();
 	}
+
+	@Override
+	public boolean needsLogicWithoutPlayers() {
+		return false;
+	}
 }
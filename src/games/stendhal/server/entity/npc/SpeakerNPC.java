@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -11,8 +11,11 @@
  ***************************************************************************/
 package games.stendhal.server.entity.npc;
 
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -31,6 +34,7 @@ import games.stendhal.common.parser.ExpressionType;
 import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.StendhalRPWorld;
+import games.stendhal.server.core.engine.StendhalRPZone;
 import games.stendhal.server.entity.CollisionAction;
 import games.stendhal.server.entity.Killer;
 import games.stendhal.server.entity.RPEntity;
@@ -167,6 +171,9 @@ public class SpeakerNPC extends PassiveNPC {
 	 */
 	private RPEntity attending;
 
+	/** What nearby players said since the last turn. */
+	private final List<Utterance> heard = new ArrayList<Utterance>();
+
 	/**
 	 * a set of blue words used since the start of the conversation
 	 */
@@ -226,6 +233,9 @@ public class SpeakerNPC extends PassiveNPC {
 	 */
 	public void setAllowToActAlone(final boolean allow) {
 		actingAlone=allow;
+		if (allow && (getZone() != null)) {
+			getZone().wakeUp();
+		}
 	}
 
 	public boolean isAllowedToActAlone() {
@@ -250,37 +260,39 @@ public class SpeakerNPC extends PassiveNPC {
 	}
 
 	/**
-	 * Gets all players that have recently (this turn?) talked and are standing
-	 * nearby the NPC. Nearby means that they are standing less than <i>range</i>
-	 * squares away horizontally and less than <i>range</i> squares away
-	 * vertically.
+	 * Hears what a player in the zone said. Only players standing less than
+	 * the perception range away horizontally and vertically are heard. The NPC
+	 * reacts at the beginning of the next turn.
 	 *
-	 * @param npc
-	 * @param range
-	 * @return A list of nearby players who have recently talked.
+	 * @param speaker player who said something
+	 * @param text said text
 	 */
-	private List<Player> getNearbyPlayersThatHaveSpoken(final NPC npc, final double range) {
-		final int x = npc.getX();
-		final int y = npc.getY();
-
-		final List<Player> players = new LinkedList<Player>();
-
-		for (final Player player : getZone().getPlayers()) {
-			final int px = player.getX();
-			final int py = player.getY();
-
-			if (player.has("text")) {
-				int dx = px - x;
-				int dy = py - y;
-
-				if (Math.abs(dx)<range && Math.abs(dy)<range) { // check rectangular area
-//				if (dx*dx + dy*dy < range*range) { // optionally we could check a circular area
-					players.add(player);
-				}
+	public void hear(final Player speaker, final String text) {
+		final double range = getPerceptionRange();
+		final int dx = speaker.getX() - getX();
+		final int dy = speaker.getY() - getY();
+		if (Math.abs(dx) < range && Math.abs(dy) < range) { // check rectangular area
+//		if (dx*dx + dy*dy < range*range) { // optionally we could check a circular area
+			synchronized (heard) {
+				heard.add(new Utterance(speaker, text));
 			}
 		}
+	}
 
-		return players;
+	/**
+	 * Takes what players said since the last turn.
+	 *
+	 * @return utterances in the order they were said
+	 */
+	private List<Utterance> takeHeard() {
+		synchronized (heard) {
+			if (heard.isEmpty()) {
+				return Collections.emptyList();
+			}
+			final List<Utterance> res = new ArrayList<Utterance>(heard);
+			heard.clear();
+			return res;
+		}
 	}
 
 	/**
@@ -302,7 +314,14 @@ public class SpeakerNPC extends PassiveNPC {
 
 		int squaredDistanceOfNearestPlayer = Integer.MAX_VALUE;
 
-		for (final Player player : getZone().getPlayers()) {
+		final List<RPEntity> candidates = new ArrayList<RPEntity>();
+		getZone().findPlayersAndFriendsIn(new Rectangle2D.Double(x - range, y - range,
+				2 * range + 1, 2 * range + 1), candidates);
+		for (final RPEntity candidate : candidates) {
+			if (!(candidate instanceof Player)) {
+				continue;
+			}
+			final Player player = (Player) candidate;
 			final int px = player.getX();
 			final int py = player.getY();
 
@@ -403,6 +422,10 @@ public class SpeakerNPC extends PassiveNPC {
 	public void setPerceptionRange(int perceptionRange) {
 		super.setPerceptionRange(perceptionRange);
 		squaredGoodByeRange = getSquaredGoodByeRange();
+		final StendhalRPZone zone = getZone();
+		if (zone != null) {
+			zone.updateHearingRange(perceptionRange);
+		}
 	}
 
 	private long secondsToTurns(final long seconds) {
@@ -421,7 +444,13 @@ public class SpeakerNPC extends PassiveNPC {
 		// respond to player in the chat log before the player says something.
 	}
 
+	@Override
+	public boolean needsLogicWithoutPlayers() {
+		return actingAlone || isTalking();
+	}
+
 	public void preLogic() {
+		final List<Utterance> utterances = takeHeard();
 
 		if (this.getZone().getPlayerAndFriends().isEmpty() && !isTalking() && !actingAlone) {
 			return;
@@ -467,10 +496,11 @@ public class SpeakerNPC extends PassiveNPC {
 			}
 		}
 
-		// and finally react on anybody talking to us
-		final List<Player> speakers = getNearbyPlayersThatHaveSpoken(this, getPerceptionRange());
-		for (final Player speaker : speakers) {
-			tell(speaker, speaker.get("text"));
+		// and finally react on anybody talking to us, who is still here
+		for (final Utterance utterance : utterances) {
+			if (utterance.speaker.getZone() == getZone()) {
+				tell(utterance.speaker, utterance.text);
+			}
 		}
 
 		maybeMakeSound();
@@ -1187,4 +1217,17 @@ public class SpeakerNPC extends PassiveNPC {
 	public List<String> getKnownChatOptions() {
 		return knownChatOptions;
 	}
+
+	/**
+	 * Something a player said.
+	 */
+	private static final class Utterance {
+		private final Player speaker;
+		private final String text;
+
+		Utterance(final Player speaker, final String text) {
+			this.speaker = speaker;
+			this.text = text;
+		}
+	}
 }
@@ -17,11 +17,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.core.config.annotations.Dev;
 import games.stendhal.server.core.config.annotations.Dev.Category;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.dbcommand.WriteHallOfFamePointsCommand;
 import games.stendhal.server.entity.npc.ChatAction;
 import games.stendhal.server.entity.npc.EventRaiser;
 import games.stendhal.server.entity.player.Player;
-import marauroa.server.db.command.DBCommandQueue;
 
 /**
  * Write the difference between the players current age and the one stored in the quest slot
@@ -73,7 +73,7 @@ public class SetHallOfFameToAgeDiffAction implements ChatAction {
 		}
 
 		int diff = player.getAge() - Integer.parseInt(orgAge);
-		DBCommandQueue.get().enqueue(new WriteHallOfFamePointsCommand(player.getName(), fametype, diff, false));
+		DBCommandDispatcher.get().enqueue(new WriteHallOfFamePointsCommand(player.getName(), fametype, diff, false));
 	}
 
 	@Override
@@ -16,11 +16,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.core.config.annotations.Dev;
 import games.stendhal.server.core.config.annotations.Dev.Category;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.dbcommand.StoreMessageCommand;
 import games.stendhal.server.entity.npc.ChatAction;
 import games.stendhal.server.entity.npc.EventRaiser;
 import games.stendhal.server.entity.player.Player;
-import marauroa.server.db.command.DBCommandQueue;
 
 /**
  * Stores a message for delivery with postman
@@ -46,7 +46,7 @@ public class StoreMessageAction implements ChatAction {
 
 	@Override
 	public void fire(Player player, Sentence sentence, EventRaiser npc) {
-		DBCommandQueue.get().enqueue(new StoreMessageCommand(npcName, player.getName(), message, "N"));
+		DBCommandDispatcher.get().enqueue(new StoreMessageCommand(npcName, player.getName(), message, "N"));
 	}
 
 	@Override
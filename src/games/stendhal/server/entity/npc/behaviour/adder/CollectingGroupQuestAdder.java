@@ -18,6 +18,7 @@ import java.util.Set;
 
 import games.stendhal.common.grammar.Grammar;
 import games.stendhal.common.parser.Sentence;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.dbcommand.UpdateGroupQuestCommand;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.npc.ChatAction;
@@ -43,7 +44,6 @@ import games.stendhal.server.entity.npc.condition.QuestCompletedCondition;
 import games.stendhal.server.entity.npc.condition.QuestNotCompletedCondition;
 import games.stendhal.server.entity.npc.condition.TimePassedCondition;
 import games.stendhal.server.entity.player.Player;
-import marauroa.server.db.command.DBCommandQueue;
 
 public class CollectingGroupQuestAdder {
 
@@ -237,7 +237,7 @@ public class CollectingGroupQuestAdder {
 						player.drop(item, stackSize);
 
 						UpdateGroupQuestCommand command = new UpdateGroupQuestCommand(behaviour.getQuestSlot(), item, player.getName(), stackSize);
-						DBCommandQueue.get().enqueue(command);
+						DBCommandDispatcher.get().enqueue(command);
 						behaviour.addProgress(item, stackSize);
 
 						MultipleActions action = new MultipleActions(
@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -12,7 +12,9 @@
  ***************************************************************************/
 package games.stendhal.server.entity.npc.condition;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import com.google.common.collect.ImmutableList;
@@ -20,6 +22,8 @@ import com.google.common.collect.ImmutableList;
 import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.core.config.annotations.Dev;
 import games.stendhal.server.core.config.annotations.Dev.Category;
+import games.stendhal.server.core.rp.achievement.AchievementTrigger;
+import games.stendhal.server.core.rp.achievement.TriggeredCondition;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.npc.ChatCondition;
 import games.stendhal.server.entity.player.Player;
@@ -29,7 +33,7 @@ import games.stendhal.server.entity.player.Player;
  * It evaluates to <code>true</code>, iff each condition evaluates to true.
  */
 @Dev(category=Category.LOGIC, label="And")
-public class AndCondition implements ChatCondition {
+public class AndCondition implements ChatCondition, TriggeredCondition {
 
 	private final List<ChatCondition> conditions;
 
@@ -73,6 +77,22 @@ public class AndCondition implements ChatCondition {
 		return true;
 	}
 
+	@Override
+	public Collection<AchievementTrigger> getTriggers() {
+		final List<AchievementTrigger> triggers = new ArrayList<AchievementTrigger>();
+		for (final ChatCondition condition : conditions) {
+			if (!(condition instanceof TriggeredCondition)) {
+				return null;
+			}
+			final Collection<AchievementTrigger> part = ((TriggeredCondition) condition).getTriggers();
+			if (part == null) {
+				return null;
+			}
+			triggers.addAll(part);
+		}
+		return triggers;
+	}
+
 	@Override
 	public String toString() {
 		return conditions.toString();
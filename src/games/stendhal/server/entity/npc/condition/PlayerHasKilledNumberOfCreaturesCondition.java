@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -12,7 +12,9 @@
  ***************************************************************************/
 package games.stendhal.server.entity.npc.condition;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +24,8 @@ import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.constants.KillType;
 import games.stendhal.server.core.config.annotations.Dev;
 import games.stendhal.server.core.config.annotations.Dev.Category;
+import games.stendhal.server.core.rp.achievement.AchievementTrigger;
+import games.stendhal.server.core.rp.achievement.TriggeredCondition;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.npc.ChatCondition;
 import games.stendhal.server.entity.player.Player;
@@ -34,7 +38,7 @@ import games.stendhal.server.entity.player.Player;
  * @author madmetzger
  */
 @Dev(category=Category.KILLS, label="Kills?")
-public class PlayerHasKilledNumberOfCreaturesCondition implements ChatCondition {
+public class PlayerHasKilledNumberOfCreaturesCondition implements ChatCondition, TriggeredCondition {
 
 	private final Map<String, Integer> creatures;
 
@@ -154,6 +158,15 @@ public class PlayerHasKilledNumberOfCreaturesCondition implements ChatCondition
 		return true;
 	}
 
+	@Override
+	public Collection<AchievementTrigger> getTriggers() {
+		final List<AchievementTrigger> triggers = new ArrayList<AchievementTrigger>(creatures.size());
+		for (final String creature : creatures.keySet()) {
+			triggers.add(AchievementTrigger.kill(creature));
+		}
+		return triggers;
+	}
+
 	@Override
 	public int hashCode() {
 		return 43913 * (creatures.hashCode() + killType.hashCode());
@@ -1,11 +1,14 @@
 package games.stendhal.server.entity.npc.condition;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
 import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.core.config.annotations.Dev;
 import games.stendhal.server.core.config.annotations.Dev.Category;
+import games.stendhal.server.core.rp.achievement.AchievementTrigger;
+import games.stendhal.server.core.rp.achievement.TriggeredCondition;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.npc.ChatCondition;
 import games.stendhal.server.entity.player.Player;
@@ -16,7 +19,7 @@ import games.stendhal.server.entity.player.Player;
  * @author madmetzger
  */
 @Dev(category=Category.ITEMS_LOOTED, label="Item?")
-public class PlayerLootedNumberOfItemsCondition implements ChatCondition {
+public class PlayerLootedNumberOfItemsCondition implements ChatCondition, TriggeredCondition {
 
 	private final List<String> items;
 
@@ -48,6 +51,11 @@ public class PlayerLootedNumberOfItemsCondition implements ChatCondition {
 		return true;
 	}
 
+	@Override
+	public Collection<AchievementTrigger> getTriggers() {
+		return AchievementTrigger.forItems(items);
+	}
+
 	@Override
 	public int hashCode() {
 		return 43991 * items.hashCode() + number;
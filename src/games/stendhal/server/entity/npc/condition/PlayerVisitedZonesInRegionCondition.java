@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -15,6 +15,7 @@ package games.stendhal.server.entity.npc.condition;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Collection;
+import java.util.Collections;
 
 import com.google.common.base.Objects;
 
@@ -23,6 +24,8 @@ import games.stendhal.server.core.config.annotations.Dev;
 import games.stendhal.server.core.config.annotations.Dev.Category;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.StendhalRPZone;
+import games.stendhal.server.core.rp.achievement.AchievementTrigger;
+import games.stendhal.server.core.rp.achievement.TriggeredCondition;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.npc.ChatCondition;
 import games.stendhal.server.entity.player.Player;
@@ -33,7 +36,7 @@ import games.stendhal.server.entity.player.Player;
  */
 // TODO: Replace Boolean with a 3 state enum
 @Dev(category=Category.IGNORE, label="Zone?")
-public class PlayerVisitedZonesInRegionCondition implements ChatCondition {
+public class PlayerVisitedZonesInRegionCondition implements ChatCondition, TriggeredCondition {
 
 	private final String region;
 
@@ -74,6 +77,9 @@ public class PlayerVisitedZonesInRegionCondition implements ChatCondition {
 	@Override
 	public boolean fire(Player player, Sentence sentence, Entity npc) {
 		Collection<StendhalRPZone> zones = SingletonRepository.getRPWorld().getAllZonesFromRegion(region, exterior, aboveGround, accessible);
+		if (player.getVisitedZoneCount() < zones.size()) {
+			return false;
+		}
 		for(StendhalRPZone zone : zones) {
 			if(!player.hasVisitedZone(zone)) {
 				return false;
@@ -82,6 +88,11 @@ public class PlayerVisitedZonesInRegionCondition implements ChatCondition {
 		return true;
 	}
 
+	@Override
+	public Collection<AchievementTrigger> getTriggers() {
+		return Collections.singletonList(AchievementTrigger.region(region));
+	}
+
 	@Override
 	public int hashCode() {
 		return 45763 * region.hashCode();
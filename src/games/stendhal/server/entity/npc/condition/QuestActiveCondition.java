@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -14,9 +14,13 @@ package games.stendhal.server.entity.npc.condition;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collection;
+
 import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.core.config.annotations.Dev;
 import games.stendhal.server.core.config.annotations.Dev.Category;
+import games.stendhal.server.core.rp.achievement.AchievementTrigger;
+import games.stendhal.server.core.rp.achievement.TriggeredCondition;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.npc.ChatCondition;
 import games.stendhal.server.entity.npc.ConditionBuilder;
@@ -26,7 +30,7 @@ import games.stendhal.server.entity.player.Player;
  * Was this quest started but not completed?
  */
 @Dev(category=Category.QUEST_SLOT, label="Active?")
-public class QuestActiveCondition implements ChatCondition {
+public class QuestActiveCondition implements ChatCondition, TriggeredCondition {
 
 	private final String questname;
 
@@ -46,6 +50,11 @@ public class QuestActiveCondition implements ChatCondition {
 		return (player.hasQuest(questname) && !player.isQuestInState(questname, 0, "rejected") && !player.isQuestCompleted(questname));
 	}
 
+	@Override
+	public Collection<AchievementTrigger> getTriggers() {
+		return AchievementTrigger.forQuest(questname);
+	}
+
 	@Override
 	public String toString() {
 		return "QuestActive <" + questname + ">";
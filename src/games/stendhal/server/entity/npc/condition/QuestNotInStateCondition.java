@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -14,9 +14,13 @@ package games.stendhal.server.entity.npc.condition;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collection;
+
 import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.core.config.annotations.Dev;
 import games.stendhal.server.core.config.annotations.Dev.Category;
+import games.stendhal.server.core.rp.achievement.AchievementTrigger;
+import games.stendhal.server.core.rp.achievement.TriggeredCondition;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.npc.ChatCondition;
 import games.stendhal.server.entity.player.Player;
@@ -25,7 +29,7 @@ import games.stendhal.server.entity.player.Player;
  * Is this quest not in this state?
  */
 @Dev(category=Category.IGNORE, label="State?")
-public class QuestNotInStateCondition implements ChatCondition {
+public class QuestNotInStateCondition implements ChatCondition, TriggeredCondition {
 
 	private final String questname;
 	private final String state;
@@ -73,6 +77,11 @@ public class QuestNotInStateCondition implements ChatCondition {
 		}
 	}
 
+	@Override
+	public Collection<AchievementTrigger> getTriggers() {
+		return AchievementTrigger.forQuest(questname);
+	}
+
 	@Override
 	public String toString() {
 		return "QuestNotInState <" + questname + "[" + index + "] = " + state + ">";
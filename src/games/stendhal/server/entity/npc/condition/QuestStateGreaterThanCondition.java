@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -14,10 +14,14 @@ package games.stendhal.server.entity.npc.condition;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collection;
+
 import games.stendhal.common.MathHelper;
 import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.core.config.annotations.Dev;
 import games.stendhal.server.core.config.annotations.Dev.Category;
+import games.stendhal.server.core.rp.achievement.AchievementTrigger;
+import games.stendhal.server.core.rp.achievement.TriggeredCondition;
 import games.stendhal.server.entity.Entity;
 import games.stendhal.server.entity.npc.ChatCondition;
 import games.stendhal.server.entity.player.Player;
@@ -27,7 +31,7 @@ import games.stendhal.server.entity.player.Player;
  * @author madmetzger
  */
 @Dev(category=Category.QUEST_SLOT, label="State?")
-public class QuestStateGreaterThanCondition implements ChatCondition {
+public class QuestStateGreaterThanCondition implements ChatCondition, TriggeredCondition {
 
 	/**
 	 * expected value to compare against
@@ -59,17 +63,20 @@ public class QuestStateGreaterThanCondition implements ChatCondition {
 	@Override
 	public boolean fire(Player player, Sentence sentence, Entity npc) {
 		if(player.hasQuest(questname)) {
-			String questState = player.getQuest(questname);
-			String[] content = questState.split(";");
-			if (content.length - 1 < index) {
+			if (player.getQuestSubStateCount(questname) - 1 < index) {
 				return false;
 			}
-			int actualNumber = MathHelper.parseIntDefault(content[index], 0);
+			int actualNumber = MathHelper.parseIntDefault(player.getQuest(questname, index), 0);
 			return actualNumber > expectedSmallerValue;
 		}
 		return false;
 	}
 
+	@Override
+	public Collection<AchievementTrigger> getTriggers() {
+		return AchievementTrigger.forQuest(questname);
+	}
+
 	@Override
 	public int hashCode() {
 		return 45943 * questname.hashCode() + 45949 * index + 45953 * expectedSmallerValue;
@@ -1,6 +1,6 @@
 // $Id$
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -48,6 +48,9 @@ public class Engine {
 	// FSM state transition table
 	private final List<Transition> stateTransitionTable = new LinkedList<Transition>();
 
+	// index of the transition table, built on the next step after the table changed
+	private TransitionIndex transitionIndex;
+
 	// current FSM state
 	private ConversationStates currentState = ConversationStates.IDLE;
 
@@ -289,6 +292,7 @@ public class Engine {
 			boolean secondary, final ConversationStates nextState, final String reply, final ChatAction action, final String label) {
 		if (triggerExpressions!=null && !triggerExpressions.isEmpty()) {
 			stateTransitionTable.add(new Transition(state, triggerExpressions, condition, secondary, nextState, reply, action, label));
+			transitionIndex = null;
 		}
 	}
 
@@ -314,6 +318,7 @@ public class Engine {
 			boolean secondary, final ConversationStates nextState, final String reply, final ChatAction action) {
 		if (triggerExpressions!=null && !triggerExpressions.isEmpty()) {
 			stateTransitionTable.add(new Transition(state, triggerExpressions, condition, secondary, nextState, reply, action));
+			transitionIndex = null;
 		}
 	}
 
@@ -338,6 +343,9 @@ public class Engine {
 				res = true;
 			}
 		}
+		if (res) {
+			transitionIndex = null;
+		}
 		return res;
 	}
 
@@ -530,8 +538,12 @@ public class Engine {
 		final TransitionSet preferredTransitions = new TransitionSet();
 		final TransitionSet secondaryTransitions = new TransitionSet();
 
-		// match with all the registered transitions
-		for (final Transition transition : stateTransitionTable) {
+		if (transitionIndex == null) {
+			transitionIndex = new TransitionIndex(stateTransitionTable);
+		}
+
+		// match with the registered transitions, which may match
+		for (final Transition transition : transitionIndex.getCandidates(type, currentState, sentence)) {
 			if (matchesTransition(type, sentence, transition)) {
 				if (transition.isConditionFulfilled(player, sentence, speakerNPC)) {
 					if (transition.isPreferred()) {
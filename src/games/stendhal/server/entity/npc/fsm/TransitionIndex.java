@@ -0,0 +1,256 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.entity.npc.fsm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import games.stendhal.common.parser.Expression;
+import games.stendhal.common.parser.Sentence;
+import games.stendhal.common.parser.SimilarWordIndex;
+import games.stendhal.server.entity.npc.ConversationStates;
+
+/**
+ * Index of a transition table by state and trigger.
+ * <p>
+ * Triggers without an ExpressionMatcher are looked up by their original and
+ * by their normalized text, and for similarity matching by similar normalized
+ * texts and main words. Transitions with a matcher are kept in per state
+ * lists. The candidates returned are in the order of the transition table,
+ * and still have to be checked with the MatchType.
+ */
+final class TransitionIndex {
+	private static final List<Transition> NONE = Collections.emptyList();
+
+	/** Limit quotient used by Expression.matchesNormalizedSimilar(). */
+	private static final double SIMILARITY = 0.1;
+
+	/** Position of each transition in the table. */
+	private final Map<Transition, Integer> positions = new IdentityHashMap<Transition, Integer>();
+	private final Map<ConversationStates, StateTransitions> states =
+			new EnumMap<ConversationStates, StateTransitions>(ConversationStates.class);
+
+	/**
+	 * Creates a new TransitionIndex.
+	 *
+	 * @param table transition table
+	 */
+	TransitionIndex(final List<Transition> table) {
+		int position = 0;
+		for (final Transition transition : table) {
+			positions.put(transition, Integer.valueOf(position++));
+
+			StateTransitions stateTransitions = states.get(transition.getState());
+			if (stateTransitions == null) {
+				stateTransitions = new StateTransitions();
+				states.put(transition.getState(), stateTransitions);
+			}
+			stateTransitions.add(transition);
+		}
+	}
+
+	/**
+	 * Gets the transitions that may match.
+	 *
+	 * @param type match type
+	 * @param currentState current state of the conversation
+	 * @param sentence parsed input
+	 * @return candidate transitions in table order
+	 */
+	List<Transition> getCandidates(final MatchType type, final ConversationStates currentState,
+			final Sentence sentence) {
+		final StateTransitions stateTransitions;
+		switch (type) {
+		case ABSOLUTE_JUMP:
+		case NORMALIZED_JUMP:
+		case SIMILAR_JUMP:
+			if (currentState == ConversationStates.IDLE) {
+				return NONE;
+			}
+			stateTransitions = states.get(ConversationStates.ANY);
+			break;
+		default:
+			stateTransitions = states.get(currentState);
+			break;
+		}
+		if (stateTransitions == null) {
+			return NONE;
+		}
+
+		final Expression trigger = sentence.getTriggerExpression();
+		switch (type) {
+		case EXACT_MATCH:
+		case ABSOLUTE_JUMP:
+			return merge(stateTransitions.byOriginal.get(trigger.getOriginal()), stateTransitions.withMatcher);
+		case NORMALIZED_MATCH:
+		case NORMALIZED_JUMP:
+			return merge(stateTransitions.byNormalized.get(trigger.getNormalized()), stateTransitions.withMatcher);
+		case SIMILAR_MATCH:
+		case SIMILAR_JUMP:
+			return getSimilarCandidates(stateTransitions, trigger);
+		default:
+			return stateTransitions.all;
+		}
+	}
+
+	/**
+	 * Gets the transitions with triggers similar to the given one.
+	 *
+	 * @param stateTransitions transitions starting at the current state
+	 * @param trigger trigger expression of the parsed input
+	 * @return candidate transitions in table order
+	 */
+	private List<Transition> getSimilarCandidates(final StateTransitions stateTransitions,
+			final Expression trigger) {
+		final Map<Transition, Boolean> found = new IdentityHashMap<Transition, Boolean>();
+		addAll(found, stateTransitions.matchAll);
+		addAll(found, stateTransitions.withMatcher);
+		for (final String normalized : stateTransitions.getNormalizedIndex().findSimilar(trigger.getNormalized(), SIMILARITY)) {
+			addAll(found, stateTransitions.byNormalized.get(normalized));
+		}
+		for (final String mainWord : stateTransitions.getMainWordIndex().findSimilar(trigger.getMainWord(), SIMILARITY)) {
+			addAll(found, stateTransitions.byMainWord.get(mainWord));
+		}
+
+		if (found.isEmpty()) {
+			return NONE;
+		}
+		final List<Transition> res = new ArrayList<Transition>(found.keySet());
+		Collections.sort(res, tableOrder);
+		return res;
+	}
+
+	private static void addAll(final Map<Transition, Boolean> found, final List<Transition> transitions) {
+		if (transitions != null) {
+			for (final Transition transition : transitions) {
+				found.put(transition, Boolean.TRUE);
+			}
+		}
+	}
+
+	private final Comparator<Transition> tableOrder = new Comparator<Transition>() {
+		@Override
+		public int compare(final Transition t1, final Transition t2) {
+			return positions.get(t1).compareTo(positions.get(t2));
+		}
+	};
+
+	/**
+	 * Merges two lists of transitions in table order.
+	 *
+	 * @param first first list, may be <code>null</code>
+	 * @param second second list
+	 * @return merged list
+	 */
+	private List<Transition> merge(final List<Transition> first, final List<Transition> second) {
+		if (first == null) {
+			return second;
+		}
+		if (second.isEmpty()) {
+			return first;
+		}
+
+		final List<Transition> res = new ArrayList<Transition>(first.size() + second.size());
+		int i = 0;
+		int j = 0;
+		while ((i < first.size()) && (j < second.size())) {
+			final Transition a = first.get(i);
+			final Transition b = second.get(j);
+			final int comparison = positions.get(a).compareTo(positions.get(b));
+			if (comparison <= 0) {
+				res.add(a);
+				i++;
+				if (comparison == 0) {
+					j++;
+				}
+			} else {
+				res.add(b);
+				j++;
+			}
+		}
+		res.addAll(first.subList(i, first.size()));
+		res.addAll(second.subList(j, second.size()));
+		return res;
+	}
+
+	/**
+	 * Transitions starting at one state.
+	 */
+	private static final class StateTransitions {
+		private final Map<String, List<Transition>> byOriginal = new HashMap<String, List<Transition>>();
+		private final Map<String, List<Transition>> byNormalized = new HashMap<String, List<Transition>>();
+		private final Map<String, List<Transition>> byMainWord = new HashMap<String, List<Transition>>();
+		/** Transitions with triggers that cannot be looked up by text. */
+		private final List<Transition> withMatcher = new ArrayList<Transition>();
+		/** Transitions with empty triggers, which are similar to any text. */
+		private final List<Transition> matchAll = new ArrayList<Transition>();
+		private final List<Transition> all = new ArrayList<Transition>();
+
+		/** Indexes for similarity matching, created on first use. */
+		private SimilarWordIndex normalizedIndex;
+		private SimilarWordIndex mainWordIndex;
+
+		void add(final Transition transition) {
+			all.add(transition);
+			for (final Expression trigger : transition.getTriggers()) {
+				if ((trigger.getMatcher() != null) || (trigger.getOriginal() == null)
+						|| (trigger.getNormalized() == null)) {
+					addOnce(withMatcher, transition);
+				} else {
+					addOnce(getList(byOriginal, trigger.getOriginal()), transition);
+					addOnce(getList(byNormalized, trigger.getNormalized()), transition);
+					addOnce(getList(byMainWord, trigger.getMainWord()), transition);
+					if (trigger.getNormalized().length() == 0) {
+						addOnce(matchAll, transition);
+					}
+				}
+			}
+		}
+
+		SimilarWordIndex getNormalizedIndex() {
+			if (normalizedIndex == null) {
+				normalizedIndex = new SimilarWordIndex(byNormalized.keySet());
+			}
+			return normalizedIndex;
+		}
+
+		SimilarWordIndex getMainWordIndex() {
+			if (mainWordIndex == null) {
+				mainWordIndex = new SimilarWordIndex(byMainWord.keySet());
+			}
+			return mainWordIndex;
+		}
+
+		private static List<Transition> getList(final Map<String, List<Transition>> map, final String key) {
+			List<Transition> list = map.get(key);
+			if (list == null) {
+				list = new ArrayList<Transition>(1);
+				map.put(key, list);
+			}
+			return list;
+		}
+
+		/**
+		 * Adds a transition, unless it was just added for another of its triggers.
+		 */
+		private static void addOnce(final List<Transition> list, final Transition transition) {
+			if (list.isEmpty() || (list.get(list.size() - 1) != transition)) {
+				list.add(transition);
+			}
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.entity.player;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import games.stendhal.common.KeyedSlotUtil;
+import marauroa.common.game.RPObject;
+import marauroa.common.game.RPSlot;
+import marauroa.common.game.SlotOwner;
+
+/**
+ * Accesses a keyed slot of a player, such as "!visited" or "!kills".
+ * <p>
+ * The values stay in the single object of the slot, so that the slot is
+ * stored and sent to the client as before. Only the reference to that object
+ * is remembered, so that lookups do not have to search the slots of the
+ * player by name. Keyed slots are never replaced once they exist, but the
+ * object in them may be.
+ * <p>
+ * Numbers are kept parsed as long as the slot holds the very same string, so
+ * that changes made directly to the slot are noticed.
+ */
+final class KeyedSlotStore {
+	private final SlotOwner owner;
+	private final String name;
+
+	private RPSlot slot;
+	private RPObject object;
+
+	/** Parsed numbers by key. */
+	private final Map<String, ParsedInt> numbers = new HashMap<String, ParsedInt>();
+
+	/**
+	 * Create a new KeyedSlotStore.
+	 *
+	 * @param owner owner of the slot
+	 * @param name name of the slot
+	 */
+	KeyedSlotStore(final SlotOwner owner, final String name) {
+		this.owner = owner;
+		this.name = name;
+	}
+
+	/**
+	 * Gets the object holding the values.
+	 *
+	 * @return object, or <code>null</code> if the slot does not exist or is empty
+	 */
+	RPObject getObject() {
+		if ((object != null) && (slot.size() > 0) && (slot.getFirst() == object)) {
+			return object;
+		}
+
+		object = KeyedSlotUtil.getKeyedSlotObject(owner, name);
+		if (object != null) {
+			slot = owner.getSlot(name);
+		}
+		return object;
+	}
+
+	/**
+	 * Gets a value.
+	 *
+	 * @param key key
+	 * @return value, or <code>null</code> if not set
+	 */
+	String get(final String key) {
+		final RPObject obj = getObject();
+		if (obj == null) {
+			return null;
+		}
+		return obj.get(key);
+	}
+
+	/**
+	 * Checks if a value is set.
+	 *
+	 * @param key key
+	 * @return <code>true</code> if the value is set
+	 */
+	boolean contains(final String key) {
+		final RPObject obj = getObject();
+		return (obj != null) && obj.has(key);
+	}
+
+	/**
+	 * Sets a value.
+	 *
+	 * @param key key
+	 * @param value value, or <code>null</code> to remove it
+	 * @return <code>true</code> if value changed, <code>false</code> if
+	 *         there was a problem.
+	 */
+	boolean put(final String key, final String value) {
+		final RPObject obj = getObject();
+		if (obj == null) {
+			return false;
+		}
+
+		if (value != null) {
+			obj.put(key, value);
+		} else if (obj.has(key)) {
+			obj.remove(key);
+		}
+		return true;
+	}
+
+	/**
+	 * Gets a number.
+	 *
+	 * @param key key
+	 * @param defaultValue value to use, if the value is not set or not a number
+	 * @return number
+	 */
+	int getInt(final String key, final int defaultValue) {
+		final String value = get(key);
+		if (value == null) {
+			numbers.remove(key);
+			return defaultValue;
+		}
+
+		ParsedInt parsed = numbers.get(key);
+		if ((parsed == null) || (parsed.value != value)) {
+			try {
+				parsed = new ParsedInt(value, Integer.parseInt(value));
+			} catch (final NumberFormatException e) {
+				numbers.remove(key);
+				return defaultValue;
+			}
+			numbers.put(key, parsed);
+		}
+		return parsed.number;
+	}
+
+	/**
+	 * Sets a number.
+	 *
+	 * @param key key
+	 * @param number number
+	 * @return <code>true</code> if value changed, <code>false</code> if
+	 *         there was a problem.
+	 */
+	boolean putInt(final String key, final int number) {
+		final String value = Integer.toString(number);
+		if (!put(key, value)) {
+			return false;
+		}
+		numbers.put(key, new ParsedInt(value, number));
+		return true;
+	}
+
+	/**
+	 * Gets the number of values.
+	 *
+	 * @return number of values
+	 */
+	int size() {
+		final RPObject obj = getObject();
+		if (obj == null) {
+			return 0;
+		}
+
+		// the object id is not a value
+		int size = obj.size();
+		if (obj.has("id")) {
+			size--;
+		}
+		if (obj.has("zoneid")) {
+			size--;
+		}
+		return size;
+	}
+
+	/**
+	 * A value together with the number parsed from it.
+	 */
+	private static final class ParsedInt {
+		/** The string the number was parsed from. */
+		private final String value;
+		private final int number;
+
+		ParsedInt(final String value, final int number) {
+			this.value = value;
+			this.number = number;
+		}
+	}
+}
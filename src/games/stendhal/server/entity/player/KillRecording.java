@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -12,10 +12,9 @@
  ***************************************************************************/
 package games.stendhal.server.entity.player;
 
-import games.stendhal.common.MathHelper;
-
 /**
- * recording of killings.
+ * recording of killings. The kill counts are kept parsed, so that
+ * conditions checking many creatures do not have to parse them again.
  *
  * @author hendrik
  */
@@ -30,6 +29,10 @@ class KillRecording {
 		this.player = player;
 	}
 
+	private KeyedSlotStore getKills() {
+		return player.getKeyedSlotStore(KILL_SLOT_NAME);
+	}
+
 	/**
 	 * Checks if the player has ever killed a creature with the given name
 	 * without the help of any other player.
@@ -38,8 +41,7 @@ class KillRecording {
 	 * @return true if this player has ever killed this creature on his own.
 	 */
 	public boolean hasKilledSolo(final String name) {
-		final String count = player.getKeyedSlot(KILL_SLOT_NAME, PREFIX_SOLO + name);
-		return MathHelper.parseIntDefault(count, 0) > 0;
+		return getKills().getInt(PREFIX_SOLO + name, 0) > 0;
 	}
 
 	/**
@@ -50,8 +52,7 @@ class KillRecording {
 	 * @return true if this player has ever killed this creature in a team.
 	 */
 	public boolean hasKilledShared(final String name) {
-		final String count = player.getKeyedSlot(KILL_SLOT_NAME, PREFIX_SHARED + name);
-		return MathHelper.parseIntDefault(count, 0) > 0;
+		return getKills().getInt(PREFIX_SHARED + name, 0) > 0;
 	}
 	/**
 	 * Checks if the player has ever killed a creature, with or without the help
@@ -73,9 +74,8 @@ class KillRecording {
 	 */
 	private void setKill(final String name, final String mode) {
 		final String key = mode + "." + name;
-		final String count = player.getKeyedSlot(KILL_SLOT_NAME, key);
-		final int oldValue = MathHelper.parseIntDefault(count, 0);
-		player.setKeyedSlot(KILL_SLOT_NAME, key, Integer.toString(oldValue + 1));
+		final int oldValue = getKills().getInt(key, 0);
+		player.setKeyedSlotInt(KILL_SLOT_NAME, key, oldValue + 1);
 	}
 
 	/**
@@ -106,7 +106,7 @@ class KillRecording {
 	 */
 	public void setKillCount(final String name, final String mode, final int count) {
 		final String key = mode + "." + name;
-		player.setKeyedSlot(KILL_SLOT_NAME, key, Integer.toString(count));
+		player.setKeyedSlotInt(KILL_SLOT_NAME, key, count);
 	}
 
 	/**
@@ -137,7 +137,7 @@ class KillRecording {
 	 */
 	public int getKill(final String name, final String mode) {
 		final String key = mode + "." + name;
-		final int kills = MathHelper.parseIntDefault(player.getKeyedSlot(KILL_SLOT_NAME, key),0);
+		final int kills = getKills().getInt(key, 0);
 		return(kills);
 	}
 
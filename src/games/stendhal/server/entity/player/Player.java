@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                    (C) Copyright 2003-2023 - Arianne                    *
+ *                    (C) Copyright 2003-2026 - Arianne                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -23,6 +23,7 @@ import static games.stendhal.common.constants.Actions.TELECLICKMODE;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -90,6 +91,15 @@ public class Player extends DressedEntity implements UseListener {
 	 */
 	private static final Random KARMA_RANDOMIZER = new Random();
 
+	/**
+	 * Attributes that change all the time while the player is active. A
+	 * change of them alone does not make writing the player object
+	 * necessary. They are written along with the other changes, and by the
+	 * final save on logout.
+	 */
+	private static final Set<String> VOLATILE_ATTRIBUTES = new HashSet<String>(Arrays.asList(
+			"x", "y", "dir", "speed", "hp", "mana", "age", "target", "risk", "heal", "text"));
+
 	/**
 	 * Currently active client directions (in oldest-newest order).
 	 */
@@ -113,9 +123,13 @@ public class Player extends DressedEntity implements UseListener {
 	private final PlayerDieer dieer = new PlayerDieer(this);
 	private final PlayerTrade trade = new PlayerTrade(this);
 	private final KillRecording killRec = new KillRecording(this);
+	/** Keyed slots by name. */
+	private final Map<String, KeyedSlotStore> keyedSlots = new HashMap<String, KeyedSlotStore>();
 	private final PetOwner petOwner = new PetOwner(this);
 	private final PlayerLootedItemsHandler itemCounter = new PlayerLootedItemsHandler(
 			this);
+	/** Parts of the player changed since it was last stored. */
+	private PlayerChanges changes = new PlayerChanges(this);
 
 	/**
 	 * The number of minutes that this player has been logged in on the server.
@@ -135,6 +149,8 @@ public class Player extends DressedEntity implements UseListener {
 	 * all identifiers of reached achievements, filled on login of player
 	 */
 	private Set<String> reachedAchievements;
+	/** Indices of the reached achievements. */
+	private BitSet reachedAchievementIndices;
 
 	/**
 	 * preferred language
@@ -244,6 +260,8 @@ public class Player extends DressedEntity implements UseListener {
 		player.getZone().remove(player);
 
 		player.disconnected = true;
+		// The final save writes everything
+		player.changes.markAllChanged();
 
 		if (name != null) {
 			WordList.getInstance().unregisterSubjectName(name);
@@ -893,7 +911,27 @@ public class Player extends DressedEntity implements UseListener {
 	 * @return The keyed value of the slot, or <code>null</code> if not set.
 	 */
 	public String getKeyedSlot(final String name, final String key) {
-		return KeyedSlotUtil.getKeyedSlot(this, name, key);
+		return getKeyedSlotStore(name).get(key);
+	}
+
+	/**
+	 * Get the access to a keyed slot.
+	 *
+	 * @param name
+	 *            The slot name.
+	 * @return keyed slot
+	 */
+	KeyedSlotStore getKeyedSlotStore(final String name) {
+		if (keyedSlots == null) {
+			// not initialized yet while copying the object in the constructor
+			return new KeyedSlotStore(this, name);
+		}
+		KeyedSlotStore store = keyedSlots.get(name);
+		if (store == null) {
+			store = new KeyedSlotStore(this, name);
+			keyedSlots.put(name, store);
+		}
+		return store;
 	}
 
 	/**
@@ -911,7 +949,37 @@ public class Player extends DressedEntity implements UseListener {
 	 */
 	public boolean setKeyedSlot(final String name, final String key,
 			final String value) {
-		return KeyedSlotUtil.setKeyedSlot(this, name, key, value);
+		final boolean changed = getKeyedSlotStore(name).put(key, value);
+		markKeyedSlotChanged(name);
+		return changed;
+	}
+
+	/**
+	 * Set a keyed number on a named slot.
+	 *
+	 * @param name
+	 *            The slot name.
+	 * @param key
+	 *            The value key.
+	 * @param value
+	 *            The value to assign.
+	 *
+	 * @return <code>true</code> if value changed, <code>false</code> if there
+	 *         was a problem.
+	 */
+	boolean setKeyedSlotInt(final String name, final String key, final int value) {
+		final boolean changed = getKeyedSlotStore(name).putInt(key, value);
+		markKeyedSlotChanged(name);
+		return changed;
+	}
+
+	private void markKeyedSlotChanged(final String name) {
+		if ("!quests".equals(name)) {
+			markChanged(PlayerChanges.Section.QUESTS);
+		} else if ("!ignore".equals(name)) {
+			markChanged(PlayerChanges.Section.BUDDIES);
+		}
+		markChanged(PlayerChanges.Section.SLOTS);
 	}
 
 	/**
@@ -1343,6 +1411,19 @@ public class Player extends DressedEntity implements UseListener {
 		return quests.getQuest(name, index);
 	}
 
+	/**
+	 * Gets the number of sub states of the player's status in the given quest.
+	 * Trailing empty sub states are not counted.
+	 *
+	 * @param name
+	 *            The quest's name
+	 * @return number of sub states (separated by ";"), 0 if the player does
+	 *         not have the quest
+	 */
+	public int getQuestSubStateCount(final String name) {
+		return quests.getQuestSubStateCount(name);
+	}
+
 	/**
 	 * Allows to store the player's current status in a quest in a string. This
 	 * string may, for instance, be "started", "done", a semicolon- separated
@@ -2199,6 +2280,56 @@ public class Player extends DressedEntity implements UseListener {
 		return "Player [" + getName() + ", " + hashCode() + "]";
 	}
 
+	/**
+	 * Creates a copy of the player. The copy is used for storing the player,
+	 * and gets a snapshot of the change tracking.
+	 */
+	@Override
+	public Object clone() {
+		final Player copy = (Player) super.clone();
+		if (copy != null) {
+			copy.changes = changes.snapshot();
+		}
+		return copy;
+	}
+
+	/**
+	 * Get the parts of the player that have changed since the player was
+	 * last stored.
+	 *
+	 * @return change tracking
+	 */
+	public PlayerChanges getChanges() {
+		return changes;
+	}
+
+	/**
+	 * Mark a part of the player changed.
+	 *
+	 * @param section changed section
+	 */
+	private void markChanged(final PlayerChanges.Section section) {
+		// not initialized yet while copying the object in the constructor
+		if (changes != null) {
+			changes.markChanged(this, section);
+		}
+	}
+
+	@Override
+	protected void onChanged(final String name) {
+		if ("buddies".equals(name)) {
+			markChanged(PlayerChanges.Section.BUDDIES);
+		}
+		if (!VOLATILE_ATTRIBUTES.contains(name)) {
+			markChanged(PlayerChanges.Section.ATTRIBUTES);
+		}
+	}
+
+	@Override
+	public void onContentChanged() {
+		markChanged(PlayerChanges.Section.SLOTS);
+	}
+
 	/**
 	 * sets the player sentence
 	 *
@@ -2552,6 +2683,10 @@ public class Player extends DressedEntity implements UseListener {
 	 */
 	public void addReachedAchievement(String identifier) {
 		getAchievements().add(identifier);
+		final int index = AchievementNotifier.get().getAchievementIndex(identifier);
+		if (index >= 0) {
+			reachedAchievementIndices.set(index);
+		}
 	}
 
 	private Set<String> getAchievements() {
@@ -2560,6 +2695,7 @@ public class Player extends DressedEntity implements UseListener {
 
 	public void initReachedAchievements() {
 		reachedAchievements = new HashSet<String>();
+		reachedAchievementIndices = new BitSet();
 	}
 
 	/**
@@ -2588,6 +2724,26 @@ public class Player extends DressedEntity implements UseListener {
 		}
 	}
 
+	/**
+	 * Checks if a player has reached an achievement.
+	 *
+	 * @param index index of the achievement, see
+	 * 	{@link AchievementNotifier#getAchievementIndex(String)}
+	 * @return <code>true</code> if the player has reached the achievement
+	 */
+	public boolean hasReachedAchievement(final int index) {
+		return (reachedAchievementIndices != null) && (index >= 0) && reachedAchievementIndices.get(index);
+	}
+
+	/**
+	 * Gets the number of zones the player has visited.
+	 *
+	 * @return number of visited zones
+	 */
+	public int getVisitedZoneCount() {
+		return getKeyedSlotStore("!visited").size();
+	}
+
 	/**
 	 * Checks if the player has visited the given zone.
 	 *
@@ -2597,7 +2753,7 @@ public class Player extends DressedEntity implements UseListener {
 	 *     <code>true</code> if player visited the zone.
 	 */
 	public boolean hasVisitedZone(final String zoneName) {
-		return getKeyedSlot("!visited", zoneName) != null;
+		return getKeyedSlotStore("!visited").contains(zoneName);
 	}
 
 	/**
@@ -2806,7 +2962,7 @@ public class Player extends DressedEntity implements UseListener {
 	public void incLootForItem(String item, int count) {
 		itemCounter.incLootForItem(item, count);
 		// check achievements in item category
-		AchievementNotifier.get().onItemLoot(this);
+		AchievementNotifier.get().onItemLoot(this, item);
 	}
 
 	/**
@@ -2819,7 +2975,7 @@ public class Player extends DressedEntity implements UseListener {
 	public void incProducedForItem(String item, int count) {
 		itemCounter.incProducedForItem(item, count);
 		// check achievements in production category
-		AchievementNotifier.get().onProduction(this);
+		AchievementNotifier.get().onProduction(this, item);
 	}
 
 	/**
@@ -2832,7 +2988,7 @@ public class Player extends DressedEntity implements UseListener {
 	public void incObtainedForItem(String name, int quantity) {
 		itemCounter.incObtainedForItem(name, quantity);
 		// check achievements in obtain category
-		AchievementNotifier.get().onObtain(this);
+		AchievementNotifier.get().onObtain(this, name);
 	}
 
 	/**
@@ -2858,7 +3014,7 @@ public class Player extends DressedEntity implements UseListener {
 	public void incMinedForItem(String name, int quantity) {
 		itemCounter.incMinedForItem(name, quantity);
 		// check achievements in obtain category
-		AchievementNotifier.get().onObtain(this);
+		AchievementNotifier.get().onObtain(this, name);
 	}
 
 	/**
@@ -2872,7 +3028,7 @@ public class Player extends DressedEntity implements UseListener {
 	public void incSownForItem(String name, int quantity) {
 		itemCounter.incSownForItem(name, quantity);
 		// this isn't the same as producing with an NPC but production is the most appropriate category
-		AchievementNotifier.get().onProduction(this);
+		AchievementNotifier.get().onProduction(this, name);
 	}
 
 	/**
@@ -2885,7 +3041,7 @@ public class Player extends DressedEntity implements UseListener {
 	public void incHarvestedForItem(String name, int quantity) {
 		itemCounter.incHarvestedForItem(name, quantity);
 		// check achievements in obtain category
-		AchievementNotifier.get().onObtain(this);
+		AchievementNotifier.get().onObtain(this, name);
 	}
 
 	/**
@@ -0,0 +1,185 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.entity.player;
+
+import java.util.Map;
+
+import com.google.common.collect.Multimap;
+
+/**
+ * Keeps track of the parts of a player that changed since the player was last
+ * stored to the database.
+ * <p>
+ * Each section has a version, which is increased on every change. A player
+ * is stored from a copy, so the copy gets a frozen snapshot of the versions.
+ * After the copy has been written, the snapshot versions are remembered as
+ * stored. Changes made to the player in the meantime have a newer version,
+ * and are written by the next save.
+ */
+public final class PlayerChanges {
+	/** Parts of a player that are written separately. */
+	public enum Section {
+		/** The attributes of the player object. */
+		ATTRIBUTES,
+		/** Slot contents, and the items in them. */
+		SLOTS,
+		/** Quest states. */
+		QUESTS,
+		/** Buddy and ignore lists. */
+		BUDDIES,
+		/** The website statistics. Only changed by {@link PlayerChanges#markAllChanged()}. */
+		STATS
+	}
+
+	/**
+	 * State of the stored player, shared by the player and the snapshots. Only
+	 * used by the database thread.
+	 */
+	private static final class StoredState {
+		/** Stored version of each section. */
+		private final int[] versions = new int[Section.values().length];
+		/** Stored website statistics. */
+		private Map<String, Object> stats;
+		/** Stored buddy relations. */
+		private Multimap<String, String> relations;
+
+		private StoredState() {
+			// nothing is stored yet
+			for (int i = 0; i < versions.length; i++) {
+				versions[i] = -1;
+			}
+		}
+	}
+
+	/** Player whose changes are counted. <code>null</code> for snapshots. */
+	private final Player owner;
+	/** Current version of each section. */
+	private final int[] versions;
+	private final StoredState stored;
+
+	/**
+	 * Create a new PlayerChanges. All sections are unstored.
+	 *
+	 * @param owner player whose changes are counted
+	 */
+	PlayerChanges(final Player owner) {
+		this(owner, new int[Section.values().length], new StoredState());
+	}
+
+	private PlayerChanges(final Player owner, final int[] versions, final StoredState stored) {
+		this.owner = owner;
+		this.versions = versions;
+		this.stored = stored;
+	}
+
+	/**
+	 * Mark a section changed.
+	 *
+	 * @param source player that changed. Changes of other players, such as
+	 * 	copies sharing the same tracking, are ignored
+	 * @param section changed section
+	 */
+	void markChanged(final Player source, final Section section) {
+		if (source == owner) {
+			versions[section.ordinal()]++;
+		}
+	}
+
+	/**
+	 * Mark all sections changed, so that the next save writes everything.
+	 */
+	void markAllChanged() {
+		for (final Section section : Section.values()) {
+			markChanged(owner, section);
+		}
+	}
+
+	/**
+	 * Create a snapshot of the current versions for a copy of the player.
+	 * Changes to the copy are not tracked.
+	 *
+	 * @return snapshot
+	 */
+	PlayerChanges snapshot() {
+		return new PlayerChanges(null, versions.clone(), stored);
+	}
+
+	/**
+	 * Check if any of the sections has changed since it was last stored.
+	 *
+	 * @param sections checked sections
+	 * @return <code>true</code> if at least one of the sections has unstored
+	 * 	changes
+	 */
+	public boolean isChanged(final Section... sections) {
+		synchronized (stored) {
+			for (final Section section : sections) {
+				if (stored.versions[section.ordinal()] != versions[section.ordinal()]) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Remember all sections stored at the versions of this object.
+	 */
+	public void setStored() {
+		synchronized (stored) {
+			System.arraycopy(versions, 0, stored.versions, 0, versions.length);
+		}
+	}
+
+	/**
+	 * Get the last stored website statistics.
+	 *
+	 * @return statistics column values, or <code>null</code> if not known
+	 */
+	public Map<String, Object> getStoredStats() {
+		synchronized (stored) {
+			return stored.stats;
+		}
+	}
+
+	/**
+	 * Set the last stored website statistics.
+	 *
+	 * @param stats statistics column values
+	 */
+	public void setStoredStats(final Map<String, Object> stats) {
+		synchronized (stored) {
+			stored.stats = stats;
+		}
+	}
+
+	/**
+	 * Get the last stored buddy relations.
+	 *
+	 * @return relations by relation type, or <code>null</code> if not known
+	 */
+	public Multimap<String, String> getStoredRelations() {
+		synchronized (stored) {
+			return stored.relations;
+		}
+	}
+
+	/**
+	 * Set the last stored buddy relations.
+	 *
+	 * @param relations relations by relation type
+	 */
+	public void setStoredRelations(final Multimap<String, String> relations) {
+		synchronized (stored) {
+			stored.relations = relations;
+		}
+	}
+}
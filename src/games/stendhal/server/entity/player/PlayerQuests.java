@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2020 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -11,8 +11,10 @@
  ***************************************************************************/
 package games.stendhal.server.entity.player;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
 
@@ -31,8 +33,14 @@ import marauroa.common.game.RPSlot;
 class PlayerQuests {
 	private final Player player;
 
-	private static Logger logger = Logger.getLogger(PlayerQuests.class);
+	/**
+	 * Split quest states by quest slot. An entry is only valid as long as the
+	 * slot holds the very same string, so that changes made directly to the
+	 * slot are noticed without further bookkeeping.
+	 */
+	private final Map<String, ParsedState> parsedStates = new HashMap<String, ParsedState>();
 
+	private static Logger logger = Logger.getLogger(PlayerQuests.class);
 
 	public PlayerQuests(final Player player) {
 		this.player = player;
@@ -93,13 +101,14 @@ class PlayerQuests {
 	 *            reset the player's status for the quest.
 	 */
 	public void setQuest(final String name, final String status) {
-		final String oldStatus = player.getKeyedSlot("!quests", QuestUtils.evaluateQuestSlotName(name));
-		player.setKeyedSlot("!quests", QuestUtils.evaluateQuestSlotName(name), status);
+		final String slot = QuestUtils.evaluateQuestSlotName(name);
+		final String oldStatus = player.getKeyedSlot("!quests", slot);
+		player.setKeyedSlot("!quests", slot, status);
 		if ((status == null) || !status.equals(oldStatus)) {
-			new GameEvent(player.getName(), "quest", QuestUtils.evaluateQuestSlotName(name), status).raise();
+			new GameEvent(player.getName(), "quest", slot, status).raise();
 		}
 		// check for reached achievements
-		SingletonRepository.getAchievementNotifier().onFinishQuest(player);
+		SingletonRepository.getAchievementNotifier().onFinishQuest(player, slot);
 	}
 
 
@@ -113,22 +122,58 @@ class PlayerQuests {
 	 * @return the player's status in the quest
 	 */
 	public String getQuest(final String name, final int index) {
-		String state = getQuest(name);
-		if (state == null) {
-			return null;
+		if (index == -1) {
+			return getQuest(name);
 		}
 
-		if(index == -1) {
-			return state;
+		final String[] elements = getSubStates(QuestUtils.evaluateQuestSlotName(name));
+		if (elements == null) {
+			return null;
 		}
-
-		String[] elements = state.split(";");
 		if (index < elements.length) {
 			return elements[index];
 		}
 		return "";
 	}
 
+	/**
+	 * Gets the number of sub states of the player's status in the given quest.
+	 * Trailing empty sub states are not counted.
+	 *
+	 * @param name
+	 *            The quest's name
+	 * @return number of sub states, 0 if the player does not have the quest
+	 */
+	public int getQuestSubStateCount(final String name) {
+		final String[] elements = getSubStates(QuestUtils.evaluateQuestSlotName(name));
+		if (elements == null) {
+			return 0;
+		}
+		return elements.length;
+	}
+
+	/**
+	 * Gets the split state of a quest slot. The returned array must not be
+	 * modified.
+	 *
+	 * @param slot name of the quest slot
+	 * @return sub states, or <code>null</code> if the slot is not set
+	 */
+	private String[] getSubStates(final String slot) {
+		final String state = player.getKeyedSlot("!quests", slot);
+		if (state == null) {
+			parsedStates.remove(slot);
+			return null;
+		}
+
+		ParsedState parsed = parsedStates.get(slot);
+		if ((parsed == null) || (parsed.state != state)) {
+			parsed = new ParsedState(state, state.split(";"));
+			parsedStates.put(slot, parsed);
+		}
+		return parsed.elements;
+	}
+
 	/**
 	 * Allows to store the player's current status in a quest in a string. This
 	 * string may, for instance, be "started", "done", a semicolon- separated
@@ -145,16 +190,14 @@ class PlayerQuests {
 	 *            reset the player's status for the quest.
 	 */
 	public void setQuest(final String name, final int index, final String subStatus) {
-		String state = getQuest(name);
-		if (state == null) {
-			state = "";
-		}
-		String[] elements = state.split(";");
-		if (elements.length <= index) {
-			String[] temp = new String[index + 1];
-			System.arraycopy(elements, 0, temp, 0, elements.length);
-			elements = temp;
+		final String slot = QuestUtils.evaluateQuestSlotName(name);
+		String[] elements = getSubStates(slot);
+		if (elements == null) {
+			elements = new String[] {""};
 		}
+		final String[] temp = new String[Math.max(elements.length, index + 1)];
+		System.arraycopy(elements, 0, temp, 0, elements.length);
+		elements = temp;
 
 		elements[index] = subStatus;
 		StringBuilder res = new StringBuilder();
@@ -166,7 +209,7 @@ class PlayerQuests {
 				res.append(elements[i]);
 			}
 		}
-		setQuest(name, res.toString());
+		setQuest(slot, res.toString());
 	}
 
 	public List<String> getQuests() {
@@ -296,4 +339,17 @@ class PlayerQuests {
 		return MathHelper.parseIntDefault(questState, 0);
 	}
 
+	/**
+	 * A quest state together with its sub states.
+	 */
+	private static final class ParsedState {
+		/** The state string the sub states were split from. */
+		private final String state;
+		private final String[] elements;
+
+		ParsedState(final String state, final String[] elements) {
+			this.state = state;
+			this.elements = elements;
+		}
+	}
 }
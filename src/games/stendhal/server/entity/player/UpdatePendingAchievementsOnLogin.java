@@ -14,6 +14,7 @@ package games.stendhal.server.entity.player;
 import java.util.Map;
 
 import games.stendhal.common.MathHelper;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.dbcommand.DeletePendingAchievementDetailsCommand;
 import games.stendhal.server.core.engine.dbcommand.ReadPendingAchievementDetailsCommand;
 import games.stendhal.server.core.events.LoginListener;
@@ -66,7 +67,7 @@ public class UpdatePendingAchievementsOnLogin implements LoginListener, TurnList
 
 		// delete the entries. We don't need feedback
 		DBCommand deletecommand = new DeletePendingAchievementDetailsCommand(player);
-		DBCommandQueue.get().enqueue(deletecommand);
+		DBCommandDispatcher.get().enqueue(deletecommand);
 
 	}
 
@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -13,7 +13,9 @@
 package games.stendhal.server.entity.slot;
 
 import games.stendhal.server.entity.Entity;
+import marauroa.common.game.RPObject;
 import marauroa.common.game.RPSlot;
+import marauroa.common.game.SlotOwner;
 
 /**
  * Stendhal specific information about this slot.
@@ -106,4 +108,50 @@ public class EntitySlot extends RPSlot implements Slot {
 	public String getSlotType() {
 		return "slot";
 	}
+
+	@Override
+	public int add(final RPObject object) {
+		final int id = super.add(object);
+		onContentChanged();
+		return id;
+	}
+
+	@Override
+	public int addPreservingId(final RPObject object) {
+		final int id = super.addPreservingId(object);
+		onContentChanged();
+		return id;
+	}
+
+	@Override
+	public RPObject remove(final RPObject.ID id) {
+		final RPObject object = super.remove(id);
+		if (object != null) {
+			onContentChanged();
+		}
+		return object;
+	}
+
+	@Override
+	public void clear() {
+		final boolean changed = !isEmpty();
+		super.clear();
+		if (changed) {
+			onContentChanged();
+		}
+	}
+
+	/**
+	 * Tells the entity at the top of the containment that the slot content
+	 * has changed.
+	 */
+	private void onContentChanged() {
+		final SlotOwner owner = getOwner();
+		if (owner instanceof RPObject) {
+			final RPObject base = ((RPObject) owner).getBaseContainer();
+			if (base instanceof Entity) {
+				((Entity) base).onContentChanged();
+			}
+		}
+	}
 }
@@ -26,6 +26,7 @@ import games.stendhal.common.constants.SoundLayer;
 import games.stendhal.common.grammar.Grammar;
 import games.stendhal.common.parser.Sentence;
 import games.stendhal.server.core.engine.ChatMessage;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.db.PostmanDAO;
 import games.stendhal.server.core.events.TurnListener;
@@ -41,7 +42,6 @@ import games.stendhal.server.entity.player.Player;
 import games.stendhal.server.events.SoundEvent;
 import marauroa.server.db.DBTransaction;
 import marauroa.server.db.command.AbstractDBCommand;
-import marauroa.server.db.command.DBCommandQueue;
 import marauroa.server.game.db.CharacterDAO;
 import marauroa.server.game.db.DAORegister;
 
@@ -198,7 +198,7 @@ class HouseTax implements TurnListener {
 	 * @param message the delivered message
 	 */
 	private void notifyIfNeeded(final String owner, final String message) {
-		DBCommandQueue.get().enqueue(new MaybeStoreMessageCommand("Mr Taxman", owner, message));
+		DBCommandDispatcher.get().enqueue(new MaybeStoreMessageCommand("Mr Taxman", owner, message));
 	}
 
 	private void setupTaxman() {
@@ -13,6 +13,7 @@
 package games.stendhal.server.maps.quests.marriage;
 
 import games.stendhal.common.parser.Sentence;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.dbcommand.StoreMessageCommand;
 import games.stendhal.server.entity.Entity;
@@ -27,7 +28,6 @@ import games.stendhal.server.entity.npc.condition.AndCondition;
 import games.stendhal.server.entity.npc.condition.NotCondition;
 import games.stendhal.server.entity.npc.condition.PlayerHasItemWithHimCondition;
 import games.stendhal.server.entity.player.Player;
-import marauroa.server.db.command.DBCommandQueue;
 
 class Divorce {
 	private final NPCList npcs = SingletonRepository.getNPCList();
@@ -210,7 +210,7 @@ class Divorce {
 							wife.sendPrivateText(husband.getName() + " has divorced from you.");
 							npc.say("What a pity...what a pity...and you two were married so happily, too...");
 						} else {
-							DBCommandQueue.get().enqueue(new StoreMessageCommand("Wilfred", partnerName, husband.getName() + " has divorced from you!" , "N"));
+							DBCommandDispatcher.get().enqueue(new StoreMessageCommand("Wilfred", partnerName, husband.getName() + " has divorced from you!" , "N"));
 						}
 						if (husband.isEquipped("money", 200*husband.getLevel())) {
 							husband.drop("money", 200*husband.getLevel());
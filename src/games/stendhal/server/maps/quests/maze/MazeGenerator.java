@@ -30,6 +30,7 @@ import games.stendhal.common.color.HSL;
 import games.stendhal.common.grammar.Grammar;
 import games.stendhal.common.tiled.LayerDefinition;
 import games.stendhal.common.tiled.StendhalMapStructure;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.Spot;
 import games.stendhal.server.core.engine.StendhalRPZone;
@@ -48,7 +49,6 @@ import games.stendhal.server.entity.player.Player;
 import games.stendhal.server.util.TimeUtil;
 import marauroa.common.game.RPObject;
 import marauroa.server.db.command.DBCommandPriority;
-import marauroa.server.db.command.DBCommandQueue;
 
 /**
  * A random maze zone.
@@ -554,7 +554,7 @@ public class MazeGenerator {
 		// Give at least one xp for persistent but hopelessly slow players
 		points = Math.max(points, 1);
 
-		DBCommandQueue.get().enqueue(new WriteHallOfFamePointsCommand(player.getName(), "M", points, true), DBCommandPriority.LOW);
+		DBCommandDispatcher.get().enqueue(new WriteHallOfFamePointsCommand(player.getName(), "M", points, true), DBCommandPriority.LOW);
 		new SetQuestAction("maze", 0, "done").fire(player, null, null);
 		new IncrementQuestAction("maze", 2, 1).fire(player, null, null);
 
@@ -617,7 +617,7 @@ public class MazeGenerator {
 	 */
 	private static void setBestTime(final Player player, final long timestamp) {
 		player.setQuest("maze", 3, String.valueOf(timestamp));
-		DBCommandQueue.get().enqueue(new WriteHallOfFamePointsCommand(
+		DBCommandDispatcher.get().enqueue(new WriteHallOfFamePointsCommand(
 				player.getName(), "MT", (int) timestamp, false), DBCommandPriority.LOW);
 	}
 
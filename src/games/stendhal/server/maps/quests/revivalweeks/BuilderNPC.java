@@ -17,6 +17,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import games.stendhal.common.Direction;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.StendhalRPZone;
 import games.stendhal.server.core.engine.dbcommand.ReadGroupQuestCommand;
@@ -26,7 +27,6 @@ import games.stendhal.server.entity.npc.SpeakerNPC;
 import games.stendhal.server.entity.npc.behaviour.adder.CollectingGroupQuestAdder;
 import games.stendhal.server.entity.npc.behaviour.impl.CollectingGroupQuestBehaviour;
 import games.stendhal.server.util.QuestUtils;
-import marauroa.server.db.command.DBCommandQueue;
 
 public class BuilderNPC implements LoadableContent, TurnListener {
 	private SpeakerNPC npc = null;
@@ -37,7 +37,7 @@ public class BuilderNPC implements LoadableContent, TurnListener {
 	@Override
 	public void addToWorld() {
 		this.command = new ReadGroupQuestCommand(QUEST_SLOT);
-		DBCommandQueue.get().enqueue(command);
+		DBCommandDispatcher.get().enqueue(command);
 		TurnNotifier.get().notifyInTurns(0, this);
 	}
 
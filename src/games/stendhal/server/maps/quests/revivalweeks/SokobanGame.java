@@ -19,6 +19,7 @@ import games.stendhal.common.Direction;
 import games.stendhal.common.MathHelper;
 import games.stendhal.common.grammar.Grammar;
 import games.stendhal.common.parser.Sentence;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.SingletonRepository;
 import games.stendhal.server.core.engine.StendhalRPZone;
 import games.stendhal.server.core.engine.dbcommand.WriteHallOfFamePointsCommand;
@@ -42,7 +43,6 @@ import games.stendhal.server.entity.npc.condition.QuestSmallerThanCondition;
 import games.stendhal.server.entity.player.Player;
 import games.stendhal.server.util.TimeUtil;
 import marauroa.server.db.command.DBCommandPriority;
-import marauroa.server.db.command.DBCommandQueue;
 
 /**
  * A Sokoban game.
@@ -201,7 +201,7 @@ public class SokobanGame implements LoadableContent, SokobanListener {
 				+ TimeUtil.approxTimeUntil(timeDiff));
 
 		int points = level * 1000000 - totalTime;
-		DBCommandQueue.get().enqueue(new WriteHallOfFamePointsCommand(player.getName(), FAME_TYPE, points, false), DBCommandPriority.LOW);
+		DBCommandDispatcher.get().enqueue(new WriteHallOfFamePointsCommand(player.getName(), FAME_TYPE, points, false), DBCommandPriority.LOW);
 
 		loadSignFromHallOfFame.fire(null, null, null);
 	}
@@ -22,6 +22,7 @@ import games.stendhal.common.constants.SoundID;
 import games.stendhal.common.constants.SoundLayer;
 import games.stendhal.common.grammar.Grammar;
 import games.stendhal.common.parser.Sentence;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.dbcommand.StoreMessageCommand;
 import games.stendhal.server.entity.npc.ChatAction;
 import games.stendhal.server.entity.npc.ConversationPhrases;
@@ -32,7 +33,6 @@ import games.stendhal.server.entity.player.Player;
 import games.stendhal.server.entity.trade.Market;
 import games.stendhal.server.entity.trade.Offer;
 import games.stendhal.server.events.SoundEvent;
-import marauroa.server.db.command.DBCommandQueue;
 
 public class AcceptOfferHandler extends OfferHandler {
 	/** the logger instance. */
@@ -103,7 +103,7 @@ public class AcceptOfferHandler extends OfferHandler {
 				final String managerName = manager.getName();
 
 				logger.debug("sending a notice to '" + offer.getOfferer() + "': " + earningToFetchMessage.toString());
-				DBCommandQueue.get().enqueue(new StoreMessageCommand(managerName, offer.getOfferer(), earningToFetchMessage.toString(), "N"));
+				DBCommandDispatcher.get().enqueue(new StoreMessageCommand(managerName, offer.getOfferer(), earningToFetchMessage.toString(), "N"));
 
 				// record purchases from market manager
 				// DISABLED: players can buy their own things from Harold
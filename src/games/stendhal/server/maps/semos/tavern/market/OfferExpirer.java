@@ -18,6 +18,7 @@ import org.apache.log4j.Logger;
 
 import games.stendhal.common.MathHelper;
 import games.stendhal.common.grammar.Grammar;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.dbcommand.StoreMessageCommand;
 import games.stendhal.server.core.events.TurnListener;
 import games.stendhal.server.core.events.TurnNotifier;
@@ -25,7 +26,6 @@ import games.stendhal.server.entity.trade.Earning;
 import games.stendhal.server.entity.trade.Market;
 import games.stendhal.server.entity.trade.Offer;
 import games.stendhal.server.util.TimeUtil;
-import marauroa.server.db.command.DBCommandQueue;
 
 public class OfferExpirer implements TurnListener{
 	private static Logger logger = Logger.getLogger(OfferExpirer.class);
@@ -107,7 +107,7 @@ public class OfferExpirer implements TurnListener{
 		logger.debug("sending a notice to '" + player + "': " + message.toString());
 
 		// there is an npc action to send the message but this is all we want to do here.
-		DBCommandQueue.get().enqueue(new StoreMessageCommand("Harold", player, message.toString(), "N"));
+		DBCommandDispatcher.get().enqueue(new StoreMessageCommand("Harold", player, message.toString(), "N"));
 	}
 
 	/**
@@ -20,6 +20,7 @@ import games.stendhal.common.constants.SoundLayer;
 import games.stendhal.common.grammar.Grammar;
 import games.stendhal.common.parser.Expression;
 import games.stendhal.common.parser.Sentence;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.engine.dbcommand.LogTradeEventCommand;
 import games.stendhal.server.entity.item.Item;
 import games.stendhal.server.entity.item.OwnedItem;
@@ -37,7 +38,6 @@ import games.stendhal.server.entity.trade.Market;
 import games.stendhal.server.entity.trade.Offer;
 import games.stendhal.server.events.SoundEvent;
 import games.stendhal.server.util.AsynchronousProgramExecutor;
-import marauroa.server.db.command.DBCommandQueue;
 
 
 public class PrepareOfferHandler {
@@ -222,7 +222,7 @@ public class PrepareOfferHandler {
 				if (createOffer(player, item, price, quantity)) {
 					TradingUtility.substractTradingFee(player, price);
 					new AsynchronousProgramExecutor("trade", buildTweetMessage(item, quantity, price)).start();
-					DBCommandQueue.get().enqueue(new LogTradeEventCommand(player, item, quantity, price));
+					DBCommandDispatcher.get().enqueue(new LogTradeEventCommand(player, item, quantity, price));
 					npc.addEvent(new SoundEvent(SoundID.COMMERCE2, SoundLayer.CREATURE_NOISE));
 					npc.say("I added your offer to the trading center and took the fee of "+ fee +".");
 					npc.setCurrentState(ConversationStates.ATTENDING);
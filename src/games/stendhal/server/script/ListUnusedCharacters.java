@@ -23,6 +23,7 @@ import java.util.Set;
 import org.apache.log4j.Logger;
 
 import games.stendhal.common.KeyedSlotUtil;
+import games.stendhal.server.core.engine.DBCommandDispatcher;
 import games.stendhal.server.core.scripting.ScriptImpl;
 import games.stendhal.server.entity.player.Player;
 import games.stendhal.server.entity.slot.KeyedSlot;
@@ -30,7 +31,6 @@ import marauroa.common.game.RPObject;
 import marauroa.common.game.RPSlot;
 import marauroa.server.db.DBTransaction;
 import marauroa.server.db.command.AbstractDBCommand;
-import marauroa.server.db.command.DBCommandQueue;
 import marauroa.server.game.db.CharacterDAO;
 import marauroa.server.game.db.DAORegister;
 
@@ -126,7 +126,7 @@ public class ListUnusedCharacters extends ScriptImpl {
 			admin.sendPrivateText("Higher adminlevel required.");
 			return;
 		}
-		DBCommandQueue.get().enqueue(new ListUnusedCharactersCommand(admin));
+		DBCommandDispatcher.get().enqueue(new ListUnusedCharactersCommand(admin));
 	}
 
 }
@@ -53,7 +53,7 @@ public class RemoveVisitedZone extends ScriptImpl {
 			admin.sendPrivateText("Player has not visited that zone");
 			return;
 		}
-		KeyedSlotUtil.setKeyedSlot(player, "!visited", zoneName, null);
+		player.setKeyedSlot("!visited", zoneName, null);
 
 		final String msg = "Admin " + admin.getName() + " removed zone " + zoneName
 				+ " from player " + player.getName();
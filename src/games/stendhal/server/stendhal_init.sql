@@ -415,6 +415,15 @@ CREATE INDEX IF NOT EXISTS i_searchindex_searchterm ON searchindex(searchterm);
 CREATE INDEX IF NOT EXISTS i_searchindex_entitytype_entityname ON searchindex(entitytype, entityname);
 
 
+CREATE TABLE IF NOT EXISTS dumphash
+  (
+  name        VARCHAR(32) NOT NULL,
+  hash        VARCHAR(64),
+  timedate    TIMESTAMP default CURRENT_TIMESTAMP,
+  PRIMARY KEY(name)
+  );
+
+
 CREATE TABLE IF NOT EXISTS group_quest
   (
   id          INTEGER auto_increment NOT NULL,
@@ -1,5 +1,5 @@
 /***************************************************************************
- *                   (C) Copyright 2003-2023 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -24,6 +24,10 @@ public class QuestUtils {
 	 * @return evaluated slot
 	 */
 	public static String evaluateQuestSlotName(String name) {
+		// most slot names do not contain variables
+		if ((name.indexOf('[') < 0) && (name.indexOf(']') < 0)) {
+			return name;
+		}
 		Map<String, String> params = new HashMap<String, String>();
 		Calendar calendar = Calendar.getInstance();
 		int year = calendar.get(Calendar.YEAR);
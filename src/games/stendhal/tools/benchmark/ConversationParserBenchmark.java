@@ -0,0 +1,124 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.tools.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import games.stendhal.common.parser.ConversationParser;
+
+/**
+ * Micro benchmark replaying a chat log through the ConversationParser, with
+ * and without the cache of parsed sentences.
+ * <p>
+ * The log is a text file with one message per line. Without a file, a
+ * synthetic log is used, in which most lines come from the small vocabulary
+ * players use with NPCs, and some are unique.
+ * <p>
+ * Usage:
+ *     games.stendhal.tools.benchmark.ConversationParserBenchmark [chatlog]
+ */
+public class ConversationParserBenchmark {
+	private static final int SYNTHETIC_LINES = 100000;
+	/** Percentage of unique lines in the synthetic log. */
+	private static final int UNIQUE_PERCENT = 10;
+	private static final String[] COMMON_LINES = { "hi", "hello", "job", "help",
+		"offer", "quest", "task", "yes", "no", "bye", "done", "buy 10 arrows",
+		"buy arrow", "buy 2 ham", "sell leather armor", "sell 5 wood",
+		"buy a bottle of beer", "what do you need?", "I have the ingredients", "favour" };
+	private static final String[] ITEMS = { "arrow", "ham", "wood", "potion",
+		"greater potion", "leather armor", "carrot", "apple", "fish", "flask" };
+
+	private static List<String> createLog() {
+		final Random random = new Random(1);
+		final List<String> log = new ArrayList<String>(SYNTHETIC_LINES);
+		for (int i = 0; i < SYNTHETIC_LINES; i++) {
+			if (random.nextInt(100) < UNIQUE_PERCENT) {
+				log.add("buy " + (11 + random.nextInt(10000)) + " " + ITEMS[random.nextInt(ITEMS.length)]);
+			} else {
+				// the first words are said most often
+				final int index = (int) (COMMON_LINES.length * Math.pow(random.nextDouble(), 2));
+				log.add(COMMON_LINES[index]);
+			}
+		}
+		return log;
+	}
+
+	private static List<String> readLog(final String filename) throws IOException {
+		final List<String> log = new ArrayList<String>();
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filename), "UTF-8"));
+		try {
+			String line = reader.readLine();
+			while (line != null) {
+				log.add(line);
+				line = reader.readLine();
+			}
+		} finally {
+			reader.close();
+		}
+		return log;
+	}
+
+	private static void run(final String name, final List<String> log, final boolean cached) {
+		ConversationParser.clearSentenceCache();
+		final long hits = ConversationParser.getCacheHits();
+		final long misses = ConversationParser.getCacheMisses();
+
+		long checksum = 0;
+		final long start = System.nanoTime();
+		for (final String line : log) {
+			if (!cached) {
+				ConversationParser.clearSentenceCache();
+			}
+			checksum += ConversationParser.parse(line).getExpressions().size();
+		}
+		final long time = System.nanoTime() - start;
+
+		if (checksum == 42) {
+			// keep the JIT from dropping the parsing
+			System.out.print("");
+		}
+		final long lookups = ConversationParser.getCacheHits() - hits + ConversationParser.getCacheMisses() - misses;
+		final double hitRate = 100.0 * (ConversationParser.getCacheHits() - hits) / Math.max(1, lookups);
+		System.out.printf("%-8s %10.3f ms total %8.3f us/line %6.1f%% hits%n", name,
+				time / 1e6, time / 1e3 / log.size(), hitRate);
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args optional chat log file
+	 * @throws IOException on an error reading the log
+	 */
+	public static void main(final String[] args) throws IOException {
+		final List<String> log;
+		if (args.length > 0) {
+			log = readLog(args[0]);
+		} else {
+			log = createLog();
+		}
+
+		System.out.println(log.size() + " lines");
+		// warm up
+		run("uncached", log, false);
+		run("cached", log, true);
+
+		for (int round = 1; round <= 3; round++) {
+			run("uncached", log, false);
+			run("cached", log, true);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.tools.benchmark;
+
+import java.awt.Rectangle;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import games.stendhal.common.tiled.StendhalMapStructure;
+import games.stendhal.server.core.config.zone.TMXLoader;
+import games.stendhal.server.core.engine.StendhalRPWorld;
+import games.stendhal.server.core.engine.StendhalRPZone;
+import games.stendhal.server.core.pathfinder.Node;
+import games.stendhal.server.core.pathfinder.Path;
+import games.stendhal.server.entity.Entity;
+
+/**
+ * Micro benchmark for the pathfinder on real maps.
+ * <p>
+ * Searches between random walkable positions of the given maps, both with the
+ * collision map only and with an entity that has to avoid other entities, and
+ * reports the time and the memory allocated per search.
+ * <p>
+ * Usage:
+ *     games.stendhal.tools.benchmark.PathfinderBenchmark [searches] [map...]
+ * <p>
+ * The maps are given relative to data/maps, for example
+ * "Level 0/semos/city.tmx".
+ */
+public class PathfinderBenchmark {
+	private static final int DEFAULT_SEARCHES = 20000;
+	private static final String[] DEFAULT_MAPS = {
+		"Level 0/semos/city.tmx",
+		"Level 0/ados/city.tmx",
+		"Level 0/fado/city.tmx",
+		"Level -1/semos/dungeon.tmx"
+	};
+	/** Maximum search distance. */
+	private static final double MAX_DISTANCE = 100;
+
+	/**
+	 * A searching entity.
+	 */
+	private static class Walker extends Entity {
+		// just to create an instance
+	}
+
+	/**
+	 * A search to be run.
+	 */
+	private static class Search {
+		final StendhalRPZone zone;
+		final Walker walker;
+		final int startX, startY;
+		final Rectangle destination;
+
+		Search(final StendhalRPZone zone, final Walker walker, final int startX,
+				final int startY, final Rectangle destination) {
+			this.zone = zone;
+			this.walker = walker;
+			this.startX = startX;
+			this.startY = startY;
+			this.destination = destination;
+		}
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final int searches = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_SEARCHES;
+		final String[] maps;
+		if (args.length > 1) {
+			maps = new String[args.length - 1];
+			System.arraycopy(args, 1, maps, 0, maps.length);
+		} else {
+			maps = DEFAULT_MAPS;
+		}
+
+		final Random random = new Random(1);
+		final List<Search> workload = new ArrayList<Search>();
+		for (final String map : maps) {
+			final StendhalRPZone zone = loadZone(map);
+			final Walker walker = new Walker();
+			zone.add(walker);
+			// Some stopped entities for the entity aware searches
+			for (int i = 0; i < zone.getWidth() * zone.getHeight() / 200; i++) {
+				final Walker obstacle = new Walker();
+				obstacle.setPosition(random.nextInt(zone.getWidth()), random.nextInt(zone.getHeight()));
+				obstacle.setResistance(100);
+				zone.add(obstacle);
+			}
+			for (int i = 0; i < searches / maps.length; i++) {
+				final int x = random.nextInt(zone.getWidth());
+				final int y = random.nextInt(zone.getHeight());
+				if (!zone.collisionMap.collides(x, y)) {
+					final int destX = Math.max(0, Math.min(zone.getWidth() - 1, x + random.nextInt(81) - 40));
+					final int destY = Math.max(0, Math.min(zone.getHeight() - 1, y + random.nextInt(81) - 40));
+					workload.add(new Search(zone, walker, x, y, new Rectangle(destX, destY, 1, 1)));
+				}
+			}
+		}
+
+		System.out.println("Searches: " + workload.size());
+		for (int round = 0; round < 5; round++) {
+			run("simple", workload, false);
+			run("entity", workload, true);
+		}
+	}
+
+	/**
+	 * Load a zone with the collision data of a map.
+	 *
+	 * @param map map file relative to the maps folder
+	 * @return zone
+	 * @throws Exception if loading the map fails
+	 */
+	private static StendhalRPZone loadZone(final String map) throws Exception {
+		final StendhalMapStructure structure = TMXLoader.load(StendhalRPWorld.MAPS_FOLDER + map);
+		final StendhalRPZone zone = new StendhalRPZone(map, structure.getWidth(), structure.getHeight());
+		zone.addCollisionLayer(map + ".collision", structure.getLayer("collision"));
+		return zone;
+	}
+
+	/**
+	 * Run the searches once and print the results.
+	 *
+	 * @param name name of the run
+	 * @param workload searches
+	 * @param withEntities <code>true</code> if the searching entity should
+	 * 	avoid other entities
+	 */
+	private static void run(final String name, final List<Search> workload, final boolean withEntities) {
+		final long allocatedBefore = getAllocatedBytes();
+		final long start = System.nanoTime();
+		int found = 0;
+		for (final Search search : workload) {
+			final List<Node> path;
+			if (withEntities) {
+				search.walker.setPosition(search.startX, search.startY);
+				path = Path.searchPath(search.walker, search.zone, search.startX, search.startY,
+						search.destination, MAX_DISTANCE, true);
+			} else {
+				path = Path.searchPath(search.zone, search.startX, search.startY,
+						search.destination.x, search.destination.y, MAX_DISTANCE);
+			}
+			if (!path.isEmpty()) {
+				found++;
+			}
+		}
+		final long time = System.nanoTime() - start;
+		final long allocated = getAllocatedBytes() - allocatedBefore;
+		System.out.printf("%-8s %8.1f us/search %10d bytes/search  (%d paths found)%n", name,
+				time / 1000.0 / workload.size(), allocated / workload.size(), found);
+	}
+
+	/**
+	 * Get the number of bytes allocated by the current thread, if the JVM
+	 * supports measuring it.
+	 *
+	 * @return allocated bytes, or 0
+	 */
+	private static long getAllocatedBytes() {
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,197 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.tools.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import games.stendhal.server.core.engine.RPClassGenerator;
+import games.stendhal.server.core.engine.db.PlayerSnapshotCodec;
+import marauroa.common.game.DetailLevel;
+import marauroa.common.game.RPObject;
+import marauroa.common.game.RPSlot;
+import marauroa.common.net.InputSerializer;
+import marauroa.common.net.OutputSerializer;
+
+/**
+ * Micro benchmark comparing the size and the encoding and decoding time of
+ * player snapshots with the legacy marauroa serialization.
+ * <p>
+ * The corpus consists of synthetic veteran players with long quest, kill and
+ * visited zone histories, and full bags.
+ * <p>
+ * Usage:
+ *     games.stendhal.tools.benchmark.PlayerSnapshotBenchmark [players]
+ */
+public class PlayerSnapshotBenchmark {
+	private static final int DEFAULT_PLAYERS = 200;
+	private static final int QUESTS = 400;
+	private static final int CREATURES = 300;
+	private static final int ZONES = 500;
+	private static final int ITEMS = 15;
+	private static final String[] ITEM_NAMES = { "money", "greater potion",
+		"ice sword", "mithril shield", "ham", "scroll", "dark dagger", "pie" };
+
+	/**
+	 * One of the formats.
+	 */
+	private interface Format {
+		byte[] write(RPObject object) throws IOException;
+		RPObject read(byte[] data) throws IOException;
+	}
+
+	/**
+	 * The marauroa serialization, as written by RPObjectDAO.
+	 */
+	private static class LegacyFormat implements Format {
+		@Override
+		public byte[] write(final RPObject object) throws IOException {
+			final ByteArrayOutputStream array = new ByteArrayOutputStream();
+			final DeflaterOutputStream out = new DeflaterOutputStream(array);
+			object.writeObject(new OutputSerializer(out), DetailLevel.FULL);
+			out.close();
+			return array.toByteArray();
+		}
+
+		@Override
+		public RPObject read(final byte[] data) throws IOException {
+			final InputSerializer in = new InputSerializer(new InflaterInputStream(new ByteArrayInputStream(data)));
+			return (RPObject) in.readObject(new RPObject());
+		}
+	}
+
+	/**
+	 * Player snapshots.
+	 */
+	private static class SnapshotFormat implements Format {
+		@Override
+		public byte[] write(final RPObject object) throws IOException {
+			return PlayerSnapshotCodec.encode(object);
+		}
+
+		@Override
+		public RPObject read(final byte[] data) throws IOException {
+			return PlayerSnapshotCodec.decode(data);
+		}
+	}
+
+	private static RPObject createKeyedSlot(final RPObject player, final String name) {
+		final RPSlot slot = new RPSlot(name);
+		player.addSlot(slot);
+		final RPObject content = new RPObject();
+		slot.add(content);
+		return content;
+	}
+
+	private static RPObject createPlayer(final Random random, final int index) {
+		final RPObject player = new RPObject("player");
+		player.put("name", "veteran" + index);
+		player.put("level", 400 + random.nextInt(197));
+		player.put("xp", random.nextInt(Integer.MAX_VALUE));
+		player.put("base_hp", 3000);
+		player.put("hp", random.nextInt(3000));
+		player.put("atk", 150);
+		player.put("atk_xp", random.nextInt(Integer.MAX_VALUE));
+		player.put("def", 150);
+		player.put("def_xp", random.nextInt(Integer.MAX_VALUE));
+		player.put("karma", random.nextDouble() * 1000);
+		player.put("outfit_ext", "body=1,dress=5,head=2,hair=3");
+
+		final RPObject quests = createKeyedSlot(player, "!quests");
+		for (int i = 0; i < QUESTS; i++) {
+			if (random.nextBoolean()) {
+				quests.put("quest_" + i, "done");
+			} else {
+				quests.put("quest_" + i, "done;" + random.nextInt(100) + ";" + (1600000000000L + random.nextInt()));
+			}
+		}
+		final RPObject kills = createKeyedSlot(player, "!kills");
+		for (int i = 0; i < CREATURES; i++) {
+			kills.put("solo.creature " + i, random.nextInt(100000));
+			kills.put("shared.creature " + i, random.nextInt(1000));
+		}
+		final RPObject visited = createKeyedSlot(player, "!visited");
+		for (int i = 0; i < ZONES; i++) {
+			visited.put("0_zone_" + i, Long.toString(1600000000000L + random.nextInt()));
+		}
+
+		final RPSlot bag = new RPSlot("bag");
+		player.addSlot(bag);
+		for (int i = 0; i < ITEMS; i++) {
+			final RPObject item = new RPObject("item");
+			final String name = ITEM_NAMES[random.nextInt(ITEM_NAMES.length)];
+			item.put("class", "misc");
+			item.put("subclass", name);
+			item.put("name", name);
+			item.put("quantity", 1 + random.nextInt(1000));
+			item.put("bound", "veteran" + index);
+			bag.add(item);
+		}
+		return player;
+	}
+
+	private static void run(final String name, final Format format, final RPObject[] players) throws IOException {
+		final byte[][] data = new byte[players.length][];
+		long size = 0;
+		final long start = System.nanoTime();
+		for (int i = 0; i < players.length; i++) {
+			data[i] = format.write(players[i]);
+			size += data[i].length;
+		}
+		final long middle = System.nanoTime();
+		long checksum = 0;
+		for (int i = 0; i < players.length; i++) {
+			checksum += format.read(data[i]).slots().size();
+		}
+		final long end = System.nanoTime();
+
+		if (checksum == 42) {
+			// keep the JIT from dropping the reads
+			System.out.print("");
+		}
+		System.out.printf("%-8s %8d bytes/player %10.3f ms write %10.3f ms read%n", name,
+				size / players.length, (middle - start) / 1e6, (end - middle) / 1e6);
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args optional player count
+	 * @throws IOException on an encoding error
+	 */
+	public static void main(final String[] args) throws IOException {
+		final int playerCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PLAYERS;
+		new RPClassGenerator().createRPClasses();
+
+		final Random random = new Random(1);
+		final RPObject[] players = new RPObject[playerCount];
+		for (int i = 0; i < playerCount; i++) {
+			players[i] = createPlayer(random, i);
+		}
+		final Format legacy = new LegacyFormat();
+		final Format snapshot = new SnapshotFormat();
+
+		System.out.println(playerCount + " players, " + QUESTS + " quests, "
+				+ 2 * CREATURES + " kill counters, " + ZONES + " visited zones, " + ITEMS + " items");
+		// warm up
+		run("legacy", legacy, players);
+		run("snapshot", snapshot, players);
+
+		for (int round = 1; round <= 3; round++) {
+			run("legacy", legacy, players);
+			run("snapshot", snapshot, players);
+		}
+	}
+}
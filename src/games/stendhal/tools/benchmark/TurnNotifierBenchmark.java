@@ -0,0 +1,208 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.tools.benchmark;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import games.stendhal.server.core.events.TurnListener;
+import games.stendhal.server.core.events.TurnNotifier;
+
+/**
+ * Micro benchmark comparing the TurnNotifier with the map of sets it used
+ * before the timing wheel.
+ * <p>
+ * The workload keeps 100 000 listeners scheduled, like respawn points, corpses
+ * and status effects do, and each turn reschedules and cancels a part of them.
+ * <p>
+ * Usage:
+ *     games.stendhal.tools.benchmark.TurnNotifierBenchmark [listeners] [turns]
+ */
+public class TurnNotifierBenchmark {
+	private static final int DEFAULT_LISTENERS = 100000;
+	private static final int DEFAULT_TURNS = 50;
+	/** Number of listeners cancelled and rescheduled per turn. */
+	private static final int CHURN = 100;
+	private static final int MAX_DELAY = 20000;
+
+	/**
+	 * The interface both implementations are driven through.
+	 */
+	private interface Scheduler {
+		void notifyAtTurn(int turn, TurnListener listener);
+		void dontNotify(TurnListener listener);
+		int getRemainingTurns(TurnListener listener);
+		void logic(int turn);
+		void clear();
+	}
+
+	/**
+	 * The previous implementation of TurnNotifier.
+	 */
+	private static class LegacyScheduler implements Scheduler {
+		private final Map<Integer, Set<TurnListener>> register = new HashMap<Integer, Set<TurnListener>>();
+		private int currentTurn;
+
+		@Override
+		public void notifyAtTurn(final int turn, final TurnListener listener) {
+			final Integer turnInt = Integer.valueOf(turn);
+			Set<TurnListener> set = register.get(turnInt);
+			if (set == null) {
+				set = new HashSet<TurnListener>();
+				register.put(turnInt, set);
+			}
+			set.add(listener);
+		}
+
+		@Override
+		public void dontNotify(final TurnListener listener) {
+			for (final Set<TurnListener> set : register.values()) {
+				set.remove(listener);
+			}
+		}
+
+		@Override
+		public int getRemainingTurns(final TurnListener listener) {
+			int min = Integer.MAX_VALUE;
+			for (final Map.Entry<Integer, Set<TurnListener>> entry : register.entrySet()) {
+				if (entry.getValue().contains(listener)) {
+					min = Math.min(min, entry.getKey().intValue());
+				}
+			}
+			if (min == Integer.MAX_VALUE) {
+				return -1;
+			}
+			return min - currentTurn;
+		}
+
+		@Override
+		public void logic(final int turn) {
+			currentTurn = turn;
+			final Set<TurnListener> set = register.remove(Integer.valueOf(turn));
+			if (set != null) {
+				for (final TurnListener listener : set) {
+					listener.onTurnReached(turn);
+				}
+			}
+		}
+
+		@Override
+		public void clear() {
+			register.clear();
+		}
+	}
+
+	/**
+	 * Adapter for the current TurnNotifier.
+	 */
+	private static class WheelScheduler implements Scheduler {
+		private final TurnNotifier notifier = TurnNotifier.get();
+
+		@Override
+		public void notifyAtTurn(final int turn, final TurnListener listener) {
+			notifier.notifyAtTurn(turn, listener);
+		}
+
+		@Override
+		public void dontNotify(final TurnListener listener) {
+			notifier.dontNotify(listener);
+		}
+
+		@Override
+		public int getRemainingTurns(final TurnListener listener) {
+			return notifier.getRemainingTurns(listener);
+		}
+
+		@Override
+		public void logic(final int turn) {
+			notifier.logic(turn);
+		}
+
+		@Override
+		public void clear() {
+			notifier.getEventListForDebugging().clear();
+		}
+	}
+
+	private static class CountingListener implements TurnListener {
+		static long notifications;
+
+		@Override
+		public void onTurnReached(final int currentTurn) {
+			notifications++;
+		}
+	}
+
+	private static long run(final Scheduler scheduler, final int listenerCount, final int turns, final int firstTurn) {
+		final Random random = new Random(1);
+		final TurnListener[] listeners = new TurnListener[listenerCount];
+		int turn = firstTurn;
+		scheduler.logic(turn);
+		for (int i = 0; i < listenerCount; i++) {
+			listeners[i] = new CountingListener();
+			scheduler.notifyAtTurn(turn + 1 + random.nextInt(MAX_DELAY), listeners[i]);
+		}
+
+		long checksum = 0;
+		final long start = System.nanoTime();
+		for (int i = 0; i < turns; i++) {
+			turn++;
+			for (int j = 0; j < CHURN; j++) {
+				final TurnListener listener = listeners[random.nextInt(listenerCount)];
+				checksum += scheduler.getRemainingTurns(listener);
+				scheduler.dontNotify(listener);
+				scheduler.notifyAtTurn(turn + 1 + random.nextInt(MAX_DELAY), listener);
+			}
+			scheduler.logic(turn);
+		}
+		final long time = System.nanoTime() - start;
+
+		scheduler.clear();
+		if (checksum == 42) {
+			// keep the JIT from dropping the queries
+			System.out.print("");
+		}
+		return time;
+	}
+
+	private static void report(final String name, final long nanos, final int turns) {
+		System.out.printf("%-8s %10.3f ms total %10.3f ms/turn%n", name, nanos / 1e6, nanos / 1e6 / turns);
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args optional listener and turn counts
+	 */
+	public static void main(final String[] args) {
+		final int listenerCount = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_LISTENERS;
+		final int turns = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_TURNS;
+		final Scheduler legacy = new LegacyScheduler();
+		final Scheduler wheel = new WheelScheduler();
+
+		System.out.println(listenerCount + " listeners, " + turns + " turns, "
+				+ CHURN + " cancel/reschedule per turn");
+		// warm up
+		run(legacy, listenerCount, turns / 10 + 1, 0);
+		run(wheel, listenerCount, turns / 10 + 1, 0);
+
+		int firstTurn = 100000;
+		for (int round = 1; round <= 3; round++) {
+			report("legacy", run(legacy, listenerCount, turns, firstTurn), turns);
+			firstTurn += turns + 1;
+			report("wheel", run(wheel, listenerCount, turns, firstTurn), turns);
+			firstTurn += turns + 1;
+		}
+	}
+}
@@ -236,4 +236,32 @@ public class CollisionDetectionTest {
 			}
 		}
 	}
+
+	/**
+	 * Test that whole tile areas give the same results with all the area
+	 * checks, including those partially outside the map.
+	 */
+	@Test
+	public void testAreaCollides() {
+		CollisionDetection map = new CollisionDetection();
+		map.init(5, 5);
+		map.setCollide(2, 2);
+		for (int x = -1; x <= 5; x++) {
+			for (int y = -1; y <= 5; y++) {
+				for (int size = 1; size <= 3; size++) {
+					final boolean expected = (x < 0) || (y < 0) || (x + size > 5) || (y + size > 5)
+							|| ((x <= 2) && (x + size > 2) && (y <= 2) && (y + size > 2));
+					final String msg = "Area at " + x + "," + y + " size " + size;
+					assertThat(msg, map.collides(x, y, size, size), is(expected));
+					assertThat(msg, map.collides((double) x, (double) y, (double) size, (double) size), is(expected));
+					assertThat(msg, map.areaCollides(x, y, size, size), is(expected));
+				}
+			}
+		}
+		// Fractional positions cover the partially overlapped tiles
+		assertThat(map.collides(0.5, 0.5, 1.0, 1.0), is(false));
+		assertThat(map.collides(1.5, 1.5, 1.0, 1.0), is(true));
+		map.init(5, 5);
+		assertThat(map.areaCollides(2, 2, 1, 1), is(false));
+	}
 }
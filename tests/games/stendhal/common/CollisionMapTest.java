@@ -12,12 +12,14 @@
 package games.stendhal.common;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.awt.geom.Rectangle2D;
 import java.util.BitSet;
+import java.util.Random;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -353,4 +355,74 @@ public class CollisionMapTest {
 				.getWidth(), (int) bob.getHeight()));
 	}
 
+	/**
+	 * Tests areas that span several words of a row.
+	 */
+	@Test
+	public void testCollidesWide() {
+		final CollisionMap map = new CollisionMap(200, 3);
+		map.set(63, 1);
+		map.set(64, 2);
+		map.set(150, 0);
+		assertFalse(map.collides(0, 0, 63, 3));
+		assertTrue(map.collides(0, 1, 64, 1));
+		assertFalse(map.collides(0, 2, 64, 1));
+		assertTrue(map.collides(60, 2, 5, 1));
+		assertFalse(map.collides(65, 0, 85, 3));
+		assertTrue(map.collides(65, 0, 86, 3));
+		assertTrue(map.collides(10, 0, 190, 1));
+		assertFalse(map.collides(151, 0, 49, 3));
+		assertTrue("edge", map.collides(151, 0, 50, 3));
+
+		map.unset(150, 0);
+		assertFalse(map.collides(65, 0, 135, 3));
+	}
+
+	/**
+	 * Compare the rectangle tests with tile by tile checks.
+	 */
+	@Test
+	public void testRectangleQueries() {
+		final Random random = new Random(42);
+		final int width = 150;
+		final int height = 40;
+		final CollisionMap map = new CollisionMap(width, height);
+		for (int i = 0; i < 200; i++) {
+			map.set(random.nextInt(width), random.nextInt(height));
+		}
+		for (int i = 0; i < 2000; i++) {
+			final int x = random.nextInt(width);
+			final int y = random.nextInt(height);
+			final int w = 1 + random.nextInt(width - x);
+			final int h = 1 + random.nextInt(height - y);
+			int count = 0;
+			for (int tx = x; tx < x + w; tx++) {
+				for (int ty = y; ty < y + h; ty++) {
+					if (map.get(tx, ty)) {
+						count++;
+					}
+				}
+			}
+			assertEquals(count, map.countCollisions(x, y, w, h));
+			assertEquals(count != 0, map.collides(x, y, w, h));
+		}
+	}
+
+	/**
+	 * Tests that the collision count follows changes of the map.
+	 */
+	@Test
+	public void testCountCollisionsAfterChange() {
+		final CollisionMap map = new CollisionMap(4, 4);
+		assertEquals(0, map.countCollisions(0, 0, 4, 4));
+		map.set(2, 3);
+		assertEquals(1, map.countCollisions(0, 0, 4, 4));
+		map.set(new Rectangle2D.Double(0.0, 0.0, 2.0, 2.0));
+		assertEquals(5, map.countCollisions(0, 0, 4, 4));
+		assertEquals(4, map.countCollisions(0, 0, 2, 2));
+		map.unset(0, 0);
+		assertEquals(3, map.countCollisions(0, 0, 2, 2));
+		map.clear();
+		assertEquals(0, map.countCollisions(0, 0, 4, 4));
+	}
 }
@@ -0,0 +1,89 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.common.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for CompoundNameAutomaton.
+ */
+public class CompoundNameAutomatonTest {
+	private CompoundNameAutomaton automaton;
+
+	@Before
+	public void setUp() {
+		final List<CompoundName> names = new ArrayList<CompoundName>();
+		for (final String name : new String[] { "ados city", "ados city scroll", "city scroll", "b c", "a b c d" }) {
+			names.add(new CompoundName(ConversationParser.parseAsMatchingSource(name), ExpressionType.OBJECT));
+		}
+		automaton = new CompoundNameAutomaton(names);
+	}
+
+	private CompoundNameAutomaton.Match find(final String text) {
+		return automaton.findFirst(ConversationParser.parseAsMatchingSource(text).expressions);
+	}
+
+	/**
+	 * Tests finding the first and longest compound name.
+	 */
+	@Test
+	public void testFindFirst() {
+		assertNull(find("buy ados"));
+
+		CompoundNameAutomaton.Match match = find("buy Ados City scroll");
+		assertEquals(1, match.index);
+		assertEquals("[ados, city, scroll]", match.name.toString());
+
+		match = find("x a b c d");
+		assertEquals(1, match.index);
+		assertEquals(4, match.name.size());
+
+		// the longer name does not match, but a shorter one within it does
+		match = find("a b c e");
+		assertEquals(1, match.index);
+		assertEquals("[b, c]", match.name.toString());
+
+		match = find("b c a b c d");
+		assertEquals(0, match.index);
+		assertEquals(2, match.name.size());
+	}
+
+	/**
+	 * Tests that compound names don't extend beyond a break.
+	 */
+	@Test
+	public void testBreak() {
+		final CompoundNameAutomaton.Match match = find("ados, city scroll");
+		assertEquals(1, match.index);
+		assertEquals("[city, scroll]", match.name.toString());
+
+		assertNull(automaton.findAt(ConversationParser.parseAsMatchingSource("ados, city").expressions, 0));
+	}
+
+	/**
+	 * Tests finding the longest compound name at a given position.
+	 */
+	@Test
+	public void testFindAt() {
+		final Sentence sentence = ConversationParser.parseAsMatchingSource("buy ados city scroll");
+		assertNull(automaton.findAt(sentence.expressions, 0));
+		assertEquals("[ados, city, scroll]", automaton.findAt(sentence.expressions, 1).toString());
+		assertEquals("[city, scroll]", automaton.findAt(sentence.expressions, 2).toString());
+		assertNull(automaton.findAt(sentence.expressions, 3));
+	}
+}
@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2024 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -17,6 +17,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -593,4 +594,68 @@ public class ConversationParserTest {
 		assertNull(sentence.getObjectName());
 		assertFalse(sentence.hasError());
 	}
+
+	/**
+	 * Tests for the cache of parsed user input.
+	 */
+	@Test
+	public final void testSentenceCache() {
+		final long hits = ConversationParser.getCacheHits();
+		final Sentence sentence = ConversationParser.parse("buy 10 arrows");
+		final Sentence cached = ConversationParser.parse(" buy 10 arrows ");
+		assertTrue(ConversationParser.getCacheHits() > hits);
+		// each caller gets its own copy
+		assertNotSame(sentence, cached);
+		assertNotSame(sentence.getExpressions().get(0), cached.getExpressions().get(0));
+		assertEquals(sentence.toString(), cached.toString());
+		assertEquals(sentence.getOriginalText(), cached.getOriginalText());
+
+		// all settings of the context are part of the key, and the caller's context is not shared
+		final ConversationContext ctx = new ConversationContext();
+		ctx.setState(ConversationContext.CCS_WAIT_FOR_YES_NO);
+		final Sentence withState = ConversationParser.parse("buy 10 arrows", ctx);
+		assertNotSame(ctx, withState.context);
+		ctx.setState(ConversationContext.CCS_NONE);
+		assertEquals(ConversationContext.CCS_WAIT_FOR_YES_NO, withState.context.getState());
+		assertEquals(ConversationContext.CCS_NONE, ConversationParser.parse("buy 10 arrows", ctx).context.getState());
+
+		final ConversationContext keepIgnorable = new ConversationContext();
+		keepIgnorable.setIgnoreIgnorable(false);
+		assertFalse(ConversationParser.parse("buy 10 arrows", keepIgnorable).context.getIgnoreIgnorable());
+		assertTrue(ConversationParser.parse("buy 10 arrows").context.getIgnoreIgnorable());
+
+		// sentences for matching are not cached
+		final long misses = ConversationParser.getCacheMisses();
+		final long hitsBeforeMatching = ConversationParser.getCacheHits();
+		ConversationParser.parse("buy 10 arrows", new ConvCtxForMatcher());
+		assertEquals(misses, ConversationParser.getCacheMisses());
+		assertEquals(hitsBeforeMatching, ConversationParser.getCacheHits());
+
+		// changes of the word list invalidate the cache
+		WordList.getInstance().registerSubjectName("Qwzrtuv");
+		try {
+			ConversationParser.parse("buy 10 arrows");
+			assertEquals(misses + 1, ConversationParser.getCacheMisses());
+		} finally {
+			WordList.getInstance().unregisterSubjectName("Qwzrtuv");
+		}
+	}
+
+	/**
+	 * Tests that changing a parsed sentence does not change the cached one.
+	 */
+	@Test
+	public final void testChangeCachedSentence() {
+		final Sentence sentence = ConversationParser.parse("buy 3 cookies");
+		final String normalized = sentence.getNormalized();
+
+		sentence.getExpressions().get(0).setNormalized("sell");
+		sentence.getExpressions().remove(1);
+		sentence.setError("changed");
+
+		final Sentence again = ConversationParser.parse("buy 3 cookies");
+		assertEquals(normalized, again.getNormalized());
+		assertFalse(again.hasError());
+		assertEquals(3, again.getObject(0).getAmount());
+	}
 }
@@ -375,4 +375,25 @@ public class SentenceTest {
 		assertEquals(2, found.getAmount());
 		assertEquals("pigs", found.getName());
 	}
+
+	/**
+	 * Test for findMatchingName() with an unknown word, which gets the amount
+	 * of the preceding numeral, in sentences taken from the parser cache.
+	 */
+	@Test
+	public final void testFindMatchingNameUnknownWord() {
+		final Set<String> names = new HashSet<String>();
+		names.add("porcini");
+
+		for (int i = 0; i < 2; ++i) {
+			final Sentence sentence = ConversationParser.parse("sell 3 porcinis");
+			final NameSearch found = sentence.findMatchingName(names);
+			assertTrue(found.found());
+			assertEquals(3, found.getAmount());
+			assertEquals("porcini", found.getName());
+		}
+
+		// the cached sentence was not changed by the search
+		assertFalse(ConversationParser.parse("sell 3 porcinis").getUnknownTypeExpression(0).hasAmount());
+	}
 }
@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -16,6 +16,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Locale;
+import java.util.Random;
+
 import org.junit.Test;
 
 /**
@@ -105,4 +108,52 @@ public class SimilarExprMatcherTest {
 		assertEquals(false, ConversationParser.parse("hailo").matchesFull(m1));
 	}
 
+	/**
+	 * Tests the limited distance against a full Levenshtein calculation.
+	 */
+	@Test
+	public final void testLimitedDistance() {
+		assertEquals(0, SimilarExprMatcher.limitedDistance("Hello", "hELLO", 1));
+		assertEquals(1, SimilarExprMatcher.limitedDistance("hello", "hallo", 1));
+		assertEquals(2, SimilarExprMatcher.limitedDistance("heart", "haert", 2));
+		assertEquals(2, SimilarExprMatcher.limitedDistance("heart", "haert", 1));
+		assertEquals(1, SimilarExprMatcher.limitedDistance("bus", "taxi", 0));
+
+		final Random random = new Random(1);
+		for (int i = 0; i < 2000; i++) {
+			final String str1 = randomWord(random);
+			final String str2 = randomWord(random);
+			final int distance = levenshtein(str1.toLowerCase(Locale.ENGLISH), str2.toLowerCase(Locale.ENGLISH));
+			for (int limit = 0; limit <= 4; limit++) {
+				assertEquals(str1 + " / " + str2, Math.min(distance, limit + 1),
+						SimilarExprMatcher.limitedDistance(str1, str2, limit));
+			}
+		}
+	}
+
+	private static String randomWord(final Random random) {
+		final StringBuilder builder = new StringBuilder();
+		final int length = random.nextInt(8);
+		for (int i = 0; i < length; i++) {
+			builder.append("abcAB".charAt(random.nextInt(5)));
+		}
+		return builder.toString();
+	}
+
+	private static int levenshtein(final String str1, final String str2) {
+		final int[][] d = new int[str1.length() + 1][str2.length() + 1];
+		for (int i = 0; i <= str1.length(); i++) {
+			d[i][0] = i;
+		}
+		for (int j = 0; j <= str2.length(); j++) {
+			d[0][j] = j;
+		}
+		for (int i = 1; i <= str1.length(); i++) {
+			for (int j = 1; j <= str2.length(); j++) {
+				final int cost = (str1.charAt(i - 1) == str2.charAt(j - 1)) ? 0 : 1;
+				d[i][j] = Math.min(d[i - 1][j - 1] + cost, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+			}
+		}
+		return d[str1.length()][str2.length()];
+	}
 }
@@ -0,0 +1,81 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.common.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for SimilarWordIndex.
+ */
+public class SimilarWordIndexTest {
+
+	/**
+	 * Tests looking up similar words.
+	 */
+	@Test
+	public void testFindSimilar() {
+		final SimilarWordIndex index = new SimilarWordIndex(Arrays.asList("this", "that", "thus", "Hello", "hello", "hallo", "where"));
+		assertEquals(7, index.size());
+		index.add("hello");
+		assertEquals(7, index.size());
+
+		assertEquals(Arrays.asList("that"), index.findSimilar("taat", 0.1));
+		assertEquals(Arrays.asList("that", "this", "thus"), index.findSimilar("thas", 0.1));
+		// the closest words first
+		assertEquals(Arrays.asList("Hello", "hello", "hallo"), index.findSimilar("hellO", 0.1));
+		assertEquals("where", index.findMostSimilar("wher", 0.1));
+		assertNull(index.findMostSimilar("bus", 0.1));
+		assertTrue(new SimilarWordIndex().findSimilar("this", 0.1).isEmpty());
+	}
+
+	/**
+	 * Tests that the index finds the same words as comparing with all of them.
+	 */
+	@Test
+	public void testCompareWithAll() {
+		final Random random = new Random(1);
+		final List<String> words = new ArrayList<String>();
+		for (int i = 0; i < 500; i++) {
+			words.add(randomWord(random));
+		}
+		final SimilarWordIndex index = new SimilarWordIndex(words);
+
+		for (int i = 0; i < 200; i++) {
+			final String word = randomWord(random);
+			final HashSet<String> expected = new HashSet<String>();
+			for (final String candidate : words) {
+				if (SimilarExprMatcher.isSimilar(word, candidate, 0.2)) {
+					expected.add(candidate);
+				}
+			}
+			assertEquals(word, expected, new HashSet<String>(index.findSimilar(word, 0.2)));
+		}
+	}
+
+	private static String randomWord(final Random random) {
+		final StringBuilder builder = new StringBuilder();
+		final int length = 1 + random.nextInt(12);
+		for (int i = 0; i < length; i++) {
+			builder.append("abcdeE".charAt(random.nextInt(6)));
+		}
+		return builder.toString();
+	}
+}
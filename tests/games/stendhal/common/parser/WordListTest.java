@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -313,4 +313,25 @@ public class WordListTest {
 
 		wl.unregisterSubjectName("Bugs Bunny");
 	}
+
+	/**
+	 * Tests that remembered plural forms follow changes of the word list.
+	 */
+	@Test
+	public final void testRememberedPlural() {
+		final WordList wl = WordList.getInstance();
+		assertEquals("qwzrtuvks", wl.plural("qwzrtuvk"));
+		assertEquals("qwzrtuvks", wl.plural("qwzrtuvk"));
+
+		wl.registerSubjectName("Qwzrtuvk");
+		try {
+			// registered names have no plural form
+			assertNull(wl.plural("qwzrtuvk"));
+			assertEquals("qwzrtuvk", wl.singular("qwzrtuvk"));
+		} finally {
+			wl.unregisterSubjectName("Qwzrtuvk");
+		}
+
+		assertEquals("qwzrtuvks", wl.plural("qwzrtuvk"));
+	}
 }
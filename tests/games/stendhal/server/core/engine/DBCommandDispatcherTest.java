@@ -0,0 +1,116 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import org.junit.Test;
+
+import games.stendhal.server.core.engine.DBCommandDispatcher.Admission;
+import games.stendhal.server.core.engine.DBCommandDispatcher.OverloadPolicy;
+import marauroa.server.db.DBTransaction;
+import marauroa.server.db.command.AbstractDBCommand;
+import marauroa.server.db.command.DBCommand;
+import marauroa.server.game.Statistics;
+
+/**
+ * Tests for DBCommandDispatcher.
+ */
+public class DBCommandDispatcherTest {
+
+	/**
+	 * A command that optionally fails.
+	 */
+	private static class TestCommand extends AbstractDBCommand {
+		private final boolean fail;
+
+		TestCommand(final boolean fail) {
+			this.fail = fail;
+			setEnqueueTime(new Timestamp(System.currentTimeMillis()));
+		}
+
+		@Override
+		public void execute(final DBTransaction transaction) throws SQLException {
+			if (fail) {
+				throw new SQLException("test");
+			}
+		}
+	}
+
+	/**
+	 * Tests admission of statistical writes.
+	 *
+	 * @throws Exception in case of an unexpected error
+	 */
+	@Test
+	public void testAdmission() throws Exception {
+		final DBCommandDispatcher dispatcher = new DBCommandDispatcher();
+		dispatcher.configure(1, OverloadPolicy.DEFER);
+		assertEquals(Admission.ACCEPT, dispatcher.admitStatistics());
+
+		final DBCommand command = dispatcher.measure(new TestCommand(false), true);
+		assertEquals(1, dispatcher.getPendingStatisticsCount());
+		assertEquals(Admission.DEFER, dispatcher.admitStatistics());
+		dispatcher.configure(1, OverloadPolicy.SHED);
+		assertEquals(Admission.SHED, dispatcher.admitStatistics());
+
+		// other commands do not count
+		final DBCommand other = dispatcher.measure(new TestCommand(false), false);
+		assertEquals(2, dispatcher.getPendingCount());
+		assertEquals(1, dispatcher.getPendingStatisticsCount());
+
+		command.execute(null);
+		other.execute(null);
+		assertEquals(Admission.ACCEPT, dispatcher.admitStatistics());
+		assertEquals(0, dispatcher.getPendingCount());
+		assertEquals(2, dispatcher.getCompletedCount("TestCommand"));
+	}
+
+	/**
+	 * Tests the published counters.
+	 *
+	 * @throws Exception in case of an unexpected error
+	 */
+	@Test
+	public void testPublish() throws Exception {
+		final DBCommandDispatcher dispatcher = new DBCommandDispatcher();
+		dispatcher.measure(new TestCommand(false), false).execute(null);
+		try {
+			dispatcher.measure(new TestCommand(true), false).execute(null);
+			fail("exception expected");
+		} catch (final SQLException e) {
+			// expected
+		}
+		dispatcher.countShed(3);
+
+		final Statistics stats = Statistics.getStatistics();
+		dispatcher.publish(stats);
+		assertEquals(2, stats.get("DB TestCommand count"));
+		assertEquals(1, stats.get("DB TestCommand errors"));
+		assertEquals(2, stats.get("DB TestCommand latency lt10ms") + stats.get("DB TestCommand latency lt100ms"));
+		assertEquals(0, stats.get("DB pending"));
+		assertEquals(3, stats.get("DB shed"));
+	}
+
+	/**
+	 * Tests parsing the overload policy.
+	 */
+	@Test
+	public void testParsePolicy() {
+		assertEquals(OverloadPolicy.SHED, DBCommandDispatcher.parsePolicy(" Shed"));
+		assertEquals(OverloadPolicy.DEFER, DBCommandDispatcher.parsePolicy("defer"));
+		assertEquals(OverloadPolicy.DEFER, DBCommandDispatcher.parsePolicy(null));
+	}
+}
@@ -0,0 +1,128 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import games.stendhal.server.core.engine.dbcommand.AbstractLogItemEventCommand;
+import games.stendhal.server.core.engine.dbcommand.LogSimpleItemEventCommand;
+import marauroa.common.game.RPObject;
+
+/**
+ * Tests for the ItemLogWriter buffer.
+ */
+public class ItemLogWriterTest {
+	private static AbstractLogItemEventCommand createCommand(final String name) {
+		final RPObject item = new RPObject();
+		item.put("name", name);
+		return new LogSimpleItemEventCommand(item, null, "ground-to-ground", name, "1", "", "");
+	}
+
+	/**
+	 * Tests that the events are drained in order, and the buffer wraps
+	 * around.
+	 */
+	@Test
+	public void testDrainOrder() {
+		final ItemLogWriter writer = new ItemLogWriter(3);
+		final AbstractLogItemEventCommand first = createCommand("first");
+		final AbstractLogItemEventCommand second = createCommand("second");
+		assertTrue(writer.add(first));
+		assertTrue(writer.add(second));
+		assertEquals(2, writer.getQueueDepth());
+		assertEquals(Arrays.asList(first, second), writer.drain());
+		assertEquals(0, writer.getQueueDepth());
+
+		// The next events wrap around the end of the buffer
+		final List<AbstractLogItemEventCommand> expected = new ArrayList<AbstractLogItemEventCommand>();
+		for (int i = 0; i < 3; i++) {
+			final AbstractLogItemEventCommand command = createCommand("item" + i);
+			expected.add(command);
+			assertTrue(writer.add(command));
+		}
+		assertEquals(expected, writer.drain());
+		assertTrue(writer.drain().isEmpty());
+	}
+
+	/**
+	 * Tests that a full buffer refuses new events until it is drained.
+	 */
+	@Test
+	public void testCapacity() {
+		final ItemLogWriter writer = new ItemLogWriter(2);
+		assertTrue(writer.add(createCommand("a")));
+		assertTrue(writer.add(createCommand("b")));
+		assertFalse(writer.add(createCommand("c")));
+		assertEquals(2, writer.getQueueDepth());
+
+		assertEquals(2, writer.drain().size());
+		assertTrue(writer.add(createCommand("c")));
+		assertEquals(1, writer.getQueueDepth());
+	}
+
+	/**
+	 * Tests that events which do not fit in the buffer are written after the
+	 * buffered ones, in the order they were queued.
+	 */
+	@Test
+	public void testOverflowOrder() {
+		final ItemLogWriter writer = new ItemLogWriter(2, 3);
+		final List<AbstractLogItemEventCommand> expected = new ArrayList<AbstractLogItemEventCommand>();
+		for (int i = 0; i < 5; i++) {
+			final AbstractLogItemEventCommand command = createCommand("item" + i);
+			expected.add(command);
+			// only the first event starts a write
+			assertEquals(i == 0, writer.queue(command));
+		}
+		assertEquals(5, writer.getQueueDepth());
+		assertEquals(3, writer.getOverflowCount());
+
+		// the buffer takes new events again after draining
+		assertEquals(expected, writer.drain());
+		assertEquals(0, writer.getQueueDepth());
+		assertTrue(writer.queue(createCommand("next")));
+		assertEquals(1, writer.getQueueDepth());
+	}
+
+	/**
+	 * Tests that the overflow list is bounded, and that the events which do
+	 * not fit in it are dropped and counted.
+	 */
+	@Test
+	public void testDropWhenFull() {
+		final ItemLogWriter writer = new ItemLogWriter(2, 1);
+		final List<AbstractLogItemEventCommand> expected = new ArrayList<AbstractLogItemEventCommand>();
+		for (int i = 0; i < 5; i++) {
+			final AbstractLogItemEventCommand command = createCommand("item" + i);
+			if (i < 3) {
+				expected.add(command);
+			}
+			writer.queue(command);
+		}
+		assertEquals(3, writer.getQueueDepth());
+		assertEquals(1, writer.getOverflowCount());
+		assertEquals(2, writer.getDroppedCount());
+
+		// the oldest events are kept in order
+		assertEquals(expected, writer.drain());
+		writer.queue(createCommand("next"));
+		assertEquals(1, writer.getQueueDepth());
+		assertEquals(2, writer.getDroppedCount());
+	}
+}
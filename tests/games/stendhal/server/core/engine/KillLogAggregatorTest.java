@@ -0,0 +1,62 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.sql.Date;
+
+import org.junit.Test;
+
+import games.stendhal.server.core.engine.db.StendhalKillLogDAO.KillCount;
+
+/**
+ * Tests for KillLogAggregator.
+ */
+public class KillLogAggregatorTest {
+	/**
+	 * Tests counting kills.
+	 */
+	@Test
+	public void testCountKill() {
+		final KillLogAggregator aggregator = KillLogAggregator.get();
+		aggregator.flush();
+		assertEquals(0, aggregator.getPendingCount("rat", "C", "bob", "P"));
+
+		aggregator.countKill("rat", "C", "bob", "P");
+		aggregator.countKill("rat", "C", "bob", "P");
+		aggregator.countKill("rat", "C", "alice", "P");
+		aggregator.countKill("bob", "P", "rat", "C");
+		assertEquals(2, aggregator.getPendingCount("rat", "C", "bob", "P"));
+		assertEquals(1, aggregator.getPendingCount("rat", "C", "alice", "P"));
+		assertEquals(1, aggregator.getPendingCount("bob", "P", "rat", "C"));
+		assertEquals(0, aggregator.getPendingCount("bob", "C", "rat", "C"));
+
+		aggregator.flush();
+		assertEquals(0, aggregator.getPendingCount("rat", "C", "bob", "P"));
+		assertEquals(0, aggregator.getPendingCount("bob", "P", "rat", "C"));
+	}
+
+	/**
+	 * Tests that kill counts are compared by their kind and day.
+	 */
+	@Test
+	public void testKillCountEquality() {
+		final KillCount count1 = new KillCount("rat", "C", "bob", "P", Date.valueOf("2026-01-02"));
+		final KillCount count2 = new KillCount("rat", "C", "bob", "P", Date.valueOf("2026-01-02"));
+		count1.increment();
+		assertEquals(count1, count2);
+		assertEquals(count1.hashCode(), count2.hashCode());
+		assertFalse(count1.equals(new KillCount("rat", "C", "bob", "P", Date.valueOf("2026-01-03"))));
+		assertFalse(count1.equals(new KillCount("rat", "C", "bob", "C", Date.valueOf("2026-01-02"))));
+	}
+}
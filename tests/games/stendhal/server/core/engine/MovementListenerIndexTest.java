@@ -0,0 +1,173 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import games.stendhal.server.core.events.MovementListener;
+import games.stendhal.server.entity.ActiveEntity;
+
+/**
+ * Tests for MovementListenerIndex. The query results are compared against
+ * checking all the listeners in order.
+ */
+public class MovementListenerIndexTest {
+	private static final int WIDTH = 50;
+	private static final int HEIGHT = 40;
+
+	/**
+	 * A listener with a changeable area.
+	 */
+	private static class TestListener implements MovementListener {
+		private final Rectangle2D area;
+
+		TestListener(final double x, final double y, final double w, final double h) {
+			area = new Rectangle2D.Double(x, y, w, h);
+		}
+
+		@Override
+		public Rectangle2D getArea() {
+			return area;
+		}
+
+		@Override
+		public void onEntered(final ActiveEntity entity, final StendhalRPZone zone, final int newX, final int newY) {
+			// not used
+		}
+
+		@Override
+		public void onExited(final ActiveEntity entity, final StendhalRPZone zone, final int oldX, final int oldY) {
+			// not used
+		}
+
+		@Override
+		public void beforeMove(final ActiveEntity entity, final StendhalRPZone zone, final int oldX, final int oldY,
+				final int newX, final int newY) {
+			// not used
+		}
+
+		@Override
+		public void onMoved(final ActiveEntity entity, final StendhalRPZone zone, final int oldX, final int oldY,
+				final int newX, final int newY) {
+			// not used
+		}
+	}
+
+	private static List<MovementListener> scan(final List<TestListener> listeners,
+			final Rectangle2D area1, final Rectangle2D area2) {
+		final List<MovementListener> result = new ArrayList<MovementListener>();
+		for (final TestListener listener : listeners) {
+			if (listener.getArea().intersects(area1)
+					|| ((area2 != null) && listener.getArea().intersects(area2))) {
+				result.add(listener);
+			}
+		}
+		return result;
+	}
+
+	private static TestListener createListener(final Random random) {
+		// Some areas extend outside the zone
+		final int x = random.nextInt(WIDTH + 10) - 5;
+		final int y = random.nextInt(HEIGHT + 10) - 5;
+		return new TestListener(x, y, 1 + random.nextInt(15), 1 + random.nextInt(15));
+	}
+
+	private static void compare(final MovementListenerIndex index, final List<TestListener> listeners,
+			final Random random) {
+		for (int i = 0; i < 200; i++) {
+			final Rectangle2D oldArea = new Rectangle2D.Double(random.nextInt(WIDTH), random.nextInt(HEIGHT), 1, 1);
+			final Rectangle2D newArea = new Rectangle2D.Double(oldArea.getX() + random.nextInt(3) - 1,
+					oldArea.getY() + random.nextInt(3) - 1, 1 + random.nextInt(2), 1 + random.nextInt(2));
+			assertEquals(scan(listeners, oldArea, newArea), index.findIntersecting(oldArea, newArea));
+			assertEquals(scan(listeners, newArea, null), index.findIntersecting(newArea, null));
+		}
+	}
+
+	/**
+	 * Tests that the queries match the linear scan while listeners are
+	 * added, changed and removed.
+	 */
+	@Test
+	public void testRandomListeners() {
+		final Random random = new Random(17);
+		final MovementListenerIndex index = new MovementListenerIndex(WIDTH, HEIGHT);
+		final List<TestListener> listeners = new ArrayList<TestListener>();
+		for (int i = 0; i < 40; i++) {
+			final TestListener listener = createListener(random);
+			listeners.add(listener);
+			index.add(listener);
+		}
+		assertEquals(40, index.size());
+		compare(index, listeners, random);
+
+		// Move some of the areas
+		for (int i = 0; i < 10; i++) {
+			final TestListener listener = listeners.get(random.nextInt(listeners.size()));
+			listener.area.setRect(random.nextInt(WIDTH), random.nextInt(HEIGHT),
+					1 + random.nextInt(10), 1 + random.nextInt(10));
+			index.update(listener);
+		}
+		compare(index, listeners, random);
+
+		// Remove some, and re-add one, which moves it last in order
+		for (int i = 0; i < 10; i++) {
+			final TestListener listener = listeners.remove(random.nextInt(listeners.size()));
+			index.remove(listener);
+			assertFalse(index.contains(listener));
+		}
+		final TestListener readded = listeners.remove(0);
+		index.remove(readded);
+		index.add(readded);
+		listeners.add(readded);
+		compare(index, listeners, random);
+
+		// Changing the zone size keeps everything
+		index.resize(WIDTH / 2, HEIGHT / 2);
+		compare(index, listeners, random);
+	}
+
+	/**
+	 * Tests that the listeners are reported once, in the order they were
+	 * added.
+	 */
+	@Test
+	public void testOrder() {
+		final MovementListenerIndex index = new MovementListenerIndex(WIDTH, HEIGHT);
+		final TestListener large = new TestListener(0, 0, WIDTH, HEIGHT);
+		final TestListener small = new TestListener(20, 20, 1, 1);
+		final TestListener outside = new TestListener(-10, -10, 5, 5);
+		index.add(small);
+		index.add(large);
+		index.add(outside);
+		// Adding again does not change the order
+		index.add(small);
+		assertTrue(index.contains(small));
+		assertEquals(3, index.size());
+
+		final Rectangle2D area = new Rectangle2D.Double(20, 20, 1, 1);
+		assertEquals(Arrays.asList(small, large), index.findIntersecting(area, area));
+		assertEquals(Collections.singletonList(large),
+				index.findIntersecting(new Rectangle2D.Double(0, 0, 1, 1), null));
+		assertEquals(Collections.singletonList(outside),
+				index.findIntersecting(new Rectangle2D.Double(-6, -6, 1, 1), null));
+	}
+}
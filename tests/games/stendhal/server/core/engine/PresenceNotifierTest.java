@@ -0,0 +1,136 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.common.constants.Events;
+import games.stendhal.server.entity.player.Player;
+import games.stendhal.server.maps.MockStendhalRPRuleProcessor;
+import games.stendhal.server.maps.MockStendlRPWorld;
+import marauroa.common.game.RPEvent;
+import utilities.PlayerTestHelper;
+
+/**
+ * Tests for PresenceNotifier.
+ */
+public class PresenceNotifierTest {
+	private Player bob;
+	private Player hugo;
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		MockStendlRPWorld.get();
+	}
+
+	@Before
+	public void setUp() {
+		MockStendhalRPRuleProcessor.get().clearPlayers();
+		PresenceNotifier.get().flush();
+
+		bob = PlayerTestHelper.createPlayer("bob");
+		bob.put("buddies", "hugo", false);
+		MockStendhalRPRuleProcessor.get().addPlayer(bob);
+		hugo = PlayerTestHelper.createPlayer("hugo");
+	}
+
+	@After
+	public void tearDown() {
+		MockStendhalRPRuleProcessor.get().clearPlayers();
+	}
+
+	private static List<String> names(final Player player, final String event) {
+		final List<String> res = new ArrayList<String>();
+		for (final RPEvent e : player.events()) {
+			if (e.getName().equals(event)) {
+				res.add(e.get("name"));
+			}
+		}
+		Collections.sort(res);
+		return res;
+	}
+
+	/**
+	 * Tests that the online players and the new player are told about each other.
+	 */
+	@Test
+	public void testLogin() {
+		MockStendhalRPRuleProcessor.get().addPlayer(hugo);
+		PresenceNotifier.get().onLogin(hugo);
+		assertEquals(Collections.emptyList(), names(bob, Events.PLAYER_LOGGED_ON));
+
+		PresenceNotifier.get().flush();
+		assertEquals(Arrays.asList("hugo"), names(bob, Events.PLAYER_LOGGED_ON));
+		assertEquals("hugo", bob.get("online"));
+		assertEquals(Arrays.asList("bob", "hugo"), names(hugo, Events.PLAYER_LOGGED_ON));
+	}
+
+	/**
+	 * Tests that ghosts are only visible to other ghosts.
+	 */
+	@Test
+	public void testGhostLogin() {
+		hugo.setGhost(true);
+		MockStendhalRPRuleProcessor.get().addPlayer(hugo);
+		PresenceNotifier.get().onLogin(hugo);
+		PresenceNotifier.get().flush();
+
+		assertEquals(Collections.emptyList(), names(bob, Events.PLAYER_LOGGED_ON));
+		assertNull(bob.get("online"));
+		assertEquals(Arrays.asList("bob", "hugo"), names(hugo, Events.PLAYER_LOGGED_ON));
+	}
+
+	/**
+	 * Tests that a logout is reported to the remaining players.
+	 */
+	@Test
+	public void testLogout() {
+		MockStendhalRPRuleProcessor.get().addPlayer(hugo);
+		PresenceNotifier.get().onLogin(hugo);
+		PresenceNotifier.get().flush();
+		bob.clearEvents();
+		bob.remove("online");
+
+		PresenceNotifier.get().onLogout(hugo);
+		MockStendhalRPRuleProcessor.get().getOnlinePlayers().remove(hugo);
+		PresenceNotifier.get().flush();
+		assertEquals(Arrays.asList("hugo"), names(bob, Events.PLAYER_LOGGED_OUT));
+		assertEquals("hugo", bob.get("offline"));
+	}
+
+	/**
+	 * Tests that logging in and out within the same turn is not reported.
+	 */
+	@Test
+	public void testLoginAndLogoutInSameTurn() {
+		MockStendhalRPRuleProcessor.get().addPlayer(hugo);
+		PresenceNotifier.get().onLogin(hugo);
+		PresenceNotifier.get().onLogout(hugo);
+		MockStendhalRPRuleProcessor.get().getOnlinePlayers().remove(hugo);
+		PresenceNotifier.get().flush();
+
+		assertEquals(Collections.emptyList(), names(bob, Events.PLAYER_LOGGED_ON));
+		assertEquals(Collections.emptyList(), names(bob, Events.PLAYER_LOGGED_OUT));
+		assertNull(bob.get("online"));
+		assertNull(bob.get("offline"));
+	}
+}
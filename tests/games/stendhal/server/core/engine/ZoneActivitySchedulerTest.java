@@ -0,0 +1,150 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.core.pathfinder.FixedPath;
+import games.stendhal.server.core.pathfinder.Node;
+import games.stendhal.server.entity.npc.SpeakerNPC;
+import games.stendhal.server.entity.player.Player;
+import games.stendhal.server.maps.MockStendlRPWorld;
+import utilities.PlayerTestHelper;
+
+/**
+ * Tests for ZoneActivityScheduler.
+ */
+public class ZoneActivitySchedulerTest {
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		MockStendlRPWorld.get();
+		PlayerTestHelper.generatePlayerRPClasses();
+	}
+
+	/**
+	 * Tests the transitions of an empty zone, and waking it up.
+	 */
+	@Test
+	public void testSleepAndWakeUp() {
+		final ZoneActivityScheduler scheduler = new ZoneActivityScheduler();
+		scheduler.setDormantAfterTurns(3);
+		final StendhalRPZone zone = new StendhalRPZone("activity_zone");
+		scheduler.add(zone);
+
+		assertTrue(scheduler.logic(1).contains(zone));
+		assertEquals(ZoneActivity.WARM, zone.getActivity());
+		assertTrue(scheduler.logic(2).contains(zone));
+		assertTrue(scheduler.logic(3).contains(zone));
+		assertFalse(scheduler.logic(4).contains(zone));
+		assertEquals(ZoneActivity.DORMANT, zone.getActivity());
+		assertEquals(1, scheduler.getDormantCount());
+		assertFalse(scheduler.logic(5).contains(zone));
+
+		// deadlines are held back while dormant
+		final List<String> calls = new ArrayList<String>();
+		final ZoneWakeUpListener listener = new ZoneWakeUpListener() {
+			@Override
+			public void onZoneWakeUp(final int dueTurn, final int currentTurn) {
+				calls.add(dueTurn + "-" + currentTurn);
+			}
+		};
+		assertTrue(zone.postponeWhileDormant(listener, 6));
+		assertTrue(zone.postponeWhileDormant(listener, 7));
+
+		final Player player = PlayerTestHelper.createPlayer("bob");
+		zone.add(player);
+		assertEquals(ZoneActivity.ACTIVE, zone.getActivity());
+		assertTrue(calls.isEmpty());
+
+		assertTrue(scheduler.logic(10).contains(zone));
+		assertEquals(1, calls.size());
+		assertEquals("6-10", calls.get(0));
+		assertEquals(1, scheduler.getActiveCount());
+		assertEquals(0, scheduler.getDormantCount());
+		assertFalse(zone.postponeWhileDormant(listener, 11));
+
+		zone.remove(player);
+		assertTrue(scheduler.logic(11).contains(zone));
+		assertEquals(ZoneActivity.WARM, zone.getActivity());
+		assertEquals(1, scheduler.getWarmCount());
+	}
+
+	/**
+	 * Tests that a negative delay keeps empty zones running.
+	 */
+	@Test
+	public void testNoDormancy() {
+		final ZoneActivityScheduler scheduler = new ZoneActivityScheduler();
+		scheduler.setDormantAfterTurns(-1);
+		final StendhalRPZone zone = new StendhalRPZone("activity_zone_2");
+		scheduler.add(zone);
+		for (int turn = 0; turn < 1000; turn++) {
+			assertTrue(scheduler.logic(turn).contains(zone));
+		}
+		assertEquals(ZoneActivity.WARM, zone.getActivity());
+
+		scheduler.remove(zone);
+		assertTrue(scheduler.logic(1000).isEmpty());
+		assertEquals(0, scheduler.getDormantCount());
+	}
+
+	/**
+	 * Tests that a walking NPC, which acts without players, keeps its zone
+	 * awake and keeps moving.
+	 */
+	@Test
+	public void testWalkingNPC() {
+		final ZoneActivityScheduler scheduler = new ZoneActivityScheduler();
+		scheduler.setDormantAfterTurns(3);
+		final StendhalRPZone zone = new StendhalRPZone("activity_zone_3", 20, 20);
+		scheduler.add(zone);
+
+		final SpeakerNPC npc = new SpeakerNPC("walker");
+		npc.setPosition(2, 2);
+		npc.setPath(new FixedPath(Arrays.asList(new Node(2, 2), new Node(10, 2)), true));
+		zone.add(npc);
+
+		// the zone sleeps while the NPC only moves in the presence of players
+		for (int turn = 1; turn < 10; turn++) {
+			scheduler.logic(turn);
+		}
+		assertEquals(ZoneActivity.DORMANT, zone.getActivity());
+
+		// the NPC starts acting on its own
+		npc.setAllowToActAlone(true);
+		assertEquals(ZoneActivity.WARM, zone.getActivity());
+		for (int turn = 10; turn < 30; turn++) {
+			for (final StendhalRPZone running : scheduler.logic(turn)) {
+				running.logic();
+			}
+			npc.preLogic();
+		}
+		assertEquals(ZoneActivity.WARM, zone.getActivity());
+		assertTrue(scheduler.logic(30).contains(zone));
+		assertTrue(npc.getX() > 2);
+
+		npc.setAllowToActAlone(false);
+		for (int turn = 31; turn < 40; turn++) {
+			scheduler.logic(turn);
+		}
+		assertEquals(ZoneActivity.DORMANT, zone.getActivity());
+	}
+}
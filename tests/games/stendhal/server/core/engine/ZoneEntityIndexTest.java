@@ -0,0 +1,217 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.entity.Entity;
+import games.stendhal.server.maps.MockStendlRPWorld;
+import marauroa.common.game.RPObject;
+
+/**
+ * Tests for ZoneEntityIndex. The query results are compared against a plain
+ * scan over all the objects in the zone.
+ */
+public class ZoneEntityIndexTest {
+	private static final int WIDTH = 45;
+	private static final int HEIGHT = 37;
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		MockStendlRPWorld.get();
+	}
+
+	private static Entity createEntity(final int width, final int height, final int resistance) {
+		final Entity entity = new Entity() {
+		};
+		entity.setSize(width, height);
+		entity.setResistance(resistance);
+		return entity;
+	}
+
+	/**
+	 * Tests that point, rectangle and obstacle queries match the linear scan
+	 * while entities are added, moved, resized and removed.
+	 */
+	@Test
+	public void testQueriesMatchLinearScan() {
+		final StendhalRPZone zone = new StendhalRPZone("index_test_zone", WIDTH, HEIGHT);
+		final Random random = new Random(42);
+		final List<Entity> entities = new ArrayList<Entity>();
+
+		for (int i = 0; i < 300; i++) {
+			final Entity entity = createEntity(1 + random.nextInt(3), 1 + random.nextInt(3),
+					random.nextBoolean() ? 100 : 0);
+			entity.setPosition(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+			zone.add(entity);
+			entities.add(entity);
+		}
+		// some entities outside the zone borders
+		final Entity outside = createEntity(2, 2, 100);
+		outside.setPosition(WIDTH + 3, HEIGHT + 1);
+		zone.add(outside);
+		entities.add(outside);
+
+		final Entity mover = createEntity(1, 1, 100);
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < 50; i++) {
+				final Entity entity = entities.get(random.nextInt(entities.size()));
+				entity.setPosition(random.nextInt(WIDTH + 4) - 2, random.nextInt(HEIGHT + 4) - 2);
+				if (random.nextInt(10) == 0) {
+					entity.setSize(1 + random.nextInt(4), 1 + random.nextInt(4));
+				}
+			}
+			for (int i = 0; i < 5; i++) {
+				final Entity entity = entities.remove(random.nextInt(entities.size()));
+				zone.remove(entity);
+			}
+
+			for (int x = -1; x <= WIDTH + 4; x++) {
+				for (int y = -1; y <= HEIGHT + 2; y++) {
+					final double px = x + 0.5;
+					final double py = y + 0.5;
+					final Set<Entity> expected = scanAt(zone, px, py);
+					assertEquals(expected, new HashSet<Entity>(zone.getEntitiesAt(px, py)));
+					final Entity found = zone.getEntityAt(px, py);
+					if (expected.isEmpty()) {
+						assertNull(found);
+					} else {
+						assertTrue(expected.contains(found));
+					}
+
+					final Rectangle2D area = new Rectangle.Double(x, y, 1 + random.nextInt(3), 1 + random.nextInt(3));
+					final List<Entity> inArea = zone.getEntitiesIn(area);
+					assertEquals(scanIntersecting(zone, area), new HashSet<Entity>(inArea));
+					assertEquals("duplicates in rectangle query", new HashSet<Entity>(inArea).size(), inArea.size());
+					assertEquals(scanCollides(zone, mover, area), zone.collidesObjects(mover, area));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that removed entities are no longer found.
+	 */
+	@Test
+	public void testRemove() {
+		final StendhalRPZone zone = new StendhalRPZone("index_remove_zone", 10, 10);
+		final Entity entity = createEntity(1, 1, 100);
+		entity.setPosition(3, 4);
+		zone.add(entity);
+		final Entity mover = createEntity(1, 1, 100);
+
+		assertEquals(entity, zone.getEntityAt(3.5, 4.5));
+		assertTrue(zone.collidesObjects(mover, entity.getArea()));
+
+		zone.remove(entity);
+		assertNull(zone.getEntityAt(3.5, 4.5));
+		assertTrue(zone.getEntitiesAt(3.5, 4.5).isEmpty());
+		assertFalse(zone.collidesObjects(mover, new Rectangle.Double(3, 4, 1, 1)));
+
+		// moving an entity that is not in a zone must not resurrect it
+		entity.setPosition(5, 5);
+		assertNull(zone.getEntityAt(5.5, 5.5));
+	}
+
+	/**
+	 * Tests that the nearest entity search finds the same entities as a
+	 * scan, in ascending order of distance.
+	 */
+	@Test
+	public void testFindNearest() {
+		final Random random = new Random(11);
+		final ZoneEntityIndex<Entity> index = new ZoneEntityIndex<Entity>(WIDTH, HEIGHT);
+		final List<Entity> entities = new ArrayList<Entity>();
+		for (int i = 0; i < 150; i++) {
+			final Entity entity = createEntity(1 + random.nextInt(2), 1 + random.nextInt(2), 100);
+			entity.setPosition(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+			entities.add(entity);
+			index.add(entity);
+		}
+
+		final List<Entity> found = new ArrayList<Entity>();
+		for (int i = 0; i < 200; i++) {
+			final Entity center = entities.get(random.nextInt(entities.size()));
+			final double range = random.nextInt(12) + random.nextDouble();
+			final int limit = (i % 2 == 0) ? Integer.MAX_VALUE : 1 + random.nextInt(5);
+
+			final List<Double> expected = new ArrayList<Double>();
+			for (final Entity entity : entities) {
+				final double distance = center.squaredDistance(entity);
+				if ((entity != center) && (distance <= range * range)) {
+					expected.add(distance);
+				}
+			}
+			Collections.sort(expected);
+
+			found.clear();
+			index.findNearest(center, range, limit, found);
+			assertEquals(Math.min(limit, expected.size()), found.size());
+			for (int j = 0; j < found.size(); j++) {
+				assertEquals(expected.get(j), center.squaredDistance(found.get(j)), 0.0);
+			}
+			final Set<Entity> unique = Collections.newSetFromMap(new IdentityHashMap<Entity, Boolean>());
+			unique.addAll(found);
+			assertEquals("duplicates in nearest search", found.size(), unique.size());
+			assertFalse(unique.contains(center));
+		}
+	}
+
+	private static Set<Entity> scanAt(final StendhalRPZone zone, final double x, final double y) {
+		final Set<Entity> result = new HashSet<Entity>();
+		for (final RPObject object : zone) {
+			final Entity entity = (Entity) object;
+			if (entity.getArea().contains(x, y)) {
+				result.add(entity);
+			}
+		}
+		return result;
+	}
+
+	private static Set<Entity> scanIntersecting(final StendhalRPZone zone, final Rectangle2D area) {
+		final Set<Entity> result = new HashSet<Entity>();
+		for (final RPObject object : zone) {
+			final Entity entity = (Entity) object;
+			if (area.intersects(entity.getX(), entity.getY(), entity.getWidth(), entity.getHeight())) {
+				result.add(entity);
+			}
+		}
+		return result;
+	}
+
+	private static boolean scanCollides(final StendhalRPZone zone, final Entity entity, final Rectangle2D area) {
+		for (final RPObject object : zone) {
+			final Entity other = (Entity) object;
+			if ((entity != other)
+					&& area.intersects(other.getX(), other.getY(), other.getWidth(), other.getHeight())
+					&& other.isObstacle(entity)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
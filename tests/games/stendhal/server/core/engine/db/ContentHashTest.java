@@ -0,0 +1,69 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.Test;
+
+/**
+ * Tests for ContentHash.
+ */
+public class ContentHashTest {
+
+	private static String hashRow(final String name, final int value) throws SQLException {
+		final ContentHash hash = new ContentHash();
+		final PreparedStatement stmt = hash.getStatement();
+		stmt.setString(1, name);
+		stmt.setInt(2, value);
+		stmt.addBatch();
+		assertEquals(0, stmt.executeBatch().length);
+		return hash.getHash();
+	}
+
+	/**
+	 * Tests that the hash covers the parameters of the statement.
+	 *
+	 * @throws SQLException in case of an unexpected error
+	 */
+	@Test
+	public void testStatement() throws SQLException {
+		assertEquals(hashRow("rat", 1), hashRow("rat", 1));
+		assertNotEquals(hashRow("rat", 1), hashRow("rat", 2));
+		assertNotEquals(hashRow("rat", 1), hashRow("cave rat", 1));
+		assertNotNull(new ContentHash().getStatement().toString());
+	}
+
+	/**
+	 * Tests that adjacent values can not be confused.
+	 */
+	@Test
+	public void testAdd() {
+		final ContentHash first = new ContentHash();
+		first.add("ab");
+		first.add("c");
+		final ContentHash second = new ContentHash();
+		second.add("a");
+		second.add("bc");
+		assertNotEquals(first.getHash(), second.getHash());
+
+		final ContentHash empty = new ContentHash();
+		empty.add("");
+		final ContentHash none = new ContentHash();
+		none.add(null);
+		assertNotEquals(empty.getHash(), none.getHash());
+	}
+}
@@ -0,0 +1,115 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.core.events.TurnNotifier;
+import games.stendhal.server.entity.item.Item;
+import games.stendhal.server.entity.player.Player;
+import games.stendhal.server.entity.player.PlayerChanges;
+import games.stendhal.server.maps.MockStendlRPWorld;
+import marauroa.common.game.RPObject;
+import marauroa.server.db.DBTransaction;
+import marauroa.server.db.TransactionPool;
+import marauroa.server.game.db.DatabaseFactory;
+import utilities.PlayerTestHelper;
+
+/**
+ * Tests for ItemLogBatch.
+ */
+public class ItemLogBatchTest {
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		new DatabaseFactory().initializeDatabase();
+		MockStendlRPWorld.get();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() {
+		MockStendlRPWorld.reset();
+	}
+
+	/**
+	 * Tests that every registered item gets the id of its own row.
+	 *
+	 * @throws Exception in case of an unexpected error
+	 */
+	@Test
+	public void testAssignIDs() throws Exception {
+		DBTransaction transaction = TransactionPool.get().beginWork();
+		try {
+			ItemLogBatch batch = new ItemLogBatch(transaction);
+			Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+			RPObject[] items = new RPObject[3];
+			for (int i = 0; i < items.length; i++) {
+				items[i] = new RPObject();
+				items[i].put("name", "batch test item " + i);
+				batch.assignIDIfNotPresent(items[i], timestamp);
+			}
+			batch.assignIDs();
+			batch.execute();
+
+			for (RPObject item : items) {
+				ResultSet result = transaction.query("SELECT name FROM item WHERE id = "
+						+ ItemLogIDs.get(item), null);
+				result.next();
+				assertEquals(item.get("name"), result.getString(1));
+				result.close();
+			}
+		} finally {
+			TransactionPool.get().rollback(transaction);
+		}
+	}
+
+	/**
+	 * Tests that the id is stored in the item on the game thread, where the
+	 * change counts for saving the player.
+	 *
+	 * @throws Exception in case of an unexpected error
+	 */
+	@Test
+	public void testStoreIDOnTurn() throws Exception {
+		Player player = PlayerTestHelper.createPlayer("bob");
+		PlayerTestHelper.equipWithItem(player, "dagger");
+		Item dagger = player.getFirstEquipped("dagger");
+		PlayerChanges changes = player.getChanges();
+		changes.setStored();
+
+		DBTransaction transaction = TransactionPool.get().beginWork();
+		try {
+			ItemLogBatch batch = new ItemLogBatch(transaction);
+			batch.assignIDIfNotPresent(dagger, new Timestamp(System.currentTimeMillis()));
+			batch.assignIDs();
+			batch.execute();
+		} finally {
+			TransactionPool.get().rollback(transaction);
+		}
+
+		assertTrue(ItemLogIDs.has(dagger));
+		assertFalse(dagger.has(StendhalItemDAO.ATTR_ITEM_LOGID));
+		assertFalse(changes.isChanged(PlayerChanges.Section.SLOTS));
+
+		TurnNotifier.get().logic(TurnNotifier.get().getCurrentTurnForDebugging() + 1);
+		assertEquals(ItemLogIDs.get(dagger), dagger.getInt(StendhalItemDAO.ATTR_ITEM_LOGID));
+		assertTrue(changes.isChanged(PlayerChanges.Section.SLOTS));
+	}
+}
@@ -0,0 +1,143 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.entity.player.Player;
+import games.stendhal.server.maps.MockStendlRPWorld;
+import marauroa.common.game.DetailLevel;
+import marauroa.common.game.RPObject;
+import marauroa.common.net.InputSerializer;
+import marauroa.common.net.OutputSerializer;
+import utilities.PlayerTestHelper;
+
+/**
+ * Tests for the player snapshot format.
+ */
+public class PlayerSnapshotCodecTest {
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		MockStendlRPWorld.get();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() {
+		MockStendlRPWorld.reset();
+	}
+
+	/**
+	 * Write an object in the legacy format.
+	 */
+	private static byte[] writeLegacy(final RPObject object) throws IOException {
+		final ByteArrayOutputStream array = new ByteArrayOutputStream();
+		final DeflaterOutputStream out = new DeflaterOutputStream(array);
+		object.writeObject(new OutputSerializer(out), DetailLevel.FULL);
+		out.close();
+		return array.toByteArray();
+	}
+
+	/**
+	 * Read an object in the legacy format.
+	 */
+	private static RPObject readLegacy(final byte[] data) throws IOException {
+		final InputSerializer in = new InputSerializer(new InflaterInputStream(new ByteArrayInputStream(data)));
+		return (RPObject) in.readObject(new RPObject());
+	}
+
+	private static Player createPlayer() {
+		final Player player = PlayerTestHelper.createPlayer("bob");
+		PlayerTestHelper.equipWithStackableItem(player, "money", 1234);
+		PlayerTestHelper.equipWithItemToSlot(player, "dagger", "bag");
+		player.setQuest("snapshot_test", "done;-5;007;");
+		player.setQuest("empty_test", "");
+		player.setKeyedSlot("!visited", "semos_city", "12345678901234567890");
+		player.setKeyedSlot("!kills", "solo.rat", "-42");
+		player.setSentence("Ünïcode sentence");
+		player.put("karma", 12.5);
+		return player;
+	}
+
+	/**
+	 * Tests that a snapshot contains the same stored data as the legacy format.
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		final Player player = createPlayer();
+		final byte[] snapshot = PlayerSnapshotCodec.encode(player);
+		assertTrue(PlayerSnapshotCodec.isSnapshot(snapshot));
+
+		final RPObject decoded = PlayerSnapshotCodec.decode(snapshot);
+		final RPObject expected = readLegacy(writeLegacy(player));
+		final RPObject actual = readLegacy(writeLegacy(decoded));
+		assertEquals(expected.toString(), actual.toString());
+		assertEquals(expected, actual);
+		assertEquals("done;-5;007;", decoded.getSlot("!quests").getFirst().get("snapshot_test"));
+		assertEquals("12345678901234567890", decoded.getSlot("!visited").getFirst().get("semos_city"));
+	}
+
+	/**
+	 * Tests telling the legacy format and snapshots apart.
+	 */
+	@Test
+	public void testIsSnapshot() throws IOException {
+		final Player player = createPlayer();
+		assertFalse(PlayerSnapshotCodec.isSnapshot(writeLegacy(player)));
+		assertFalse(PlayerSnapshotCodec.isSnapshot(new byte[0]));
+		assertFalse(PlayerSnapshotCodec.isSnapshot(null));
+	}
+
+	/**
+	 * Tests recognizing values that can be written as numbers.
+	 */
+	@Test
+	public void testIsCanonicalNumber() {
+		assertTrue(PlayerSnapshotCodec.isCanonicalNumber("0"));
+		assertTrue(PlayerSnapshotCodec.isCanonicalNumber("-12"));
+		assertTrue(PlayerSnapshotCodec.isCanonicalNumber("999999999999999999"));
+		assertFalse(PlayerSnapshotCodec.isCanonicalNumber(""));
+		assertFalse(PlayerSnapshotCodec.isCanonicalNumber("-"));
+		assertFalse(PlayerSnapshotCodec.isCanonicalNumber("-0"));
+		assertFalse(PlayerSnapshotCodec.isCanonicalNumber("012"));
+		assertFalse(PlayerSnapshotCodec.isCanonicalNumber("+1"));
+		assertFalse(PlayerSnapshotCodec.isCanonicalNumber("1.5"));
+		assertFalse(PlayerSnapshotCodec.isCanonicalNumber("1234567890123456789"));
+	}
+
+	/**
+	 * Tests writing and reading variable length numbers.
+	 */
+	@Test
+	public void testVarLong() throws IOException {
+		final long[] values = { 0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE, -1 };
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (final long value : values) {
+			PlayerSnapshotCodec.writeVarLong(out, value);
+		}
+		final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+		for (final long value : values) {
+			assertEquals(value, PlayerSnapshotCodec.readVarLong(in));
+		}
+	}
+}
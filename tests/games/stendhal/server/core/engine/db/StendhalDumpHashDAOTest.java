@@ -0,0 +1,54 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import marauroa.server.db.DBTransaction;
+import marauroa.server.db.TransactionPool;
+import marauroa.server.game.db.DAORegister;
+import marauroa.server.game.db.DatabaseFactory;
+
+/**
+ * Tests for StendhalDumpHashDAO.
+ */
+public class StendhalDumpHashDAOTest {
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		new DatabaseFactory().initializeDatabase();
+	}
+
+	/**
+	 * Tests reading and replacing the hash of a dump.
+	 *
+	 * @throws Exception in case of an unexpected error
+	 */
+	@Test
+	public void testHash() throws Exception {
+		StendhalDumpHashDAO dao = DAORegister.get().get(StendhalDumpHashDAO.class);
+		DBTransaction transaction = TransactionPool.get().beginWork();
+		try {
+			assertNull(dao.getHash(transaction, "test"));
+			dao.setHash(transaction, "test", "abc");
+			assertEquals("abc", dao.getHash(transaction, "test"));
+			dao.setHash(transaction, "test", "def");
+			assertEquals("def", dao.getHash(transaction, "test"));
+			assertNull(dao.getHash(transaction, "other"));
+		} finally {
+			TransactionPool.get().rollback(transaction);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.engine.db;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.core.engine.db.StendhalKillLogDAO.KillCount;
+import marauroa.server.db.DBTransaction;
+import marauroa.server.db.TransactionPool;
+import marauroa.server.game.db.DAORegister;
+import marauroa.server.game.db.DatabaseFactory;
+
+/**
+ * Tests for StendhalKillLogDAO.
+ */
+public class StendhalKillLogDAOTest {
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		new DatabaseFactory().initializeDatabase();
+	}
+
+	private static KillCount count(final String killed, final int kills) {
+		final KillCount count = new KillCount(killed, "C", "killlog tester", "P", Date.valueOf("2026-01-02"));
+		for (int i = 0; i < kills; i++) {
+			count.increment();
+		}
+		return count;
+	}
+
+	private static int getCount(final DBTransaction transaction, final String killed) throws Exception {
+		return transaction.querySingleCellInt("SELECT cnt FROM kills WHERE killed = '" + killed
+				+ "' AND killer = 'killlog tester'", null);
+	}
+
+	/**
+	 * Tests that counts are added to existing rows, and missing rows are
+	 * inserted.
+	 *
+	 * @throws Exception in case of an unexpected error
+	 */
+	@Test
+	public void testLogKills() throws Exception {
+		StendhalKillLogDAO dao = DAORegister.get().get(StendhalKillLogDAO.class);
+		DBTransaction transaction = TransactionPool.get().beginWork();
+		try {
+			dao.logKills(transaction, Collections.singletonList(count("rat", 2)));
+			assertEquals(2, getCount(transaction, "rat"));
+
+			dao.logKills(transaction, Arrays.asList(count("rat", 3), count("wolf", 1)));
+			assertEquals(5, getCount(transaction, "rat"));
+			assertEquals(1, getCount(transaction, "wolf"));
+		} finally {
+			TransactionPool.get().rollback(transaction);
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for TimingWheel.
+ */
+public class TimingWheelTest {
+
+	/**
+	 * A listener with value semantics, like many of the real ones.
+	 */
+	private static class NamedListener implements TurnListener {
+		private final int id;
+
+		NamedListener(final int id) {
+			this.id = id;
+		}
+
+		@Override
+		public void onTurnReached(final int currentTurn) {
+			// not called
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return (obj instanceof NamedListener) && (((NamedListener) obj).id == id);
+		}
+
+		@Override
+		public int hashCode() {
+			return id;
+		}
+	}
+
+	/**
+	 * Tests that listeners are returned exactly at their turn, compared
+	 * against a simple map of turns to listener sets.
+	 */
+	@Test
+	public void testMatchesReferenceModel() {
+		final Random random = new Random(7);
+		final TimingWheel wheel = new TimingWheel(0);
+		final Map<Integer, Set<TurnListener>> model = new HashMap<Integer, Set<TurnListener>>();
+		final List<TurnListener> due = new ArrayList<TurnListener>();
+
+		for (int turn = 0; turn < 70000; turn++) {
+			for (int i = random.nextInt(4); i > 0; i--) {
+				final TurnListener listener = new NamedListener(random.nextInt(500));
+				final int delay;
+				switch (random.nextInt(4)) {
+				case 0:
+					delay = random.nextInt(300);
+					break;
+				case 1:
+					delay = random.nextInt(20000);
+					break;
+				default:
+					delay = random.nextInt(40);
+				}
+				final int at = turn + 1 + delay;
+				wheel.schedule(at, listener);
+				Set<TurnListener> set = model.get(at);
+				if (set == null) {
+					set = new HashSet<TurnListener>();
+					model.put(at, set);
+				}
+				set.add(listener);
+			}
+			if (random.nextInt(3) == 0) {
+				final TurnListener listener = new NamedListener(random.nextInt(500));
+				assertEquals(firstTurn(model, listener), wheel.getFirstTurn(listener));
+				wheel.cancel(listener);
+				for (final Set<TurnListener> set : model.values()) {
+					set.remove(listener);
+				}
+				assertNull(wheel.getFirstTurn(listener));
+			}
+
+			wheel.advance(turn, due);
+			final Set<TurnListener> expected = model.remove(turn);
+			if (expected == null) {
+				assertTrue(due.isEmpty());
+			} else {
+				assertEquals(expected, new HashSet<TurnListener>(due));
+				assertEquals(expected.size(), due.size());
+			}
+			due.clear();
+		}
+		int remaining = 0;
+		for (final Set<TurnListener> set : model.values()) {
+			remaining += set.size();
+		}
+		assertEquals(remaining, wheel.size());
+	}
+
+	/**
+	 * Tests that listeners are still found after the turn counter jumps
+	 * forwards and backwards.
+	 */
+	@Test
+	public void testTurnJumps() {
+		final TimingWheel wheel = new TimingWheel(100);
+		final List<TurnListener> due = new ArrayList<TurnListener>();
+		final TurnListener early = new NamedListener(1);
+		final TurnListener late = new NamedListener(2);
+		wheel.schedule(150, early);
+		wheel.schedule(5000000, late);
+
+		// skip past the first listener
+		wheel.advance(1000, due);
+		assertTrue(due.isEmpty());
+		assertEquals(Integer.valueOf(150), wheel.getFirstTurn(early));
+
+		// go back in time, like the tests that restart at turn 0 do
+		wheel.advance(0, due);
+		assertTrue(due.isEmpty());
+		wheel.advance(150, due);
+		assertEquals(1, due.size());
+		assertEquals(early, due.get(0));
+		due.clear();
+
+		wheel.advance(5000000, due);
+		assertEquals(1, due.size());
+		assertEquals(late, due.get(0));
+		assertEquals(0, wheel.size());
+	}
+
+	/**
+	 * Tests that a listener whose hash code changes after being scheduled is
+	 * still removed from the index when it is due.
+	 */
+	@Test
+	public void testMutableHashCode() {
+		final int[] hash = new int[] { 1 };
+		final TurnListener listener = new TurnListener() {
+			@Override
+			public void onTurnReached(final int currentTurn) {
+				// not called
+			}
+
+			@Override
+			public int hashCode() {
+				return hash[0];
+			}
+		};
+		final TimingWheel wheel = new TimingWheel(0);
+		final List<TurnListener> due = new ArrayList<TurnListener>();
+		wheel.schedule(3, listener);
+		wheel.schedule(5, listener);
+		hash[0] = 2;
+		for (int turn = 0; turn <= 5; turn++) {
+			wheel.advance(turn, due);
+		}
+		assertEquals(2, due.size());
+		assertEquals(0, wheel.size());
+		assertTrue(wheel.snapshot().isEmpty());
+	}
+
+	private static Integer firstTurn(final Map<Integer, Set<TurnListener>> model, final TurnListener listener) {
+		Integer result = null;
+		for (final Iterator<Map.Entry<Integer, Set<TurnListener>>> it = model.entrySet().iterator(); it.hasNext();) {
+			final Map.Entry<Integer, Set<TurnListener>> entry = it.next();
+			if (entry.getValue().contains(listener)
+					&& ((result == null) || (entry.getKey().intValue() < result.intValue()))) {
+				result = entry.getKey();
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,163 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.pathfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Rectangle;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.core.engine.StendhalRPZone;
+import games.stendhal.server.entity.Entity;
+import games.stendhal.server.maps.MockStendlRPWorld;
+
+/**
+ * Tests for the A* implementation.
+ */
+public class PathfinderTest {
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		MockStendlRPWorld.get();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() {
+		MockStendlRPWorld.reset();
+	}
+
+	/**
+	 * Create a zone with a wall at x = 5, with a gap at y = 8.
+	 *
+	 * @param name zone name
+	 * @return zone
+	 */
+	private static StendhalRPZone createWalledZone(final String name) {
+		final StendhalRPZone zone = new StendhalRPZone(name, 10, 10);
+		for (int y = 0; y < 10; y++) {
+			if (y != 8) {
+				zone.collisionMap.setCollide(5, y);
+			}
+		}
+		return zone;
+	}
+
+	/**
+	 * Check that a path is continuous and does not go through collisions.
+	 *
+	 * @param zone zone of the path
+	 * @param path checked path
+	 */
+	private static void assertWalkable(final StendhalRPZone zone, final List<Node> path) {
+		Node previous = null;
+		for (final Node node : path) {
+			assertFalse(zone.collisionMap.collides(node.getX(), node.getY()));
+			if (previous != null) {
+				assertEquals(1, Math.abs(node.getX() - previous.getX())
+						+ Math.abs(node.getY() - previous.getY()));
+			}
+			previous = node;
+		}
+	}
+
+	/**
+	 * Tests finding a path around a wall.
+	 */
+	@Test
+	public void testPathAroundWall() {
+		final StendhalRPZone zone = createWalledZone("pathfinder_wall");
+		final List<Node> path = Path.searchPath(zone, 2, 2, 8, 2, 40);
+
+		assertWalkable(zone, path);
+		assertEquals(new Node(2, 2), path.get(0));
+		assertEquals(new Node(8, 2), path.get(path.size() - 1));
+		assertTrue(path.contains(new Node(5, 8)));
+		// 3 steps to the wall, 6 down, 3 past it and 6 up
+		assertEquals(19, path.size());
+	}
+
+	/**
+	 * Tests that a too short search distance stops the search.
+	 */
+	@Test
+	public void testMaxDistance() {
+		final StendhalRPZone zone = createWalledZone("pathfinder_distance");
+
+		assertTrue(Path.searchPath(zone, 2, 2, 8, 2, 0).isEmpty());
+	}
+
+	/**
+	 * Tests goals that can not be reached.
+	 */
+	@Test
+	public void testUnreachable() {
+		final StendhalRPZone zone = createWalledZone("pathfinder_unreachable");
+		// Close the gap
+		zone.collisionMap.setCollide(5, 8);
+
+		assertTrue(Path.searchPath(zone, 2, 2, 8, 2, 100).isEmpty());
+		// Goal inside the wall
+		assertTrue(Path.searchPath(zone, 2, 2, 5, 2, 100).isEmpty());
+	}
+
+	/**
+	 * Tests that searches in zones of different sizes do not disturb each
+	 * other, as they share the node data.
+	 */
+	@Test
+	public void testReuse() {
+		final StendhalRPZone small = createWalledZone("pathfinder_small");
+		final StendhalRPZone big = new StendhalRPZone("pathfinder_big", 40, 30);
+		final List<Node> first = Path.searchPath(small, 2, 2, 8, 2, 40);
+
+		final List<Node> bigPath = Path.searchPath(big, 0, 0, 39, 29, 0);
+		assertWalkable(big, bigPath);
+		assertEquals(39 + 29 + 1, bigPath.size());
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(first, Path.searchPath(small, 2, 2, 8, 2, 40));
+		}
+	}
+
+	/**
+	 * Tests that stopped entities block the path of entities.
+	 */
+	@Test
+	public void testEntityResistance() {
+		final StendhalRPZone zone = createWalledZone("pathfinder_entities");
+		final Entity walker = new Entity() {
+			// just to create an instance
+		};
+		walker.setPosition(2, 2);
+		zone.add(walker);
+		final Rectangle goal = new Rectangle(8, 2, 1, 1);
+
+		assertFalse(Path.searchPath(walker, zone, 2, 2, goal, 40, true).isEmpty());
+
+		final Entity blocker = new Entity() {
+			// just to create an instance
+		};
+		blocker.setPosition(5, 8);
+		blocker.setResistance(100);
+		zone.add(blocker);
+		assertTrue(Path.searchPath(walker, zone, 2, 2, goal, 40, true).isEmpty());
+		// entities are ignored when not asked to check them
+		assertFalse(Path.searchPath(walker, zone, 2, 2, goal, 40, false).isEmpty());
+
+		zone.remove(blocker);
+		assertFalse(Path.searchPath(walker, zone, 2, 2, goal, 40, true).isEmpty());
+	}
+}
@@ -0,0 +1,172 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.pathfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.core.engine.StendhalRPWorld;
+import games.stendhal.server.core.engine.StendhalRPZone;
+import games.stendhal.server.entity.mapstuff.portal.Portal;
+import games.stendhal.server.maps.MockStendlRPWorld;
+
+/**
+ * Tests for PortalGraph.
+ */
+public class PortalGraphTest {
+	private static StendhalRPWorld world;
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		world = MockStendlRPWorld.get();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() {
+		MockStendlRPWorld.reset();
+	}
+
+	/**
+	 * Create a zone and add it to the world.
+	 *
+	 * @param name zone name
+	 * @return zone
+	 */
+	private static StendhalRPZone createZone(final String name) {
+		final StendhalRPZone zone = new StendhalRPZone(name, 20, 20);
+		world.addRPZone(zone);
+		return zone;
+	}
+
+	/**
+	 * Add a portal to a zone.
+	 *
+	 * @param zone zone
+	 * @param x x coordinate
+	 * @param y y coordinate
+	 * @param id portal identifier
+	 * @param destZone destination zone name
+	 * @param destId destination portal identifier
+	 */
+	private static void addPortal(final StendhalRPZone zone, final int x, final int y, final int id,
+			final String destZone, final int destId) {
+		final Portal portal = new Portal();
+		portal.setPosition(x, y);
+		portal.setIdentifier(Integer.valueOf(id));
+		portal.setDestination(destZone, Integer.valueOf(destId));
+		zone.add(portal);
+	}
+
+	/**
+	 * Check a zone path.
+	 *
+	 * @param part checked part of a route
+	 * @param zone expected zone
+	 * @param start expected first node
+	 * @param end expected last node
+	 */
+	private static void assertPart(final RPZonePath part, final StendhalRPZone zone, final Node start, final Node end) {
+		assertSame(zone, part.getZone());
+		final List<Node> path = part.getPath();
+		assertEquals(start, path.get(0));
+		assertEquals(end, path.get(path.size() - 1));
+		Node previous = null;
+		for (final Node node : path) {
+			if (previous != null) {
+				assertEquals(1, Math.abs(node.getX() - previous.getX())
+						+ Math.abs(node.getY() - previous.getY()));
+			}
+			previous = node;
+		}
+	}
+
+	/**
+	 * Tests a route through portals.
+	 */
+	@Test
+	public void testPortalRoute() {
+		final StendhalRPZone a = createZone("portal_graph_a");
+		final StendhalRPZone b = createZone("portal_graph_b");
+		final StendhalRPZone c = createZone("portal_graph_c");
+		addPortal(a, 10, 10, 1, "portal_graph_b", 1);
+		addPortal(b, 2, 2, 1, "portal_graph_a", 1);
+		addPortal(b, 15, 15, 2, "portal_graph_c", 1);
+		addPortal(c, 5, 5, 1, "portal_graph_b", 2);
+
+		final List<RPZonePath> route = world.getPortalGraph().findRoute(a, 1, 1, c, 10, 12);
+		assertEquals(3, route.size());
+		assertPart(route.get(0), a, new Node(1, 1), new Node(10, 10));
+		assertEquals(19, route.get(0).getPath().size());
+		assertPart(route.get(1), b, new Node(2, 2), new Node(15, 15));
+		assertPart(route.get(2), c, new Node(5, 5), new Node(10, 12));
+
+		// And back
+		final List<RPZonePath> back = world.getPortalGraph().findRoute(c, 10, 12, a, 1, 1);
+		assertEquals(3, back.size());
+		assertPart(back.get(2), a, new Node(10, 10), new Node(1, 1));
+
+		// Within a zone
+		final List<RPZonePath> local = world.getPortalGraph().findRoute(b, 2, 3, b, 2, 10);
+		assertEquals(1, local.size());
+		assertPart(local.get(0), b, new Node(2, 3), new Node(2, 10));
+	}
+
+	/**
+	 * Tests walking over the border of exterior zones.
+	 */
+	@Test
+	public void testBorderCrossing() {
+		final StendhalRPZone west = createZone("portal_graph_west");
+		west.setPosition(0, 1000, 1000);
+		final StendhalRPZone east = createZone("portal_graph_east");
+		east.setPosition(0, 1020, 1000);
+		// Only the row 15 is open
+		for (int y = 0; y < 20; y++) {
+			if (y != 15) {
+				east.collisionMap.setCollide(0, y);
+			}
+		}
+		world.getPortalGraph().invalidate();
+
+		final List<RPZonePath> route = world.getPortalGraph().findRoute(west, 2, 4, east, 10, 4);
+		assertEquals(2, route.size());
+		assertPart(route.get(0), west, new Node(2, 4), new Node(19, 15));
+		assertPart(route.get(1), east, new Node(0, 15), new Node(10, 4));
+	}
+
+	/**
+	 * Tests places that can not be reached.
+	 */
+	@Test
+	public void testNoRoute() {
+		final StendhalRPZone start = createZone("portal_graph_start");
+		final StendhalRPZone island = createZone("portal_graph_island");
+		assertTrue(world.getPortalGraph().findRoute(start, 1, 1, island, 5, 5).isEmpty());
+
+		addPortal(start, 3, 3, 1, "portal_graph_island", 1);
+		addPortal(island, 4, 4, 1, "portal_graph_start", 1);
+		assertFalse(world.getPortalGraph().findRoute(start, 1, 1, island, 5, 5).isEmpty());
+
+		// Wall off the destination
+		for (int x = 0; x < 20; x++) {
+			island.collisionMap.setCollide(x, 10);
+		}
+		assertTrue(world.getPortalGraph().findRoute(start, 1, 1, island, 5, 15).isEmpty());
+	}
+}
@@ -0,0 +1,160 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.pathfinder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Rectangle;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.core.engine.StendhalRPZone;
+import games.stendhal.server.entity.Entity;
+import games.stendhal.server.maps.MockStendlRPWorld;
+
+/**
+ * Tests for ZoneNavigation.
+ */
+public class ZoneNavigationTest {
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		MockStendlRPWorld.get();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() {
+		MockStendlRPWorld.reset();
+	}
+
+	/**
+	 * Create a 100x60 zone with walls at x = 30 and x = 60. The first wall
+	 * has a gap at y = 50, and the second at y = 10 and y = 40.
+	 *
+	 * @param name zone name
+	 * @return zone
+	 */
+	private static StendhalRPZone createZone(final String name) {
+		final StendhalRPZone zone = new StendhalRPZone(name, 100, 60);
+		for (int y = 0; y < 60; y++) {
+			if (y != 50) {
+				zone.collisionMap.setCollide(30, y);
+			}
+			if ((y != 10) && (y != 40)) {
+				zone.collisionMap.setCollide(60, y);
+			}
+		}
+		return zone;
+	}
+
+	/**
+	 * Check that a path is continuous, does not go through collisions, and
+	 * has the right ends.
+	 *
+	 * @param zone zone of the path
+	 * @param path checked path
+	 * @param start first node
+	 * @param end last node
+	 */
+	private static void assertWalkable(final StendhalRPZone zone, final List<Node> path,
+			final Node start, final Node end) {
+		assertEquals(start, path.get(0));
+		assertEquals(end, path.get(path.size() - 1));
+		Node previous = null;
+		for (final Node node : path) {
+			assertFalse(zone.collisionMap.collides(node.getX(), node.getY()));
+			if (previous != null) {
+				assertEquals(1, Math.abs(node.getX() - previous.getX())
+						+ Math.abs(node.getY() - previous.getY()));
+			}
+			previous = node;
+		}
+	}
+
+	/**
+	 * Tests a long search through the cluster graph.
+	 */
+	@Test
+	public void testLongPath() {
+		final StendhalRPZone zone = createZone("navigation_long");
+		final List<Node> path = Path.searchPath(zone, 5, 5, 95, 5, 400);
+
+		assertWalkable(zone, path, new Node(5, 5), new Node(95, 5));
+		assertTrue(path.contains(new Node(30, 50)));
+		assertTrue(path.contains(new Node(60, 40)));
+
+		// Compare with the plain A*
+		final List<Node> direct = new SimplePathfinder(zone, 5, 5, new Rectangle(95, 5, 1, 1), 400).getPath();
+		assertTrue(path.size() <= 1.2 * direct.size());
+	}
+
+	/**
+	 * Tests goals that can not be reached.
+	 */
+	@Test
+	public void testUnreachable() {
+		final StendhalRPZone zone = createZone("navigation_unreachable");
+		// Close the gap of the first wall
+		zone.collisionMap.setCollide(30, 50);
+
+		assertTrue(Path.searchPath(zone, 5, 5, 95, 5, 400).isEmpty());
+		assertTrue(Path.searchPath(zone, 95, 5, 5, 5, 400).isEmpty());
+		// Goal inside a wall
+		assertTrue(Path.searchPath(zone, 5, 5, 60, 20, 400).isEmpty());
+	}
+
+	/**
+	 * Tests that the navigation data is rebuilt when the collision changes.
+	 */
+	@Test
+	public void testCollisionChange() {
+		final StendhalRPZone zone = createZone("navigation_change");
+		final ZoneNavigation navigation = zone.getNavigation();
+		assertTrue(Path.searchPath(zone, 5, 5, 95, 5, 400).contains(new Node(60, 40)));
+		assertSame(navigation, zone.getNavigation());
+
+		zone.collisionMap.setCollide(60, 40);
+		assertNotSame(navigation, zone.getNavigation());
+		final List<Node> path = Path.searchPath(zone, 5, 5, 95, 5, 400);
+		assertWalkable(zone, path, new Node(5, 5), new Node(95, 5));
+		assertTrue(path.contains(new Node(60, 10)));
+	}
+
+	/**
+	 * Tests that stopped entities are avoided on long paths.
+	 */
+	@Test
+	public void testEntityObstacles() {
+		final StendhalRPZone zone = createZone("navigation_entities");
+		final Entity walker = new Entity() {
+			// just to create an instance
+		};
+		walker.setPosition(5, 5);
+		zone.add(walker);
+		final Entity blocker = new Entity() {
+			// just to create an instance
+		};
+		blocker.setPosition(60, 40);
+		blocker.setResistance(100);
+		zone.add(blocker);
+
+		final List<Node> path = Path.searchPath(walker, zone, 5, 5, new Rectangle(95, 5, 1, 1), 400, true);
+		assertWalkable(zone, path, new Node(5, 5), new Node(95, 5));
+		assertFalse(path.contains(new Node(60, 40)));
+		assertTrue(path.contains(new Node(60, 10)));
+	}
+}
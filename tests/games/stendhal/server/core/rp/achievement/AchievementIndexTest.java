@@ -0,0 +1,87 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.core.rp.achievement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import games.stendhal.server.entity.npc.ChatCondition;
+import games.stendhal.server.entity.npc.condition.AndCondition;
+import games.stendhal.server.entity.npc.condition.LevelGreaterThanCondition;
+import games.stendhal.server.entity.npc.condition.PlayerHasKilledNumberOfCreaturesCondition;
+import games.stendhal.server.entity.npc.condition.QuestCompletedCondition;
+import games.stendhal.server.entity.npc.condition.QuestStateGreaterThanCondition;
+
+/**
+ * Tests for the achievement index.
+ */
+public class AchievementIndexTest {
+	private static Achievement create(final String identifier, final Category category, final ChatCondition condition) {
+		return new Achievement(identifier, identifier, category, "", Achievement.EASY_BASE_SCORE, true, condition);
+	}
+
+	private final Achievement quest = create("quest", Category.QUEST, new QuestCompletedCondition("a"));
+	private final Achievement questState = create("questState", Category.QUEST, new AndCondition(
+			new QuestCompletedCondition("b"), new QuestStateGreaterThanCondition("c", 1, 5)));
+	private final Achievement level = create("level", Category.QUEST, new AndCondition(
+			new QuestCompletedCondition("a"), new LevelGreaterThanCondition(10)));
+	private final Achievement rat = create("rat", Category.FIGHTING, new PlayerHasKilledNumberOfCreaturesCondition("rat", 10));
+	private final Achievement yearly = create("yearly", Category.FRIEND, new QuestCompletedCondition("event_[year]"));
+	private final AchievementIndex index = new AchievementIndex(Arrays.asList(quest, questState, level, rat, yearly));
+
+	/**
+	 * Tests the index assignment and lookup.
+	 */
+	@Test
+	public void testIndices() {
+		assertEquals(0, quest.getIndex());
+		assertEquals(4, yearly.getIndex());
+		assertSame(rat, index.get("rat"));
+		assertNull(index.get("unknown"));
+	}
+
+	/**
+	 * Tests that only the achievements depending on the trigger are checked.
+	 */
+	@Test
+	public void testCandidates() {
+		final EnumSet<Category> questCategories = EnumSet.of(Category.QUEST, Category.FRIEND);
+		assertEquals(Arrays.asList(level, yearly, quest),
+				index.getCandidates(questCategories, Collections.singletonList(AchievementTrigger.quest("a"))));
+		assertEquals(Arrays.asList(level, yearly, questState),
+				index.getCandidates(questCategories, Collections.singletonList(AchievementTrigger.quest("c"))));
+		assertEquals(Arrays.asList(level, yearly),
+				index.getCandidates(questCategories, Collections.singletonList(AchievementTrigger.quest("other"))));
+
+		// the category must match, too
+		assertEquals(Arrays.asList(level, yearly),
+				index.getCandidates(questCategories, Collections.singletonList(AchievementTrigger.kill("rat"))));
+		assertEquals(Collections.singletonList(rat),
+				index.getCandidates(EnumSet.of(Category.FIGHTING), Collections.singletonList(AchievementTrigger.kill("rat"))));
+	}
+
+	/**
+	 * Tests checking all achievements of the categories.
+	 */
+	@Test
+	public void testAllCandidates() {
+		final List<Achievement> candidates = index.getCandidates(EnumSet.of(Category.QUEST, Category.FIGHTING), null);
+		assertEquals(Arrays.asList(rat, quest, questState, level), candidates);
+	}
+}
@@ -16,6 +16,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -264,4 +267,45 @@ public class AttackWeakestTest {
 		assertTrue("has a valid target", strat.hasValidTarget(creature));
 		assertEquals("attack sheep", sheep, creature.getAttackTarget());
 	}
+
+	/**
+	 * Tests that archers using the weakest enemy targeting see the targets
+	 * within their range, not just the adjacent ones.
+	 */
+	@Test
+	public void testRangedAttackWeakest() {
+		final Creature creature = SingletonRepository.getEntityManager().getCreature("rat");
+		final Map<String, String> profiles = new HashMap<String, String>();
+		profiles.put("offensive", "");
+		profiles.put("strategy", "archer(5),attack weakest,dual attack");
+		creature.setAIProfiles(profiles);
+		AttackStrategy strat = creature.getAttackStrategy();
+		assertEquals("sanity check for the range", 5, strat.getRange());
+
+		Player veteran = PlayerTestHelper.createPlayer("veteran");
+		Player newbie = PlayerTestHelper.createPlayer("newbie");
+		veteran.addXP(10000);
+		newbie.addXP(100);
+
+		StendhalRPZone arena = new StendhalRPZone("arena", 20, 20);
+		arena.add(creature);
+		arena.add(veteran);
+		arena.add(newbie);
+
+		creature.setPosition(3, 3);
+		veteran.setPosition(3, 4);
+		newbie.setPosition(3, 7);
+		assertFalse("sanity check; newbie not next to attacker", newbie.nextTo(creature));
+
+		// the weaker newbie is within the archer range
+		strat.findNewTarget(creature);
+		assertTrue("has a valid target", strat.hasValidTarget(creature));
+		assertEquals("attack weakest", newbie, creature.getAttackTarget());
+
+		// but not any more when too far away
+		newbie.setPosition(3, 12);
+		creature.stopAttack();
+		strat.findNewTarget(creature);
+		assertEquals("attack weakest in range", veteran, creature.getAttackTarget());
+	}
 }
@@ -0,0 +1,77 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.entity.mapstuff.spawner;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.core.engine.SingletonRepository;
+import games.stendhal.server.core.engine.StendhalRPZone;
+import games.stendhal.server.core.engine.ZoneActivity;
+import games.stendhal.server.core.engine.ZoneActivityScheduler;
+import games.stendhal.server.core.events.TurnNotifier;
+import games.stendhal.server.entity.creature.Creature;
+import games.stendhal.server.maps.MockStendlRPWorld;
+
+/**
+ * Tests for CreatureRespawnPoint.
+ */
+public class CreatureRespawnPointTest {
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		MockStendlRPWorld.get();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() {
+		MockStendlRPWorld.reset();
+	}
+
+	/**
+	 * Tests that waking up the zone of a full respawn point spawns nothing
+	 * more, and schedules no further spawns.
+	 */
+	@Test
+	public void testWakeUpFull() {
+		final ZoneActivityScheduler scheduler = new ZoneActivityScheduler();
+		scheduler.setDormantAfterTurns(1);
+		final StendhalRPZone zone = new StendhalRPZone("respawn_zone", 20, 20);
+		scheduler.add(zone);
+		final Creature rat = SingletonRepository.getEntityManager().getCreature("rat");
+		final CreatureRespawnPoint point = new CreatureRespawnPoint(zone, 5, 5, rat, 2);
+		zone.add(point);
+
+		for (int turn = 1; turn < 5; turn++) {
+			scheduler.logic(turn);
+		}
+		assertEquals(ZoneActivity.DORMANT, zone.getActivity());
+
+		// the spawn deadline passes while nobody is there
+		point.onTurnReached(5);
+		point.spawnNow();
+		point.spawnNow();
+		assertEquals(2, point.size());
+
+		zone.wakeUp();
+		scheduler.logic(100);
+		assertEquals(2, point.size());
+		assertEquals(2, zone.getNPCList().size());
+
+		// a late wake up of a full point does nothing either
+		point.onZoneWakeUp(5, 100);
+		assertEquals(2, point.size());
+		assertEquals(-1, TurnNotifier.get().getRemainingTurns(point));
+	}
+}
@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -14,6 +14,7 @@ package games.stendhal.server.entity.npc;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static utilities.SpeakerNPCTestHelper.getReply;
 
@@ -83,6 +84,33 @@ public class NPCTest extends ZonePlayerAndNPCTestImpl {
 		assertEquals(null, npc.getAttending());
 	}
 
+	/**
+	 * Tests that NPCs react on chat of nearby players in the next turn.
+	 */
+	@Test
+	public void testHearChat() {
+		final SpeakerNPC npc = getNPC("Felina");
+		npc.remove("text");
+
+		player.setPosition(npc.getX() + 20, npc.getY());
+		npc.getZone().publishChat(player, "hi");
+		npc.preLogic();
+		assertNull(npc.getAttending());
+		assertNull(getReply(npc));
+
+		player.setPosition(npc.getX() + 1, npc.getY());
+		npc.getZone().publishChat(player, "hi");
+		assertNull(getReply(npc));
+		npc.preLogic();
+		assertEquals("Greetings! How may I help you?", getReply(npc));
+		assertEquals(player, npc.getAttending());
+
+		// nothing was said since
+		npc.preLogic();
+		assertNull(getReply(npc));
+		npc.endConversation();
+	}
+
 	/**
 	 * Tests for idea.
 	 */
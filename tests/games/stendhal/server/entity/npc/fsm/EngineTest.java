@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -16,6 +16,7 @@ import static games.stendhal.server.entity.npc.ConversationStates.ATTENDING;
 import static games.stendhal.server.entity.npc.ConversationStates.IDLE;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static utilities.SpeakerNPCTestHelper.getReply;
@@ -209,4 +210,58 @@ public class EngineTest {
 		assertEquals(reply, getReply(bob));
 	}
 
+	/**
+	 * Tests that matching follows changes of the transition table.
+	 */
+	@Test
+	public void testMatchAfterChanges() {
+		final SpeakerNPC bob = new SpeakerNPC("bob");
+		final Engine en = new Engine(bob);
+		final Player pete = PlayerTestHelper.createPlayer("player");
+
+		en.add(ATTENDING, "cloak", null, false, ATTENDING, "one cloak", null);
+		en.add(ATTENDING, "cloaks", null, false, ATTENDING, "many cloaks", null, "plural");
+		en.add(ConversationStates.ANY, "bye", null, false, IDLE, "bye", null);
+
+		en.setCurrentState(ATTENDING);
+		assertTrue(en.step(pete, "cloaks"));
+		assertEquals("many cloaks", getReply(bob));
+		assertTrue(en.step(pete, "cloak"));
+		assertEquals("one cloak", getReply(bob));
+
+		// the plural form is normalized to the remaining transition
+		assertTrue(en.remove("plural"));
+		assertTrue(en.step(pete, "cloaks"));
+		assertEquals("one cloak", getReply(bob));
+
+		// jumps are only possible outside of IDLE
+		assertTrue(en.step(pete, "bye"));
+		assertEquals(IDLE, en.getCurrentState());
+		assertFalse(en.step(pete, "bye"));
+
+		en.add(IDLE, "hi", null, false, ATTENDING, "hello", null);
+		assertTrue(en.step(pete, "hi"));
+		assertEquals("hello", getReply(bob));
+		assertEquals(ATTENDING, en.getCurrentState());
+	}
+
+	/**
+	 * Tests matching of triggers similar to the input.
+	 */
+	@Test
+	public void testSimilarMatch() {
+		final SpeakerNPC bob = new SpeakerNPC("bob");
+		final Engine en = new Engine(bob);
+		final Player pete = PlayerTestHelper.createPlayer("player");
+
+		en.add(ATTENDING, "cloak", null, false, ATTENDING, "one cloak", null);
+		en.add(ConversationStates.ANY, "offer", null, false, ATTENDING, "my offer", null);
+		en.setCurrentState(ATTENDING);
+
+		assertTrue(en.step(pete, "clook"));
+		assertEquals("one cloak", getReply(bob));
+		assertTrue(en.step(pete, "offerr"));
+		assertEquals("my offer", getReply(bob));
+		assertFalse(en.step(pete, "hello"));
+	}
 }
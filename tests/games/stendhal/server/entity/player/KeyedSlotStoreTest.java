@@ -0,0 +1,105 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.entity.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.common.KeyedSlotUtil;
+import games.stendhal.server.maps.MockStendlRPWorld;
+import marauroa.common.game.RPObject;
+import marauroa.common.game.RPSlot;
+import utilities.PlayerTestHelper;
+
+/**
+ * Tests for KeyedSlotStore.
+ */
+public class KeyedSlotStoreTest {
+	private Player player;
+	private KeyedSlotStore store;
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		MockStendlRPWorld.get();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() {
+		MockStendlRPWorld.reset();
+	}
+
+	@Before
+	public void setUp() {
+		player = PlayerTestHelper.createPlayer("bob");
+		store = player.getKeyedSlotStore("!kills");
+	}
+
+	/**
+	 * Tests reading and writing values.
+	 */
+	@Test
+	public void testValues() {
+		final int size = store.size();
+		assertFalse(store.contains("solo.rat"));
+		assertNull(store.get("solo.rat"));
+
+		assertTrue(store.put("solo.rat", "2"));
+		assertTrue(store.contains("solo.rat"));
+		assertEquals("2", KeyedSlotUtil.getKeyedSlot(player, "!kills", "solo.rat"));
+		assertEquals(size + 1, store.size());
+
+		assertTrue(store.put("solo.rat", null));
+		assertFalse(store.contains("solo.rat"));
+		assertEquals(size, store.size());
+	}
+
+	/**
+	 * Tests that numbers follow changes made directly to the slot.
+	 */
+	@Test
+	public void testNumbers() {
+		assertEquals(0, store.getInt("solo.rat", 0));
+		assertTrue(store.putInt("solo.rat", 3));
+		assertEquals("3", KeyedSlotUtil.getKeyedSlot(player, "!kills", "solo.rat"));
+		assertEquals(3, store.getInt("solo.rat", 0));
+
+		KeyedSlotUtil.setKeyedSlot(player, "!kills", "solo.rat", "5");
+		assertEquals(5, store.getInt("solo.rat", 0));
+
+		KeyedSlotUtil.setKeyedSlot(player, "!kills", "solo.rat", "many");
+		assertEquals(-1, store.getInt("solo.rat", -1));
+	}
+
+	/**
+	 * Tests that a replaced object in the slot is noticed.
+	 */
+	@Test
+	public void testReplacedObject() {
+		store.put("solo.rat", "1");
+
+		final RPSlot slot = player.getSlot("!kills");
+		slot.clear();
+		final RPObject object = new RPObject();
+		object.put("solo.wolf", "4");
+		slot.add(object);
+
+		assertNull(store.get("solo.rat"));
+		assertEquals(4, store.getInt("solo.wolf", 0));
+		assertEquals(1, store.size());
+	}
+}
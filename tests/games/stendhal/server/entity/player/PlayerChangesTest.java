@@ -0,0 +1,165 @@
+/***************************************************************************
+ *                      (C) Copyright 2026 - Stendhal                      *
+ ***************************************************************************
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *                                                                         *
+ ***************************************************************************/
+package games.stendhal.server.entity.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import games.stendhal.server.entity.item.StackableItem;
+import games.stendhal.server.entity.player.PlayerChanges.Section;
+import games.stendhal.server.maps.MockStendlRPWorld;
+import utilities.PlayerTestHelper;
+
+/**
+ * Tests for tracking the changed parts of a player.
+ */
+public class PlayerChangesTest {
+	private Player player;
+
+	@BeforeClass
+	public static void setUpBeforeClass() {
+		MockStendlRPWorld.get();
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() {
+		MockStendlRPWorld.reset();
+	}
+
+	@Before
+	public void setUp() {
+		player = PlayerTestHelper.createPlayer("bob");
+		PlayerTestHelper.equipWithStackableItem(player, "money", 10);
+	}
+
+	private static void assertChanged(final PlayerChanges changes, final Section... expected) {
+		for (final Section section : Section.values()) {
+			boolean isExpected = false;
+			for (final Section e : expected) {
+				isExpected |= e == section;
+			}
+			assertEquals(section.toString(), isExpected, changes.isChanged(section));
+		}
+	}
+
+	/**
+	 * Tests that a new player has not been stored.
+	 */
+	@Test
+	public void testInitial() {
+		assertChanged(player.getChanges(), Section.values());
+		player.getChanges().setStored();
+		assertChanged(player.getChanges());
+	}
+
+	/**
+	 * Tests that the changes are tracked by section.
+	 */
+	@Test
+	public void testSections() {
+		final PlayerChanges changes = player.getChanges();
+		changes.setStored();
+
+		player.setSentence("hello");
+		assertChanged(changes, Section.ATTRIBUTES);
+		changes.setStored();
+
+		final StackableItem money = (StackableItem) player.getFirstEquipped("money");
+		money.setQuantity(15);
+		assertChanged(changes, Section.SLOTS);
+		changes.setStored();
+
+		money.removeFromWorld();
+		assertChanged(changes, Section.SLOTS);
+		changes.setStored();
+
+		player.setQuest("changes_test", "done");
+		assertChanged(changes, Section.QUESTS, Section.SLOTS);
+		changes.setStored();
+
+		player.addBuddy("alice", false);
+		assertChanged(changes, Section.BUDDIES, Section.ATTRIBUTES);
+		changes.setStored();
+
+		player.addIgnore("eve", 0, null);
+		assertChanged(changes, Section.BUDDIES, Section.SLOTS);
+		changes.setStored();
+
+		changes.markAllChanged();
+		assertChanged(changes, Section.values());
+	}
+
+	/**
+	 * Tests that the attributes changing all the time during play do not
+	 * mark the attributes changed on their own.
+	 */
+	@Test
+	public void testVolatileAttributes() {
+		final PlayerChanges changes = player.getChanges();
+		changes.setStored();
+
+		player.setPosition(5, 6);
+		player.setHP(player.getHP() - 1);
+		player.setAge(player.getAge() + 1);
+		assertChanged(changes);
+
+		player.setSentence("hello");
+		assertChanged(changes, Section.ATTRIBUTES);
+	}
+
+	/**
+	 * Tests that a copy keeps the versions of the time it was made, and changes
+	 * after that remain unstored.
+	 */
+	@Test
+	public void testCopy() {
+		player.getChanges().setStored();
+		player.setSentence("before copy");
+
+		final Player copy = (Player) player.clone();
+		final PlayerChanges snapshot = copy.getChanges();
+		assertChanged(snapshot, Section.ATTRIBUTES);
+
+		// changes of the copy are not counted
+		copy.setSentence("changed copy");
+		assertChanged(player.getChanges(), Section.ATTRIBUTES);
+
+		player.setQuest("changes_test", "started");
+		snapshot.setStored();
+		assertChanged(player.getChanges(), Section.QUESTS, Section.SLOTS);
+		assertChanged(snapshot);
+	}
+
+	/**
+	 * Tests the remembered values of the last save.
+	 */
+	@Test
+	public void testStoredState() {
+		final PlayerChanges changes = player.getChanges();
+		assertNull(changes.getStoredStats());
+		assertNull(changes.getStoredRelations());
+
+		// Copies share the stored state
+		final PlayerChanges snapshot = ((Player) player.clone()).getChanges();
+		final Map<String, Object> stats = new HashMap<String, Object>();
+		snapshot.setStoredStats(stats);
+		assertSame(stats, changes.getStoredStats());
+	}
+}
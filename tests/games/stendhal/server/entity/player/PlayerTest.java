@@ -1,6 +1,6 @@
 /* $Id$ */
 /***************************************************************************
- *                   (C) Copyright 2003-2010 - Stendhal                    *
+ *                   (C) Copyright 2003-2026 - Stendhal                    *
  ***************************************************************************
  ***************************************************************************
  *                                                                         *
@@ -363,6 +363,32 @@ public class PlayerTest {
 
 	}
 
+	/**
+	 * Tests that sub states follow changes made directly to the quest slot.
+	 */
+	@Test
+	public void testQuestSubStates() {
+		Player player = PlayerTestHelper.createPlayer("questTestPlayer");
+		assertThat(player.getQuestSubStateCount("testquest"), is(0));
+
+		player.setQuest("testquest", "a;b;;");
+		assertThat(player.getQuestSubStateCount("testquest"), is(2));
+		assertThat(player.getQuest("testquest", 1), equalTo("b"));
+		assertThat(player.getQuest("testquest", 2), equalTo(""));
+
+		player.setKeyedSlot("!quests", "testquest", "c;d;e");
+		assertThat(player.getQuestSubStateCount("testquest"), is(3));
+		assertThat(player.getQuest("testquest", 1), equalTo("d"));
+
+		player.setQuest("testquest", 4, "f");
+		assertThat(player.getQuest("testquest"), equalTo("c;d;e;;f"));
+		assertThat(player.getQuest("testquest", 4), equalTo("f"));
+
+		player.removeQuest("testquest");
+		assertThat(player.getQuest("testquest", 0), nullValue());
+		assertThat(player.getQuestSubStateCount("testquest"), is(0));
+	}
+
 	/**
 	 * Test that the damage done by a player is of right type.
 	 */